@@ -0,0 +1,29 @@
+package com.example.api.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Instant;
+
+/**
+ * Upstream response kept by the gateway: status, end-to-end headers and the full body.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Instant storedAt,
+                             Instant expiresAt) {
+
+    public String etag() {
+        return headers.getETag();
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    // Taille comptée pour l'éviction : le corps plus une estimation des en-têtes.
+    public int weight() {
+        int headerBytes = headers.entrySet().stream()
+                .mapToInt(entry -> entry.getKey().length() + entry.getValue().stream().mapToInt(String::length).sum())
+                .sum();
+        return body.length + headerBytes;
+    }
+}
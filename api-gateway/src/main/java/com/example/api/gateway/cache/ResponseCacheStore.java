@@ -0,0 +1,81 @@
+package com.example.api.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * In-memory store of gateway responses, bounded by the total size of what it holds rather than
+ * by a number of entries: once {@code maxBytes} is reached the least recently used responses are
+ * evicted. Each entry expires at its own {@link CachedResponse#expiresAt()}.
+ */
+public class ResponseCacheStore {
+
+    private final Cache<String, CachedResponse> cache;
+
+    private final Clock clock;
+
+    public ResponseCacheStore(long maxBytes, Clock clock, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return Math.max(0, Duration.between(clock.instant(), response.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, response, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .executor(Runnable::run)
+                .build();
+
+        Gauge.builder("gateway.cache.size", cache, store -> store.policy().eviction()
+                        .flatMap(eviction -> eviction.weightedSize().stream().boxed().findFirst())
+                        .orElse(0L))
+                .description("Bytes held by the gateway response cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.entries", cache, Cache::estimatedSize)
+                .description("Responses held by the gateway response cache")
+                .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key) {
+        CachedResponse response = cache.getIfPresent(key);
+        if (response != null && response.isExpired(clock.instant())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return response;
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.api.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "loadbalancer.latency-aware")
+public class LatencyAwareLoadBalancerProperties {
+
+    // Temps au bout duquel une mesure de latence a perdu l'essentiel de son poids.
+    private Duration decay = Duration.ofSeconds(10);
+
+    // Latence minimale comptée pour une erreur ou une réponse 5xx.
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    public Duration getDecay() {
+        return decay;
+    }
+
+    public void setDecay(Duration decay) {
+        this.decay = decay;
+    }
+
+    public Duration getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    public void setFailurePenalty(Duration failurePenalty) {
+        this.failurePenalty = failurePenalty;
+    }
+}
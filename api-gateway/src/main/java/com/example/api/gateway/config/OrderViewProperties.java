@@ -0,0 +1,37 @@
+package com.example.api.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.views.order")
+public class OrderViewProperties {
+
+    // Délai appliqué aux appels qui n'ont pas d'entrée dans timeouts.
+    private Duration defaultTimeout = Duration.ofSeconds(1);
+
+    // Délai par appel : order, cargo, customer, payment, product.
+    private Map<String, Duration> timeouts = new HashMap<>();
+
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public void setDefaultTimeout(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public Map<String, Duration> getTimeouts() {
+        return timeouts;
+    }
+
+    public void setTimeouts(Map<String, Duration> timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    public Duration timeout(String leg) {
+        return timeouts.getOrDefault(leg, defaultTimeout);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.api.gateway.config;
+
+import com.example.api.gateway.cache.ResponseCacheStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    // Un seul magasin partagé par toutes les routes qui utilisent le filtre ResponseCache.
+    @Bean
+    public ResponseCacheStore responseCacheStore(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ResponseCacheStore(properties.getMaxSize().toBytes(), Clock.systemUTC(), meterRegistry);
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.api.gateway.filter;
+
+import com.example.api.gateway.cache.CachedResponse;
+import com.example.api.gateway.cache.ResponseCacheStore;
+import com.example.api.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Caches GET responses of a route in the shared {@link ResponseCacheStore}.
+ * <p>
+ * A response is kept for {@code s-maxage} or {@code max-age} when the backend sends one, for the
+ * route {@code ttl} otherwise; {@code no-store}, {@code no-cache}, {@code private}, {@code Set-Cookie}
+ * and streamed responses are never kept. Entries are keyed on {@code Accept} and {@code Accept-Encoding},
+ * so a compressed body is only served to clients that asked for it; a response that varies on any
+ * other request header is not kept. Stored responses carry an ETag (the backend's, or one
+ * computed from the body) and a client sending it back in {@code If-None-Match} gets a 304.
+ * Identical requests arriving while the first one is still upstream wait for its response
+ * instead of each going to a backend replica; if that response cannot be cached they go upstream.
+ * <p>
+ * Usage on a route: {@code - ResponseCache=10s} or {@code name: ResponseCache} with {@code ttl}
+ * and {@code coalesce} arguments.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheGatewayFilterFactory.class);
+
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING,
+            "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.UPGRADE);
+
+    // En-têtes de requête inclus dans la clé : un Vary sur un autre en-tête rend la réponse non cachable.
+    private static final List<String> KEY_HEADERS = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+    private static final List<MediaType> STREAMING_TYPES = List.of(MediaType.APPLICATION_NDJSON,
+            MediaType.TEXT_EVENT_STREAM);
+
+    private final ResponseCacheStore store;
+
+    private final ResponseCacheProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, RouteStats> routeStats = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheStore store, ResponseCacheProperties properties,
+                                             MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.store = store;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    // Placé juste avant NettyWriteResponseFilter pour pouvoir lire le corps renvoyé par le backend.
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain,
+                              Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        RouteStats stats = statsFor(routeId(exchange));
+        if (!isCacheable(request)) {
+            stats.bypass.increment();
+            return chain.filter(exchange);
+        }
+
+        String key = key(stats.routeId, request);
+        CachedResponse cached = store.get(key);
+        if (cached != null) {
+            stats.served(stats.hits, cached);
+            return write(exchange, cached, "HIT");
+        }
+        if (!config.isCoalesce()) {
+            stats.misses.increment();
+            return fetch(exchange, chain, key, config, null);
+        }
+
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            // Même requête déjà en cours : on attend sa réponse, ou on part vers le backend si elle n'est pas cachable.
+            return leader.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(response -> {
+                        if (response.isPresent()) {
+                            stats.served(stats.coalesced, response.get());
+                            return write(exchange, response.get(), "COALESCED");
+                        }
+                        stats.misses.increment();
+                        return chain.filter(exchange);
+                    });
+        }
+
+        // Une requête précédente a pu remplir le cache entre la lecture et la prise du rôle de meneur.
+        cached = store.get(key);
+        if (cached != null) {
+            inFlight.remove(key, sink);
+            sink.tryEmitValue(cached);
+            stats.served(stats.hits, cached);
+            return write(exchange, cached, "HIT");
+        }
+        stats.misses.increment();
+        return fetch(exchange, chain, key, config, sink);
+    }
+
+    private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain,
+                             String key, Config config, Sinks.One<CachedResponse> sink) {
+        Instant requestedAt = store.now();
+        AtomicBoolean settled = new AtomicBoolean();
+        Runnable notCached = () -> settle(key, sink, settled, null);
+        ServerHttpResponse original = exchange.getResponse();
+        original.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+        ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                Duration ttl = ttl(getStatusCode(), getHeaders(), config);
+                if (ttl == null) {
+                    notCached.run();
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+
+                    CachedResponse response = null;
+                    if (bytes.length <= properties.getMaxEntrySize().toBytes()) {
+                        if (getHeaders().getETag() == null) {
+                            getHeaders().setETag("W/\"" + DigestUtils.md5DigestAsHex(bytes) + "\"");
+                        }
+                        response = new CachedResponse(getStatusCode(), storedHeaders(getHeaders(), bytes.length),
+                                bytes, requestedAt, requestedAt.plus(ttl));
+                        store.put(key, response);
+                    }
+                    settle(key, sink, settled, response);
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                notCached.run();
+                return super.writeAndFlushWith(body);
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(decorated).build())
+                .doFinally(signal -> notCached.run());
+    }
+
+    private void settle(String key, Sinks.One<CachedResponse> sink, AtomicBoolean settled, CachedResponse response) {
+        if (sink == null || !settled.compareAndSet(false, true)) {
+            return;
+        }
+        inFlight.remove(key, sink);
+        if (response != null) {
+            sink.tryEmitValue(response);
+        } else {
+            sink.tryEmitEmpty();
+        }
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached,
+                             String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.set(HttpHeaders.AGE, String.valueOf(Duration.between(cached.storedAt(), store.now()).toSeconds()));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (matches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    // Durée de conservation de la réponse, ou null si elle ne doit pas être mise en cache.
+    Duration ttl(HttpStatusCode status, HttpHeaders headers, Config config) {
+        if (status == null || status.value() != HttpStatus.OK.value()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || !variesOnKeyHeadersOnly(headers)) {
+            return null;
+        }
+        MediaType contentType = headers.getContentType();
+        if (contentType != null && STREAMING_TYPES.stream().anyMatch(contentType::isCompatibleWith)) {
+            return null;
+        }
+
+        Duration ttl = config.getTtl();
+        Long maxAge = null;
+        Long sharedMaxAge = null;
+        for (String directive : directives(headers)) {
+            if (directive.equals("no-store") || directive.equals("no-cache") || directive.equals("private")) {
+                return null;
+            }
+            if (directive.startsWith("max-age=")) {
+                maxAge = seconds(directive.substring("max-age=".length()));
+            } else if (directive.startsWith("s-maxage=")) {
+                sharedMaxAge = seconds(directive.substring("s-maxage=".length()));
+            }
+        }
+        if (sharedMaxAge != null) {
+            ttl = Duration.ofSeconds(sharedMaxAge);
+        } else if (maxAge != null) {
+            ttl = Duration.ofSeconds(maxAge);
+        }
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    private static boolean variesOnKeyHeadersOnly(HttpHeaders headers) {
+        return headers.getVary().stream()
+                .allMatch(name -> KEY_HEADERS.stream().anyMatch(name::equalsIgnoreCase));
+    }
+
+    private static boolean isCacheable(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return false;
+        }
+        return directives(request.getHeaders()).stream()
+                .noneMatch(directive -> directive.equals("no-store") || directive.equals("no-cache"));
+    }
+
+    private static List<String> directives(HttpHeaders headers) {
+        return headers.getOrEmpty(HttpHeaders.CACHE_CONTROL).stream()
+                .flatMap(value -> Set.of(value.split(",")).stream())
+                .map(directive -> directive.trim().toLowerCase())
+                .toList();
+    }
+
+    private static Long seconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        if (etag == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String weakless = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return ifNoneMatch.stream().anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag)
+                || candidate.equals(weakless) || candidate.equals("W/" + weakless));
+    }
+
+    private static HttpHeaders storedHeaders(HttpHeaders responseHeaders, int contentLength) {
+        HttpHeaders headers = new HttpHeaders();
+        responseHeaders.forEach((name, values) -> {
+            if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)
+                    && !name.equalsIgnoreCase(CACHE_STATUS_HEADER)) {
+                headers.addAll(name, values);
+            }
+        });
+        headers.setContentLength(contentLength);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private static String key(String routeId, ServerHttpRequest request) {
+        return routeId + ' ' + request.getURI().getRawPath()
+                + (request.getURI().getRawQuery() == null ? "" : "?" + request.getURI().getRawQuery())
+                + KEY_HEADERS.stream()
+                .map(name -> '|' + String.join(",", request.getHeaders().getOrEmpty(name)))
+                .collect(Collectors.joining());
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route == null ? "unknown" : route.getId();
+    }
+
+    private RouteStats statsFor(String routeId) {
+        return routeStats.computeIfAbsent(routeId, id -> {
+            log.info("ResponseCacheGatewayFilterFactory - response cache enabled for route {}", id);
+            return new RouteStats(id, meterRegistry);
+        });
+    }
+
+    /**
+     * Per-route counters: lookups by outcome, bytes sent without an upstream call, and the
+     * share of cacheable requests that did not reach a backend.
+     */
+    static final class RouteStats {
+
+        private final String routeId;
+
+        private final Counter hits;
+
+        private final Counter coalesced;
+
+        private final Counter misses;
+
+        private final Counter bypass;
+
+        private final Counter bytesSaved;
+
+        private final LongAdder served = new LongAdder();
+
+        RouteStats(String routeId, MeterRegistry meterRegistry) {
+            this.routeId = routeId;
+            this.hits = requests(meterRegistry, routeId, "hit");
+            this.coalesced = requests(meterRegistry, routeId, "coalesced");
+            this.misses = requests(meterRegistry, routeId, "miss");
+            this.bypass = requests(meterRegistry, routeId, "bypass");
+            this.bytesSaved = Counter.builder("gateway.cache.bytes.saved")
+                    .description("Response bytes sent from the gateway cache instead of a backend")
+                    .baseUnit("bytes")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.cache.hit.ratio", this, RouteStats::hitRatio)
+                    .description("Share of cacheable requests answered without an upstream call")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        private static Counter requests(MeterRegistry meterRegistry, String routeId, String result) {
+            return Counter.builder("gateway.cache.requests")
+                    .description("Requests seen by the response cache filter")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        void served(Counter counter, CachedResponse response) {
+            counter.increment();
+            served.increment();
+            bytesSaved.increment(response.body().length);
+        }
+
+        double hitRatio() {
+            double total = served.sum() + misses.count();
+            return total == 0 ? 0 : served.sum() / total;
+        }
+    }
+
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        private boolean coalesce = true;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public boolean isCoalesce() {
+            return coalesce;
+        }
+
+        public void setCoalesce(boolean coalesce) {
+            this.coalesce = coalesce;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.api.gateway.view;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Outcome of one backend call of a composite view: the body when the call succeeded,
+ * otherwise why it is missing.
+ */
+public record LegResult(String leg, LegStatus status, JsonNode body, String message) {
+
+    public static LegResult ok(String leg, JsonNode body) {
+        return new LegResult(leg, LegStatus.OK, body, null);
+    }
+
+    public static LegResult failed(String leg, LegStatus status, String message) {
+        return new LegResult(leg, status, null, message);
+    }
+
+    public boolean isOk() {
+        return status == LegStatus.OK;
+    }
+
+    public String text(String field) {
+        return body == null || !body.hasNonNull(field) ? null : body.get(field).asText();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.api.gateway.view;
+
+public enum LegStatus {
+    OK,
+    NOT_FOUND,
+    TIMEOUT,
+    ERROR,
+    SKIPPED
+}
@@ -0,0 +1,16 @@
+package com.example.api.gateway.view;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Everything an order detail page needs, in one document. A section is null when its call
+ * failed; {@code partial} is then true and {@code errors} says which calls are missing and why.
+ */
+public record OrderView(String orderId, boolean partial, JsonNode order, JsonNode payment, JsonNode cargo,
+                        JsonNode customer, JsonNode product, List<LegError> errors) {
+
+    public record LegError(String leg, LegStatus status, String message) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.api.gateway.view;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+// Vues composées pour le front : un seul aller-retour au lieu d'un appel par service.
+@RestController
+@RequestMapping("/api/v1/views")
+public class OrderViewController {
+
+    private final OrderViewService orderViewService;
+
+    public OrderViewController(OrderViewService orderViewService) {
+        this.orderViewService = orderViewService;
+    }
+
+    @GetMapping("/orders/{orderId}")
+    public Mono<ResponseEntity<OrderView>> getOrderView(@PathVariable("orderId") String orderId) {
+        return orderViewService.getOrderView(orderId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.api.gateway.view;
+
+import com.example.api.gateway.config.OrderViewProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Builds the order detail view from the five services in two parallel waves: the order, its cargo
+ * and its payment first, then product and customer, whose ids come from the order and the cargo.
+ * Each call has its own timeout and a failed call only leaves its section empty; the view is
+ * only refused when the order itself does not exist.
+ */
+@Service
+public class OrderViewService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderViewService.class);
+
+    static final String ORDER = "order";
+    static final String CARGO = "cargo";
+    static final String PRODUCT = "product";
+    static final String CUSTOMER = "customer";
+    static final String PAYMENT = "payment";
+
+    private final WebClient webClient;
+
+    private final OrderViewProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public OrderViewService(WebClient.Builder loadBalancedWebClientBuilder, OrderViewProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.webClient = loadBalancedWebClientBuilder.build();
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Mono vide si la commande n'existe pas.
+    public Mono<OrderView> getOrderView(String orderId) {
+        log.info("OrderViewService::getOrderView started - order id: {}", orderId);
+
+        Mono<LegResult> order = call(ORDER, "http://ORDER-SERVICE/api/v1/orders/{id}", orderId).cache();
+        Mono<LegResult> cargo = call(CARGO, "http://CARGO-SERVICE/api/v1/cargo/order/{orderId}", orderId).cache();
+        Mono<LegResult> payment = call(PAYMENT, "http://PAYMENT-SERVICE/api/v1/payments/order/{orderId}", orderId);
+
+        Mono<LegResult> product = order.flatMap(result -> result.text("productId") == null
+                ? skipped(PRODUCT, ORDER)
+                : call(PRODUCT, "http://PRODUCT-SERVICE/api/v1/products/{id}", result.text("productId")));
+        Mono<LegResult> customer = cargo.flatMap(result -> result.text("customerId") == null
+                ? skipped(CUSTOMER, CARGO)
+                : call(CUSTOMER, "http://CUSTOMER-SERVICE/api/v1/customers/{id}", result.text("customerId")));
+
+        return Mono.zip(order, cargo, product, customer, payment)
+                .flatMap(legs -> {
+                    if (legs.getT1().status() == LegStatus.NOT_FOUND) {
+                        return Mono.empty();
+                    }
+                    List<OrderView.LegError> errors = Stream.of(legs.getT1(), legs.getT2(), legs.getT3(),
+                                    legs.getT4(), legs.getT5())
+                            .filter(leg -> !leg.isOk())
+                            .map(leg -> new OrderView.LegError(leg.leg(), leg.status(), leg.message()))
+                            .toList();
+                    if (!errors.isEmpty()) {
+                        log.warn("OrderViewService::getOrderView partial view for order id: {} - missing: {}", orderId,
+                                errors.stream().map(OrderView.LegError::leg).toList());
+                    }
+                    return Mono.just(new OrderView(orderId, !errors.isEmpty(), legs.getT1().body(),
+                            legs.getT5().body(), legs.getT2().body(), legs.getT4().body(), legs.getT3().body(), errors));
+                });
+    }
+
+    private Mono<LegResult> call(String leg, String uri, String id) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return webClient.get()
+                .uri(uri, id)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(properties.timeout(leg))
+                .map(body -> LegResult.ok(leg, body))
+                .defaultIfEmpty(LegResult.failed(leg, LegStatus.NOT_FOUND, "Empty response"))
+                .onErrorResume(e -> Mono.just(failure(leg, e)))
+                .doOnNext(result -> sample.stop(Timer.builder("gateway.view.leg")
+                        .description("Backend calls made to build a composite view")
+                        .tag("view", "order")
+                        .tag("leg", leg)
+                        .tag("status", result.status().name())
+                        .register(meterRegistry)));
+    }
+
+    private static LegResult failure(String leg, Throwable e) {
+        if (e instanceof WebClientResponseException.NotFound) {
+            return LegResult.failed(leg, LegStatus.NOT_FOUND, "Not found");
+        }
+        if (e instanceof TimeoutException) {
+            return LegResult.failed(leg, LegStatus.TIMEOUT, "No response within the leg timeout");
+        }
+        log.error("OrderViewService::call {} failed: {}", leg, e.getMessage());
+        return LegResult.failed(leg, LegStatus.ERROR, Objects.toString(e.getMessage(), e.getClass().getSimpleName()));
+    }
+
+    private static Mono<LegResult> skipped(String leg, String dependsOn) {
+        return Mono.just(LegResult.failed(leg, LegStatus.SKIPPED, "Needs the " + dependsOn + " section"));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.api.gateway.filter;
+
+import com.example.api.gateway.cache.ResponseCacheStore;
+import com.example.api.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "[{\"id\":\"p1\"}]";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheStore store = new ResponseCacheStore(1024 * 1024, Clock.systemUTC(), meterRegistry);
+        ResponseCacheGatewayFilterFactory factory = new ResponseCacheGatewayFilterFactory(store,
+                new ResponseCacheProperties(), meterRegistry);
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(Duration.ofMinutes(1));
+        filter = factory.apply(config);
+    }
+
+    @Test
+    void repeatedGetIsServedFromCache() {
+        MockServerWebExchange first = get();
+        filter.filter(first, upstream(null, Mono.empty())).block();
+        MockServerWebExchange second = get();
+        filter.filter(second, upstream(null, Mono.empty())).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(BODY, second.getResponse().getBodyAsString().block());
+        assertEquals(1.0 / 2, meterRegistry.get("gateway.cache.hit.ratio").tag("route", "PRODUCT-SERVICE").gauge().value());
+        assertEquals(BODY.length(), meterRegistry.get("gateway.cache.bytes.saved").counter().count());
+    }
+
+    @Test
+    void concurrentIdenticalGetsMakeOneUpstreamCall() {
+        Sinks.Empty<Void> upstreamDone = Sinks.empty();
+        List<MockServerWebExchange> exchanges = List.of(get(), get(), get());
+        List<Mono<Void>> responses = exchanges.stream()
+                .map(exchange -> filter.filter(exchange, upstream(null, upstreamDone.asMono())).cache())
+                .toList();
+        responses.forEach(Mono::subscribe);
+
+        upstreamDone.tryEmitEmpty();
+        responses.forEach(Mono::block);
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("COALESCED", exchanges.get(2).getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(BODY, exchanges.get(2).getResponse().getBodyAsString().block());
+        assertEquals(2, meterRegistry.get("gateway.cache.requests").tag("result", "coalesced").counter().count());
+    }
+
+    @Test
+    void matchingIfNoneMatchGetsNotModified() {
+        MockServerWebExchange first = get();
+        filter.filter(first, upstream(null, Mono.empty())).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidation = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/v1/products").header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE).ifNoneMatch(etag));
+        revalidation.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+        filter.filter(revalidation, upstream(null, Mono.empty())).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void noStoreResponseIsNotCached() {
+        filter.filter(get(), upstream("no-store", Mono.empty())).block();
+        MockServerWebExchange second = get();
+        filter.filter(second, upstream("no-store", Mono.empty())).block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertNull(second.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void gzipBodyIsNotServedToAClientThatDidNotAskForIt() {
+        MockServerWebExchange acceptsGzip = get(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        filter.filter(acceptsGzip, compressingUpstream()).block();
+        MockServerWebExchange identity = get();
+        filter.filter(identity, compressingUpstream()).block();
+        MockServerWebExchange acceptsGzipAgain = get(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        filter.filter(acceptsGzipAgain, compressingUpstream()).block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("MISS", identity.getResponse().getHeaders().getFirst("X-Cache"));
+        assertNull(identity.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, identity.getResponse().getBodyAsString().block());
+        assertEquals("HIT", acceptsGzipAgain.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("gzip", acceptsGzipAgain.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void responseVaryingOnAnotherHeaderIsNotCached() {
+        GatewayFilterChain variesOnLanguage = exchange -> {
+            exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+            return upstream(null, Mono.empty()).filter(exchange);
+        };
+        filter.filter(get(HttpHeaders.ACCEPT_LANGUAGE, "fr"), variesOnLanguage).block();
+        MockServerWebExchange english = get(HttpHeaders.ACCEPT_LANGUAGE, "en");
+        filter.filter(english, variesOnLanguage).block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("MISS", english.getResponse().getHeaders().getFirst("X-Cache"));
+    }
+
+    // Comme product-service et cargo-service avec server.compression : gzip seulement si le client l'accepte.
+    private GatewayFilterChain compressingUpstream() {
+        return exchange -> {
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            if (exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING).contains("gzip")) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return upstream(null, Mono.empty()).filter(exchange);
+        };
+    }
+
+    private GatewayFilterChain upstream(String cacheControl, Mono<Void> delay) {
+        return exchange -> delay.then(Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (cacheControl != null) {
+                exchange.getResponse().getHeaders().setCacheControl(cacheControl);
+            }
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                    .wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        }));
+    }
+
+    private static MockServerWebExchange get() {
+        return exchange(MockServerHttpRequest.get("/api/v1/products")
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE));
+    }
+
+    private static MockServerWebExchange get(String header, String value) {
+        return exchange(MockServerHttpRequest.get("/api/v1/products")
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .header(header, value));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+        return exchange;
+    }
+
+    private static Route route() {
+        return Route.async().id("PRODUCT-SERVICE").uri("lb://PRODUCT-SERVICE").predicate(exchange -> true).build();
+    }
+}
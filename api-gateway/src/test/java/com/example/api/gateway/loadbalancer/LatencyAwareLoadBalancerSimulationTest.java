@@ -0,0 +1,164 @@
+package com.example.api.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends the same load through round-robin and through {@link LatencyAwareLoadBalancer} to five
+ * local stub instances, one of which answers 20 times slower than the others, and compares
+ * the share of requests it receives and the p95 seen by callers. The latency-aware balancer still
+ * probes the slow instance now and then, so the comparison stays below its remaining share of traffic.
+ */
+class LatencyAwareLoadBalancerSimulationTest {
+
+    private static final int CALLERS = 8;
+
+    private static final int REQUESTS = 3000;
+
+    private static final List<ServiceInstance> INSTANCES = List.of(
+            instance("fast-1"), instance("fast-2"), instance("fast-3"), instance("fast-4"), instance("slow"));
+
+    private static final Map<String, Long> LATENCY_MILLIS = Map.of(
+            "fast-1", 2L, "fast-2", 2L, "fast-3", 2L, "fast-4", 2L, "slow", 40L);
+
+    @Test
+    void slowInstanceIsAvoidedAndTailLatencyDrops() throws Exception {
+        SimulationResult roundRobin = simulate(new RoundRobinLoadBalancer(supplier(), "STUB-SERVICE"), null);
+        InstanceLatencyStats stats = new InstanceLatencyStats(Duration.ofSeconds(10), Duration.ofSeconds(1),
+                System::nanoTime);
+        SimulationResult latencyAware = simulate(new LatencyAwareLoadBalancer(supplier(), "STUB-SERVICE", stats),
+                new LatencyTrackingLifecycle(stats));
+
+        System.out.printf("round-robin:   slow share %.1f%%, p95 %d ms%n", roundRobin.slowShare() * 100,
+                roundRobin.p95Millis());
+        System.out.printf("latency-aware: slow share %.1f%%, p95 %d ms%n", latencyAware.slowShare() * 100,
+                latencyAware.p95Millis());
+
+        assertTrue(roundRobin.slowShare() > 0.15);
+        assertTrue(latencyAware.slowShare() < 0.05);
+        assertTrue(latencyAware.p95Millis() * 2 < roundRobin.p95Millis());
+    }
+
+    @Test
+    void slowInstanceIsProbedAgainOnceItsLatencyHasFaded() {
+        AtomicLong clock = new AtomicLong();
+        InstanceLatencyStats stats = new InstanceLatencyStats(Duration.ofSeconds(10), Duration.ofSeconds(1),
+                clock::get);
+        ServiceInstance fast = INSTANCES.get(0);
+        ServiceInstance slow = INSTANCES.get(4);
+        stats.start(fast);
+        stats.complete(fast, Duration.ofMillis(2).toNanos(), false);
+        stats.start(slow);
+        stats.complete(slow, Duration.ofMillis(500).toNanos(), false);
+        assertTrue(stats.cost(slow) > stats.cost(fast));
+
+        // Sans trafic pendant une minute, la pointe s'efface et l'instance redevient candidate.
+        clock.addAndGet(Duration.ofSeconds(60).toNanos());
+        assertTrue(stats.cost(slow) < Duration.ofMillis(2).toNanos());
+    }
+
+    @Test
+    void failureCountsAtLeastThePenalty() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(Duration.ofSeconds(10), Duration.ofSeconds(1), () -> 0);
+        ServiceInstance instance = INSTANCES.get(0);
+        stats.start(instance);
+        assertEquals(1, stats.inFlight(instance));
+        stats.complete(instance, Duration.ofMillis(3).toNanos(), true);
+
+        assertEquals(0, stats.inFlight(instance));
+        assertEquals(Duration.ofSeconds(1).toNanos(), stats.cost(instance));
+    }
+
+    private static SimulationResult simulate(ReactorServiceInstanceLoadBalancer loadBalancer,
+                                             LatencyTrackingLifecycle lifecycle) throws Exception {
+        Map<String, LongAdder> requestsPerInstance = new ConcurrentHashMap<>();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                done.add(callers.submit(() -> {
+                    Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+                    long start = System.nanoTime();
+                    Response<ServiceInstance> response = loadBalancer.choose(request).block();
+                    ServiceInstance instance = response.getServer();
+                    if (lifecycle != null) {
+                        lifecycle.onStartRequest(request, response);
+                    }
+                    sleep(LATENCY_MILLIS.get(instance.getInstanceId()));
+                    if (lifecycle != null) {
+                        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+                    }
+                    latencies.add(System.nanoTime() - start);
+                    requestsPerInstance.computeIfAbsent(instance.getInstanceId(), id -> new LongAdder()).increment();
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        List<Long> sorted = latencies.stream().sorted().toList();
+        long slow = requestsPerInstance.getOrDefault("slow", new LongAdder()).sum();
+        return new SimulationResult((double) slow / REQUESTS,
+                Duration.ofNanos(sorted.get((int) (sorted.size() * 0.95) - 1)).toMillis());
+    }
+
+    private static ObjectProvider<ServiceInstanceListSupplier> supplier() {
+        return new SimpleObjectProvider<>(new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "STUB-SERVICE";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(INSTANCES);
+            }
+        });
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "STUB-SERVICE", id + ".local", 8080, false);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record SimulationResult(double slowShare, long p95Millis) {
+    }
+}
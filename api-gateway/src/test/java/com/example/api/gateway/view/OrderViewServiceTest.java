@@ -0,0 +1,112 @@
+package com.example.api.gateway.view;
+
+import com.example.api.gateway.config.OrderViewProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderViewServiceTest {
+
+    private final Map<String, Mono<ClientResponse>> backends = new HashMap<>(Map.of(
+            "/api/v1/orders/o1", json("{\"id\":\"o1\",\"productId\":\"p1\"}"),
+            "/api/v1/cargo/order/o1", json("{\"id\":\"c1\",\"orderId\":\"o1\",\"customerId\":\"cu1\"}"),
+            "/api/v1/products/p1", json("{\"id\":\"p1\",\"name\":\"Laptop\"}"),
+            "/api/v1/customers/cu1", json("{\"id\":\"cu1\"}"),
+            "/api/v1/payments/order/o1", json("{\"id\":\"pay1\",\"orderId\":\"o1\"}")));
+
+    @Test
+    void allSectionsAreMergedIntoOneView() {
+        StepVerifier.create(service().getOrderView("o1"))
+                .assertNext(view -> {
+                    assertFalse(view.partial());
+                    assertEquals("Laptop", view.product().get("name").asText());
+                    assertEquals("pay1", view.payment().get("id").asText());
+                    assertEquals("cu1", view.customer().get("id").asText());
+                    assertTrue(view.errors().isEmpty());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void slowLegIsLeftOutAfterItsTimeout() {
+        backends.put("/api/v1/products/p1", json("{\"id\":\"p1\"}").delayElement(Duration.ofSeconds(5)));
+
+        StepVerifier.create(service().getOrderView("o1"))
+                .assertNext(view -> {
+                    assertTrue(view.partial());
+                    assertNull(view.product());
+                    assertEquals("pay1", view.payment().get("id").asText());
+                    assertEquals(LegStatus.TIMEOUT, view.errors().get(0).status());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void missingCargoOnlySkipsCustomer() {
+        backends.put("/api/v1/cargo/order/o1", Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build()));
+
+        StepVerifier.create(service().getOrderView("o1"))
+                .assertNext(view -> {
+                    assertTrue(view.partial());
+                    assertEquals("Laptop", view.product().get("name").asText());
+                    assertEquals("pay1", view.payment().get("id").asText());
+                    assertEquals(2, view.errors().size());
+                    assertEquals(LegStatus.SKIPPED, view.errors().get(1).status());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void paymentIsFetchedWithoutWaitingForTheCargo() {
+        backends.put("/api/v1/cargo/order/o1", json("{\"id\":\"c1\",\"customerId\":\"cu1\"}")
+                .delayElement(Duration.ofSeconds(5)));
+
+        StepVerifier.create(service().getOrderView("o1"))
+                .assertNext(view -> {
+                    assertEquals("pay1", view.payment().get("id").asText());
+                    assertNull(view.cargo());
+                    assertEquals(List.of(OrderViewService.CARGO, OrderViewService.CUSTOMER),
+                            view.errors().stream().map(OrderView.LegError::leg).toList());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void unknownOrderGivesNoView() {
+        backends.put("/api/v1/orders/o1", Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build()));
+
+        StepVerifier.create(service().getOrderView("o1")).verifyComplete();
+    }
+
+    private OrderViewService service() {
+        OrderViewProperties properties = new OrderViewProperties();
+        properties.setDefaultTimeout(Duration.ofMillis(200));
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request ->
+                backends.getOrDefault(request.url().getPath(),
+                        Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build())));
+        return new OrderViewService(builder, properties, new SimpleMeterRegistry());
+    }
+
+    private static Mono<ClientResponse> json(String body) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+}
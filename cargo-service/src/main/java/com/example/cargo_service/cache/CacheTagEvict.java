@@ -0,0 +1,23 @@
+package com.example.cargo_service.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Evicts every entry tagged with one of {@link #tags()} from the given caches once the method
+ * has returned (after commit when a transaction is active).
+ * Tags are SpEL expressions evaluated against the method arguments and {@code #result};
+ * an expression may return a collection, and null values are ignored.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheTagEvict {
+
+    String[] cacheNames();
+
+    String[] tags();
+}
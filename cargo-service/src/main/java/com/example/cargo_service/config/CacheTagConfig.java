@@ -0,0 +1,25 @@
+package com.example.cargo_service.config;
+
+import com.example.cargo_service.cache.CacheTagResolver;
+import com.example.cargo_service.cache.CacheTagResolvers;
+import com.example.cargo_service.dto.CargoResponseDto;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Tags used by the cargo cache: cargo:{id} on every entry containing the cargo (by id, order id
+ * or tracking number) and all on the full list.
+ */
+@Configuration
+public class CacheTagConfig {
+
+    @Bean
+    public CacheTagResolvers cacheTagResolvers() {
+        return new CacheTagResolvers()
+                .register("cargo", CacheTagResolver.forEntity(CargoResponseDto.class,
+                        cargo -> List.of("cargo:" + cargo.getId()),
+                        key -> List.of("all")));
+    }
+}
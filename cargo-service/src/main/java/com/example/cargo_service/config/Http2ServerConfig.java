@@ -0,0 +1,31 @@
+package com.example.cargo_service.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Un client Feign en HTTP/2 fait passer tous ses appels par une seule connexion : les limites par connexion
+// de Tomcat (100 flux ouverts, 20 traités en même temps) deviennent celles du service entier.
+@Configuration
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+public class Http2ServerConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2StreamLimits(
+            @Value("${http2.max-concurrent-streams:1000}") int maxConcurrentStreams,
+            @Value("${server.tomcat.threads.max:200}") int maxThreads) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (upgradeProtocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxThreads);
+                }
+            }
+        });
+    }
+}
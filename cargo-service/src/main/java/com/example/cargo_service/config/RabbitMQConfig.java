@@ -0,0 +1,140 @@
+package com.example.cargo_service.config;
+
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Value("${rabbit.mq.order-events.exchange.name}")
+    private String orderEventsExchange;
+
+    @Value("${rabbit.mq.order-events.created.routing.key}")
+    private String orderCreatedRoutingKey;
+
+    @Value("${rabbit.mq.order-events.created.queue.name}")
+    private String orderCreatedQueue;
+
+    @Value("${rabbit.mq.order-events.created.dead-letter.exchange.name}")
+    private String orderCreatedDeadLetterExchange;
+
+    @Value("${rabbit.mq.order-events.created.dead-letter.queue.name}")
+    private String orderCreatedDeadLetterQueue;
+
+    @Value("${rabbit.mq.batch.size:100}")
+    private int batchSize;
+
+    @Value("${rabbit.mq.batch.receive-timeout:200}")
+    private long receiveTimeout;
+
+    @Value("${rabbit.mq.batch.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${rabbit.mq.batch.retry.initial-interval:1000}")
+    private long retryInitialInterval;
+
+    @Value("${rabbit.mq.batch.retry.max-interval:10000}")
+    private long retryMaxInterval;
+
+
+    // Un message rejeté sans remise en file part dans la DLQ au lieu d'être perdu.
+    @Bean
+    public Queue orderCreatedQueue() {
+        return QueueBuilder.durable(orderCreatedQueue)
+                .deadLetterExchange(orderCreatedDeadLetterExchange)
+                .deadLetterRoutingKey(orderCreatedDeadLetterQueue)
+                .build();
+    }
+
+
+    @Bean
+    public DirectExchange orderCreatedDeadLetterExchange() {
+        return new DirectExchange(orderCreatedDeadLetterExchange);
+    }
+
+
+    @Bean
+    public Queue orderCreatedDeadLetterQueue() {
+        return QueueBuilder.durable(orderCreatedDeadLetterQueue).build();
+    }
+
+
+    @Bean
+    public Binding orderCreatedDeadLetterBinding() {
+        return BindingBuilder
+                .bind(orderCreatedDeadLetterQueue())
+                .to(orderCreatedDeadLetterExchange())
+                .with(orderCreatedDeadLetterQueue);
+    }
+
+
+    // Met de côté un événement invalide, avec la cause de l'échec dans les en-têtes x-exception-*.
+    @Bean
+    public MessageRecoverer orderCreatedDeadLetterRecoverer(AmqpTemplate amqpTemplate) {
+        return new RepublishMessageRecoverer(amqpTemplate, orderCreatedDeadLetterExchange, orderCreatedDeadLetterQueue);
+    }
+
+
+    @Bean
+    public TopicExchange orderEventsExchange() {
+        return new TopicExchange(orderEventsExchange);
+    }
+
+
+    @Bean
+    public Binding orderCreatedBinding() {
+        return BindingBuilder
+                .bind(orderCreatedQueue())
+                .to(orderEventsExchange())
+                .with(orderCreatedRoutingKey);
+    }
+
+
+    @Bean
+    public MessageConverter converter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+
+    // Livre les événements par lots : le lot est remis dès qu'il est plein ou après receive-timeout sans nouveau message.
+    // Seules les erreurs passagères (base indisponible) sortent du listener : le lot est retenté sur place,
+    // puis remis en file pour qu'aucun événement ne soit perdu.
+    @Bean
+    public SimpleRabbitListenerContainerFactory cargoBatchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(converter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(Math.max(batchSize, 250));
+        factory.setReceiveTimeout(receiveTimeout);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(retryMaxAttempts)
+                .backOffOptions(retryInitialInterval, 2.0, retryMaxInterval)
+                .recoverer((MessageBatchRecoverer) (messages, cause) -> {
+                    throw new ImmediateRequeueAmqpException("Requeueing " + messages.size() + " order created events", cause);
+                })
+                .build());
+        return factory;
+    }
+}
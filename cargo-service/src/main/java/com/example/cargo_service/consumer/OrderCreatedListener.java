@@ -0,0 +1,94 @@
+package com.example.cargo_service.consumer;
+
+import com.example.cargo_service.dto.OrderCreatedEvent;
+import com.example.cargo_service.service.CargoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderCreatedListener {
+
+    private final CargoService cargoService;
+
+    private final MessageConverter messageConverter;
+
+    private final MessageRecoverer orderCreatedDeadLetterRecoverer;
+
+
+    // Un événement invalide est mis de côté seul ; une erreur passagère remonte et le lot entier est retenté.
+    @RabbitListener(queues = {"${rabbit.mq.order-events.created.queue.name}"}, containerFactory = "cargoBatchListenerContainerFactory")
+    public void receiveOrderCreatedEvents(List<Message> messages) {
+        log.info("RECEIVED BATCH -> {} order created events", messages.size());
+
+        List<Message> accepted = new ArrayList<>(messages.size());
+        List<OrderCreatedEvent> events = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                events.add(toEvent(message));
+                accepted.add(message);
+            } catch (MessageConversionException e) {
+                deadLetter(message, e);
+            }
+        }
+
+        try {
+            cargoService.createCargoForOrders(events);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            log.warn("Order created batch failed, processing its {} events one by one", events.size(), e);
+            for (int i = 0; i < events.size(); i++) {
+                createCargoForOrder(events.get(i), accepted.get(i));
+            }
+        }
+    }
+
+    private void createCargoForOrder(OrderCreatedEvent event, Message message) {
+        try {
+            cargoService.createCargoForOrders(List.of(event));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            deadLetter(message, e);
+        }
+    }
+
+    private OrderCreatedEvent toEvent(Message message) {
+        message.getMessageProperties().setInferredArgumentType(OrderCreatedEvent.class);
+        if (!(messageConverter.fromMessage(message) instanceof OrderCreatedEvent event) || event.getOrderId() == null) {
+            throw new MessageConversionException("Not an order created event");
+        }
+        return event;
+    }
+
+    private void deadLetter(Message message, Exception cause) {
+        log.error("Moving order created event to the dead letter queue - message id: {}",
+                message.getMessageProperties().getMessageId(), cause);
+        orderCreatedDeadLetterRecoverer.recover(message, cause);
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+}
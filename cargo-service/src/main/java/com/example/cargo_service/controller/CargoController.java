@@ -3,15 +3,20 @@ package com.example.cargo_service.controller;
 import com.example.cargo_service.dto.CargoRequestDto;
 import com.example.cargo_service.dto.CargoResponseDto;
 import com.example.cargo_service.dto.CargoUpdateRequestDto;
+import com.example.cargo_service.dto.CursorPageDto;
 import com.example.cargo_service.service.CargoService;
+import com.example.cargo_service.util.NdjsonStreamWriter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +27,8 @@ public class CargoController {
 
     private final CargoService cargoService;
 
+    private final NdjsonStreamWriter ndjsonStreamWriter;
+
     @PostMapping
     @Operation(summary = "Create a new cargo",
             description = "Creates a new cargo entry in the system.",
@@ -35,6 +42,19 @@ public class CargoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(cargo);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create several cargos",
+            description = "Creates one cargo entry per request in a single transaction.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Cargos created successfully",
+                            content = @Content(schema = @Schema(implementation = CargoResponseDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid input")
+            })
+    public ResponseEntity<List<CargoResponseDto>> createCargoBatch(@RequestBody List<CargoRequestDto> cargoRequestDtoList) {
+        List<CargoResponseDto> cargoList = cargoService.createCargoBatch(cargoRequestDtoList);
+        return ResponseEntity.status(HttpStatus.CREATED).body(cargoList);
+    }
+
     @GetMapping("/all")
     @Operation(summary = "Get all cargos",
             description = "Retrieves a list of all cargos.",
@@ -48,6 +68,24 @@ public class CargoController {
         return ResponseEntity.ok(cargoList);
     }
 
+    @GetMapping(value = "/all", params = "limit")
+    @Operation(summary = "Get a page of cargo", description = "Retrieves cargo ordered by ID, starting after the given cursor.")
+    @ApiResponse(responseCode = "200", description = "Page retrieved successfully")
+    public ResponseEntity<CursorPageDto<CargoResponseDto>> getCargoPage(
+            @RequestParam(required = false) @Parameter(description = "ID of the last item of the previous page") String after,
+            @RequestParam @Parameter(description = "Maximum number of items to return (1-1000)") int limit) {
+        return ResponseEntity.ok(cargoService.getCargoPage(after, limit));
+    }
+
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all cargo", description = "Streams every entry as newline-delimited JSON, ordered by ID.")
+    @ApiResponse(responseCode = "200", description = "Stream started successfully")
+    public ResponseEntity<StreamingResponseBody> streamAllCargo() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamWriter.write(cargoService::streamAllCargo));
+    }
+
     @GetMapping("/{cargoId}")
     @Operation(summary = "Get cargo by ID",
             description = "Retrieves a cargo entry by its ID.",
@@ -0,0 +1,23 @@
+package com.example.cargo_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Published by order-service once an order has been validated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderCreatedEvent implements Serializable {
+
+    private String orderId;
+    private String customerId;
+    private LocalDateTime createdAt;
+}
@@ -1,15 +1,33 @@
 package com.example.cargo_service.repository;
 
 import com.example.cargo_service.model.Cargo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CargoRepository extends JpaRepository<Cargo, String> {
 
+    List<Cargo> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Curseur côté serveur (useCursorFetch=true) : les lignes sont lues par blocs au lieu de charger toute la table.
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Cargo> streamAllByOrderByIdAsc();
+
     Optional<Cargo> findByOrderId(String orderId);
 
+    @Query("select c.orderId from Cargo c where c.orderId in :orderIds")
+    List<String> findOrderIdsIn(@Param("orderIds") Collection<String> orderIds);
+
     Optional<Cargo> findCargoByTrackingNumber(String trackingNumber);
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.example.cargo_service.service;
 
+import com.example.cargo_service.cache.CacheTagEvict;
 import com.example.cargo_service.dto.CargoRequestDto;
 import com.example.cargo_service.dto.CargoResponseDto;
 import com.example.cargo_service.dto.CargoUpdateRequestDto;
+import com.example.cargo_service.dto.CursorPageDto;
+import com.example.cargo_service.dto.OrderCreatedEvent;
 import com.example.cargo_service.enums.CargoStatus;
 import com.example.cargo_service.exception.CargoNotFoundException;
 import com.example.cargo_service.external.CustomerClientService;
@@ -13,15 +16,24 @@ import com.example.cargo_service.repository.CargoRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -32,12 +44,15 @@ public class CargoService {
 
     private final CargoMapper cargoMapper;
 
+    private final EntityManager entityManager;
+
     private final CustomerClientService customerClientService;
 
     @Transactional
     @CircuitBreaker(name = "cargoServiceBreaker", fallbackMethod = "cargoServiceFallback")
     @Retry(name = "cargoServiceBreaker", fallbackMethod = "cargoServiceFallback")
     @RateLimiter(name = "createCargoLimiter", fallbackMethod = "cargoServiceFallback")
+    @CacheTagEvict(cacheNames = "cargo", tags = "'all'")
     public CargoResponseDto createCargo(CargoRequestDto cargoRequestDto) {
         log.info("CargoService::createCargo started");
 
@@ -59,6 +74,64 @@ public class CargoService {
         return cargoMapper.mapToCargoResponseDto(savedCargo);
     }
 
+    // Chaque client distinct n'est vérifié qu'une fois, puis toutes les lignes sont insérées par lots JDBC.
+    @Transactional
+    @CacheTagEvict(cacheNames = "cargo", tags = "'all'")
+    public List<CargoResponseDto> createCargoBatch(List<CargoRequestDto> cargoRequestDtoList) {
+        log.info("CargoService::createCargoBatch started - size : {}", cargoRequestDtoList.size());
+
+        Set<String> customerIds = new LinkedHashSet<>();
+        cargoRequestDtoList.forEach(cargoRequestDto -> customerIds.add(cargoRequestDto.getCustomerId()));
+        for (String customerId : customerIds) {
+            if (customerClientService.getCustomerById(customerId) == null) {
+                throw new IllegalArgumentException("Customer not found : " + customerId);
+            }
+        }
+
+        List<Cargo> cargoList = new ArrayList<>(cargoRequestDtoList.size());
+        for (CargoRequestDto cargoRequestDto : cargoRequestDtoList) {
+            Cargo cargo = cargoMapper.mapToCargo(cargoRequestDto);
+            cargo.setStatus(CargoStatus.PENDING);
+            cargo.setTrackingNumber(UUID.randomUUID().toString());
+            cargoList.add(cargo);
+        }
+
+        List<Cargo> savedCargoList = cargoRepository.saveAll(cargoList);
+
+        log.info("CargoService::createCargoBatch finished");
+        return cargoMapper.mapToCargoResponseDtoList(savedCargoList);
+    }
+
+    // Événements "commande créée" reçus par lots : le client a déjà été validé par order-service, aucun appel
+    // au service client. Les commandes déjà servies (événement rejoué) sont ignorées, le reste part en lots JDBC.
+    @Transactional
+    @CacheTagEvict(cacheNames = "cargo", tags = "'all'")
+    public List<CargoResponseDto> createCargoForOrders(List<OrderCreatedEvent> orderCreatedEvents) {
+        log.info("CargoService::createCargoForOrders started - size : {}", orderCreatedEvents.size());
+
+        Map<String, OrderCreatedEvent> eventsByOrderId = new LinkedHashMap<>();
+        orderCreatedEvents.forEach(event -> eventsByOrderId.putIfAbsent(event.getOrderId(), event));
+        cargoRepository.findOrderIdsIn(eventsByOrderId.keySet()).forEach(eventsByOrderId::remove);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Cargo> cargoList = new ArrayList<>(eventsByOrderId.size());
+        for (OrderCreatedEvent event : eventsByOrderId.values()) {
+            cargoList.add(Cargo.builder()
+                    .orderId(event.getOrderId())
+                    .customerId(event.getCustomerId())
+                    .status(CargoStatus.PENDING)
+                    .trackingNumber(UUID.randomUUID().toString())
+                    .lastUpdated(now)
+                    .build());
+        }
+
+        List<Cargo> savedCargoList = cargoRepository.saveAll(cargoList);
+
+        log.info("CargoService::createCargoForOrders finished - created : {}, skipped : {}",
+                savedCargoList.size(), orderCreatedEvents.size() - savedCargoList.size());
+        return cargoMapper.mapToCargoResponseDtoList(savedCargoList);
+    }
+
     // read
 
     @Cacheable(value = "cargo",key = "'all'")
@@ -72,6 +145,32 @@ public class CargoService {
         return cargoMapper.mapToCargoResponseDtoList(cargoList);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<CargoResponseDto> getCargoPage(String after, int limit) {
+        log.info("CargoService::getCargoPage started");
+
+        int pageSize = CursorPageDto.pageSize(limit);
+        List<Cargo> cargoList = cargoRepository.findByIdGreaterThanOrderByIdAsc(after == null ? "" : after, Limit.of(pageSize + 1));
+
+        log.info("CargoService::getCargoPage finished");
+        return CursorPageDto.of(cargoList, pageSize, cargoMapper::mapToCargoResponseDto, Cargo::getId);
+    }
+
+    // Chaque ligne est détachée après écriture : la mémoire utilisée ne dépend pas de la taille de la table.
+    @Transactional(readOnly = true)
+    public void streamAllCargo(Consumer<CargoResponseDto> consumer) {
+        log.info("CargoService::streamAllCargo started");
+
+        try (Stream<Cargo> cargoStream = cargoRepository.streamAllByOrderByIdAsc()) {
+            cargoStream.forEach(cargo -> {
+                consumer.accept(cargoMapper.mapToCargoResponseDto(cargo));
+                entityManager.detach(cargo);
+            });
+        }
+
+        log.info("CargoService::streamAllCargo finished");
+    }
+
 
     // get cargo by id
     @Cacheable(value = "cargo",key = "#cargoId")
@@ -115,7 +214,7 @@ public class CargoService {
     @Retry(name = "cargoServiceBreaker", fallbackMethod = "cargoServiceFallback")
     @RateLimiter(name = "createCargoLimiter", fallbackMethod = "cargoServiceFallback")
     // update
-    @CacheEvict(value = "carg",key = "#cargoUpdateRequestDto.id",allEntries = true)
+    @CacheTagEvict(cacheNames = "cargo", tags = "'cargo:' + #cargoUpdateRequestDto.id")
     public CargoResponseDto updateCargo(CargoUpdateRequestDto cargoUpdateRequestDto) {
         log.info("CargoService::updateCargo started");
 
@@ -134,7 +233,7 @@ public class CargoService {
     }
 
     // delete
-    @CacheEvict(value = "cargo", key = "#cargoId",allEntries = true)
+    @CacheTagEvict(cacheNames = "cargo", tags = "'cargo:' + #cargoId")
     public void deleteCargoById(String cargoId) {
         log.info("CargoService::deleteCargoById started");
 
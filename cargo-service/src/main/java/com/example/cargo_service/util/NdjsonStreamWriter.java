@@ -0,0 +1,38 @@
+package com.example.cargo_service.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows as newline-delimited JSON while they are produced, so a full table export
+ * never builds the whole list in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonStreamWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public <T> StreamingResponseBody write(Consumer<Consumer<T>> source) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                source.accept(row -> {
+                    try {
+                        generator.writeObject(row);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.cargo_service.consumer;
+
+import com.example.cargo_service.dto.OrderCreatedEvent;
+import com.example.cargo_service.service.CargoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderCreatedListenerTest {
+
+    private final CargoService cargoService = mock(CargoService.class);
+    private final MessageRecoverer deadLetterRecoverer = mock(MessageRecoverer.class);
+    private final Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+
+    private final OrderCreatedListener listener = new OrderCreatedListener(cargoService, converter, deadLetterRecoverer);
+
+    @Test
+    void validBatchIsCreatedInOneCall() {
+        listener.receiveOrderCreatedEvents(List.of(message("order-1"), message("order-2")));
+
+        verify(cargoService).createCargoForOrders(argThat(events -> events.size() == 2));
+        verify(deadLetterRecoverer, never()).recover(any(), any());
+    }
+
+    @Test
+    void unreadableEventIsMovedAsideAndTheRestIsCreated() {
+        Message poison = json("{not json");
+
+        listener.receiveOrderCreatedEvents(List.of(message("order-1"), poison, message("order-2")));
+
+        verify(cargoService).createCargoForOrders(argThat(events -> events.stream()
+                .map(OrderCreatedEvent::getOrderId).toList().equals(List.of("order-1", "order-2"))));
+        verify(deadLetterRecoverer).recover(eq(poison), isA(MessageConversionException.class));
+    }
+
+    @Test
+    void eventWithoutOrderIdIsMovedAside() {
+        Message poison = json("{\"customerId\":\"customer\"}");
+
+        listener.receiveOrderCreatedEvents(List.of(poison));
+
+        verify(deadLetterRecoverer).recover(eq(poison), isA(MessageConversionException.class));
+    }
+
+    @Test
+    void failingBatchIsRetriedOneByOneAndOnlyTheFailingEventIsMovedAside() {
+        Message failing = message("order-2");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("order-2 rejected");
+        when(cargoService.createCargoForOrders(argThat(events -> events.stream()
+                .anyMatch(event -> event.getOrderId().equals("order-2"))))).thenThrow(violation);
+
+        listener.receiveOrderCreatedEvents(List.of(message("order-1"), failing, message("order-3")));
+
+        verify(cargoService).createCargoForOrders(argThat(events -> events.size() == 1
+                && events.get(0).getOrderId().equals("order-1")));
+        verify(cargoService).createCargoForOrders(argThat(events -> events.size() == 1
+                && events.get(0).getOrderId().equals("order-3")));
+        verify(deadLetterRecoverer).recover(failing, violation);
+    }
+
+    @Test
+    void transientFailureIsRethrownSoTheBatchIsRequeued() {
+        when(cargoService.createCargoForOrders(any())).thenThrow(new CannotCreateTransactionException("database down"));
+
+        assertThrows(CannotCreateTransactionException.class,
+                () -> listener.receiveOrderCreatedEvents(List.of(message("order-1"), message("order-2"))));
+
+        verify(deadLetterRecoverer, never()).recover(any(), any());
+    }
+
+    // Publié par order-service avec son propre __TypeId__ : le type est déduit du listener.
+    private Message message(String orderId) {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader("__TypeId__", "com.example.spring.boot.dto.orderDto.OrderCreatedEvent");
+        return converter.toMessage(OrderCreatedEvent.builder().orderId(orderId).customerId("customer").build(), properties);
+    }
+
+    private static Message json(String body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
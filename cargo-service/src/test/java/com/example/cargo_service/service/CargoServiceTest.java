@@ -0,0 +1,117 @@
+package com.example.cargo_service.service;
+
+import com.example.cargo_service.dto.CargoRequestDto;
+import com.example.cargo_service.dto.CargoResponseDto;
+import com.example.cargo_service.dto.OrderCreatedEvent;
+import com.example.cargo_service.enums.CargoStatus;
+import com.example.cargo_service.external.CustomerClientService;
+import com.example.cargo_service.mapper.CargoMapper;
+import com.example.cargo_service.model.Customer;
+import com.example.cargo_service.repository.CargoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CargoServiceTest {
+
+    private final CargoRepository cargoRepository = mock(CargoRepository.class);
+    private final CustomerClientService customerClientService = mock(CustomerClientService.class);
+
+    private CargoService cargoService;
+
+    @BeforeEach
+    void setUp() {
+        cargoService = new CargoService(cargoRepository, new CargoMapper(), mock(EntityManager.class), customerClientService);
+        when(cargoRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void createCargoForOrdersSkipsOrdersThatAlreadyHaveACargo() {
+        when(cargoRepository.findOrderIdsIn(any())).thenReturn(List.of("order-1"));
+
+        List<CargoResponseDto> created = cargoService.createCargoForOrders(List.of(event("order-1"), event("order-2")));
+
+        assertEquals(List.of("order-2"), created.stream().map(CargoResponseDto::getOrderId).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createCargoForOrdersCollapsesDuplicatesWithinABatch() {
+        ArgumentCaptor<Collection<String>> orderIds = ArgumentCaptor.forClass(Collection.class);
+        when(cargoRepository.findOrderIdsIn(orderIds.capture())).thenReturn(List.of());
+
+        List<CargoResponseDto> created = cargoService.createCargoForOrders(
+                List.of(event("order-1"), event("order-2"), event("order-1")));
+
+        assertEquals(Set.of("order-1", "order-2"), Set.copyOf(orderIds.getValue()));
+        assertEquals(List.of("order-1", "order-2"), created.stream().map(CargoResponseDto::getOrderId).toList());
+        assertTrue(created.stream().allMatch(cargo -> cargo.getStatus() == CargoStatus.PENDING));
+    }
+
+    @Test
+    void createCargoForOrdersDoesNotLookUpCustomers() {
+        when(cargoRepository.findOrderIdsIn(any())).thenReturn(List.of());
+
+        cargoService.createCargoForOrders(List.of(event("order-1"), event("order-2")));
+
+        verifyNoInteractions(customerClientService);
+    }
+
+    @Test
+    void createCargoBatchChecksEachCustomerOnce() {
+        when(customerClientService.getCustomerById(anyString())).thenReturn(new Customer());
+
+        List<CargoResponseDto> created = cargoService.createCargoBatch(List.of(
+                request("order-1", "customer-1"), request("order-2", "customer-1"), request("order-3", "customer-2")));
+
+        verify(customerClientService).getCustomerById("customer-1");
+        verify(customerClientService).getCustomerById("customer-2");
+        verify(cargoRepository, times(1)).saveAll(anyList());
+        assertEquals(3, created.size());
+        assertEquals(3, created.stream().map(CargoResponseDto::getTrackingNumber).distinct().count());
+    }
+
+    @Test
+    void createCargoBatchSavesNothingWhenACustomerIsUnknown() {
+        when(customerClientService.getCustomerById("customer-1")).thenReturn(new Customer());
+
+        assertThrows(IllegalArgumentException.class, () -> cargoService.createCargoBatch(List.of(
+                request("order-1", "customer-1"), request("order-2", "customer-2"))));
+
+        verify(cargoRepository, never()).saveAll(anyList());
+    }
+
+    private static OrderCreatedEvent event(String orderId) {
+        return OrderCreatedEvent.builder()
+                .orderId(orderId)
+                .customerId("customer")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static CargoRequestDto request(String orderId, String customerId) {
+        return CargoRequestDto.builder()
+                .orderId(orderId)
+                .customerId(customerId)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.customer_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    private final String origin;
+
+    private final JdkSerializationRedisSerializer serializer =
+            new JdkSerializationRedisSerializer(getClass().getClassLoader());
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = serializer.deserialize(message.getBody());
+        if (!(body instanceof CacheInvalidationMessage invalidation) || origin.equals(invalidation.getOrigin())) {
+            return;
+        }
+        log.debug("CacheInvalidationListener::onMessage - cache: {}, key: {}", invalidation.getCacheName(), invalidation.getKey());
+        cacheManager.invalidateLocal(invalidation.getCacheName(), invalidation.getKey());
+    }
+}
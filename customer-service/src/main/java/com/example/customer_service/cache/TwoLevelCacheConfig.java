@@ -0,0 +1,95 @@
+package com.example.customer_service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@Slf4j
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
+public class TwoLevelCacheConfig {
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(RedisConnectionFactory connectionFactory,
+                                                                 TwoLevelCacheProperties properties) {
+        return new CacheInvalidationPublisher(cacheRedisTemplate(connectionFactory), properties.getInvalidationChannel());
+    }
+
+    @Bean
+    public CacheTagIndex cacheTagIndex(RedisConnectionFactory connectionFactory, TwoLevelCacheProperties properties) {
+        return new RedisCacheTagIndex(cacheRedisTemplate(connectionFactory), properties.getTagIndexPrefix());
+    }
+
+    @Bean
+    public CacheTagEvictAspect cacheTagEvictAspect(TwoLevelCacheManager cacheManager) {
+        return new CacheTagEvictAspect(cacheManager);
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             TwoLevelCacheProperties properties,
+                                             CacheInvalidationPublisher cacheInvalidationPublisher,
+                                             CacheTagIndex cacheTagIndex,
+                                             ObjectProvider<CacheTagResolvers> cacheTagResolvers,
+                                             MeterRegistry meterRegistry) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig(getClass().getClassLoader());
+        Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
+        properties.getCaches().keySet()
+                .forEach(name -> perCache.put(name, defaults.entryTtl(properties.l2TtlFor(name))));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults.entryTtl(properties.getL2Ttl()))
+                .withInitialCacheConfigurations(perCache)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, cacheRedisTemplate(connectionFactory), properties,
+                cacheInvalidationPublisher, cacheTagIndex, cacheTagResolvers.getIfAvailable(CacheTagResolvers::new),
+                meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            CacheInvalidationPublisher cacheInvalidationPublisher,
+                                                                            TwoLevelCacheProperties properties) {
+        // Redis indisponible au démarrage ne doit pas bloquer le service : le L1 expire de toute façon après son TTL.
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public void start() {
+                try {
+                    super.start();
+                } catch (RuntimeException e) {
+                    log.warn("TwoLevelCacheConfig::cacheInvalidationListenerContainer - subscription to {} failed, "
+                            + "local entries will only expire by TTL: {}", properties.getInvalidationChannel(), e.getMessage());
+                }
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(cacheManager, cacheInvalidationPublisher.getOrigin()),
+                new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+
+    private RedisTemplate<String, Object> cacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer(getClass().getClassLoader()));
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+}
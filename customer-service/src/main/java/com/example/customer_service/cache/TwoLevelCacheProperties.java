@@ -0,0 +1,57 @@
+package com.example.customer_service.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "cache.two-level")
+public class TwoLevelCacheProperties {
+
+    private long l1MaxSize = 10_000;
+
+    private Duration l1Ttl = Duration.ofSeconds(30);
+
+    private Duration l2Ttl = Duration.ofMinutes(10);
+
+    private String invalidationChannel = "cache:invalidation";
+
+    private String tagIndexPrefix = "cache:tags";
+
+    private double earlyRefreshBeta = 1.0;
+
+    private Duration singleFlightTimeout = Duration.ofSeconds(10);
+
+    private Map<String, CacheSpec> caches = new HashMap<>();
+
+    public long l1MaxSizeFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec != null && spec.getL1MaxSize() != null ? spec.getL1MaxSize() : l1MaxSize;
+    }
+
+    public Duration l1TtlFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec != null && spec.getL1Ttl() != null ? spec.getL1Ttl() : l1Ttl;
+    }
+
+    public Duration l2TtlFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec != null && spec.getL2Ttl() != null ? spec.getL2Ttl() : l2Ttl;
+    }
+
+    public double earlyRefreshBetaFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec != null && spec.getEarlyRefreshBeta() != null ? spec.getEarlyRefreshBeta() : earlyRefreshBeta;
+    }
+
+    @Data
+    public static class CacheSpec {
+        private Long l1MaxSize;
+        private Duration l1Ttl;
+        private Duration l2Ttl;
+        private Double earlyRefreshBeta;
+    }
+}
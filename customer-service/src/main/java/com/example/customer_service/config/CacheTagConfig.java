@@ -0,0 +1,25 @@
+package com.example.customer_service.config;
+
+import com.example.customer_service.cache.CacheTagResolver;
+import com.example.customer_service.cache.CacheTagResolvers;
+import com.example.customer_service.dto.customerDto.CustomerResponseDto;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Tags used by the customers cache: customer:{id} on every entry containing the customer
+ * and all on the full list.
+ */
+@Configuration
+public class CacheTagConfig {
+
+    @Bean
+    public CacheTagResolvers cacheTagResolvers() {
+        return new CacheTagResolvers()
+                .register("customers", CacheTagResolver.forEntity(CustomerResponseDto.class,
+                        customer -> List.of("customer:" + customer.getId()),
+                        key -> "all".equals(key) ? List.of("all") : List.of()));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.customer_service.config;
+
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Le pool partagé par les clients Feign (taille, durée de vie, timeouts) est réglé par spring.cloud.openfeign.httpclient.
+@Configuration
+@EnableConfigurationProperties(FeignTransportProperties.class)
+public class FeignTransportConfig {
+
+    // Plafonne le keep-alive annoncé par le serveur et ferme les connexions restées inactives plus longtemps.
+    @Bean
+    public HttpClientBuilderCustomizer feignKeepAliveCustomizer(FeignTransportProperties properties) {
+        TimeValue keepAlive = TimeValue.of(properties.getKeepAlive());
+        return builder -> builder
+                .setKeepAliveStrategy((response, context) -> keepAlive.min(
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context)))
+                .evictIdleConnections(keepAlive);
+    }
+}
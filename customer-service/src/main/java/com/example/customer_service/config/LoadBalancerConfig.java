@@ -0,0 +1,15 @@
+package com.example.customer_service.config;
+
+import com.example.customer_service.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+// loadbalancer.strategy=round-robin revient au répartiteur par défaut de Spring Cloud.
+@Configuration
+@ConditionalOnProperty(name = "loadbalancer.strategy", havingValue = "latency-aware")
+@EnableConfigurationProperties(LatencyAwareLoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
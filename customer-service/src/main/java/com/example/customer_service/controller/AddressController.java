@@ -1,8 +1,10 @@
 package com.example.customer_service.controller;
 
+import com.example.customer_service.dto.CursorPageDto;
 import com.example.customer_service.dto.addressDto.AddressRequestDto;
 import com.example.customer_service.dto.addressDto.AddressResponseDto;
 import com.example.customer_service.service.AddressService;
+import com.example.customer_service.util.NdjsonStreamWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,8 +13,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,6 +27,8 @@ public class AddressController {
 
     private final AddressService addressService;
 
+    private final NdjsonStreamWriter ndjsonStreamWriter;
+
     @GetMapping("/all")
     @Operation(summary = "Get all addresses", description = "Retrieves a list of all addresses.")
     @ApiResponse(responseCode = "200", description = "List of addresses retrieved successfully")
@@ -31,6 +37,24 @@ public class AddressController {
         return ResponseEntity.ok(addressAll);
     }
 
+    @GetMapping(value = "/all", params = "limit")
+    @Operation(summary = "Get a page of addresses", description = "Retrieves addresses ordered by ID, starting after the given cursor.")
+    @ApiResponse(responseCode = "200", description = "Page retrieved successfully")
+    public ResponseEntity<CursorPageDto<AddressResponseDto>> getAddressPage(
+            @RequestParam(required = false) @Parameter(description = "ID of the last item of the previous page") String after,
+            @RequestParam @Parameter(description = "Maximum number of items to return (1-1000)") int limit) {
+        return ResponseEntity.ok(addressService.getAddressPage(after, limit));
+    }
+
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all addresses", description = "Streams every entry as newline-delimited JSON, ordered by ID.")
+    @ApiResponse(responseCode = "200", description = "Stream started successfully")
+    public ResponseEntity<StreamingResponseBody> streamAllAddresses() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamWriter.write(addressService::streamAllAddresses));
+    }
+
     @GetMapping("/{addressId}")
     @Operation(summary = "Get address by ID", description = "Retrieves an address by its unique ID.")
     @ApiResponses({
@@ -1,11 +1,15 @@
 package com.example.customer_service.controller;
 
+import com.example.customer_service.dto.CursorPageDto;
+import com.example.customer_service.dto.addressDto.AddressResponseDto;
 import com.example.customer_service.dto.customerDto.CustomerRequestDto;
 import com.example.customer_service.dto.customerDto.CustomerResponseDto;
 import com.example.customer_service.dto.customerDto.CustomerUpdateRequestDto;
 import com.example.customer_service.external.CargoClientService;
 import com.example.customer_service.model.Cargo;
+import com.example.customer_service.service.AddressService;
 import com.example.customer_service.service.CustomerService;
+import com.example.customer_service.util.NdjsonStreamWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,10 +17,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/customers")
@@ -25,6 +32,10 @@ public class CustomerController {
 
     private final CustomerService customerService;
 
+    private final AddressService addressService;
+
+    private final NdjsonStreamWriter ndjsonStreamWriter;
+
     private final CargoClientService cargoClientService;
 
     @PostMapping
@@ -46,6 +57,33 @@ public class CustomerController {
         return ResponseEntity.ok(customersAll);
     }
 
+    @GetMapping(value = "/all", params = "limit")
+    @Operation(summary = "Get a page of customers", description = "Retrieves customers ordered by ID, starting after the given cursor.")
+    @ApiResponse(responseCode = "200", description = "Page retrieved successfully")
+    public ResponseEntity<CursorPageDto<CustomerResponseDto>> getCustomersPage(
+            @RequestParam(required = false) @Parameter(description = "ID of the last item of the previous page") String after,
+            @RequestParam @Parameter(description = "Maximum number of items to return (1-1000)") int limit) {
+        return ResponseEntity.ok(customerService.getCustomersPage(after, limit));
+    }
+
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all customers", description = "Streams every entry as newline-delimited JSON, ordered by ID.")
+    @ApiResponse(responseCode = "200", description = "Stream started successfully")
+    public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamWriter.write(customerService::streamAllCustomers));
+    }
+
+    @PostMapping("/byIds")
+    @Operation(summary = "Get customers by IDs", description = "Retrieves up to " + CustomerService.MAX_IDS + " customers in one call; unknown IDs are left out.")
+    @ApiResponse(responseCode = "200", description = "Customer entries found, in the order of the requested IDs")
+    @ApiResponse(responseCode = "400", description = "Too many IDs requested")
+    public ResponseEntity<List<CustomerResponseDto>> getCustomersByIds(
+            @RequestBody @Parameter(description = "IDs of the customers to retrieve") List<String> ids) {
+        return ResponseEntity.ok(customerService.getCustomersByIds(ids));
+    }
+
     @GetMapping("/{customerId}")
     @Operation(summary = "Get customer by ID", description = "Retrieves a customer by their unique ID.")
     @ApiResponse(responseCode = "200", description = "Customer found")
@@ -56,15 +94,43 @@ public class CustomerController {
         return ResponseEntity.ok(customer);
     }
 
+    @PostMapping("/default-address/byIds")
+    @Operation(summary = "Get the default shipping addresses of several customers", description = "Retrieves the oldest address of up to " + CustomerService.MAX_IDS + " customers in one call.")
+    @ApiResponse(responseCode = "200", description = "Addresses by customer ID; customers without address are left out")
+    @ApiResponse(responseCode = "400", description = "Too many IDs requested")
+    public ResponseEntity<Map<String, AddressResponseDto>> getDefaultAddresses(
+            @RequestBody @Parameter(description = "IDs of the customers") List<String> customerIds) {
+        return ResponseEntity.ok(addressService.getDefaultAddresses(customerIds));
+    }
+
+    @GetMapping("/{customerId}/default-address")
+    @Operation(summary = "Get the default shipping address", description = "Retrieves the oldest address of a customer without loading the customer.")
+    @ApiResponse(responseCode = "200", description = "Address found")
+    @ApiResponse(responseCode = "404", description = "Customer not found or without address")
+    public ResponseEntity<AddressResponseDto> getDefaultAddress(
+            @PathVariable @Parameter(description = "Unique identifier of the customer") String customerId) {
+        return ResponseEntity.ok(addressService.getDefaultAddress(customerId));
+    }
+
     @GetMapping("/customerByFirstName")
-    @Operation(summary = "Get customers by first name", description = "Retrieves a list of customers with the specified first name.")
+    @Operation(summary = "Get customers by first name", description = "Retrieves the customers whose first name contains the given text, best matches first.")
     @ApiResponse(responseCode = "200", description = "List of customers with the given first name")
     public ResponseEntity<List<CustomerResponseDto>> getCustomersByFirstName(
-            @RequestParam @Parameter(description = "First name of the customers") String firstName) {
-        List<CustomerResponseDto> customersByFirstName = customerService.getCustomersByFirstName(firstName);
+            @RequestParam @Parameter(description = "First name of the customers") String firstName,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Maximum number of customers to return (1-100)") int limit) {
+        List<CustomerResponseDto> customersByFirstName = customerService.getCustomersByFirstName(firstName, limit);
         return ResponseEntity.ok(customersByFirstName);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search customers by name", description = "Retrieves the customers whose first or last name contains the given text, best matches first.")
+    @ApiResponse(responseCode = "200", description = "List of matching customers")
+    public ResponseEntity<List<CustomerResponseDto>> searchCustomers(
+            @RequestParam @Parameter(description = "Text to search in the customer names") String query,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Maximum number of customers to return (1-100)") int limit) {
+        return ResponseEntity.ok(customerService.searchCustomers(query, limit));
+    }
+
     @DeleteMapping("/{customerId}")
     @Operation(summary = "Delete customer by ID", description = "Deletes a customer by their unique ID.")
     @ApiResponse(responseCode = "204", description = "Customer deleted successfully")
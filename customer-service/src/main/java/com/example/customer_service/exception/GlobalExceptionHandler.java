@@ -73,7 +73,31 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ResourceCustomerNotFoundException.class)
+    public ResponseEntity<?> handleResourceCustomerNotFoundException(ResourceCustomerNotFoundException ex, WebRequest request) {
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .dateTime(LocalDateTime.now())
+                .message(ex.getMessage())
+                .description(request.getDescription(false))
+                .statusCode(HttpStatus.NOT_FOUND.value())
+                .build();
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+    }
+
     // genel bir hata için handler
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .dateTime(LocalDateTime.now())
+                .message(ex.getMessage())
+                .description(request.getDescription(false))
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .build();
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGlobalException(Exception ex, WebRequest request) {
         ErrorDetails errorDetails = ErrorDetails.builder()
@@ -0,0 +1,33 @@
+package com.example.customer_service.loadbalancer;
+
+import com.example.customer_service.config.LatencyAwareLoadBalancerProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+// Chargée dans le contexte propre à chaque service appelé, d'où l'absence de @Configuration.
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public InstanceLatencyStats instanceLatencyStats(LatencyAwareLoadBalancerProperties properties) {
+        return new InstanceLatencyStats(properties.getDecay(), properties.getFailurePenalty(), System::nanoTime);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                         InstanceLatencyStats instanceLatencyStats) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId,
+                instanceLatencyStats);
+    }
+
+    @Bean
+    public LatencyTrackingLifecycle latencyTrackingLifecycle(InstanceLatencyStats instanceLatencyStats) {
+        return new LatencyTrackingLifecycle(instanceLatencyStats);
+    }
+}
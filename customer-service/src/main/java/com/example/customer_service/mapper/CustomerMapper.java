@@ -6,6 +6,7 @@ import com.example.customer_service.model.Customer;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,7 +32,7 @@ public class CustomerMapper {
                 .email(customer.getEmail())
                 .phoneNumber(customer.getPhoneNumber())
                 .createdDate(customer.getCreatedDate())
-                .addressList(customer.getAddressList())
+                .addressList(customer.getAddressList() == null ? null : new ArrayList<>(customer.getAddressList()))
                 .build();
     }
 
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.io.Serializable;
@@ -29,8 +30,10 @@ public class Customer implements Serializable {
     private String phoneNumber;
     private LocalDateTime createdDate;
 
+    // Les adresses de plusieurs clients sont chargées ensemble (IN sur 100 clients) au lieu d'une requête chacun.
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
+    @BatchSize(size = 100)
     private List<Address> addressList;
 
 }
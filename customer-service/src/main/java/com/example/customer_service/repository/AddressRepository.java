@@ -1,9 +1,33 @@
 package com.example.customer_service.repository;
 
 import com.example.customer_service.model.Address;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface AddressRepository extends JpaRepository<Address, String> {
+
+    List<Address> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Curseur côté serveur (useCursorFetch=true) : les lignes sont lues par blocs au lieu de charger toute la table.
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Address> streamAllByOrderByIdAsc();
+
+    // Adresse de livraison par défaut : la plus ancienne du client.
+    @Query("select a from Customer c join c.addressList a where c.id = :customerId order by a.createdDate asc, a.id asc")
+    List<Address> findByCustomerIdOrderByCreatedDate(@Param("customerId") String customerId, Limit limit);
+
+    // Même tri pour plusieurs clients : la première ligne de chaque client est son adresse par défaut.
+    @Query("select c.id, a from Customer c join c.addressList a where c.id in :customerIds order by a.createdDate asc, a.id asc")
+    List<Object[]> findByCustomerIdInOrderByCreatedDate(@Param("customerIds") Collection<String> customerIds);
 }
\ No newline at end of file
@@ -1,10 +1,29 @@
 package com.example.customer_service.repository;
 
 import com.example.customer_service.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, String> {
+
+    // Les adresses sont chargées par jointure dans la même requête que les clients.
+    @Override
+    @EntityGraph(attributePaths = "addressList")
+    List<Customer> findAll();
+
+    List<Customer> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Curseur côté serveur (useCursorFetch=true) : les lignes sont lues par blocs au lieu de charger toute la table.
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Customer> streamAllByOrderByIdAsc();
 }
\ No newline at end of file
@@ -0,0 +1,427 @@
+package com.example.customer_service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over customer names.
+ * Every customer gets a document number and its name is indexed as {@code " first last "}, lower-cased
+ * and without accents. Each trigram of that text maps to the sorted document numbers containing it;
+ * a query intersects the postings of its trigrams, shortest first, then checks the few remaining
+ * candidates against the text. Each posting also records where the trigram first occurs and the name
+ * lengths, so a three-character pattern is ranked from the postings alone.
+ * <p>
+ * Queries of three characters or more match anywhere in the name; shorter ones match the start of
+ * a name word. Results are ranked: exact name, name prefix, word prefix, then any substring.
+ */
+public class CustomerNameIndex {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final int MIN_SUBSTRING_LENGTH = 3;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Positions et longueurs sont codées sur 8 bits dans les postings ; au-delà, on vérifie sur le texte.
+    private static final int MAX_PACKED_LENGTH = 0xFF;
+
+    private static final int UNPACKED = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> docById = new HashMap<>();
+
+    private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+
+    private String[] ids = new String[INITIAL_CAPACITY];
+
+    // " prénom nom " normalisé, et la longueur du prénom pour les recherches limitées au prénom.
+    private String[] texts = new String[INITIAL_CAPACITY];
+    private int[] firstNameLengths = new int[INITIAL_CAPACITY];
+    private int docCount;
+
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(String customerId, String firstName, String lastName) {
+        String normalizedFirstName = normalize(firstName);
+        String text = " " + normalizedFirstName + " " + normalize(lastName) + " ";
+        lock.writeLock().lock();
+        try {
+            Integer existing = docById.get(customerId);
+            if (existing != null && text.equals(texts[existing])) {
+                return;
+            }
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unindex(doc);
+            } else {
+                doc = allocate();
+                docById.put(customerId, doc);
+                ids[doc] = customerId;
+            }
+            texts[doc] = text;
+            firstNameLengths[doc] = normalizedFirstName.length();
+            for (long entry : trigramEntries(text)) {
+                int position = (int) (entry & 0xFF);
+                postingsByTrigram.computeIfAbsent(entry >>> 8, key -> new Postings())
+                        .add(doc, info(text, position, normalizedFirstName.length()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String customerId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docById.remove(customerId);
+            if (doc == null) {
+                return;
+            }
+            unindex(doc);
+            ids[doc] = null;
+            texts[doc] = null;
+            if (freeCount == freeDocs.length) {
+                freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+            }
+            freeDocs[freeCount++] = doc;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching customers, best first.
+     *
+     * @param firstNameOnly match the first name only instead of the whole name
+     */
+    public List<String> search(String query, boolean firstNameOnly, int limit) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return List.of();
+        }
+        boolean wordPrefix = normalizedQuery.length() < MIN_SUBSTRING_LENGTH;
+        String pattern = wordPrefix ? " " + normalizedQuery : normalizedQuery;
+        TopMatches topMatches = new TopMatches(Math.max(1, Math.min(limit, MAX_LIMIT)));
+
+        lock.readLock().lock();
+        try {
+            if (pattern.length() < MIN_SUBSTRING_LENGTH) {
+                offerWordsStartingWith(normalizedQuery.charAt(0), topMatches, pattern, firstNameOnly);
+            } else {
+                long[] queryTrigrams = trigramEntries(pattern);
+                Postings[] lists = new Postings[queryTrigrams.length];
+                for (int i = 0; i < queryTrigrams.length; i++) {
+                    lists[i] = postingsByTrigram.get(queryTrigrams[i] >>> 8);
+                    if (lists[i] == null) {
+                        return List.of();
+                    }
+                }
+                if (pattern.length() == MIN_SUBSTRING_LENGTH) {
+                    // Le motif est le trigramme : la posting suffit, sans lire les noms.
+                    Postings postings = lists[0];
+                    for (int i = 0; i < postings.size; i++) {
+                        offerPosting(topMatches, postings.docs[i], postings.infos[i], pattern, normalizedQuery.length(),
+                                wordPrefix, firstNameOnly);
+                    }
+                } else {
+                    intersect(lists, topMatches, pattern, normalizedQuery.length(), wordPrefix, firstNameOnly);
+                }
+            }
+
+            long[] matches = topMatches.sorted();
+            List<String> result = new ArrayList<>(matches.length);
+            for (long match : matches) {
+                result.add(ids[(int) match]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void intersect(Postings[] lists, TopMatches topMatches, String pattern, int queryLength,
+                           boolean wordPrefix, boolean firstNameOnly) {
+        Arrays.sort(lists, (left, right) -> Integer.compare(left.size, right.size));
+        int[] cursors = new int[lists.length];
+        Postings shortest = lists[0];
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            int doc = shortest.docs[i];
+            for (int list = 1; list < lists.length; list++) {
+                cursors[list] = lists[list].lowerBound(doc, cursors[list]);
+                if (cursors[list] == lists[list].size) {
+                    return;
+                }
+                if (lists[list].docs[cursors[list]] != doc) {
+                    continue candidates;
+                }
+            }
+            verify(topMatches, doc, pattern, queryLength, wordPrefix, firstNameOnly);
+        }
+    }
+
+    // Une seule lettre : union des postings " x?". Un client peut figurer dans plusieurs d'entre elles ;
+    // les débuts de nom passent en premier pour que chacun ne soit retenu qu'une fois, à son meilleur rang.
+    private void offerWordsStartingWith(char letter, TopMatches topMatches, String pattern, boolean firstNameOnly) {
+        long prefix = (long) ' ' << 16 | letter;
+        List<Postings> lists = new ArrayList<>();
+        postingsByTrigram.forEach((trigram, postings) -> {
+            if (trigram >>> 16 == prefix) {
+                lists.add(postings);
+            }
+        });
+        BitSet seen = new BitSet(docCount);
+        for (boolean nameStart : new boolean[]{true, false}) {
+            for (Postings postings : lists) {
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    int info = postings.infos[i];
+                    if (seen.get(doc) || (info != UNPACKED && (info >>> 17 == 0) != nameStart)) {
+                        continue;
+                    }
+                    if (offerPosting(topMatches, doc, info, pattern, 1, true, firstNameOnly)) {
+                        seen.set(doc);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean offerPosting(TopMatches topMatches, int doc, int info, String pattern, int queryLength,
+                                 boolean wordPrefix, boolean firstNameOnly) {
+        if (info == UNPACKED) {
+            return verify(topMatches, doc, pattern, queryLength, wordPrefix, firstNameOnly);
+        }
+        int position = info >>> 17;
+        int start = wordPrefix ? position + 1 : position;
+        return offer(topMatches, doc, start, queryLength, (info >>> 9) & 0xFF, (info >>> 1) & 0xFF,
+                wordPrefix || (info & 1) != 0, firstNameOnly);
+    }
+
+    // Les trigrammes ne garantissent pas l'ordre des caractères : chaque candidat est vérifié sur le texte.
+    private boolean verify(TopMatches topMatches, int doc, String pattern, int queryLength,
+                           boolean wordPrefix, boolean firstNameOnly) {
+        String text = texts[doc];
+        int position = text.indexOf(pattern);
+        if (position < 0) {
+            return false;
+        }
+        int start = wordPrefix ? position + 1 : position;
+        return offer(topMatches, doc, start, queryLength, firstNameLengths[doc], text.length(),
+                text.charAt(start - 1) == ' ', firstNameOnly);
+    }
+
+    private static boolean offer(TopMatches topMatches, int doc, int start, int queryLength, int firstNameLength,
+                                 int textLength, boolean wordStart, boolean firstNameOnly) {
+        if (firstNameOnly && start + queryLength > 1 + firstNameLength) {
+            return false;
+        }
+        int rank;
+        if (start == 1 && (queryLength == firstNameLength || queryLength == textLength - 2)) {
+            rank = 0;
+        } else if (start == 1) {
+            rank = 1;
+        } else if (wordStart) {
+            rank = 2;
+        } else {
+            rank = 3;
+        }
+        topMatches.offer(((long) rank << 56) | ((long) Math.min(textLength, 0xFFFFFF) << 32) | doc);
+        return true;
+    }
+
+    // position (8 bits) | longueur du prénom (8) | longueur du texte (8) | précédé d'un espace (1).
+    private static int info(String text, int position, int firstNameLength) {
+        if (text.length() > MAX_PACKED_LENGTH) {
+            return UNPACKED;
+        }
+        int wordStart = position > 0 && text.charAt(position - 1) == ' ' ? 1 : 0;
+        return position << 17 | firstNameLength << 9 | text.length() << 1 | wordStart;
+    }
+
+    private void unindex(int doc) {
+        for (long entry : trigramEntries(texts[doc])) {
+            Postings postings = postingsByTrigram.get(entry >>> 8);
+            if (postings != null && postings.remove(doc) && postings.size == 0) {
+                postingsByTrigram.remove(entry >>> 8);
+            }
+        }
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (docCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            firstNameLengths = Arrays.copyOf(firstNameLengths, capacity);
+        }
+        return docCount++;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String withoutAccents = ACCENTS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutAccents.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    // Trigrammes distincts du texte avec leur première position : (3 caractères de 16 bits) << 8 | position.
+    private static long[] trigramEntries(String text) {
+        int count = Math.max(0, text.length() - 2);
+        long[] entries = new long[count];
+        for (int i = 0; i < count; i++) {
+            long trigram = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            entries[i] = trigram << 8 | Math.min(i, MAX_PACKED_LENGTH);
+        }
+        Arrays.sort(entries);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || entries[distinct - 1] >>> 8 != entries[i] >>> 8) {
+                entries[distinct++] = entries[i];
+            }
+        }
+        return Arrays.copyOf(entries, distinct);
+    }
+
+    /**
+     * Sorted document numbers containing one trigram, with the packed position and lengths of each.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+
+        private int[] infos = new int[4];
+
+        private int size;
+
+        private void add(int doc, int info) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+                infos = Arrays.copyOf(infos, docs.length);
+            }
+            // Cas courant (reconstruction, nouveaux clients) : le numéro est le plus grand, ajout en fin.
+            int position = size == 0 || docs[size - 1] < doc ? size : lowerBound(doc, 0);
+            System.arraycopy(docs, position, docs, position + 1, size - position);
+            System.arraycopy(infos, position, infos, position + 1, size - position);
+            docs[position] = doc;
+            infos[position] = info;
+            size++;
+        }
+
+        private boolean remove(int doc) {
+            int position = lowerBound(doc, 0);
+            if (position == size || docs[position] != doc) {
+                return false;
+            }
+            System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+            System.arraycopy(infos, position + 1, infos, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        // Première position >= from dont le numéro est >= doc ; recherche exponentielle depuis from, car
+        // les candidats arrivent dans l'ordre et sont souvent proches de la position précédente.
+        private int lowerBound(int doc, int from) {
+            int step = 1;
+            int low = from;
+            while (low + step < size && docs[low + step] < doc) {
+                low += step;
+                step <<= 1;
+            }
+            int high = Math.min(low + step, size);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < doc) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Keeps the {@code capacity} smallest keys (rank, text length, document) in a max-heap.
+     */
+    private static final class TopMatches {
+
+        private final long[] heap;
+
+        private int size;
+
+        private TopMatches(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        private void offer(long key) {
+            if (size < heap.length) {
+                int index = size++;
+                heap[index] = key;
+                while (index > 0 && heap[(index - 1) >>> 1] < heap[index]) {
+                    swap(index, (index - 1) >>> 1);
+                    index = (index - 1) >>> 1;
+                }
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                int index = 0;
+                while (true) {
+                    int largest = index;
+                    int left = 2 * index + 1;
+                    if (left < size && heap[left] > heap[largest]) {
+                        largest = left;
+                    }
+                    if (left + 1 < size && heap[left + 1] > heap[largest]) {
+                        largest = left + 1;
+                    }
+                    if (largest == index) {
+                        return;
+                    }
+                    swap(index, largest);
+                    index = largest;
+                }
+            }
+        }
+
+        private long[] sorted() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private void swap(int i, int j) {
+            long key = heap[i];
+            heap[i] = heap[j];
+            heap[j] = key;
+        }
+    }
+}
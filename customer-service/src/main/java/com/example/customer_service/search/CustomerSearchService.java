@@ -0,0 +1,106 @@
+package com.example.customer_service.search;
+
+import com.example.customer_service.model.Customer;
+import com.example.customer_service.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Owns the customer name index: rebuilt from the database once the application is ready,
+ * then kept up to date by the customer writes once their transaction has committed.
+ */
+@Service
+@Slf4j
+public class CustomerSearchService {
+
+    private final CustomerRepository customerRepository;
+
+    private final EntityManager entityManager;
+
+    private volatile CustomerNameIndex index = new CustomerNameIndex();
+
+    // Écritures reçues pendant une reconstruction, rejouées sur le nouvel index avant de le publier.
+    private List<Consumer<CustomerNameIndex>> pendingWrites;
+
+    public CustomerSearchService(CustomerRepository customerRepository, EntityManager entityManager) {
+        this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("CustomerSearchService::rebuild started");
+
+        synchronized (this) {
+            pendingWrites = new ArrayList<>();
+        }
+        CustomerNameIndex rebuilt = new CustomerNameIndex();
+        try (Stream<Customer> customerStream = customerRepository.streamAllByOrderByIdAsc()) {
+            customerStream.forEach(customer -> {
+                rebuilt.upsert(customer.getId(), customer.getFirstName(), customer.getLastName());
+                entityManager.detach(customer);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingWrites = null;
+            }
+            log.error("CustomerSearchService::rebuild - index not rebuilt, keeping the current one", e);
+            return;
+        }
+        synchronized (this) {
+            pendingWrites.forEach(write -> write.accept(rebuilt));
+            pendingWrites = null;
+            index = rebuilt;
+        }
+
+        log.info("CustomerSearchService::rebuild finished - {} customers indexed", rebuilt.size());
+    }
+
+    public List<String> search(String query, boolean firstNameOnly, int limit) {
+        return index.search(query, firstNameOnly, limit);
+    }
+
+    public void index(Customer customer) {
+        String customerId = customer.getId();
+        String firstName = customer.getFirstName();
+        String lastName = customer.getLastName();
+        afterCommit(nameIndex -> nameIndex.upsert(customerId, firstName, lastName));
+    }
+
+    public void remove(String customerId) {
+        afterCommit(nameIndex -> nameIndex.remove(customerId));
+    }
+
+    // Une transaction annulée ne doit pas laisser de trace dans l'index.
+    private void afterCommit(Consumer<CustomerNameIndex> write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(write);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(write);
+            }
+        });
+    }
+
+    private synchronized void apply(Consumer<CustomerNameIndex> write) {
+        if (pendingWrites != null) {
+            pendingWrites.add(write);
+        }
+        write.accept(index);
+    }
+}
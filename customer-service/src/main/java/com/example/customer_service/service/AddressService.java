@@ -1,17 +1,26 @@
 package com.example.customer_service.service;
 
+import com.example.customer_service.dto.CursorPageDto;
 import com.example.customer_service.dto.addressDto.AddressRequestDto;
 import com.example.customer_service.dto.addressDto.AddressResponseDto;
+import com.example.customer_service.exception.ResourceCustomerNotFoundException;
 import com.example.customer_service.mapper.AddressMapper;
 import com.example.customer_service.model.Address;
 import com.example.customer_service.repository.AddressRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +31,8 @@ public class AddressService {
 
     private final AddressMapper addressMapper;
 
+    private final EntityManager entityManager;
+
 
     public List<AddressResponseDto> getAddressAll() {
         log.info("AddressService::getAddressList started");
@@ -33,6 +44,32 @@ public class AddressService {
         return addressMapper.mapToAddressResponseDtoList(addressList);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<AddressResponseDto> getAddressPage(String after, int limit) {
+        log.info("AddressService::getAddressPage started");
+
+        int pageSize = CursorPageDto.pageSize(limit);
+        List<Address> addressList = addressRepository.findByIdGreaterThanOrderByIdAsc(after == null ? "" : after, Limit.of(pageSize + 1));
+
+        log.info("AddressService::getAddressPage finished");
+        return CursorPageDto.of(addressList, pageSize, addressMapper::mapToAddressResponseDto, Address::getId);
+    }
+
+    // Chaque ligne est détachée après écriture : la mémoire utilisée ne dépend pas de la taille de la table.
+    @Transactional(readOnly = true)
+    public void streamAllAddresses(Consumer<AddressResponseDto> consumer) {
+        log.info("AddressService::streamAllAddresses started");
+
+        try (Stream<Address> addressStream = addressRepository.streamAllByOrderByIdAsc()) {
+            addressStream.forEach(address -> {
+                consumer.accept(addressMapper.mapToAddressResponseDto(address));
+                entityManager.detach(address);
+            });
+        }
+
+        log.info("AddressService::streamAllAddresses finished");
+    }
+
     public AddressResponseDto getAddressById(String addressId) {
         log.info("AddressService::getAddressById started");
 
@@ -45,6 +82,36 @@ public class AddressService {
     }
 
 
+    @Transactional(readOnly = true)
+    public AddressResponseDto getDefaultAddress(String customerId) {
+        log.info("AddressService::getDefaultAddress started");
+
+        Address address = addressRepository.findByCustomerIdOrderByCreatedDate(customerId, Limit.of(1)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceCustomerNotFoundException("No address found for customer with id : " + customerId));
+
+        log.info("AddressService::getDefaultAddress finished");
+        return addressMapper.mapToAddressResponseDto(address);
+    }
+
+
+    @Transactional(readOnly = true)
+    public Map<String, AddressResponseDto> getDefaultAddresses(List<String> customerIds) {
+        log.info("AddressService::getDefaultAddresses started");
+
+        if (customerIds.size() > CustomerService.MAX_IDS) {
+            throw new IllegalArgumentException("At most " + CustomerService.MAX_IDS + " ids can be requested at once");
+        }
+        Map<String, AddressResponseDto> addresses = new HashMap<>();
+        for (Object[] row : addressRepository.findByCustomerIdInOrderByCreatedDate(new HashSet<>(customerIds))) {
+            addresses.putIfAbsent((String) row[0], addressMapper.mapToAddressResponseDto((Address) row[1]));
+        }
+
+        log.info("AddressService::getDefaultAddresses finished - {} of {} found", addresses.size(), customerIds.size());
+        return addresses;
+    }
+
+
     public void deleteAddressById(String addressId) {
         log.info("AddressService::deleteAddressById started");
 
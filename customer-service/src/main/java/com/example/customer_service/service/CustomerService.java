@@ -1,5 +1,8 @@
 package com.example.customer_service.service;
 
+import com.example.customer_service.cache.CacheTagEvict;
+import com.example.customer_service.cache.TwoLevelCache;
+import com.example.customer_service.dto.CursorPageDto;
 import com.example.customer_service.dto.customerDto.CustomerRequestDto;
 import com.example.customer_service.dto.customerDto.CustomerResponseDto;
 import com.example.customer_service.dto.customerDto.CustomerUpdateRequestDto;
@@ -7,33 +10,52 @@ import com.example.customer_service.mapper.CustomerMapper;
 import com.example.customer_service.model.Address;
 import com.example.customer_service.model.Customer;
 import com.example.customer_service.repository.CustomerRepository;
+import com.example.customer_service.search.CustomerSearchService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CustomerService {
 
+    public static final int MAX_IDS = 1000;
+
     private final CustomerRepository customerRepository;
 
+    private final CacheManager cacheManager;
+
     private final CustomerMapper customerMapper;
 
+    private final EntityManager entityManager;
+
+    private final CustomerSearchService customerSearchService;
+
     @Transactional
     @CircuitBreaker(name = "customerServiceBreaker", fallbackMethod = "customerServiceFallback")
     @Retry(name = "customerServiceBreaker", fallbackMethod = "customerServiceFallback")
     @RateLimiter(name = "createCustomerLimiter", fallbackMethod = "customerServiceFallback")
+    @CacheTagEvict(cacheNames = "customers", tags = "'all'")
     public CustomerResponseDto createCustomer(CustomerRequestDto customerRequestDto) {
         log.info("CustomerService::createCustomer started");
 
@@ -55,12 +77,13 @@ public class CustomerService {
 
         Customer savedCustomer = customerRepository.save(customer);
         log.info("CustomerService::createCustomer savedCustomer : {}", savedCustomer);
+        customerSearchService.index(savedCustomer);
 
         log.info("CustomerService::createCustomer finished");
         return customerMapper.mapToCustomerResponseDto(savedCustomer);
     }
 
-    @Cacheable(value = "customers", key = "'all'")
+    @Cacheable(value = "customers", key = "'all'", sync = true)
     public List<CustomerResponseDto> getCustomersAll() {
         log.info("CustomerService::getCustomersAll started");
 
@@ -71,7 +94,34 @@ public class CustomerService {
         return customerMapper.mapToCustomerResponseDtoList(customerList);
     }
 
-    @Cacheable(value = "customers", key = "#customerId")
+    @Transactional(readOnly = true)
+    public CursorPageDto<CustomerResponseDto> getCustomersPage(String after, int limit) {
+        log.info("CustomerService::getCustomersPage started");
+
+        int pageSize = CursorPageDto.pageSize(limit);
+        List<Customer> customerList = customerRepository.findByIdGreaterThanOrderByIdAsc(after == null ? "" : after, Limit.of(pageSize + 1));
+
+        log.info("CustomerService::getCustomersPage finished");
+        return CursorPageDto.of(customerList, pageSize, customerMapper::mapToCustomerResponseDto, Customer::getId);
+    }
+
+    // Chaque ligne est détachée après écriture : la mémoire utilisée ne dépend pas de la taille de la table.
+    @Transactional(readOnly = true)
+    public void streamAllCustomers(Consumer<CustomerResponseDto> consumer) {
+        log.info("CustomerService::streamAllCustomers started");
+
+        try (Stream<Customer> customerStream = customerRepository.streamAllByOrderByIdAsc()) {
+            customerStream.forEach(customer -> {
+                consumer.accept(customerMapper.mapToCustomerResponseDto(customer));
+                entityManager.detach(customer);
+            });
+        }
+
+        log.info("CustomerService::streamAllCustomers finished");
+    }
+
+    @Cacheable(value = "customers", key = "#customerId", sync = true)
+    @Transactional(readOnly = true)
     public CustomerResponseDto getCustomerById(String customerId) {
         log.info("CustomerService::getCustomerById started");
 
@@ -83,22 +133,48 @@ public class CustomerService {
         return customerMapper.mapToCustomerResponseDto(customer);
     }
 
-    @Cacheable(value = "customers", key = "#firstName")
-    public List<CustomerResponseDto> getCustomersByFirstName(String firstName) {
+    // Lecture groupée : mémoire puis un seul MGET Redis, et une seule requête findAllById pour les absents.
+    @Transactional(readOnly = true)
+    public List<CustomerResponseDto> getCustomersByIds(List<String> ids) {
+        log.info("CustomerService::getCustomersByIds started");
+
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be requested at once");
+        }
+        Map<String, CustomerResponseDto> customers = cacheManager.getCache("customers") instanceof TwoLevelCache cache
+                ? cache.getAll(ids, this::loadCustomers)
+                : loadCustomers(new LinkedHashSet<>(ids));
+        List<CustomerResponseDto> result = ids.stream()
+                .distinct()
+                .map(customers::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        log.info("CustomerService::getCustomersByIds finished - {} of {} found", result.size(), ids.size());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CustomerResponseDto> getCustomersByFirstName(String firstName, int limit) {
         log.info("CustomerService::getCustomerByFirstName started");
 
-        List<Customer> customerList = getCustomers();
+        List<Customer> customers = getCustomersInOrder(customerSearchService.search(firstName, true, limit));
 
-        List<Customer> customers = customerList.stream().filter(customer -> customer.getFirstName().contains(firstName)).sorted().toList();
+        log.info("CustomerService::getCustomerByFirstName finished - {} customers", customers.size());
+        return customerMapper.mapToCustomerResponseDtoList(customers);
+    }
 
-        log.info("CustomerService::getCustomerByFirstName customers : {}", customers);
+    @Transactional(readOnly = true)
+    public List<CustomerResponseDto> searchCustomers(String query, int limit) {
+        log.info("CustomerService::searchCustomers started");
 
+        List<Customer> customers = getCustomersInOrder(customerSearchService.search(query, false, limit));
 
-        log.info("CustomerService::getCustomerByFirstName finished");
+        log.info("CustomerService::searchCustomers finished - {} customers", customers.size());
         return customerMapper.mapToCustomerResponseDtoList(customers);
     }
 
-    @CacheEvict(value = "customers", key = "#customerId", allEntries = true)
+    @CacheTagEvict(cacheNames = "customers", tags = "'customer:' + #customerId")
     public void deleteCustomerById(String customerId) {
         log.info("CustomerService::deleteCustomerById started");
 
@@ -107,10 +183,12 @@ public class CustomerService {
 
 
         customerRepository.deleteById(String.valueOf(customer.getId()));
+        customerSearchService.remove(customer.getId());
         log.info("CustomerService::deleteCustomerById finished");
     }
 
-    @CacheEvict(value = "customers", key = "#customerId", allEntries = true)
+    @Transactional
+    @CacheTagEvict(cacheNames = "customers", tags = "'customer:' + #customerId")
     public CustomerResponseDto updateCustomer(String customerId, CustomerUpdateRequestDto customerUpdateRequestDto) {
         log.info("CustomerService::updateCustomer started");
 
@@ -126,6 +204,7 @@ public class CustomerService {
 
         Customer updatedCustomer = customerRepository.save(customer);
         log.info("CustomerService::updateCustomer updatedCustomer : {}", updatedCustomer);
+        customerSearchService.index(updatedCustomer);
 
 
         log.info("CustomerService::updateCustomer finished");
@@ -140,10 +219,29 @@ public class CustomerService {
         return customerRepository.findAll();
     }
 
+    // Seuls les clients trouvés par l'index sont lus, puis remis dans l'ordre du classement.
+    private List<Customer> getCustomersInOrder(List<String> customerIds) {
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < customerIds.size(); i++) {
+            ranks.put(customerIds.get(i), i);
+        }
+        return customerRepository.findAllById(customerIds).stream()
+                .sorted(Comparator.comparing(customer -> ranks.get(customer.getId())))
+                .toList();
+    }
+
     private CustomerResponseDto customerServiceFallback(Exception exception) {
         log.info("fallback is executed because servise is down :{}", exception.getMessage());
         return CustomerResponseDto.builder().build();
     }
 
-
+    private Map<String, CustomerResponseDto> loadCustomers(Set<String> ids) {
+        Map<String, CustomerResponseDto> customers = new HashMap<>();
+        customerRepository.findAllById(ids)
+                .forEach(customer -> customers.put(customer.getId(), customerMapper.mapToCustomerResponseDto(customer)));
+        return customers;
+    }
 }
@@ -0,0 +1,90 @@
+package com.example.customer_service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the former load-everything-and-contains path of getCustomersByFirstName with the
+ * trigram index. Run with {@code mvn test -Dtest=CustomerNameIndexBenchmark}
+ * ({@code -Dbenchmark.customers=N} to change the number of customers, 1M by default).
+ */
+class CustomerNameIndexBenchmark {
+
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.customers", 1_000_000);
+    private static final int ITERATIONS = 200;
+    private static final String CONSONANTS = "bcdfghjklmnprstvz";
+    private static final String VOWELS = "aeiouy";
+
+    @Test
+    void indexAnswersSubstringQueriesInUnderAMillisecond() {
+        Random random = new Random(42);
+        List<String[]> customers = new ArrayList<>(CUSTOMERS);
+        CustomerNameIndex index = new CustomerNameIndex();
+        long start = System.nanoTime();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String[] name = {name(random), name(random)};
+            customers.add(name);
+            index.upsert("customer-" + i, name[0], name[1]);
+        }
+        System.out.printf("index build: %d customers in %dms%n", CUSTOMERS, (System.nanoTime() - start) / 1_000_000);
+
+        // Requêtes tirées des prénoms existants : 2 à 6 caractères, début ou milieu du prénom.
+        String[] queries = new String[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            String firstName = customers.get(random.nextInt(CUSTOMERS))[0].toLowerCase(Locale.ROOT);
+            int length = Math.min(firstName.length(), 2 + random.nextInt(5));
+            int from = length < 3 ? 0 : random.nextInt(firstName.length() - length + 1);
+            queries[i] = firstName.substring(from, from + length);
+        }
+
+        long[] scan = measure(queries, query -> customers.stream()
+                .filter(name -> name[0].toLowerCase(Locale.ROOT).contains(query))
+                .count(), ITERATIONS / 10);
+        measure(queries, query -> index.search(query, true, 20).size(), ITERATIONS);
+        long[] indexed = measure(queries, query -> index.search(query, true, 20).size(), ITERATIONS);
+
+        System.out.printf("scan:  p50=%dus p99=%dus%n", percentile(scan, 50), percentile(scan, 99));
+        System.out.printf("index: p50=%dus p99=%dus%n", percentile(indexed, 50), percentile(indexed, 99));
+
+        assertTrue(percentile(indexed, 50) < 1_000, "index p50 should stay under 1ms");
+        assertTrue(percentile(indexed, 50) < percentile(scan, 50));
+    }
+
+    private static long[] measure(String[] queries, ToLongFunction<String> search, int iterations) {
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            String query = queries[i];
+            long start = System.nanoTime();
+            search.applyAsLong(query);
+            samples[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    // Alternance consonne/voyelle : des noms prononçables de 4 à 9 lettres.
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        boolean consonant = random.nextBoolean();
+        for (int i = 0, n = 4 + random.nextInt(6); i < n; i++) {
+            String letters = consonant ? CONSONANTS : VOWELS;
+            name.append(letters.charAt(random.nextInt(letters.length())));
+            consonant = !consonant;
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.customer_service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CustomerNameIndexTest {
+
+    private static final String[] FIRST_NAMES = {"Jean", "Jeanne", "Hélène", "Mohamed", "Marie", "Anne-Sophie", "Yasmine", "Léo"};
+    private static final String[] LAST_NAMES = {"Dupont", "El Haddioui", "Martin", "Bernard", "Lefèvre", "Durand", "Moreau"};
+
+    private final CustomerNameIndex index = new CustomerNameIndex();
+
+    @Test
+    void substringMatchesIgnoreCaseAndAccents() {
+        index.upsert("1", "Hélène", "Lefèvre");
+        index.upsert("2", "Jean", "Dupont");
+
+        assertEquals(List.of("1"), index.search("LENE", false, 10));
+        assertEquals(List.of("1"), index.search("lefev", false, 10));
+        assertEquals(List.of("2"), index.search("jean dup", false, 10));
+        assertEquals(List.of(), index.search("xyz", false, 10));
+    }
+
+    @Test
+    void resultsAreRankedAndLimited() {
+        index.upsert("substring", "Marjean", "Martin");
+        index.upsert("word-prefix", "Marie", "Jeanson");
+        index.upsert("prefix", "Jeanne", "Durand");
+        index.upsert("exact", "Jean", "Moreau");
+
+        assertEquals(List.of("exact", "prefix", "word-prefix", "substring"), index.search("jean", false, 10));
+        assertEquals(List.of("exact", "prefix"), index.search("jean", false, 2));
+    }
+
+    @Test
+    void firstNameOnlyIgnoresLastNames() {
+        index.upsert("1", "Marie", "Jeanson");
+        index.upsert("2", "Jeanne", "Durand");
+
+        assertEquals(List.of("2"), index.search("jean", true, 10));
+    }
+
+    @Test
+    void shortQueriesMatchTheStartOfAWord() {
+        index.upsert("1", "Jean", "Dupont");
+        index.upsert("2", "Marie", "Bernard");
+
+        assertEquals(List.of("1"), index.search("du", false, 10));
+        assertEquals(List.of(), index.search("on", false, 10));
+        assertEquals(List.of("2"), index.search("b", false, 10));
+    }
+
+    @Test
+    void updatesAndDeletesAreVisibleToTheNextSearch() {
+        Random random = new Random(7);
+        Map<String, String[]> customers = new LinkedHashMap<>();
+        for (int i = 0; i < 3_000; i++) {
+            // Moins de clients que MAX_LIMIT : la recherche doit tous les renvoyer.
+            String id = "customer-" + random.nextInt(CustomerNameIndex.MAX_LIMIT - 20);
+            if (random.nextInt(4) == 0) {
+                customers.remove(id);
+                index.remove(id);
+            } else {
+                String[] name = {FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)]};
+                customers.put(id, name);
+                index.upsert(id, name[0], name[1]);
+            }
+            if (i % 50 == 0) {
+                for (String query : List.of("jean", "ne", "haddi", "e m", "ÈVRE", "l")) {
+                    assertEquals(bruteForce(customers, query), new HashSet<>(index.search(query, false, CustomerNameIndex.MAX_LIMIT)), query);
+                }
+            }
+        }
+        assertEquals(customers.size(), index.size());
+    }
+
+    private static Set<String> bruteForce(Map<String, String[]> customers, String query) {
+        String normalizedQuery = CustomerNameIndex.normalize(query);
+        String pattern = normalizedQuery.length() < 3 ? " " + normalizedQuery : normalizedQuery;
+        List<String> matches = new ArrayList<>();
+        customers.forEach((id, name) -> {
+            String text = " " + CustomerNameIndex.normalize(name[0]) + " " + CustomerNameIndex.normalize(name[1]) + " ";
+            if (text.contains(pattern)) {
+                matches.add(id);
+            }
+        });
+        return new HashSet<>(matches);
+    }
+}
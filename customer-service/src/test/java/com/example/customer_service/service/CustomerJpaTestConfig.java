@@ -0,0 +1,20 @@
+package com.example.customer_service.service;
+
+import com.example.customer_service.model.Customer;
+import com.example.customer_service.repository.CustomerRepository;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * JPA-only context for service tests: the application class would also bring up
+ * Feign clients and the sample data runner. Caching is enabled so the test slice
+ * provides its no-op cache manager.
+ */
+@Configuration
+@EnableCaching
+@EntityScan(basePackageClasses = Customer.class)
+@EnableJpaRepositories(basePackageClasses = CustomerRepository.class)
+class CustomerJpaTestConfig {
+}
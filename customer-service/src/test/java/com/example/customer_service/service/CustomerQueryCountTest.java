@@ -0,0 +1,132 @@
+package com.example.customer_service.service;
+
+import com.example.customer_service.dto.CursorPageDto;
+import com.example.customer_service.dto.addressDto.AddressResponseDto;
+import com.example.customer_service.dto.customerDto.CustomerResponseDto;
+import com.example.customer_service.enums.Country;
+import com.example.customer_service.mapper.AddressMapper;
+import com.example.customer_service.mapper.CustomerMapper;
+import com.example.customer_service.model.Address;
+import com.example.customer_service.model.Customer;
+import com.example.customer_service.repository.CustomerRepository;
+import com.example.customer_service.search.CustomerSearchService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the SQL statements issued per service call through the Hibernate statistics.
+ */
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ContextConfiguration(classes = CustomerJpaTestConfig.class)
+@Import({CustomerService.class, CustomerMapper.class, CustomerSearchService.class, AddressService.class, AddressMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerQueryCountTest {
+
+    private static final int CUSTOMERS = 20;
+    private static final int ADDRESSES = 3;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final List<Customer> customers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAll();
+        LocalDateTime createdDate = LocalDateTime.now();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            List<Address> addressList = new ArrayList<>();
+            for (int j = 0; j < ADDRESSES; j++) {
+                addressList.add(Address.builder()
+                        .country(Country.FRANCE)
+                        .city("city-" + i + "-" + j)
+                        .createdDate(createdDate.minusDays(j == 1 ? 1 : 0).plusMinutes(j))
+                        .build());
+            }
+            customers.add(customerRepository.save(Customer.builder()
+                    .firstName("first-" + i)
+                    .lastName("last-" + i)
+                    .createdDate(createdDate)
+                    .addressList(addressList)
+                    .build()));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void customerListLoadsAddressesInTheSameQuery() {
+        List<CustomerResponseDto> result = customerService.getCustomersAll();
+
+        assertEquals(CUSTOMERS, result.size());
+        result.forEach(customer -> assertEquals(ADDRESSES, customer.getAddressList().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void customerPageLoadsAddressesInOneBatch() {
+        CursorPageDto<CustomerResponseDto> page = customerService.getCustomersPage(null, 10);
+
+        assertEquals(10, page.getItems().size());
+        page.getItems().forEach(customer -> assertEquals(ADDRESSES, customer.getAddressList().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void defaultAddressIsTheOldestAndASingleQuery() {
+        AddressResponseDto address = addressService.getDefaultAddress(customers.get(5).getId());
+
+        assertEquals("city-5-1", address.getCity());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void customersByIdsKeepTheRequestOrderInTwoQueries() {
+        List<String> ids = List.of(customers.get(7).getId(), "unknown", customers.get(2).getId(), customers.get(7).getId());
+
+        List<CustomerResponseDto> result = customerService.getCustomersByIds(ids);
+
+        assertEquals(List.of(customers.get(7).getId(), customers.get(2).getId()),
+                result.stream().map(CustomerResponseDto::getId).toList());
+        result.forEach(customer -> assertEquals(ADDRESSES, customer.getAddressList().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void defaultAddressesOfSeveralCustomersTakeASingleQuery() {
+        List<String> ids = customers.stream().map(Customer::getId).toList();
+
+        Map<String, AddressResponseDto> addresses = addressService.getDefaultAddresses(ids);
+
+        assertEquals(CUSTOMERS, addresses.size());
+        assertEquals("city-5-1", addresses.get(customers.get(5).getId()).getCity());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.inventory_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Aspect
+@Slf4j
+@RequiredArgsConstructor
+public class CacheTagEvictAspect {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    @AfterReturning(pointcut = "@annotation(cacheTagEvict)", returning = "result")
+    public void evict(JoinPoint joinPoint, CacheTagEvict cacheTagEvict, Object result) {
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(joinPoint.getTarget(),
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getArgs(), parameterNameDiscoverer);
+        context.setVariable("result", result);
+
+        Set<String> tags = new LinkedHashSet<>();
+        for (String tagExpression : cacheTagEvict.tags()) {
+            Object value;
+            try {
+                value = expressions.computeIfAbsent(tagExpression, parser::parseExpression).getValue(context);
+            } catch (Exception e) {
+                log.warn("CacheTagEvictAspect::evict - tag expression {} could not be evaluated", tagExpression, e);
+                continue;
+            }
+            if (value instanceof Collection<?> values) {
+                values.stream().filter(Objects::nonNull).forEach(v -> tags.add(v.toString()));
+            } else if (value != null) {
+                tags.add(value.toString());
+            }
+        }
+        if (tags.isEmpty()) {
+            return;
+        }
+
+        // Invalider avant le commit laisserait une lecture concurrente remettre l'ancienne valeur en cache.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictTags(cacheTagEvict.cacheNames(), tags);
+                }
+            });
+        } else {
+            evictTags(cacheTagEvict.cacheNames(), tags);
+        }
+    }
+
+    private void evictTags(String[] cacheNames, Set<String> tags) {
+        for (String cacheName : cacheNames) {
+            try {
+                int evicted = cacheManager.evictTags(cacheName, tags);
+                log.debug("CacheTagEvictAspect::evictTags - cache: {}, tags: {}, evicted: {}", cacheName, tags, evicted);
+            } catch (Exception e) {
+                log.warn("CacheTagEvictAspect::evictTags failed for cache: {}, tags: {}", cacheName, tags, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.inventory_service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Tracks which cache keys depend on which tags, so a write can evict exactly the entries it affects.
+ */
+public interface CacheTagIndex {
+
+    void tag(String cacheName, Object key, Collection<String> tags, Duration ttl);
+
+    /**
+     * Returns the keys registered under any of the given tags and drops those tags from the index.
+     */
+    Set<Object> removeTags(String cacheName, Collection<String> tags);
+}
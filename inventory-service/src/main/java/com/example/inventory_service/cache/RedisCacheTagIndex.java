@@ -0,0 +1,81 @@
+package com.example.inventory_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tag index stored as one Redis set per tag: {@code <prefix>:<cache>:<tag> -> {key, ...}}.
+ * Tag sets expire with the L2 TTL of their cache so the index never outlives the entries it points to.
+ */
+@Slf4j
+public class RedisCacheTagIndex implements CacheTagIndex {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final String prefix;
+
+    public RedisCacheTagIndex(RedisTemplate<String, Object> redisTemplate, String prefix) {
+        this.redisTemplate = redisTemplate;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void tag(String cacheName, Object key, Collection<String> tags, Duration ttl) {
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (String tag : tags) {
+                        String tagKey = tagKey(cacheName, tag);
+                        operations.opsForSet().add(tagKey, key);
+                        operations.expire(tagKey, ttl);
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            // Sans tag, l'entrée ne sera invalidée que par son TTL.
+            log.warn("RedisCacheTagIndex::tag failed for cache: {}, key: {}", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public Set<Object> removeTags(String cacheName, Collection<String> tags) {
+        List<String> tagKeys = tags.stream().map(tag -> tagKey(cacheName, tag)).toList();
+        // SMEMBERS et DEL dans la même transaction : une clé taguée entre les deux ne peut pas être perdue.
+        List<Object> results = redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<Object> execute(RedisOperations operations) throws DataAccessException {
+                operations.multi();
+                tagKeys.forEach(tagKey -> operations.opsForSet().members(tagKey));
+                operations.delete(tagKeys);
+                return operations.exec();
+            }
+        });
+
+        Set<Object> keys = new HashSet<>();
+        if (results != null) {
+            for (int i = 0; i < tagKeys.size() && i < results.size(); i++) {
+                if (results.get(i) instanceof Collection<?> members) {
+                    keys.addAll(members);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private String tagKey(String cacheName, String tag) {
+        return prefix + ":" + cacheName + ":" + tag;
+    }
+}
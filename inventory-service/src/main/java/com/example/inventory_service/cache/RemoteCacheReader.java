@@ -0,0 +1,30 @@
+package com.example.inventory_service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads several entries of the L2 tier at once.
+ */
+public interface RemoteCacheReader {
+
+    /**
+     * Returns the stored values in the order of the keys, {@code null} where a key is missing.
+     */
+    List<Object> getAll(List<String> keys);
+
+    // Repli pour les caches sans lecture groupée : une lecture par clé.
+    static RemoteCacheReader perKey(Cache remoteCache) {
+        return keys -> {
+            List<Object> values = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                Cache.ValueWrapper value = remoteCache.get(key);
+                values.add(value == null ? null : value.get() == null ? NullValue.INSTANCE : value.get());
+            }
+            return values;
+        };
+    }
+}
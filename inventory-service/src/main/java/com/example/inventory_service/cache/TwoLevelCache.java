@@ -0,0 +1,377 @@
+package com.example.inventory_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Near-cache: a bounded Caffeine map (L1) in front of the shared Redis cache (L2).
+ * Evictions are applied to both tiers and broadcast so the other replicas drop their L1 copy.
+ * Stored entries are registered in the tag index so writes can evict them by dependency tag.
+ * <p>
+ * {@link #get(Object, Callable)} (used by {@code @Cacheable(sync = true)}) loads each key at most once
+ * per node at a time: concurrent callers wait for the running load instead of hitting the database.
+ * Values loaded here are also refreshed early with probability growing towards their L2 expiry
+ * (XFetch: refresh when {@code now - loadTime * beta * ln(rand) >= expiry}), so a hot key is
+ * usually reloaded by one caller before it expires for everyone.
+ * <p>
+ * {@link #getAll(Collection, Function)} reads many keys with one L2 round-trip and one load for the misses.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+
+    private final Cache remoteCache;
+
+    private final RemoteCacheReader remoteReader;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final CacheTagIndex tagIndex;
+
+    private final CacheTagResolver tagResolver;
+
+    private final Duration remoteTtl;
+
+    private final double earlyRefreshBeta;
+
+    private final Duration singleFlightTimeout;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, LoadStats> loadStats;
+
+    private final Counter l1Hits;
+
+    private final Counter l1Misses;
+
+    private final Counter l2Hits;
+
+    private final Counter l2Misses;
+
+    private final Timer loadTimer;
+
+    private final Counter coalescedLoads;
+
+    private final Counter earlyRefreshes;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache,
+                         Cache remoteCache,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         CacheTagIndex tagIndex,
+                         CacheTagResolver tagResolver,
+                         TwoLevelCacheProperties properties,
+                         MeterRegistry meterRegistry) {
+        this(name, localCache, remoteCache, RemoteCacheReader.perKey(remoteCache), invalidationPublisher, tagIndex,
+                tagResolver, properties, meterRegistry);
+    }
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache,
+                         Cache remoteCache,
+                         RemoteCacheReader remoteReader,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         CacheTagIndex tagIndex,
+                         CacheTagResolver tagResolver,
+                         TwoLevelCacheProperties properties,
+                         MeterRegistry meterRegistry) {
+        super(true);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.remoteReader = remoteReader;
+        this.invalidationPublisher = invalidationPublisher;
+        this.tagIndex = tagIndex;
+        this.tagResolver = tagResolver;
+        this.remoteTtl = properties.l2TtlFor(name);
+        this.earlyRefreshBeta = properties.earlyRefreshBetaFor(name);
+        this.singleFlightTimeout = properties.getSingleFlightTimeout();
+        this.loadStats = Caffeine.newBuilder()
+                .maximumSize(properties.l1MaxSizeFor(name))
+                .expireAfterWrite(remoteTtl)
+                .build();
+        this.l1Hits = requests(meterRegistry, "l1", "hit");
+        this.l1Misses = requests(meterRegistry, "l1", "miss");
+        this.l2Hits = requests(meterRegistry, "l2", "hit");
+        this.l2Misses = requests(meterRegistry, "l2", "miss");
+        this.loadTimer = Timer.builder("cache.two-level.load")
+                .description("Time spent loading values on a miss in both tiers")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.coalescedLoads = Counter.builder("cache.two-level.coalesced")
+                .description("Callers that waited for a load already running for the same key")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.earlyRefreshes = Counter.builder("cache.two-level.early-refresh")
+                .description("Values reloaded before their expiry")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.two-level.size", localCache, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .description("Approximate number of entries in the in-memory tier")
+                .tags("cache", name, "tier", "l1")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        l1Misses.increment();
+
+        ValueWrapper remoteValue = remoteCache.get(key);
+        if (remoteValue == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        Object storeValue = toStoreValue(remoteValue.get());
+        localCache.put(key, storeValue);
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            if (shouldRefreshEarly(key)) {
+                CompletableFuture<Object> refresh = new CompletableFuture<>();
+                // Si un chargement est déjà en cours, la valeur actuelle reste valable jusqu'à son expiration.
+                if (inFlight.putIfAbsent(key, refresh) == null) {
+                    earlyRefreshes.increment();
+                    try {
+                        return (T) loadAndPut(key, valueLoader, refresh);
+                    } catch (RuntimeException e) {
+                        // Le rafraîchissement anticipé est facultatif : la valeur en cache n'a pas encore expiré.
+                        return (T) cached.get();
+                    }
+                }
+            }
+            return (T) cached.get();
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            coalescedLoads.increment();
+            return (T) await(key, valueLoader, running);
+        }
+        // Le chargement précédent a pu se terminer entre la lecture et la réservation de la clé.
+        Object loaded = localCache.getIfPresent(key);
+        if (loaded != null) {
+            inFlight.remove(key, load);
+            load.complete(fromStoreValue(loaded));
+            return (T) fromStoreValue(loaded);
+        }
+        return (T) loadAndPut(key, valueLoader, load);
+    }
+
+    /**
+     * Values of the given keys, read from L1, then from L2 in one round-trip; the keys found in
+     * neither tier are passed to a single {@code valueLoader} call and stored. Keys without a
+     * value are left out of the result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getAll(Collection<String> keys, Function<Set<String>, Map<String, T>> valueLoader) {
+        Map<String, T> values = new HashMap<>();
+        List<String> remoteKeys = new ArrayList<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            Object storeValue = localCache.getIfPresent(key);
+            if (storeValue == null) {
+                l1Misses.increment();
+                remoteKeys.add(key);
+                continue;
+            }
+            l1Hits.increment();
+            T value = (T) fromStoreValue(storeValue);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return values;
+        }
+
+        Set<String> missingKeys = new LinkedHashSet<>();
+        List<Object> remoteValues = remoteReader.getAll(remoteKeys);
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            String key = remoteKeys.get(i);
+            Object storeValue = remoteValues.get(i);
+            if (storeValue == null) {
+                l2Misses.increment();
+                missingKeys.add(key);
+                continue;
+            }
+            l2Hits.increment();
+            localCache.put(key, storeValue);
+            T value = (T) fromStoreValue(storeValue);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return values;
+        }
+
+        long start = System.nanoTime();
+        Map<String, T> loaded;
+        try {
+            loaded = valueLoader.apply(missingKeys);
+        } finally {
+            loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        loaded.forEach((key, value) -> {
+            put(key, value);
+            values.put(key, value);
+        });
+        return values;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        localCache.put(key, toStoreValue(value));
+        Collection<String> tags = tagResolver.tagsFor(key, value);
+        if (!tags.isEmpty()) {
+            tagIndex.tag(name, key, tags, remoteTtl);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        localCache.invalidate(key);
+        loadStats.invalidate(key);
+        invalidationPublisher.publish(name, key);
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.invalidateAll();
+        loadStats.invalidateAll();
+        invalidationPublisher.publish(name, null);
+    }
+
+    public int evictTags(Collection<String> tags) {
+        Set<Object> keys = tagIndex.removeTags(name, tags);
+        keys.forEach(this::evict);
+        return keys.size();
+    }
+
+    void invalidateLocal(Object key) {
+        localCache.invalidate(key);
+        loadStats.invalidate(key);
+    }
+
+    void invalidateLocalAll() {
+        localCache.invalidateAll();
+        loadStats.invalidateAll();
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader, CompletableFuture<Object> load) {
+        try {
+            Object value = load(key, valueLoader);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> running) {
+        try {
+            return running.get(singleFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (TimeoutException e) {
+            // Le chargement en cours est bloqué : on charge nous-mêmes plutôt que d'attendre indéfiniment.
+            return load(key, valueLoader);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        long loadNanos = System.nanoTime() - start;
+        put(key, value);
+        loadStats.put(key, new LoadStats(System.nanoTime() + remoteTtl.toNanos(), loadNanos));
+        return value;
+    }
+
+    private boolean shouldRefreshEarly(Object key) {
+        if (earlyRefreshBeta <= 0) {
+            return false;
+        }
+        LoadStats stats = loadStats.getIfPresent(key);
+        if (stats == null) {
+            return false;
+        }
+        double gap = stats.loadNanos() * earlyRefreshBeta * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.nanoTime() + gap >= stats.expiresAtNanos();
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.two-level.requests")
+                .description("Cache lookups per tier and result")
+                .tags("cache", name, "tier", tier, "result", result)
+                .register(meterRegistry);
+    }
+
+    private record LoadStats(long expiresAtNanos, long loadNanos) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.inventory_service.config;
+
+import com.example.inventory_service.cache.CacheTagResolver;
+import com.example.inventory_service.cache.CacheTagResolvers;
+import com.example.inventory_service.dto.InventoryResponseDto;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Tags used by the inventories cache: inventory:{id} and product:{productId} on every entry
+ * containing the inventory, all on the full list.
+ */
+@Configuration
+public class CacheTagConfig {
+
+    @Bean
+    public CacheTagResolvers cacheTagResolvers() {
+        return new CacheTagResolvers()
+                .register("inventories", CacheTagResolver.forEntity(InventoryResponseDto.class,
+                        inventory -> List.of("inventory:" + inventory.getId(), "product:" + inventory.getProductId()),
+                        key -> List.of("all")));
+    }
+}
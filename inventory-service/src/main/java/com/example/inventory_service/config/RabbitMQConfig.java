@@ -1,11 +1,18 @@
 package com.example.inventory_service.config;
 
+import org.springframework.amqp.ImmediateRequeueAmqpException;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -21,10 +28,64 @@ public class RabbitMQConfig {
     @Value("${rabbit.mq.queue.name}")
     private String queue;
 
+    @Value("${rabbit.mq.queue.dead-letter.exchange.name}")
+    private String deadLetterExchange;
 
+    @Value("${rabbit.mq.queue.dead-letter.queue.name}")
+    private String deadLetterQueue;
+
+    @Value("${rabbit.mq.batch.size:100}")
+    private int batchSize;
+
+    @Value("${rabbit.mq.batch.receive-timeout:200}")
+    private long receiveTimeout;
+
+    @Value("${rabbit.mq.batch.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${rabbit.mq.batch.retry.initial-interval:1000}")
+    private long retryInitialInterval;
+
+    @Value("${rabbit.mq.batch.retry.max-interval:10000}")
+    private long retryMaxInterval;
+
+
+    // Un message rejeté sans remise en file part dans la DLQ au lieu d'être perdu.
+    // Déclarée avec les mêmes arguments par payment-service, qui publie dans cette file.
     @Bean
     public Queue queue() {
-        return new Queue(queue);
+        return QueueBuilder.durable(queue)
+                .deadLetterExchange(deadLetterExchange)
+                .deadLetterRoutingKey(deadLetterQueue)
+                .build();
+    }
+
+
+    @Bean
+    public DirectExchange deadLetterExchange() {
+        return new DirectExchange(deadLetterExchange);
+    }
+
+
+    @Bean
+    public Queue deadLetterQueue() {
+        return QueueBuilder.durable(deadLetterQueue).build();
+    }
+
+
+    @Bean
+    public Binding deadLetterBinding() {
+        return BindingBuilder
+                .bind(deadLetterQueue())
+                .to(deadLetterExchange())
+                .with(deadLetterQueue);
+    }
+
+
+    // Met de côté un message invalide, avec la cause de l'échec dans les en-têtes x-exception-*.
+    @Bean
+    public MessageRecoverer inventoryDeadLetterRecoverer(AmqpTemplate amqpTemplate) {
+        return new RepublishMessageRecoverer(amqpTemplate, deadLetterExchange, deadLetterQueue);
     }
 
 
@@ -49,6 +110,31 @@ public class RabbitMQConfig {
     }
 
 
+    // Livre les messages par lots : le lot est remis dès qu'il est plein ou après receive-timeout sans nouveau message.
+    // Seules les erreurs passagères (base indisponible) sortent du listener : le lot est retenté sur place,
+    // puis remis en file pour qu'aucune baisse de stock payée ne soit perdue.
+    @Bean
+    public SimpleRabbitListenerContainerFactory inventoryBatchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(converter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(Math.max(batchSize, 250));
+        factory.setReceiveTimeout(receiveTimeout);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(retryMaxAttempts)
+                .backOffOptions(retryInitialInterval, 2.0, retryMaxInterval)
+                .recoverer((MessageBatchRecoverer) (messages, cause) -> {
+                    throw new ImmediateRequeueAmqpException("Requeueing " + messages.size() + " inventory stock messages", cause);
+                })
+                .build());
+        return factory;
+    }
+
+
     @Bean
     public AmqpTemplate template(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
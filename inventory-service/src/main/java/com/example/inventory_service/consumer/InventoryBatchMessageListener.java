@@ -0,0 +1,100 @@
+package com.example.inventory_service.consumer;
+
+import com.example.inventory_service.dto.InventoryStockMessage;
+import com.example.inventory_service.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(name = "rabbit.mq.batch.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryBatchMessageListener {
+
+    private final InventoryService inventoryService;
+
+    private final MessageConverter messageConverter;
+
+    private final MessageRecoverer inventoryDeadLetterRecoverer;
+
+
+    // Un message invalide est mis de côté seul ; une erreur passagère remonte et le lot entier est retenté.
+    @RabbitListener(queues = {"${rabbit.mq.queue.name}"}, containerFactory = "inventoryBatchListenerContainerFactory")
+    public void receiveInventoryUpdateMessages(List<Message> messages) {
+        log.info("RECEIVED BATCH -> {} messages", messages.size());
+
+        List<Message> accepted = new ArrayList<>(messages.size());
+        List<InventoryStockMessage> stockMessages = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                stockMessages.add(toStockMessage(message));
+                accepted.add(message);
+            } catch (MessageConversionException e) {
+                deadLetter(message, e);
+            }
+        }
+        if (stockMessages.isEmpty()) {
+            return;
+        }
+
+        try {
+            inventoryService.decreaseStock(stockMessages);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            log.warn("Inventory update batch failed, processing its {} messages one by one", stockMessages.size(), e);
+            for (int i = 0; i < stockMessages.size(); i++) {
+                decreaseStock(stockMessages.get(i), accepted.get(i));
+            }
+        }
+    }
+
+    private void decreaseStock(InventoryStockMessage stockMessage, Message message) {
+        try {
+            inventoryService.decreaseStock(List.of(stockMessage));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            deadLetter(message, e);
+        }
+    }
+
+    private InventoryStockMessage toStockMessage(Message message) {
+        message.getMessageProperties().setInferredArgumentType(InventoryStockMessage.class);
+        if (!(messageConverter.fromMessage(message) instanceof InventoryStockMessage stockMessage)
+                || stockMessage.getInventoryId() == null || stockMessage.getQuantity() <= 0) {
+            throw new MessageConversionException("Not a valid inventory stock message");
+        }
+        return stockMessage;
+    }
+
+    private void deadLetter(Message message, Exception cause) {
+        log.error("Moving inventory stock message to the dead letter queue - message id: {}",
+                message.getMessageProperties().getMessageId(), cause);
+        inventoryDeadLetterRecoverer.recover(message, cause);
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+}
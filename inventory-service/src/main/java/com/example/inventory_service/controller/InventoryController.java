@@ -1,9 +1,12 @@
 package com.example.inventory_service.controller;
 
+import com.example.inventory_service.dto.CursorPageDto;
 import com.example.inventory_service.dto.InventoryRequestDto;
+import com.example.inventory_service.dto.InventoryReservationRequestDto;
 import com.example.inventory_service.dto.InventoryResponseDto;
 import com.example.inventory_service.dto.InventoryUpdateRequestDto;
 import com.example.inventory_service.service.InventoryService;
+import com.example.inventory_service.util.NdjsonStreamWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,8 +14,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,6 +28,8 @@ public class InventoryController {
 
     private final InventoryService inventoryService;
 
+    private final NdjsonStreamWriter ndjsonStreamWriter;
+
 
     @PostMapping("/create")
     @Operation(summary = "Add new inventory", description = "Creates a new inventory entry.")
@@ -49,6 +56,33 @@ public class InventoryController {
         return ResponseEntity.ok(responseDtoList);
     }
 
+    @GetMapping(value = "/all", params = "limit")
+    @Operation(summary = "Get a page of inventories", description = "Retrieves inventories ordered by ID, starting after the given cursor.")
+    @ApiResponse(responseCode = "200", description = "Page retrieved successfully")
+    public ResponseEntity<CursorPageDto<InventoryResponseDto>> getInventoriesPage(
+            @RequestParam(required = false) @Parameter(description = "ID of the last item of the previous page") String after,
+            @RequestParam @Parameter(description = "Maximum number of items to return (1-1000)") int limit) {
+        return ResponseEntity.ok(inventoryService.getInventoriesPage(after, limit));
+    }
+
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all inventories", description = "Streams every entry as newline-delimited JSON, ordered by ID.")
+    @ApiResponse(responseCode = "200", description = "Stream started successfully")
+    public ResponseEntity<StreamingResponseBody> streamAllInventories() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamWriter.write(inventoryService::streamAllInventories));
+    }
+
+    @PostMapping("/byIds")
+    @Operation(summary = "Get inventories by IDs", description = "Retrieves up to " + InventoryService.MAX_IDS + " inventories in one call; unknown IDs are left out.")
+    @ApiResponse(responseCode = "200", description = "Inventory entries found, in the order of the requested IDs")
+    @ApiResponse(responseCode = "400", description = "Too many IDs requested")
+    public ResponseEntity<List<InventoryResponseDto>> getInventoriesByIds(
+            @RequestBody @Parameter(description = "IDs of the inventories to retrieve") List<String> ids) {
+        return ResponseEntity.ok(inventoryService.getInventoriesByIds(ids));
+    }
+
     @GetMapping("/{productId}")
     @Operation(summary = "Get inventory by product ID", description = "Retrieves inventory details for a specific product ID.")
     @ApiResponses(value = {
@@ -94,6 +128,90 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryResponseDto);
     }
 
+    @PostMapping("/{inventoryId}/reserve")
+    @Operation(summary = "Reserve stock", description = "Atomically moves stock to the reserved quantity if enough is available.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock successfully reserved"),
+            @ApiResponse(responseCode = "404", description = "Inventory not found for the given ID"),
+            @ApiResponse(responseCode = "409", description = "Not enough stock available")
+    })
+    public ResponseEntity<InventoryResponseDto> reserveStock(
+            @Parameter(description = "Inventory ID to reserve stock from", required = true)
+            @PathVariable String inventoryId,
+            @Parameter(description = "Quantity to reserve", required = true)
+            @Valid @RequestBody InventoryReservationRequestDto reservationRequestDto) {
+
+        InventoryResponseDto inventoryResponseDto = inventoryService.reserveStock(inventoryId, reservationRequestDto.getQuantity());
+        return ResponseEntity.ok(inventoryResponseDto);
+    }
+
+    @PostMapping("/{inventoryId}/commit")
+    @Operation(summary = "Commit reserved stock", description = "Consumes a previous reservation once the order is paid.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation successfully committed"),
+            @ApiResponse(responseCode = "404", description = "Inventory not found for the given ID"),
+            @ApiResponse(responseCode = "409", description = "Not enough reserved stock")
+    })
+    public ResponseEntity<InventoryResponseDto> commitStock(
+            @Parameter(description = "Inventory ID holding the reservation", required = true)
+            @PathVariable String inventoryId,
+            @Parameter(description = "Quantity to commit", required = true)
+            @Valid @RequestBody InventoryReservationRequestDto reservationRequestDto) {
+
+        InventoryResponseDto inventoryResponseDto = inventoryService.commitStock(inventoryId, reservationRequestDto.getQuantity());
+        return ResponseEntity.ok(inventoryResponseDto);
+    }
+
+    @PostMapping("/{inventoryId}/release")
+    @Operation(summary = "Release reserved stock", description = "Returns a previous reservation to the available stock.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation successfully released"),
+            @ApiResponse(responseCode = "404", description = "Inventory not found for the given ID"),
+            @ApiResponse(responseCode = "409", description = "Not enough reserved stock")
+    })
+    public ResponseEntity<InventoryResponseDto> releaseStock(
+            @Parameter(description = "Inventory ID holding the reservation", required = true)
+            @PathVariable String inventoryId,
+            @Parameter(description = "Quantity to release", required = true)
+            @Valid @RequestBody InventoryReservationRequestDto reservationRequestDto) {
+
+        InventoryResponseDto inventoryResponseDto = inventoryService.releaseStock(inventoryId, reservationRequestDto.getQuantity());
+        return ResponseEntity.ok(inventoryResponseDto);
+    }
+
+    @PostMapping("/{inventoryId}/decrease")
+    @Operation(summary = "Decrease stock", description = "Atomically removes a quantity from the available stock if enough is available.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock successfully decreased"),
+            @ApiResponse(responseCode = "404", description = "Inventory not found for the given ID"),
+            @ApiResponse(responseCode = "409", description = "Not enough stock available")
+    })
+    public ResponseEntity<InventoryResponseDto> decreaseStock(
+            @Parameter(description = "Inventory ID to take stock from", required = true)
+            @PathVariable String inventoryId,
+            @Parameter(description = "Quantity to remove", required = true)
+            @Valid @RequestBody InventoryReservationRequestDto reservationRequestDto) {
+
+        InventoryResponseDto inventoryResponseDto = inventoryService.decreaseStock(inventoryId, reservationRequestDto.getQuantity());
+        return ResponseEntity.ok(inventoryResponseDto);
+    }
+
+    @PostMapping("/{inventoryId}/increase")
+    @Operation(summary = "Increase stock", description = "Atomically adds a quantity back to the available stock.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock successfully increased"),
+            @ApiResponse(responseCode = "404", description = "Inventory not found for the given ID")
+    })
+    public ResponseEntity<InventoryResponseDto> increaseStock(
+            @Parameter(description = "Inventory ID to give stock back to", required = true)
+            @PathVariable String inventoryId,
+            @Parameter(description = "Quantity to add", required = true)
+            @Valid @RequestBody InventoryReservationRequestDto reservationRequestDto) {
+
+        InventoryResponseDto inventoryResponseDto = inventoryService.increaseStock(inventoryId, reservationRequestDto.getQuantity());
+        return ResponseEntity.ok(inventoryResponseDto);
+    }
+
     @DeleteMapping("/{productId}")
     @Operation(summary = "Delete inventory", description = "Deletes an inventory entry by product ID.")
     @ApiResponses(value = {
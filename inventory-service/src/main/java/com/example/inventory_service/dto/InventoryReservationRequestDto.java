@@ -0,0 +1,22 @@
+package com.example.inventory_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Data transfer object for a relative stock change: reserve, commit, release, decrease or increase")
+public class InventoryReservationRequestDto implements Serializable {
+
+    @Schema(description = "Quantity of stock to move", example = "2")
+    @Positive(message = "Reservation quantity must be positive")
+    private int quantity;
+}
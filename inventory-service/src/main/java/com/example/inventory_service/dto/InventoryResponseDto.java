@@ -25,6 +25,9 @@ public class InventoryResponseDto implements Serializable {
     @Schema(description = "Quantity of stock available in the inventory", example = "100")
     private int stockQuantity;
 
+    @Schema(description = "Quantity of stock reserved by pending orders", example = "5")
+    private int reservedQuantity;
+
     @Schema(description = "Timestamp of the last update to the inventory record", example = "2024-08-30T12:00:00")
     private LocalDateTime lastUpdated;
 }
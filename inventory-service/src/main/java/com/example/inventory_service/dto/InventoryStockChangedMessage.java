@@ -0,0 +1,29 @@
+package com.example.inventory_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Available stock of an inventory, published to the product service after each change")
+public class InventoryStockChangedMessage implements Serializable {
+
+    @Schema(description = "Unique identifier for the inventory", example = "inv123")
+    private String inventoryId;
+
+    @Schema(description = "Unique identifier for the product associated with the inventory", example = "prod456")
+    private String productId;
+
+    @Schema(description = "Stock quantity available after the change", example = "98")
+    private int stockQuantity;
+
+    @Schema(description = "Inventory version after the change, used to ignore out-of-order messages", example = "7")
+    private long version;
+}
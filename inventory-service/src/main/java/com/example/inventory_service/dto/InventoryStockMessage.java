@@ -0,0 +1,26 @@
+package com.example.inventory_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Stock decrement message received from the payment service")
+public class InventoryStockMessage implements Serializable {
+
+    @Schema(description = "Unique identifier for the inventory", example = "inv123")
+    private String inventoryId;
+
+    @Schema(description = "Unique identifier for the product associated with the inventory", example = "prod456")
+    private String productId;
+
+    @Schema(description = "Quantity to subtract from the available stock", example = "2")
+    private int quantity;
+}
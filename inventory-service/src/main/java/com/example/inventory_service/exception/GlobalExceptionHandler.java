@@ -57,6 +57,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<?> handleInsufficientStockException(InsufficientStockException ex, WebRequest request) {
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .dateTime(LocalDateTime.now())
+                .message(ex.getMessage())
+                .description(request.getDescription(false))
+                .statusCode(HttpStatus.CONFLICT.value())
+                .build();
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .dateTime(LocalDateTime.now())
+                .message(ex.getMessage())
+                .description(request.getDescription(false))
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .build();
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGlobalException(Exception ex, WebRequest request) {
         ErrorDetails errorDetails = ErrorDetails.builder()
@@ -0,0 +1,8 @@
+package com.example.inventory_service.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -48,6 +48,7 @@ public class InventoryMapper {
                 .id(inventory.getId())
                 .productId(inventory.getProductId())
                 .stockQuantity(inventory.getStockQuantity())
+                .reservedQuantity(inventory.getReservedQuantity())
                 .lastUpdated(LocalDateTime.now())
                 .build();
     }
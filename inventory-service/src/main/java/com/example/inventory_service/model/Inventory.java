@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -28,6 +29,10 @@ public class Inventory implements Serializable {
 
     private String productId;
     private int stockQuantity;
+    private int reservedQuantity;
     private LocalDateTime lastUpdated;
 
+    @Version
+    private Long version;
+
 }
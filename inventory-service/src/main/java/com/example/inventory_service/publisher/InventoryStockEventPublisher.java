@@ -0,0 +1,76 @@
+package com.example.inventory_service.publisher;
+
+import com.example.inventory_service.dto.InventoryStockChangedMessage;
+import com.example.inventory_service.model.Inventory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Publishes the available stock of inventories so the product service can keep its
+ * denormalized stock column in sync. Messages carry the inventory version; consumers
+ * drop anything older than what they already applied.
+ */
+@Service
+@Slf4j
+public class InventoryStockEventPublisher {
+
+    private final AmqpTemplate amqpTemplate;
+
+    private final String exchange;
+
+    private final String routingKey;
+
+    public InventoryStockEventPublisher(AmqpTemplate amqpTemplate,
+                                        @Value("${rabbit.mq.exchange.name}") String exchange,
+                                        @Value("${rabbit.mq.stock.changed.routing.key:inventory.stock.changed}") String routingKey) {
+        this.amqpTemplate = amqpTemplate;
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+    }
+
+    public void publish(Inventory inventory) {
+        publish(List.of(inventory));
+    }
+
+    // Envoyé après le commit : le message est construit à partir de l'état final (version incluse) et
+    // jamais publié pour une transaction annulée.
+    public void publish(Collection<Inventory> inventories) {
+        if (inventories.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(inventories);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(inventories);
+            }
+        });
+    }
+
+    private void send(Collection<Inventory> inventories) {
+        for (Inventory inventory : inventories) {
+            InventoryStockChangedMessage message = InventoryStockChangedMessage.builder()
+                    .inventoryId(inventory.getId())
+                    .productId(inventory.getProductId())
+                    .stockQuantity(inventory.getStockQuantity())
+                    .version(inventory.getVersion() == null ? 0 : inventory.getVersion())
+                    .build();
+            try {
+                amqpTemplate.convertAndSend(exchange, routingKey, message);
+            } catch (AmqpException e) {
+                log.warn("InventoryStockEventPublisher::send - stock message not published : {}", message, e);
+            }
+        }
+    }
+}
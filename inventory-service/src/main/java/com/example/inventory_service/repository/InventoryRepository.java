@@ -1,14 +1,68 @@
 package com.example.inventory_service.repository;
 
 import com.example.inventory_service.model.Inventory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, String> {
+
+    List<Inventory> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Curseur côté serveur (useCursorFetch=true) : les lignes sont lues par blocs au lieu de charger toute la table.
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Inventory> streamAllByOrderByIdAsc();
     Optional<Inventory> findByProductId(String productId);
 
     Optional<Inventory> findById(String id);
+
+    // Mises à jour conditionnelles atomiques : 0 ligne modifiée signifie stock ou réservation insuffisants.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockQuantity = i.stockQuantity - :quantity, " +
+            "i.reservedQuantity = i.reservedQuantity + :quantity, " +
+            "i.version = i.version + 1, i.lastUpdated = :lastUpdated " +
+            "WHERE i.id = :id AND i.stockQuantity >= :quantity")
+    int reserveStock(@Param("id") String id, @Param("quantity") int quantity,
+                     @Param("lastUpdated") LocalDateTime lastUpdated);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity - :quantity, " +
+            "i.version = i.version + 1, i.lastUpdated = :lastUpdated " +
+            "WHERE i.id = :id AND i.reservedQuantity >= :quantity")
+    int commitStock(@Param("id") String id, @Param("quantity") int quantity,
+                    @Param("lastUpdated") LocalDateTime lastUpdated);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockQuantity = i.stockQuantity + :quantity, " +
+            "i.reservedQuantity = i.reservedQuantity - :quantity, " +
+            "i.version = i.version + 1, i.lastUpdated = :lastUpdated " +
+            "WHERE i.id = :id AND i.reservedQuantity >= :quantity")
+    int releaseStock(@Param("id") String id, @Param("quantity") int quantity,
+                     @Param("lastUpdated") LocalDateTime lastUpdated);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockQuantity = i.stockQuantity - :quantity, " +
+            "i.version = i.version + 1, i.lastUpdated = :lastUpdated " +
+            "WHERE i.id = :id AND i.stockQuantity >= :quantity")
+    int decreaseStock(@Param("id") String id, @Param("quantity") int quantity,
+                      @Param("lastUpdated") LocalDateTime lastUpdated);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockQuantity = i.stockQuantity + :quantity, " +
+            "i.version = i.version + 1, i.lastUpdated = :lastUpdated " +
+            "WHERE i.id = :id")
+    int increaseStock(@Param("id") String id, @Param("quantity") int quantity,
+                      @Param("lastUpdated") LocalDateTime lastUpdated);
 }
@@ -0,0 +1,44 @@
+package com.example.inventory_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class InventoryStockJdbcRepository {
+
+    private static final String DECREASE_STOCK_SQL = "UPDATE inventories " +
+            "SET stock_quantity = stock_quantity - ?, version = version + 1, last_updated = ? " +
+            "WHERE id = ? AND stock_quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Une seule requête JDBC batch pour toutes les mises à jour ; 0 dans le résultat signifie stock insuffisant.
+    public int[] decreaseStock(List<Map.Entry<String, Integer>> quantities, LocalDateTime lastUpdated) {
+        Timestamp timestamp = Timestamp.valueOf(lastUpdated);
+        return jdbcTemplate.batchUpdate(DECREASE_STOCK_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<String, Integer> quantity = quantities.get(i);
+                ps.setInt(1, quantity.getValue());
+                ps.setTimestamp(2, timestamp);
+                ps.setString(3, quantity.getKey());
+                ps.setInt(4, quantity.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return quantities.size();
+            }
+        });
+    }
+}
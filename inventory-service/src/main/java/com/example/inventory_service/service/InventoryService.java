@@ -1,32 +1,63 @@
 package com.example.inventory_service.service;
 
+import com.example.inventory_service.cache.CacheTagEvict;
+import com.example.inventory_service.cache.TwoLevelCache;
+import com.example.inventory_service.dto.CursorPageDto;
 import com.example.inventory_service.dto.InventoryRequestDto;
+import com.example.inventory_service.dto.InventoryStockMessage;
 import com.example.inventory_service.dto.InventoryResponseDto;
 import com.example.inventory_service.dto.InventoryUpdateRequestDto;
+import com.example.inventory_service.exception.InsufficientStockException;
+import com.example.inventory_service.exception.InventoryNotFoundException;
 import com.example.inventory_service.exception.ProductNotFoundException;
 import com.example.inventory_service.mapper.InventoryMapper;
 import com.example.inventory_service.model.Inventory;
+import com.example.inventory_service.publisher.InventoryStockEventPublisher;
 import com.example.inventory_service.repository.InventoryRepository;
+import com.example.inventory_service.repository.InventoryStockJdbcRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class InventoryService {
 
+    public static final int MAX_IDS = 1000;
+
     private final InventoryRepository inventoryRepository;
-    
+
+    private final CacheManager cacheManager;
+
+    private final InventoryStockJdbcRepository inventoryStockJdbcRepository;
+
     private final InventoryMapper inventoryMapper;
 
+    private final InventoryStockEventPublisher inventoryStockEventPublisher;
+
+    private final EntityManager entityManager;
+
 
     @Transactional
+    @CacheTagEvict(cacheNames = "inventories", tags = "'all'")
     public InventoryResponseDto addInventory(InventoryRequestDto inventoryRequestDto) {
 
         log.info("InventoryService::addInventory started");
@@ -34,6 +65,7 @@ public class InventoryService {
 
         log.info("InventoryService::addInventory inventory :{}", inventory);
         Inventory savedInventory = inventoryRepository.save(inventory);
+        inventoryStockEventPublisher.publish(savedInventory);
 
         log.info("InventoryService::addInventory savedInventory :{}", savedInventory);
 
@@ -42,7 +74,7 @@ public class InventoryService {
         return inventoryMapper.mapToInventoryResponseDto(savedInventory);
     }
 
-    @Cacheable(value = "inventories",key = "'all'")
+    @Cacheable(value = "inventories", key = "'all'", sync = true)
     public List<InventoryResponseDto> getAllInventories() {
         log.info("InventoryService::getAllInventories started");
 
@@ -52,7 +84,33 @@ public class InventoryService {
         return inventoryMapper.mapToInventoryResponseDtoList(inventoryList);
     }
 
-    @Cacheable(value = "inventories",key = "#productId")
+    @Transactional(readOnly = true)
+    public CursorPageDto<InventoryResponseDto> getInventoriesPage(String after, int limit) {
+        log.info("InventoryService::getInventoriesPage started");
+
+        int pageSize = CursorPageDto.pageSize(limit);
+        List<Inventory> inventoryList = inventoryRepository.findByIdGreaterThanOrderByIdAsc(after == null ? "" : after, Limit.of(pageSize + 1));
+
+        log.info("InventoryService::getInventoriesPage finished");
+        return CursorPageDto.of(inventoryList, pageSize, inventoryMapper::mapToInventoryResponseDto, Inventory::getId);
+    }
+
+    // Chaque ligne est détachée après écriture : la mémoire utilisée ne dépend pas de la taille de la table.
+    @Transactional(readOnly = true)
+    public void streamAllInventories(Consumer<InventoryResponseDto> consumer) {
+        log.info("InventoryService::streamAllInventories started");
+
+        try (Stream<Inventory> inventoryStream = inventoryRepository.streamAllByOrderByIdAsc()) {
+            inventoryStream.forEach(inventory -> {
+                consumer.accept(inventoryMapper.mapToInventoryResponseDto(inventory));
+                entityManager.detach(inventory);
+            });
+        }
+
+        log.info("InventoryService::streamAllInventories finished");
+    }
+
+    @Cacheable(value = "inventories", key = "#productId", sync = true)
     public InventoryResponseDto getInventoryByProductId(String productId) {
         log.info("InventoryService::getInventoryByProductId started");
 
@@ -64,7 +122,28 @@ public class InventoryService {
         return inventoryMapper.mapToInventoryResponseDto(inventory);
     }
 
-    @Cacheable(value = "inventories",key = "#id")
+    // Lecture groupée : mémoire puis un seul MGET Redis, et une seule requête findAllById pour les absents.
+    @Transactional(readOnly = true)
+    public List<InventoryResponseDto> getInventoriesByIds(List<String> ids) {
+        log.info("InventoryService::getInventoriesByIds started");
+
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be requested at once");
+        }
+        Map<String, InventoryResponseDto> inventories = cacheManager.getCache("inventories") instanceof TwoLevelCache cache
+                ? cache.getAll(ids, this::loadInventories)
+                : loadInventories(new LinkedHashSet<>(ids));
+        List<InventoryResponseDto> result = ids.stream()
+                .distinct()
+                .map(inventories::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        log.info("InventoryService::getInventoriesByIds finished - {} of {} found", result.size(), ids.size());
+        return result;
+    }
+
+    @Cacheable(value = "inventories", key = "#id", sync = true)
     public InventoryResponseDto getInventoryById(String id) {
         log.info("InventoryService::getInventoryById started");
 
@@ -79,7 +158,8 @@ public class InventoryService {
 
 
     @Transactional
-    @CacheEvict(value = "inventories",key = "#inventoryId",allEntries = true)
+    @CacheTagEvict(cacheNames = "inventories",
+            tags = {"'inventory:' + #inventoryId", "'product:' + #inventoryUpdateRequestDto.productId"})
     public InventoryResponseDto updateInventory(String inventoryId, InventoryUpdateRequestDto inventoryUpdateRequestDto) {
         log.info("InventoryService::updateInventory started");
 
@@ -90,6 +170,7 @@ public class InventoryService {
         inventory.setStockQuantity(inventoryUpdateRequestDto.getNewQuantity());
 
         Inventory updatedInventory = inventoryRepository.save(inventory);
+        inventoryStockEventPublisher.publish(updatedInventory);
 
         log.info("InventoryService::updateInventory updatedInventory : {}", updatedInventory);
 
@@ -98,20 +179,156 @@ public class InventoryService {
         return inventoryMapper.mapToInventoryResponseDto(updatedInventory);
     }
 
-    @CacheEvict(value = "inventories",key = "#productId",allEntries = true)
+    @Transactional
+    @CacheTagEvict(cacheNames = "inventories", tags = "'inventory:' + #inventoryId")
+    public InventoryResponseDto reserveStock(String inventoryId, int quantity) {
+        log.info("InventoryService::reserveStock started");
+
+        checkQuantity(quantity);
+        int updated = inventoryRepository.reserveStock(inventoryId, quantity, LocalDateTime.now());
+        Inventory inventory = getInventoryAfterStockChange(inventoryId, updated,
+                "Not enough stock available to reserve for inventory ID: ");
+
+        log.info("InventoryService::reserveStock finished - inventory id: {}, quantity: {}", inventoryId, quantity);
+        return inventoryMapper.mapToInventoryResponseDto(inventory);
+    }
+
+    @Transactional
+    @CacheTagEvict(cacheNames = "inventories", tags = "'inventory:' + #inventoryId")
+    public InventoryResponseDto commitStock(String inventoryId, int quantity) {
+        log.info("InventoryService::commitStock started");
+
+        checkQuantity(quantity);
+        int updated = inventoryRepository.commitStock(inventoryId, quantity, LocalDateTime.now());
+        Inventory inventory = getInventoryAfterStockChange(inventoryId, updated,
+                "Not enough reserved stock to commit for inventory ID: ");
+
+        log.info("InventoryService::commitStock finished - inventory id: {}, quantity: {}", inventoryId, quantity);
+        return inventoryMapper.mapToInventoryResponseDto(inventory);
+    }
+
+    @Transactional
+    @CacheTagEvict(cacheNames = "inventories", tags = "'inventory:' + #inventoryId")
+    public InventoryResponseDto releaseStock(String inventoryId, int quantity) {
+        log.info("InventoryService::releaseStock started");
+
+        checkQuantity(quantity);
+        int updated = inventoryRepository.releaseStock(inventoryId, quantity, LocalDateTime.now());
+        Inventory inventory = getInventoryAfterStockChange(inventoryId, updated,
+                "Not enough reserved stock to release for inventory ID: ");
+
+        log.info("InventoryService::releaseStock finished - inventory id: {}, quantity: {}", inventoryId, quantity);
+        return inventoryMapper.mapToInventoryResponseDto(inventory);
+    }
+
+    @Transactional
+    @CacheTagEvict(cacheNames = "inventories", tags = "'inventory:' + #inventoryId")
+    public InventoryResponseDto decreaseStock(String inventoryId, int quantity) {
+        log.info("InventoryService::decreaseStock started");
+
+        checkQuantity(quantity);
+        int updated = inventoryRepository.decreaseStock(inventoryId, quantity, LocalDateTime.now());
+        Inventory inventory = getInventoryAfterStockChange(inventoryId, updated,
+                "Not enough stock available for inventory ID: ");
+
+        log.info("InventoryService::decreaseStock finished - inventory id: {}, quantity: {}", inventoryId, quantity);
+        return inventoryMapper.mapToInventoryResponseDto(inventory);
+    }
+
+    @Transactional
+    @CacheTagEvict(cacheNames = "inventories", tags = "'inventory:' + #inventoryId")
+    public InventoryResponseDto increaseStock(String inventoryId, int quantity) {
+        log.info("InventoryService::increaseStock started");
+
+        checkQuantity(quantity);
+        int updated = inventoryRepository.increaseStock(inventoryId, quantity, LocalDateTime.now());
+        Inventory inventory = getInventoryAfterStockChange(inventoryId, updated,
+                "Stock could not be increased for inventory ID: ");
+
+        log.info("InventoryService::increaseStock finished - inventory id: {}, quantity: {}", inventoryId, quantity);
+        return inventoryMapper.mapToInventoryResponseDto(inventory);
+    }
+
+    @Transactional
+    @CacheTagEvict(cacheNames = "inventories", tags = "#messages.!['inventory:' + inventoryId]")
+    public void decreaseStock(List<InventoryStockMessage> messages) {
+        log.info("InventoryService::decreaseStock batch started - messages: {}", messages.size());
+
+        // Aynı envanter için gelen mesajları tek bir güncellemede birleştiriyoruz
+        Map<String, List<InventoryStockMessage>> messagesByInventory = new LinkedHashMap<>();
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (InventoryStockMessage message : messages) {
+            if (message.getInventoryId() == null || message.getQuantity() <= 0) {
+                log.warn("InventoryService::decreaseStock - invalid message ignored : {}", message);
+                continue;
+            }
+            messagesByInventory.computeIfAbsent(message.getInventoryId(), id -> new ArrayList<>()).add(message);
+            quantities.merge(message.getInventoryId(), message.getQuantity(), Integer::sum);
+        }
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Map.Entry<String, Integer>> updates = new ArrayList<>(quantities.entrySet());
+        int[] updatedRows = inventoryStockJdbcRepository.decreaseStock(updates, now);
+
+        // Toplam miktar için stok yetmezse mesajları tek tek uygula, karşılanabilenler yine düşülsün
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] != 0) {
+                continue;
+            }
+            String inventoryId = updates.get(i).getKey();
+            for (InventoryStockMessage message : messagesByInventory.get(inventoryId)) {
+                if (inventoryRepository.decreaseStock(inventoryId, message.getQuantity(), now) == 0) {
+                    log.warn("InventoryService::decreaseStock - not enough stock or unknown inventory, message dropped : {}", message);
+                }
+            }
+        }
+
+        inventoryStockEventPublisher.publish(inventoryRepository.findAllById(quantities.keySet()));
+
+        log.info("InventoryService::decreaseStock batch finished - inventories updated: {}", updates.size());
+    }
+
+    @Transactional
+    @CacheTagEvict(cacheNames = "inventories", tags = "'product:' + #productId")
     public void deleteInventory(String productId) {
         log.info("InventoryService::deleteInventory started");
 
-        InventoryResponseDto inventoryByProductId = getInventoryByProductId(productId);
-        Inventory mapToInventory = inventoryMapper.mapToInventory(inventoryByProductId);
+        Inventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Inventory not found for product ID: " + productId));
 
-        inventoryRepository.delete(mapToInventory);
+        inventoryRepository.delete(inventory);
 
         log.info("InventoryService::deleteInventory finished");
     }
 
+    private Inventory getInventoryAfterStockChange(String inventoryId, int updatedRows, String insufficientMessage) {
+        Inventory inventory = inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for inventory ID: " + inventoryId));
+        if (updatedRows == 0) {
+            throw new InsufficientStockException(insufficientMessage + inventoryId);
+        }
+        inventoryStockEventPublisher.publish(inventory);
+        return inventory;
+    }
+
+    private static void checkQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Stock quantity must be positive: " + quantity);
+        }
+    }
+
     private Inventory getInventory(String id) {
         return inventoryRepository.findById(id)
                 .orElseThrow(() -> new NullPointerException("Inventory not found for inventory ID: " + id));
     }
+
+    private Map<String, InventoryResponseDto> loadInventories(Set<String> ids) {
+        Map<String, InventoryResponseDto> inventories = new HashMap<>();
+        inventoryRepository.findAllById(ids)
+                .forEach(inventory -> inventories.put(inventory.getId(), inventoryMapper.mapToInventoryResponseDto(inventory)));
+        return inventories;
+    }
 }
@@ -0,0 +1,172 @@
+package com.example.inventory_service.consumer;
+
+import com.example.inventory_service.dto.InventoryStockMessage;
+import com.example.inventory_service.mapper.InventoryMapper;
+import com.example.inventory_service.model.Inventory;
+import com.example.inventory_service.publisher.InventoryStockEventPublisher;
+import com.example.inventory_service.repository.InventoryRepository;
+import com.example.inventory_service.repository.InventoryStockJdbcRepository;
+import com.example.inventory_service.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "rabbit.mq.batch.enabled=true"})
+@Import({InventoryBatchMessageListener.class, InventoryService.class, InventoryMapper.class, InventoryStockJdbcRepository.class,
+        Jackson2JsonMessageConverter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryBatchMessageListenerTest {
+
+    @Autowired
+    private InventoryBatchMessageListener listener;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private Jackson2JsonMessageConverter converter;
+
+    @MockBean
+    private InventoryStockEventPublisher inventoryStockEventPublisher;
+
+    @MockBean
+    private MessageRecoverer inventoryDeadLetterRecoverer;
+
+    @SpyBean
+    private InventoryStockJdbcRepository inventoryStockJdbcRepository;
+
+    @Test
+    void updatesForTheSameInventoryAreCoalescedIntoOneBatchedWrite() {
+        Inventory hot = save("hot", 1_000);
+        Inventory cold = save("cold", 10);
+
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            messages.add(message(hot.getId(), 2));
+        }
+        messages.add(message(cold.getId(), 3));
+
+        listener.receiveInventoryUpdateMessages(messages);
+
+        verify(inventoryStockJdbcRepository, times(1)).decreaseStock(anyList(), any());
+        verify(inventoryStockEventPublisher, times(1)).publish(anyCollection());
+        assertEquals(400, inventoryRepository.findById(hot.getId()).orElseThrow().getStockQuantity());
+        assertEquals(7, inventoryRepository.findById(cold.getId()).orElseThrow().getStockQuantity());
+        assertEquals(1, inventoryRepository.findById(hot.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void messagesThatCanStillBeServedAreAppliedWhenTheCoalescedTotalExceedsStock() {
+        Inventory inventory = save("scarce", 5);
+
+        listener.receiveInventoryUpdateMessages(List.of(
+                message(inventory.getId(), 3),
+                message(inventory.getId(), 4),
+                message(inventory.getId(), 2)));
+
+        assertEquals(0, inventoryRepository.findById(inventory.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void invalidMessageIsMovedAsideAndTheRestIsApplied() {
+        Inventory inventory = save("valid", 10);
+        Message poison = json("{\"productId\":\"no-inventory-id\",\"quantity\":2}");
+
+        listener.receiveInventoryUpdateMessages(List.of(message(inventory.getId(), 3), poison, json("{not json")));
+
+        assertEquals(7, inventoryRepository.findById(inventory.getId()).orElseThrow().getStockQuantity());
+        verify(inventoryDeadLetterRecoverer).recover(eq(poison), isA(MessageConversionException.class));
+        verify(inventoryDeadLetterRecoverer, times(2)).recover(any(), isA(MessageConversionException.class));
+    }
+
+    @Test
+    void failingBatchIsReplayedOneByOneAndOnlyTheFailingMessageIsMovedAside() {
+        Inventory first = save("first", 10);
+        Inventory rejected = save("rejected", 10);
+        Inventory last = save("last", 10);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("rejected row");
+        doAnswer(invocation -> {
+            List<Map.Entry<String, Integer>> updates = invocation.getArgument(0);
+            if (updates.stream().anyMatch(update -> update.getKey().equals(rejected.getId()))) {
+                throw violation;
+            }
+            return invocation.callRealMethod();
+        }).when(inventoryStockJdbcRepository).decreaseStock(anyList(), any());
+        Message failing = message(rejected.getId(), 2);
+
+        listener.receiveInventoryUpdateMessages(List.of(message(first.getId(), 1), failing, message(last.getId(), 4)));
+
+        assertEquals(9, inventoryRepository.findById(first.getId()).orElseThrow().getStockQuantity());
+        assertEquals(10, inventoryRepository.findById(rejected.getId()).orElseThrow().getStockQuantity());
+        assertEquals(6, inventoryRepository.findById(last.getId()).orElseThrow().getStockQuantity());
+        verify(inventoryDeadLetterRecoverer).recover(failing, violation);
+    }
+
+    @Test
+    void transientFailureIsRethrownSoTheBatchIsRequeued() {
+        Inventory inventory = save("unreachable", 10);
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .when(inventoryStockJdbcRepository).decreaseStock(anyList(), any());
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> listener.receiveInventoryUpdateMessages(List.of(message(inventory.getId(), 1))));
+
+        assertEquals(10, inventoryRepository.findById(inventory.getId()).orElseThrow().getStockQuantity());
+        verify(inventoryDeadLetterRecoverer, never()).recover(any(), any());
+    }
+
+    private Inventory save(String productId, int stock) {
+        return inventoryRepository.save(Inventory.builder()
+                .productId(productId)
+                .stockQuantity(stock)
+                .lastUpdated(LocalDateTime.now())
+                .build());
+    }
+
+    // Publié par payment-service avec son propre __TypeId__ : le type est déduit du listener.
+    private Message message(String inventoryId, int quantity) {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader("__TypeId__", "com.example.payment_service.dto.inventoryDto.InventoryStockMessage");
+        return converter.toMessage(InventoryStockMessage.builder()
+                .inventoryId(inventoryId)
+                .quantity(quantity)
+                .build(), properties);
+    }
+
+    private static Message json(String body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
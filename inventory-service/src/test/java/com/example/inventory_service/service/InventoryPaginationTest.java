@@ -0,0 +1,102 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.CursorPageDto;
+import com.example.inventory_service.dto.InventoryResponseDto;
+import com.example.inventory_service.mapper.InventoryMapper;
+import com.example.inventory_service.model.Inventory;
+import com.example.inventory_service.publisher.InventoryStockEventPublisher;
+import com.example.inventory_service.repository.InventoryRepository;
+import com.example.inventory_service.repository.InventoryStockJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({InventoryService.class, InventoryMapper.class, InventoryStockJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryPaginationTest {
+
+    private static final int ROWS = 25;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @MockBean
+    private InventoryStockEventPublisher inventoryStockEventPublisher;
+
+    private List<String> expectedIds;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository.deleteAll();
+        List<Inventory> inventories = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            inventories.add(Inventory.builder()
+                    .productId("product-" + i)
+                    .stockQuantity(i)
+                    .lastUpdated(LocalDateTime.now())
+                    .build());
+        }
+        expectedIds = inventoryRepository.saveAll(inventories).stream()
+                .map(Inventory::getId)
+                .sorted()
+                .toList();
+    }
+
+    @Test
+    void pagesWalkEveryRowOnceInIdOrder() {
+        List<String> ids = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            CursorPageDto<InventoryResponseDto> page = inventoryService.getInventoriesPage(after, 10);
+            page.getItems().forEach(item -> ids.add(item.getId()));
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertEquals(3, pages);
+        assertEquals(expectedIds, ids);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPageDto<InventoryResponseDto> page = inventoryService.getInventoriesPage(expectedIds.get(19), 10);
+
+        assertEquals(expectedIds.subList(20, ROWS), page.getItems().stream().map(InventoryResponseDto::getId).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void limitIsClampedToOneRow() {
+        CursorPageDto<InventoryResponseDto> page = inventoryService.getInventoriesPage(null, 0);
+
+        assertEquals(1, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void streamEmitsEveryRowInIdOrder() {
+        List<String> ids = new ArrayList<>();
+
+        inventoryService.streamAllInventories(inventory -> ids.add(inventory.getId()));
+
+        assertEquals(expectedIds, ids);
+    }
+}
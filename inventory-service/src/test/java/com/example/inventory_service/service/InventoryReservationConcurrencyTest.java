@@ -0,0 +1,117 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.exception.InsufficientStockException;
+import com.example.inventory_service.mapper.InventoryMapper;
+import com.example.inventory_service.model.Inventory;
+import com.example.inventory_service.publisher.InventoryStockEventPublisher;
+import com.example.inventory_service.repository.InventoryRepository;
+import com.example.inventory_service.repository.InventoryStockJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({InventoryService.class, InventoryMapper.class, InventoryStockJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryReservationConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 500;
+    private static final int REQUESTS = 2_000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @MockBean
+    private InventoryStockEventPublisher inventoryStockEventPublisher;
+
+    @Test
+    void concurrentReservationsOnHotSkuNeverOversell() throws InterruptedException {
+        Inventory inventory = inventoryRepository.save(Inventory.builder()
+                .productId("hot-product")
+                .stockQuantity(INITIAL_STOCK)
+                .lastUpdated(LocalDateTime.now())
+                .build());
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.reserveStock(inventory.getId(), 1);
+                    reserved.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        Inventory result = inventoryRepository.findById(inventory.getId()).orElseThrow();
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(REQUESTS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, result.getStockQuantity());
+        assertEquals(INITIAL_STOCK, result.getReservedQuantity());
+        assertEquals(INITIAL_STOCK, result.getVersion());
+    }
+
+    @Test
+    void commitAndReleaseOnlyConsumeExistingReservations() {
+        Inventory inventory = inventoryRepository.save(Inventory.builder()
+                .productId("product")
+                .stockQuantity(10)
+                .lastUpdated(LocalDateTime.now())
+                .build());
+
+        inventoryService.reserveStock(inventory.getId(), 4);
+        inventoryService.commitStock(inventory.getId(), 3);
+        inventoryService.releaseStock(inventory.getId(), 1);
+
+        Inventory result = inventoryRepository.findById(inventory.getId()).orElseThrow();
+        assertEquals(7, result.getStockQuantity());
+        assertEquals(0, result.getReservedQuantity());
+        assertThrows(InsufficientStockException.class, () -> inventoryService.commitStock(inventory.getId(), 1));
+    }
+
+    @Test
+    void decreaseAndIncreaseOnlyMoveAvailableStock() {
+        Inventory inventory = inventoryRepository.save(Inventory.builder()
+                .productId("updated-order-product")
+                .stockQuantity(10)
+                .lastUpdated(LocalDateTime.now())
+                .build());
+
+        inventoryService.decreaseStock(inventory.getId(), 4);
+        inventoryService.increaseStock(inventory.getId(), 1);
+
+        Inventory result = inventoryRepository.findById(inventory.getId()).orElseThrow();
+        assertEquals(7, result.getStockQuantity());
+        assertEquals(0, result.getReservedQuantity());
+        assertThrows(InsufficientStockException.class, () -> inventoryService.decreaseStock(inventory.getId(), 8));
+    }
+}
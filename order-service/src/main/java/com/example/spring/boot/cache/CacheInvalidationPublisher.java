@@ -0,0 +1,32 @@
+package com.example.spring.boot.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.UUID;
+
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final String channel;
+
+    @Getter
+    private final String origin = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(RedisTemplate<String, Object> redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void publish(String cacheName, Object key) {
+        try {
+            redisTemplate.convertAndSend(channel, new CacheInvalidationMessage(origin, cacheName, key));
+        } catch (Exception e) {
+            // L'entrée L1 des autres instances expirera avec son TTL.
+            log.warn("CacheInvalidationPublisher::publish failed for cache: {}, key: {}", cacheName, key, e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.spring.boot.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-cache tag resolvers, declared by each service next to the caches it owns.
+ */
+public class CacheTagResolvers {
+
+    private final Map<String, CacheTagResolver> resolvers = new HashMap<>();
+
+    public CacheTagResolvers register(String cacheName, CacheTagResolver resolver) {
+        resolvers.put(cacheName, resolver);
+        return this;
+    }
+
+    public CacheTagResolver resolverFor(String cacheName) {
+        return resolvers.getOrDefault(cacheName, CacheTagResolver.NONE);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.spring.boot.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private final RedisCacheManager redisCacheManager;
+
+    private final TwoLevelCacheProperties properties;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final CacheTagIndex tagIndex;
+
+    private final CacheTagResolvers tagResolvers;
+
+    private final MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                TwoLevelCacheProperties properties,
+                                CacheInvalidationPublisher invalidationPublisher,
+                                CacheTagIndex tagIndex,
+                                CacheTagResolvers tagResolvers,
+                                MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.invalidationPublisher = invalidationPublisher;
+        this.tagIndex = tagIndex;
+        this.tagResolvers = tagResolvers;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public int evictTags(String cacheName, Collection<String> tags) {
+        return ((TwoLevelCache) getCache(cacheName)).evictTags(tags);
+    }
+
+    // Appelée à la réception d'une invalidation publiée par une autre instance.
+    void invalidateLocal(String cacheName, Object key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (key == null) {
+            cache.invalidateLocalAll();
+        } else {
+            cache.invalidateLocal(key);
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(properties.l1MaxSizeFor(name))
+                .expireAfterWrite(properties.l1TtlFor(name))
+                .build();
+        return new TwoLevelCache(name, localCache, redisCacheManager.getCache(name), invalidationPublisher,
+                tagIndex, tagResolvers.resolverFor(name), properties, meterRegistry);
+    }
+}
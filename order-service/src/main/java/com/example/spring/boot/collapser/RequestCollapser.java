@@ -0,0 +1,189 @@
+package com.example.spring.boot.collapser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Collapses single-key lookups issued concurrently into one bulk request.
+ * <p>
+ * The first key of a batch opens a window of {@code window}; every key requested before it
+ * closes, or until {@code maxBatchSize} distinct keys are waiting, is sent in the same call to
+ * {@code bulkLoader} and each caller gets its own entry back. The same key requested twice in
+ * a window is only sent once. A key missing from the bulk response fails with the exception
+ * built by {@code notFound}; a failed bulk call fails every caller of the batch.
+ * A zero window disables collapsing: each lookup is sent on its own, on the calling thread.
+ * Bulk calls always run on {@code dispatcher}; {@code scheduler} only closes the windows.
+ */
+public class RequestCollapser<V> {
+
+    private final String name;
+
+    private final Function<Set<String>, Map<String, V>> bulkLoader;
+
+    private final Function<String, ? extends RuntimeException> notFound;
+
+    private final Duration window;
+
+    private final int maxBatchSize;
+
+    private final Duration timeout;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Executor dispatcher;
+
+    private final Counter requests;
+
+    private final Counter batches;
+
+    private final DistributionSummary batchSize;
+
+    private Map<String, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    public RequestCollapser(String name,
+                            Function<Set<String>, Map<String, V>> bulkLoader,
+                            Function<String, ? extends RuntimeException> notFound,
+                            Duration window,
+                            int maxBatchSize,
+                            Duration timeout,
+                            ScheduledExecutorService scheduler,
+                            Executor dispatcher,
+                            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bulkLoader = bulkLoader;
+        this.notFound = notFound;
+        this.window = window;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.timeout = timeout;
+        this.scheduler = scheduler;
+        this.dispatcher = dispatcher;
+        this.requests = Counter.builder("collapser.requests")
+                .description("Single-key lookups submitted to the collapser")
+                .tag("collapser", name)
+                .register(meterRegistry);
+        this.batches = Counter.builder("collapser.batches")
+                .description("Bulk requests sent downstream")
+                .tag("collapser", name)
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("collapser.batch.size")
+                .description("Distinct keys per bulk request")
+                .tag("collapser", name)
+                .register(meterRegistry);
+        Gauge.builder("collapser.ratio", this, RequestCollapser::collapseRatio)
+                .description("Lookups served per bulk request sent downstream")
+                .tag("collapser", name)
+                .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CompletableFuture<V> submit(String key) {
+        requests.increment();
+        if (window.isZero()) {
+            CompletableFuture<V> result = new CompletableFuture<>();
+            dispatch(Map.of(key, result));
+            return result;
+        }
+
+        Map<String, CompletableFuture<V>> full = null;
+        CompletableFuture<V> result;
+        synchronized (this) {
+            result = pending.get(key);
+            if (result != null) {
+                return result;
+            }
+            result = new CompletableFuture<>();
+            pending.put(key, result);
+            if (pending.size() >= maxBatchSize) {
+                full = drain();
+            } else if (pending.size() == 1) {
+                Map<String, CompletableFuture<V>> batch = pending;
+                scheduler.schedule(() -> flush(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            Map<String, CompletableFuture<V>> batch = full;
+            dispatcher.execute(() -> dispatch(batch));
+        }
+        return result;
+    }
+
+    /**
+     * Blocking variant of {@link #submit(String)} for callers written against the Feign clients:
+     * the original exception is rethrown and an interrupt or the timeout stops the wait, not the shared request.
+     */
+    public V get(String key) {
+        try {
+            return submit(key).get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Lookup " + name + " failed for key " + key, e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Lookup " + name + " did not complete within " + timeout + " for key " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Lookup " + name + " interrupted for key " + key, e);
+        }
+    }
+
+    double collapseRatio() {
+        double sent = batches.count();
+        return sent == 0 ? 0 : requests.count() / sent;
+    }
+
+    // Appelée à la fin de la fenêtre ; ne fait rien si le lot est déjà parti parce qu'il était plein.
+    // L'appel groupé part sur le dispatcher : un service lent ne retarde pas les fenêtres des autres collapsers.
+    private void flush(Map<String, CompletableFuture<V>> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            drain();
+        }
+        dispatcher.execute(() -> dispatch(batch));
+    }
+
+    private Map<String, CompletableFuture<V>> drain() {
+        Map<String, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<String, CompletableFuture<V>> batch) {
+        batches.increment();
+        batchSize.record(batch.size());
+        Map<String, V> values;
+        try {
+            values = bulkLoader.apply(batch.keySet());
+        } catch (RuntimeException e) {
+            batch.values().forEach(result -> result.completeExceptionally(e));
+            return;
+        }
+        batch.forEach((key, result) -> {
+            V value = values == null ? null : values.get(key);
+            if (value != null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(notFound.apply(key));
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.spring.boot.config;
+
+import com.example.spring.boot.cache.CacheTagResolver;
+import com.example.spring.boot.cache.CacheTagResolvers;
+import com.example.spring.boot.dto.orderDto.OrderResponseDto;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Tags used by the orders cache: order:{id} on every entry containing the order,
+ * all on the full list and date-range on the date range lists a new order can fall into.
+ */
+@Configuration
+public class CacheTagConfig {
+
+    @Bean
+    public CacheTagResolvers cacheTagResolvers() {
+        return new CacheTagResolvers()
+                .register("orders", CacheTagResolver.forEntity(OrderResponseDto.class,
+                        order -> List.of("order:" + order.getId()),
+                        key -> "all".equals(key) ? List.of("all") : List.of("date-range")));
+    }
+}
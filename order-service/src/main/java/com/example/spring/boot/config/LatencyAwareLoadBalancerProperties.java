@@ -0,0 +1,17 @@
+package com.example.spring.boot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loadbalancer.latency-aware")
+public class LatencyAwareLoadBalancerProperties {
+
+    // Temps au bout duquel une mesure de latence a perdu l'essentiel de son poids.
+    private Duration decay = Duration.ofSeconds(10);
+
+    // Latence minimale comptée pour une erreur ou une réponse 5xx.
+    private Duration failurePenalty = Duration.ofSeconds(1);
+}
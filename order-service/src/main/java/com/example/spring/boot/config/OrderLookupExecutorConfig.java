@@ -0,0 +1,48 @@
+package com.example.spring.boot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class OrderLookupExecutorConfig {
+
+    @Value("${order.lookup.core-pool-size:16}")
+    private int corePoolSize;
+
+    @Value("${order.lookup.max-pool-size:64}")
+    private int maxPoolSize;
+
+    @Value("${order.lookup.queue-capacity:256}")
+    private int queueCapacity;
+
+    // Pool borné pour les appels Feign parallèles ; la saturation retombe sur le thread appelant.
+    // Avec spring.threads.virtual.enabled, un thread virtuel par appel : plus de pool à dimensionner.
+    @Bean(name = "orderLookupExecutor")
+    public AsyncTaskExecutor orderLookupExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-lookup-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-lookup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
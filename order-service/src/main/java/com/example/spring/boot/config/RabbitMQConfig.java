@@ -0,0 +1,70 @@
+package com.example.spring.boot.config;
+
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class RabbitMQConfig {
+
+    @Value("${rabbit.mq.saga.exchange.name}")
+    private String sagaExchange;
+
+    @Value("${rabbit.mq.saga.queue.name}")
+    private String sagaQueue;
+
+    @Value("${rabbit.mq.saga.routing.key}")
+    private String sagaRoutingKey;
+
+    @Value("${rabbit.mq.order-events.exchange.name}")
+    private String orderEventsExchange;
+
+
+    @Bean
+    public Queue sagaQueue() {
+        return new Queue(sagaQueue);
+    }
+
+
+    @Bean
+    public TopicExchange sagaExchange() {
+        return new TopicExchange(sagaExchange);
+    }
+
+
+    @Bean
+    public Binding sagaBinding() {
+        return BindingBuilder
+                .bind(sagaQueue())
+                .to(sagaExchange())
+                .with(sagaRoutingKey);
+    }
+
+
+    // Événements de commande ; chaque service consommateur déclare et lie sa propre file.
+    @Bean
+    public TopicExchange orderEventsExchange() {
+        return new TopicExchange(orderEventsExchange);
+    }
+
+
+    @Bean
+    public MessageConverter converter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+
+    @Bean
+    public AmqpTemplate template(ConnectionFactory connectionFactory) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(converter());
+        return rabbitTemplate;
+    }
+}
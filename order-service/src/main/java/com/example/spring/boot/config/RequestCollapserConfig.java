@@ -0,0 +1,138 @@
+package com.example.spring.boot.config;
+
+import com.example.spring.boot.collapser.RequestCollapser;
+import com.example.spring.boot.collapser.RequestCollapserProperties;
+import com.example.spring.boot.exception.InventoryNotFoundException;
+import com.example.spring.boot.exception.OrderLookupException;
+import com.example.spring.boot.exception.ProductNotFoundException;
+import com.example.spring.boot.external.CustomerClientService;
+import com.example.spring.boot.external.InventoryClientService;
+import com.example.spring.boot.external.ProductClientService;
+import com.example.spring.boot.model.Address;
+import com.example.spring.boot.model.Inventory;
+import com.example.spring.boot.model.Product;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+@Configuration
+@EnableConfigurationProperties(RequestCollapserProperties.class)
+public class RequestCollapserConfig {
+
+    // Ferme les fenêtres de regroupement ; les appels groupés partent sur collapserDispatchExecutor.
+    @Bean
+    public ThreadPoolTaskScheduler collapserScheduler(RequestCollapserProperties properties) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(properties.getDispatchPoolSize());
+        scheduler.setThreadNamePrefix("collapser-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // Appels groupés, en fin de fenêtre ou dès qu'un lot est plein ; la saturation retombe sur le thread appelant.
+    // En mode threads virtuels, chaque lot part sur son propre thread virtuel.
+    @Bean
+    public AsyncTaskExecutor collapserDispatchExecutor(RequestCollapserProperties properties, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("collapser-dispatch-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getDispatchPoolSize());
+        executor.setMaxPoolSize(properties.getDispatchPoolSize());
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("collapser-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public RequestCollapser<Product> productCollapser(ProductClientService productClientService,
+                                                      RequestCollapserProperties properties,
+                                                      FeignClientProperties feignClientProperties,
+                                                      ThreadPoolTaskScheduler collapserScheduler,
+                                                      AsyncTaskExecutor collapserDispatchExecutor,
+                                                      MeterRegistry meterRegistry) {
+        return collapser("products", ids -> byId(productClientService.getProductsByIds(ids), Product::getId),
+                id -> new ProductNotFoundException("Product not found for ID: " + id),
+                properties, feignClientProperties, collapserScheduler, collapserDispatchExecutor, meterRegistry);
+    }
+
+    @Bean
+    public RequestCollapser<Inventory> inventoryCollapser(InventoryClientService inventoryClientService,
+                                                          RequestCollapserProperties properties,
+                                                          FeignClientProperties feignClientProperties,
+                                                          ThreadPoolTaskScheduler collapserScheduler,
+                                                          AsyncTaskExecutor collapserDispatchExecutor,
+                                                          MeterRegistry meterRegistry) {
+        return collapser("inventories", ids -> byId(inventoryClientService.getInventoriesByIds(ids), Inventory::getId),
+                id -> new InventoryNotFoundException("Inventory not found for ID: " + id),
+                properties, feignClientProperties, collapserScheduler, collapserDispatchExecutor, meterRegistry);
+    }
+
+    @Bean
+    public RequestCollapser<Address> shippingAddressCollapser(CustomerClientService customerClientService,
+                                                              RequestCollapserProperties properties,
+                                                              FeignClientProperties feignClientProperties,
+                                                              ThreadPoolTaskScheduler collapserScheduler,
+                                                              AsyncTaskExecutor collapserDispatchExecutor,
+                                                              MeterRegistry meterRegistry) {
+        return collapser("shipping-addresses", customerClientService::getDefaultAddresses,
+                id -> new OrderLookupException("No shipping address found for customer: " + id, null),
+                properties, feignClientProperties, collapserScheduler, collapserDispatchExecutor, meterRegistry);
+    }
+
+    private static <V> RequestCollapser<V> collapser(String name,
+                                                     Function<Set<String>, Map<String, V>> bulkLoader,
+                                                     Function<String, RuntimeException> notFound,
+                                                     RequestCollapserProperties properties,
+                                                     FeignClientProperties feignClientProperties,
+                                                     ThreadPoolTaskScheduler scheduler,
+                                                     AsyncTaskExecutor dispatcher,
+                                                     MeterRegistry meterRegistry) {
+        Duration window = properties.windowFor(name);
+        return new RequestCollapser<>(name, bulkLoader, notFound, window, properties.maxBatchSizeFor(name),
+                window.plus(readTimeout(feignClientProperties)), scheduler.getScheduledExecutor(), dispatcher,
+                meterRegistry);
+    }
+
+    // Un appelant n'attend pas un lot plus longtemps que l'appel Feign groupé lui-même (read-timeout par défaut).
+    private static Duration readTimeout(FeignClientProperties feignClientProperties) {
+        FeignClientProperties.FeignClientConfiguration defaults =
+                feignClientProperties.getConfig().get(feignClientProperties.getDefaultConfig());
+        if (defaults != null && defaults.getReadTimeout() != null) {
+            return Duration.ofMillis(defaults.getReadTimeout());
+        }
+        return Duration.ofMillis(new Request.Options().readTimeoutMillis());
+    }
+
+    private static <T> Map<String, T> byId(List<T> values, Function<T, String> id) {
+        Map<String, T> result = new HashMap<>();
+        if (values != null) {
+            values.forEach(value -> result.put(id.apply(value), value));
+        }
+        return result;
+    }
+}
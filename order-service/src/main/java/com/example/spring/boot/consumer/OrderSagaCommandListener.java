@@ -0,0 +1,30 @@
+package com.example.spring.boot.consumer;
+
+import com.example.spring.boot.dto.sagaDto.SagaCommand;
+import com.example.spring.boot.saga.OrderSagaOrchestrator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSagaCommandListener {
+
+    private final OrderSagaOrchestrator orderSagaOrchestrator;
+
+
+    // Un message rejeté n'est pas perdu : la saga reste en base et sera relancée par resumeStalledSagas.
+    @RabbitListener(queues = {"${rabbit.mq.saga.queue.name}"})
+    public void receiveSagaCommand(SagaCommand command) {
+        log.info("OrderSagaCommandListener::receiveSagaCommand - {}", command);
+        try {
+            orderSagaOrchestrator.handle(command);
+        } catch (Exception e) {
+            log.error("Error processing saga command", e);
+            throw new AmqpRejectAndDontRequeueException("Error processing saga command", e);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.spring.boot.controller;
 
+import com.example.spring.boot.dto.CursorPageDto;
+import com.example.spring.boot.dto.orderDto.OrderBatchRequestDto;
+import com.example.spring.boot.dto.orderDto.OrderBatchResponseDto;
 import com.example.spring.boot.dto.orderDto.OrderRequestDto;
 import com.example.spring.boot.dto.orderDto.OrderResponseDto;
 import com.example.spring.boot.dto.orderDto.OrderUpdateRequestDto;
+import com.example.spring.boot.idempotency.IdempotencyService;
+import com.example.spring.boot.service.OrderBatchService;
 import com.example.spring.boot.service.OrderService;
+import com.example.spring.boot.util.NdjsonStreamWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,8 +19,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,6 +33,12 @@ public class OrderController {
 
     private final OrderService orderService;
 
+    private final OrderBatchService orderBatchService;
+
+    private final NdjsonStreamWriter ndjsonStreamWriter;
+
+    private final IdempotencyService idempotencyService;
+
     @GetMapping
     @Operation(summary = "Get all orders", description = "Retrieve a list of all orders")
     @ApiResponses(value = {
@@ -38,6 +52,24 @@ public class OrderController {
         return ResponseEntity.ok(orderResponseDtoList);
     }
 
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get a page of orders", description = "Retrieves orders ordered by ID, starting after the given cursor.")
+    @ApiResponse(responseCode = "200", description = "Page retrieved successfully")
+    public ResponseEntity<CursorPageDto<OrderResponseDto>> getOrdersPage(
+            @RequestParam(required = false) @Parameter(description = "ID of the last item of the previous page") String after,
+            @RequestParam @Parameter(description = "Maximum number of items to return (1-1000)") int limit) {
+        return ResponseEntity.ok(orderService.getOrdersPage(after, limit));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all orders", description = "Streams every entry as newline-delimited JSON, ordered by ID.")
+    @ApiResponse(responseCode = "200", description = "Stream started successfully")
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamWriter.write(orderService::streamAllOrders));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get order by ID", description = "Retrieve a specific order by its ID")
     @ApiResponses(value = {
@@ -75,15 +107,35 @@ public class OrderController {
     @PostMapping
     @Operation(summary = "Create a new order", description = "Create a new order with the provided details")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Order created successfully",
+            @ApiResponse(responseCode = "202", description = "Order accepted, it is confirmed or cancelled asynchronously",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = OrderResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used with a different request"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<OrderResponseDto> createOrder(@Valid @RequestBody @Parameter(description = "Details of the order to be created") OrderRequestDto orderRequestDto,
+                                                        @RequestHeader(value = "Idempotency-Key", required = false)
+                                                        @Parameter(description = "Client key; a replay returns the order created by the first request") String idempotencyKey) {
+        OrderResponseDto createdOrder = idempotencyService.execute("create-order", idempotencyKey, orderRequestDto,
+                () -> orderService.createOrder(orderRequestDto), order -> order.getId() != null);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(createdOrder);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create a batch of orders", description = "Create up to " + OrderBatchRequestDto.MAX_LINES
+            + " orders at once and report the outcome of every line")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each line",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = OrderBatchResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<OrderResponseDto> createOrder(@Valid @RequestBody @Parameter(description = "Details of the order to be created") OrderRequestDto orderRequestDto) {
-        OrderResponseDto createdOrder = orderService.createOrder(orderRequestDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+    public ResponseEntity<OrderBatchResponseDto> createOrders(@Valid @RequestBody @Parameter(description = "Order lines to be created") OrderBatchRequestDto orderBatchRequestDto) {
+        OrderBatchResponseDto result = orderBatchService.createOrders(orderBatchRequestDto.getOrders());
+        return ResponseEntity.ok(result);
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,42 @@
+package com.example.spring.boot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Page of results ordered by ID, with the cursor of the next page")
+public class CursorPageDto<T> implements Serializable {
+
+    public static final int MAX_LIMIT = 1000;
+
+    @Schema(description = "Items of the page")
+    private List<T> items;
+
+    @Schema(description = "Value to pass as 'after' to get the next page, null on the last page", example = "prod789")
+    private String nextCursor;
+
+    public static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // Les lignes sont lues avec pageSize + 1 : la ligne en trop indique seulement qu'une page suivante existe.
+    public static <E, T> CursorPageDto<T> of(List<E> rows, int pageSize, Function<E, T> mapper, Function<E, String> id) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<T> items = new ArrayList<>(pageRows.size());
+        pageRows.forEach(row -> items.add(mapper.apply(row)));
+        String nextCursor = hasMore ? id.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new CursorPageDto<>(items, nextCursor);
+    }
+}
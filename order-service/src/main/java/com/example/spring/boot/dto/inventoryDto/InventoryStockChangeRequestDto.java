@@ -0,0 +1,22 @@
+package com.example.spring.boot.dto.inventoryDto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Data transfer object for decreasing or increasing the available stock")
+public class InventoryStockChangeRequestDto implements Serializable {
+
+    @Schema(description = "Quantity of stock to remove or give back", example = "2")
+    @Positive(message = "Stock change quantity must be positive")
+    private int quantity;
+}
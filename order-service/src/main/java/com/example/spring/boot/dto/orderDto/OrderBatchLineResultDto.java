@@ -0,0 +1,30 @@
+package com.example.spring.boot.dto.orderDto;
+
+import com.example.spring.boot.enums.OrderBatchLineStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of one line of an order batch")
+public class OrderBatchLineResultDto implements Serializable {
+
+    @Schema(description = "Position of the line in the request, starting at 0", example = "3")
+    private int line;
+
+    @Schema(description = "Whether the order of this line was created", example = "CREATED")
+    private OrderBatchLineStatus status;
+
+    @Schema(description = "Created order, only set when the line was created")
+    private OrderResponseDto order;
+
+    @Schema(description = "Reason the line was rejected", example = "Not enough stock available!")
+    private String error;
+}
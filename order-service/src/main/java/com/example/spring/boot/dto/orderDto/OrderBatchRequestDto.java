@@ -0,0 +1,28 @@
+package com.example.spring.boot.dto.orderDto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Data transfer object for creating several orders in one request")
+public class OrderBatchRequestDto implements Serializable {
+
+    public static final int MAX_LINES = 1000;
+
+    @Schema(description = "Order lines of the batch, in the order they should be processed")
+    @NotEmpty(message = "Order batch cannot be empty")
+    @Size(max = MAX_LINES, message = "Order batch cannot contain more than " + MAX_LINES + " lines")
+    private List<@Valid OrderRequestDto> orders;
+}
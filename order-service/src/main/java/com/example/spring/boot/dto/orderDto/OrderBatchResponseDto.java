@@ -0,0 +1,27 @@
+package com.example.spring.boot.dto.orderDto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Data transfer object for the result of an order batch")
+public class OrderBatchResponseDto implements Serializable {
+
+    @Schema(description = "Number of orders created", example = "98")
+    private int created;
+
+    @Schema(description = "Number of lines rejected", example = "2")
+    private int rejected;
+
+    @Schema(description = "Outcome of every line, in request order")
+    private List<OrderBatchLineResultDto> results;
+}
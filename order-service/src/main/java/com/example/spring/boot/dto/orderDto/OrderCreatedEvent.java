@@ -0,0 +1,23 @@
+package com.example.spring.boot.dto.orderDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Published once an order has been validated; cargo-service creates the cargo from it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderCreatedEvent implements Serializable {
+
+    private String orderId;
+    private String customerId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.example.spring.boot.dto.sagaDto;
+
+import com.example.spring.boot.enums.SagaStep;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Asks the orchestrator to run, or to compensate, one step of a saga.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SagaCommand implements Serializable {
+
+    private String sagaId;
+    private String orderId;
+    private SagaStep step;
+    private boolean compensation;
+}
@@ -0,0 +1,6 @@
+package com.example.spring.boot.enums;
+
+public enum OrderBatchLineStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,13 @@
+package com.example.spring.boot.enums;
+
+public enum SagaStatus {
+    STARTED,
+    COMPLETED,
+    COMPENSATING,
+    COMPENSATED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == COMPENSATED || this == FAILED;
+    }
+}
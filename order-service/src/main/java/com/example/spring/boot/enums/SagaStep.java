@@ -0,0 +1,8 @@
+package com.example.spring.boot.enums;
+
+public enum SagaStep {
+    VALIDATE_ORDER,
+    CREATE_CARGO,
+    UPDATE_INVENTORY,
+    CANCEL_PAYMENT
+}
@@ -0,0 +1,32 @@
+package com.example.spring.boot.enums;
+
+import java.util.List;
+
+/**
+ * Steps of each saga, in execution order. Compensations run in reverse order,
+ * starting from the last step that succeeded; the last step is never compensated.
+ */
+public enum SagaType {
+    CREATE_ORDER(List.of(SagaStep.VALIDATE_ORDER, SagaStep.CREATE_CARGO)),
+    UPDATE_ORDER(List.of(SagaStep.UPDATE_INVENTORY, SagaStep.CANCEL_PAYMENT));
+
+    private final List<SagaStep> steps;
+
+    SagaType(List<SagaStep> steps) {
+        this.steps = steps;
+    }
+
+    public SagaStep first() {
+        return steps.get(0);
+    }
+
+    public SagaStep next(SagaStep step) {
+        int index = steps.indexOf(step);
+        return index + 1 < steps.size() ? steps.get(index + 1) : null;
+    }
+
+    public SagaStep previous(SagaStep step) {
+        int index = steps.indexOf(step);
+        return index > 0 ? steps.get(index - 1) : null;
+    }
+}
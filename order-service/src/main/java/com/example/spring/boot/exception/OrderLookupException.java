@@ -0,0 +1,8 @@
+package com.example.spring.boot.exception;
+
+public class OrderLookupException extends RuntimeException {
+
+    public OrderLookupException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
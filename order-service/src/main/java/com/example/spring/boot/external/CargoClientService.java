@@ -7,12 +7,17 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 
+import java.util.List;
+
 @FeignClient("CARGO-SERVICE")
 public interface CargoClientService {
 
     @PostMapping("api/v1/cargo")
     CargoResponseDto createCargo(CargoRequestDto cargoRequestDto);
 
+    @PostMapping("api/v1/cargo/batch")
+    List<CargoResponseDto> createCargoBatch(List<CargoRequestDto> cargoRequestDtoList);
+
     @PutMapping("api/v1/cargo")
     CargoResponseDto updateCargo(CargoUpdateRequestDto cargoUpdateRequestDto);
 }
@@ -1,13 +1,32 @@
 package com.example.spring.boot.external;
 
+import com.example.spring.boot.hedging.Hedged;
+import com.example.spring.boot.model.Address;
 import com.example.spring.boot.model.Customer;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @FeignClient(name = "CUSTOMER-SERVICE")
 public interface CustomerClientService {
 
+    @Hedged
     @GetMapping("api/v1/customers/{customerId}")
     Customer getCustomerById(@PathVariable("customerId") String customerId);
+
+    @Hedged
+    @GetMapping("api/v1/customers/{customerId}/default-address")
+    Address getDefaultAddress(@PathVariable("customerId") String customerId);
+
+    @PostMapping("api/v1/customers/byIds")
+    List<Customer> getCustomersByIds(@RequestBody Collection<String> customerIds);
+
+    @PostMapping("api/v1/customers/default-address/byIds")
+    Map<String, Address> getDefaultAddresses(@RequestBody Collection<String> customerIds);
 }
@@ -1,25 +1,41 @@
 package com.example.spring.boot.external;
 
+import com.example.spring.boot.dto.inventoryDto.InventoryStockChangeRequestDto;
 import com.example.spring.boot.dto.inventoryDto.InventoryUpdateRequestDto;
+import com.example.spring.boot.hedging.Hedged;
 import com.example.spring.boot.model.Inventory;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collection;
+import java.util.List;
+
 @FeignClient(name = "INVENTORY-SERVICE")
 public interface InventoryClientService {
 
     @PostMapping("/api/v1/inventories/create")
     Inventory addInventory(@RequestBody Inventory inventory);
 
+    @Hedged
     @GetMapping("/api/v1/inventories/{productId}")
     Inventory getInventoryByProductId(@PathVariable("productId") String productId);
 
     @PutMapping("/api/v1/inventories/{inventoryId}")
     Inventory updateInventory(@PathVariable("inventoryId") String inventoryId,@RequestBody InventoryUpdateRequestDto updateRequest);
 
+    @PostMapping("/api/v1/inventories/{inventoryId}/decrease")
+    Inventory decreaseStock(@PathVariable("inventoryId") String inventoryId, @RequestBody InventoryStockChangeRequestDto stockChangeRequest);
+
+    @PostMapping("/api/v1/inventories/{inventoryId}/increase")
+    Inventory increaseStock(@PathVariable("inventoryId") String inventoryId, @RequestBody InventoryStockChangeRequestDto stockChangeRequest);
+
     @DeleteMapping("/api/v1/inventories/{productId}")
     void deleteInventory(@PathVariable("productId") String productId);
 
+    @Hedged
     @GetMapping("/api/v1/inventories/getInventoryId/{id}")
     Inventory getInventoryById(@PathVariable("id") String id);
+
+    @PostMapping("/api/v1/inventories/byIds")
+    List<Inventory> getInventoriesByIds(@RequestBody Collection<String> ids);
 }
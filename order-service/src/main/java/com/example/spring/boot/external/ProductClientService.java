@@ -1,16 +1,24 @@
 package com.example.spring.boot.external;
+import com.example.spring.boot.hedging.Hedged;
 import com.example.spring.boot.model.Product;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collection;
+import java.util.List;
+
 @FeignClient(name = "SERVICE-PRODUIT")
 public interface ProductClientService {
     @PostMapping("/api/v1/products/add")
     Product addProduct(@RequestBody Product product);
 
+    @Hedged
     @GetMapping("/api/v1/products/{id}")
     Product getProductById(@PathVariable("id") String id);
 
+    @PostMapping("/api/v1/products/byIds")
+    List<Product> getProductsByIds(@RequestBody Collection<String> ids);
+
     @PutMapping("/api/v1/products/{id}")
     Product updateProduct(@PathVariable("id") String id, @RequestBody Product product);
 
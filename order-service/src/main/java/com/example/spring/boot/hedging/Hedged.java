@@ -0,0 +1,18 @@
+package com.example.spring.boot.hedging;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Feign GET method as safe to send twice. When {@code hedging.enabled} is set and the
+ * call has not answered within the observed latency percentile, a second copy goes to another
+ * instance of the service and the first response is used. Only put it on idempotent reads.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Hedged {
+}
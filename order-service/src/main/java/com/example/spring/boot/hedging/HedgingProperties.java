@@ -0,0 +1,31 @@
+package com.example.spring.boot.hedging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hedging")
+public class HedgingProperties {
+
+    private boolean enabled;
+
+    private double percentile = 0.95;
+
+    private Duration initialDelay = Duration.ofMillis(50);
+
+    private Duration minDelay = Duration.ofMillis(5);
+
+    private Duration maxDelay = Duration.ofSeconds(1);
+
+    private double budgetPercent = 10;
+
+    private int maxBurst = 10;
+
+    private int windowSize = 512;
+
+    private int minSamples = 50;
+
+    private int poolSize = 32;
+}
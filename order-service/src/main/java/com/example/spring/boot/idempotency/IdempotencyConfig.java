@@ -0,0 +1,33 @@
+package com.example.spring.boot.idempotency;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer(getClass().getClassLoader()));
+        redisTemplate.afterPropertiesSet();
+        return new RedisIdempotencyStore(redisTemplate);
+    }
+
+    @Bean
+    public IdempotencyService idempotencyService(IdempotencyStore idempotencyStore, IdempotencyProperties properties) {
+        KeyBloomFilter seenKeys = new KeyBloomFilter(properties.getBloomExpectedKeys(),
+                properties.getBloomFalsePositiveRate(), properties.getTtl(), Clock.systemUTC());
+        return new IdempotencyService(idempotencyStore, seenKeys, properties.getKeyPrefix(), properties.getTtl());
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.spring.boot.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+    private String keyPrefix = "idempotency";
+
+    private Duration ttl = Duration.ofHours(24);
+
+    private int bloomExpectedKeys = 1_000_000;
+
+    private double bloomFalsePositiveRate = 0.01;
+}
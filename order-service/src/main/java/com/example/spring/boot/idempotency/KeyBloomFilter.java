@@ -0,0 +1,111 @@
+package com.example.spring.boot.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Local bloom filter of the idempotency keys seen by this instance. {@link #mightContain(String)}
+ * never misses a key added during the last {@code generationTtl}; keys are forgotten after two
+ * generations so the filter does not saturate. False positives only cost an extra Redis read.
+ */
+public class KeyBloomFilter {
+
+    private final int bits;
+
+    private final int hashes;
+
+    private final Duration generationTtl;
+
+    private final Clock clock;
+
+    private volatile Generation current;
+
+    private volatile Generation previous;
+
+    public KeyBloomFilter(int expectedKeys, double falsePositiveRate, Duration generationTtl, Clock clock) {
+        int n = Math.max(1, expectedKeys);
+        this.bits = (int) Math.max(64, Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        this.generationTtl = generationTtl;
+        this.clock = clock;
+        this.current = new Generation(bits, clock.instant());
+        this.previous = new Generation(bits, clock.instant());
+    }
+
+    public boolean mightContain(String key) {
+        rotateIfExpired();
+        long hash = hash(key);
+        return current.contains(hash) || previous.contains(hash);
+    }
+
+    public void put(String key) {
+        rotateIfExpired();
+        current.add(hash(key));
+    }
+
+    private void rotateIfExpired() {
+        Instant now = clock.instant();
+        if (current.createdAt.plus(generationTtl).isAfter(now)) {
+            return;
+        }
+        synchronized (this) {
+            if (!current.createdAt.plus(generationTtl).isAfter(now)) {
+                previous = current;
+                current = new Generation(bits, now);
+            }
+        }
+    }
+
+    // FNV-1a 64 bits ; les deux moitiés servent au double hachage.
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private final class Generation {
+
+        private final AtomicLongArray words;
+
+        private final Instant createdAt;
+
+        private Generation(int bits, Instant createdAt) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+            this.createdAt = createdAt;
+        }
+
+        private void add(long hash) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(hash, i);
+                long mask = 1L << (bit & 63);
+                int word = bit >>> 6;
+                long value;
+                do {
+                    value = words.get(word);
+                } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+            }
+        }
+
+        private boolean contains(long hash) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(hash, i);
+                if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int index(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            return Math.floorMod(h1 + i * h2, bits);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.spring.boot.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Idempotency keys stored in Redis: {@code claim} is a single {@code SET NX EX}.
+ * When Redis is unreachable requests are let through, the same way the cache falls back to the database.
+ */
+@Slf4j
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public RedisIdempotencyStore(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public IdempotencyRecord get(String key) {
+        try {
+            return (IdempotencyRecord) redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("RedisIdempotencyStore::get failed for key: {} - {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean claim(String key, IdempotencyRecord record, Duration ttl) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, record, ttl));
+        } catch (Exception e) {
+            log.warn("RedisIdempotencyStore::claim failed for key: {}, request processed without dedupe - {}",
+                    key, e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotencyRecord record, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(key, record, ttl);
+        } catch (Exception e) {
+            log.warn("RedisIdempotencyStore::complete failed for key: {} - {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            // La clé expirera avec son TTL ; en attendant les rejeux reçoivent un 409.
+            log.warn("RedisIdempotencyStore::release failed for key: {} - {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.spring.boot.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Latency and load seen from this process for each instance of one service.
+ * <p>
+ * Latency is a peak-sensitive EWMA: a response slower than the current average replaces it at
+ * once, faster ones pull it down over {@code decay}. The average also fades while an instance
+ * gets no traffic, so a replica that was slow during a GC pause is tried again later instead of
+ * being avoided for good.
+ */
+public class InstanceLatencyStats {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final double decayNanos;
+
+    private final long failurePenaltyNanos;
+
+    private final LongSupplier nanoClock;
+
+    public InstanceLatencyStats(Duration decay, Duration failurePenalty, LongSupplier nanoClock) {
+        this.decayNanos = decay.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public long now() {
+        return nanoClock.getAsLong();
+    }
+
+    public void start(ServiceInstance instance) {
+        entry(instance).inFlight.incrementAndGet();
+    }
+
+    // Une erreur compte au moins failurePenalty, pour éloigner le trafic d'une instance qui échoue vite.
+    public void complete(ServiceInstance instance, long elapsedNanos, boolean failed) {
+        Entry entry = entry(instance);
+        entry.inFlight.updateAndGet(inFlight -> Math.max(0, inFlight - 1));
+        if (elapsedNanos >= 0) {
+            entry.observe(failed ? Math.max(elapsedNanos, failurePenaltyNanos) : elapsedNanos, now(), decayNanos);
+        }
+    }
+
+    /**
+     * Expected cost of sending one more request: latency times requests already waiting on the
+     * instance. An instance without a measure yet is free while idle, expensive once busy.
+     */
+    public double cost(ServiceInstance instance) {
+        Entry entry = entries.get(key(instance));
+        if (entry == null) {
+            return 0;
+        }
+        int inFlight = entry.inFlight.get();
+        double latency = entry.latency(now(), decayNanos);
+        if (latency == 0) {
+            return inFlight == 0 ? 0 : (double) failurePenaltyNanos * inFlight;
+        }
+        return latency * (inFlight + 1);
+    }
+
+    public int inFlight(ServiceInstance instance) {
+        Entry entry = entries.get(key(instance));
+        return entry == null ? 0 : entry.inFlight.get();
+    }
+
+    // Oublie les instances retirées d'Eureka.
+    public void retain(Collection<ServiceInstance> instances) {
+        if (entries.size() <= instances.size()) {
+            return;
+        }
+        Set<String> keys = instances.stream().map(InstanceLatencyStats::key).collect(Collectors.toSet());
+        entries.keySet().retainAll(keys);
+    }
+
+    private Entry entry(ServiceInstance instance) {
+        return entries.computeIfAbsent(key(instance), key -> new Entry());
+    }
+
+    static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static final class Entry {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private double ewma;
+
+        private long stamp;
+
+        synchronized void observe(double rtt, long now, double decayNanos) {
+            double current = latency(now, decayNanos);
+            ewma = rtt > current ? rtt : current + (rtt - current) * (1 - weight(now, decayNanos));
+            stamp = now;
+        }
+
+        synchronized double latency(long now, double decayNanos) {
+            return ewma * weight(now, decayNanos);
+        }
+
+        private double weight(long now, double decayNanos) {
+            return Math.exp(-Math.max(0, now - stamp) / decayNanos);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.example.spring.boot.mapper;
 
 import com.example.spring.boot.dto.orderDto.OrderRequestDto;
 import com.example.spring.boot.dto.orderDto.OrderResponseDto;
-import com.example.spring.boot.enums.OrderStatus;
 import com.example.spring.boot.model.Order;
 import org.springframework.stereotype.Component;
 
@@ -28,7 +27,7 @@ public class OrderMapper {
                 .id(orderResponseDto.getId())
                 .productId(orderResponseDto.getProductId())
                 .inventoryId(orderResponseDto.getInventoryId())
-                .orderStatus(OrderStatus.PENDING)
+                .orderStatus(orderResponseDto.getOrderStatus())
                 .quantity(orderResponseDto.getQuantity())
                 .orderDate(LocalDateTime.now())
                 .totalAmount(orderResponseDto.getTotalAmount())
@@ -41,7 +40,7 @@ public class OrderMapper {
                 .id(order.getId())
                 .productId(order.getProductId())
                 .inventoryId(order.getInventoryId())
-                .orderStatus(OrderStatus.PROCESSING)
+                .orderStatus(order.getOrderStatus())
                 .quantity(order.getQuantity())
                 .orderDate(LocalDateTime.now())
                 .totalAmount(order.getTotalAmount())
@@ -0,0 +1,58 @@
+package com.example.spring.boot.model;
+
+import com.example.spring.boot.enums.SagaStatus;
+import com.example.spring.boot.enums.SagaStep;
+import com.example.spring.boot.enums.SagaType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an order saga: the step being executed or compensated and the data its steps need.
+ */
+@Entity
+@Table(name = "order_sagas", indexes = @Index(name = "idx_order_sagas_status_updated", columnList = "status, updatedDate"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSaga {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    private SagaType type;
+
+    @Enumerated(EnumType.STRING)
+    private SagaStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private SagaStep currentStep;
+
+    private String orderId;
+    private String customerId;
+    private String productId;
+    private String inventoryId;
+    private String paymentId;
+    private int quantity;
+
+    // Valeurs avant la mise à jour, restaurées par les compensations.
+    private Integer previousQuantity;
+    private Double previousTotalAmount;
+
+    private int attempts;
+    private String failureReason;
+    private LocalDateTime createdDate;
+    private LocalDateTime updatedDate;
+
+    @Version
+    private Long version;
+}
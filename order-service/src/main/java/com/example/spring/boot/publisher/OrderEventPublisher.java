@@ -0,0 +1,28 @@
+package com.example.spring.boot.publisher;
+
+import com.example.spring.boot.dto.orderDto.OrderCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventPublisher {
+
+    private final AmqpTemplate amqpTemplate;
+
+    @Value("${rabbit.mq.order-events.exchange.name}")
+    private String exchange;
+
+    @Value("${rabbit.mq.order-events.created.routing.key}")
+    private String createdRoutingKey;
+
+    // Un échec d'envoi remonte à l'appelant : l'étape de saga est rejouée plutôt que l'événement perdu.
+    public void publishOrderCreated(OrderCreatedEvent event) {
+        log.info("OrderEventPublisher::publishOrderCreated - order id: {}", event.getOrderId());
+        amqpTemplate.convertAndSend(exchange, createdRoutingKey, event);
+    }
+}
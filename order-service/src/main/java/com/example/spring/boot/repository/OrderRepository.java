@@ -1,16 +1,27 @@
 package com.example.spring.boot.repository;
 
 import com.example.spring.boot.model.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, String> {
 
+    List<Order> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Curseur côté serveur (useCursorFetch=true) : les lignes sont lues par blocs au lieu de charger toute la table.
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Order> streamAllByOrderByIdAsc();
+
     Optional<Order> findByProductId(String productId);
 
     Optional<Order> findByInventoryId(String inventoryId);
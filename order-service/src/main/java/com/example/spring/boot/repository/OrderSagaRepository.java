@@ -0,0 +1,18 @@
+package com.example.spring.boot.repository;
+
+import com.example.spring.boot.enums.SagaStatus;
+import com.example.spring.boot.model.OrderSaga;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderSagaRepository extends JpaRepository<OrderSaga, String> {
+
+    List<OrderSaga> findByStatusInAndUpdatedDateBeforeOrderByUpdatedDateAsc(Collection<SagaStatus> statuses,
+                                                                            LocalDateTime updatedBefore, Limit limit);
+}
@@ -0,0 +1,234 @@
+package com.example.spring.boot.saga;
+
+import com.example.spring.boot.cache.CacheTagEvict;
+import com.example.spring.boot.dto.sagaDto.SagaCommand;
+import com.example.spring.boot.enums.SagaStatus;
+import com.example.spring.boot.enums.SagaStep;
+import com.example.spring.boot.exception.InsufficientStockException;
+import com.example.spring.boot.exception.InventoryNotFoundException;
+import com.example.spring.boot.exception.OrderNotFoundException;
+import com.example.spring.boot.exception.ProductNotFoundException;
+import com.example.spring.boot.model.OrderSaga;
+import com.example.spring.boot.repository.OrderSagaRepository;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drives the order sagas one step at a time over RabbitMQ.
+ * <p>
+ * The saga row is the source of truth: a step command is only published once the transaction
+ * that moved the saga to that step has committed, and a command that does not match the current
+ * step is ignored, so redelivered or duplicated messages are harmless. A failed step is retried
+ * up to {@code max-attempts} times (business errors are not retried), then the steps that already
+ * succeeded are compensated in reverse order. Sagas whose command was lost, or that wait for a
+ * retry, are picked up again by {@link #resumeStalledSagas()}.
+ */
+@Service
+@Slf4j
+public class OrderSagaOrchestrator {
+
+    private final OrderSagaRepository orderSagaRepository;
+
+    private final OrderSagaSteps orderSagaSteps;
+
+    private final AmqpTemplate amqpTemplate;
+
+    private final String exchange;
+
+    private final String routingKey;
+
+    private final int maxAttempts;
+
+    private final Duration retryDelay;
+
+    private final int resumeBatchSize;
+
+    public OrderSagaOrchestrator(OrderSagaRepository orderSagaRepository,
+                                 OrderSagaSteps orderSagaSteps,
+                                 AmqpTemplate amqpTemplate,
+                                 @Value("${rabbit.mq.saga.exchange.name}") String exchange,
+                                 @Value("${rabbit.mq.saga.routing.key}") String routingKey,
+                                 @Value("${order.saga.max-attempts:3}") int maxAttempts,
+                                 @Value("${order.saga.retry-delay:30s}") Duration retryDelay,
+                                 @Value("${order.saga.resume-batch-size:100}") int resumeBatchSize) {
+        this.orderSagaRepository = orderSagaRepository;
+        this.orderSagaSteps = orderSagaSteps;
+        this.amqpTemplate = amqpTemplate;
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.resumeBatchSize = resumeBatchSize;
+    }
+
+    /**
+     * Saves the saga in the caller's transaction; its first step is published after the commit.
+     */
+    public OrderSaga start(OrderSaga saga) {
+        LocalDateTime now = LocalDateTime.now();
+        saga.setStatus(SagaStatus.STARTED);
+        saga.setCurrentStep(saga.getType().first());
+        saga.setAttempts(0);
+        saga.setCreatedDate(now);
+        saga.setUpdatedDate(now);
+        orderSagaRepository.save(saga);
+
+        log.info("OrderSagaOrchestrator::start - saga: {}, type: {}, order: {}", saga.getId(), saga.getType(), saga.getOrderId());
+        publishAfterCommit(command(saga));
+        return saga;
+    }
+
+    @Transactional
+    @CacheTagEvict(cacheNames = "orders", tags = {"'order:' + #command.orderId", "'all'", "'date-range'"})
+    public void handle(SagaCommand command) {
+        OrderSaga saga = orderSagaRepository.findById(command.getSagaId()).orElse(null);
+        if (saga == null || !isExpected(saga, command)) {
+            log.info("OrderSagaOrchestrator::handle - stale or duplicate command ignored: {}", command);
+            return;
+        }
+
+        if (command.isCompensation()) {
+            compensate(saga, command.getStep());
+        } else {
+            execute(saga, command.getStep());
+        }
+        saga.setUpdatedDate(LocalDateTime.now());
+        orderSagaRepository.save(saga);
+    }
+
+    @Scheduled(fixedDelayString = "${order.saga.resume-interval:10000}")
+    @Transactional
+    public void resumeStalledSagas() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderSaga> stalled = orderSagaRepository.findByStatusInAndUpdatedDateBeforeOrderByUpdatedDateAsc(
+                List.of(SagaStatus.STARTED, SagaStatus.COMPENSATING), now.minus(retryDelay), Limit.of(resumeBatchSize));
+        for (OrderSaga saga : stalled) {
+            log.info("OrderSagaOrchestrator::resumeStalledSagas - saga: {}, status: {}, step: {}, attempts: {}",
+                    saga.getId(), saga.getStatus(), saga.getCurrentStep(), saga.getAttempts());
+            saga.setUpdatedDate(now);
+            publishAfterCommit(command(saga));
+        }
+    }
+
+    private void execute(OrderSaga saga, SagaStep step) {
+        try {
+            orderSagaSteps.execute(saga, step);
+        } catch (RuntimeException e) {
+            if (isRetryable(e) && saga.getAttempts() + 1 < maxAttempts) {
+                // Nouvelle tentative au prochain passage de resumeStalledSagas, après retry-delay.
+                saga.setAttempts(saga.getAttempts() + 1);
+                saga.setFailureReason(e.getMessage());
+                log.warn("OrderSagaOrchestrator::execute - saga: {}, step: {} failed, attempt {}/{}: {}",
+                        saga.getId(), step, saga.getAttempts(), maxAttempts, e.getMessage());
+                return;
+            }
+            log.warn("OrderSagaOrchestrator::execute - saga: {}, step: {} failed, compensating: {}",
+                    saga.getId(), step, e.getMessage());
+            saga.setStatus(SagaStatus.COMPENSATING);
+            saga.setFailureReason(step + " failed: " + e.getMessage());
+            saga.setAttempts(0);
+            moveBackFrom(saga, step);
+            return;
+        }
+
+        saga.setAttempts(0);
+        SagaStep next = saga.getType().next(step);
+        if (next == null) {
+            saga.setStatus(SagaStatus.COMPLETED);
+            orderSagaSteps.onCompleted(saga);
+            log.info("OrderSagaOrchestrator::execute - saga: {} completed", saga.getId());
+        } else {
+            saga.setCurrentStep(next);
+            publishAfterCommit(command(saga));
+        }
+    }
+
+    private void compensate(OrderSaga saga, SagaStep step) {
+        try {
+            orderSagaSteps.compensate(saga, step);
+        } catch (RuntimeException e) {
+            saga.setAttempts(saga.getAttempts() + 1);
+            if (saga.getAttempts() >= maxAttempts) {
+                saga.setStatus(SagaStatus.FAILED);
+                saga.setFailureReason("Compensation of " + step + " failed: " + e.getMessage());
+                log.error("OrderSagaOrchestrator::compensate - saga: {} needs manual intervention, compensation of {} failed",
+                        saga.getId(), step, e);
+            }
+            return;
+        }
+        saga.setAttempts(0);
+        moveBackFrom(saga, step);
+    }
+
+    private void moveBackFrom(OrderSaga saga, SagaStep step) {
+        SagaStep previous = saga.getType().previous(step);
+        if (previous == null) {
+            saga.setStatus(SagaStatus.COMPENSATED);
+            orderSagaSteps.onCompensated(saga);
+            log.info("OrderSagaOrchestrator::moveBackFrom - saga: {} compensated", saga.getId());
+        } else {
+            saga.setCurrentStep(previous);
+            publishAfterCommit(command(saga));
+        }
+    }
+
+    private static boolean isExpected(OrderSaga saga, SagaCommand command) {
+        return !saga.getStatus().isFinished()
+                && saga.getCurrentStep() == command.getStep()
+                && (saga.getStatus() == SagaStatus.COMPENSATING) == command.isCompensation();
+    }
+
+    // Les erreurs métier et les 4xx ne passeront pas en réessayant.
+    private static boolean isRetryable(RuntimeException e) {
+        return !(e instanceof FeignException.FeignClientException
+                || e instanceof InsufficientStockException
+                || e instanceof ProductNotFoundException
+                || e instanceof InventoryNotFoundException
+                || e instanceof OrderNotFoundException);
+    }
+
+    private static SagaCommand command(OrderSaga saga) {
+        return SagaCommand.builder()
+                .sagaId(saga.getId())
+                .orderId(saga.getOrderId())
+                .step(saga.getCurrentStep())
+                .compensation(saga.getStatus() == SagaStatus.COMPENSATING)
+                .build();
+    }
+
+    private void publishAfterCommit(SagaCommand command) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(command);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(command);
+            }
+        });
+    }
+
+    private void publish(SagaCommand command) {
+        try {
+            amqpTemplate.convertAndSend(exchange, routingKey, command);
+        } catch (AmqpException e) {
+            // La saga reste en base et sera relancée par resumeStalledSagas.
+            log.warn("OrderSagaOrchestrator::publish - command not sent, saga will be resumed: {} - {}",
+                    command, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.spring.boot.saga;
+
+import com.example.spring.boot.dto.inventoryDto.InventoryStockChangeRequestDto;
+import com.example.spring.boot.dto.orderDto.OrderCreatedEvent;
+import com.example.spring.boot.enums.OrderStatus;
+import com.example.spring.boot.enums.SagaStep;
+import com.example.spring.boot.exception.InsufficientStockException;
+import com.example.spring.boot.exception.OrderNotFoundException;
+import com.example.spring.boot.external.InventoryClientService;
+import com.example.spring.boot.external.PaymentClientService;
+import com.example.spring.boot.model.Order;
+import com.example.spring.boot.model.OrderSaga;
+import com.example.spring.boot.publisher.OrderEventPublisher;
+import com.example.spring.boot.repository.OrderRepository;
+import com.example.spring.boot.service.OrderLookupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * What each saga step does, how it is undone, and how the order ends once the saga is over.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSagaSteps {
+
+    private final OrderRepository orderRepository;
+
+    private final OrderLookupService orderLookupService;
+
+    private final InventoryClientService inventoryClientService;
+
+    private final PaymentClientService paymentClientService;
+
+    private final OrderEventPublisher orderEventPublisher;
+
+    public void execute(OrderSaga saga, SagaStep step) {
+        log.info("OrderSagaSteps::execute - saga: {}, step: {}", saga.getId(), step);
+        switch (step) {
+            case VALIDATE_ORDER -> validateOrder(saga);
+            case CREATE_CARGO -> createCargo(saga);
+            case UPDATE_INVENTORY -> adjustStock(saga.getInventoryId(), saga.getQuantity() - saga.getPreviousQuantity());
+            case CANCEL_PAYMENT -> paymentClientService.cancelPayment(saga.getPaymentId());
+        }
+    }
+
+    public void compensate(OrderSaga saga, SagaStep step) {
+        log.info("OrderSagaSteps::compensate - saga: {}, step: {}", saga.getId(), step);
+        switch (step) {
+            // La validation ne modifie que la commande, remise en état par onCompensated.
+            case VALIDATE_ORDER -> {
+            }
+            case CREATE_CARGO -> throw new IllegalStateException("Cargo creation is the last step and is never compensated");
+            case UPDATE_INVENTORY -> adjustStock(saga.getInventoryId(), saga.getPreviousQuantity() - saga.getQuantity());
+            case CANCEL_PAYMENT -> throw new IllegalStateException("Payment cancellation is the last step and is never compensated");
+        }
+    }
+
+    public void onCompleted(OrderSaga saga) {
+        switch (saga.getType()) {
+            case CREATE_ORDER -> updateOrder(saga, order -> order.setOrderStatus(OrderStatus.PROCESSING));
+            case UPDATE_ORDER -> log.info("OrderSagaSteps::onCompleted - order {} updated", saga.getOrderId());
+        }
+    }
+
+    public void onCompensated(OrderSaga saga) {
+        switch (saga.getType()) {
+            case CREATE_ORDER -> updateOrder(saga, order -> order.setOrderStatus(OrderStatus.CANCELLED));
+            case UPDATE_ORDER -> updateOrder(saga, order -> {
+                order.setQuantity(saga.getPreviousQuantity());
+                order.setTotalAmount(saga.getPreviousTotalAmount());
+            });
+        }
+    }
+
+    private void validateOrder(OrderSaga saga) {
+        OrderLookupService.OrderLookup lookup = orderLookupService.lookup(saga.getProductId(),
+                saga.getInventoryId(), saga.getCustomerId());
+        if (lookup.getInventory().getStockQuantity() < saga.getQuantity()) {
+            throw new InsufficientStockException("Not enough stock available!");
+        }
+        updateOrder(saga, order -> {
+            order.setShippingAddress(lookup.getShippingAddress());
+            order.setTotalAmount(lookup.getProduct().getPrice() * saga.getQuantity());
+        });
+    }
+
+    // Le cargo est créé par cargo-service à la réception de l'événement, en lot et sans appel synchrone.
+    private void createCargo(OrderSaga saga) {
+        orderEventPublisher.publishOrderCreated(OrderCreatedEvent.builder()
+                .orderId(saga.getOrderId())
+                .customerId(saga.getCustomerId())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Le stock d'une commande payée a déjà été pris par le paiement : seule la différence est retirée ou rendue,
+    // en variation relative pour que l'étape et sa compensation commutent avec les autres écritures.
+    private void adjustStock(String inventoryId, int delta) {
+        if (delta > 0) {
+            inventoryClientService.decreaseStock(inventoryId, new InventoryStockChangeRequestDto(delta));
+        } else if (delta < 0) {
+            inventoryClientService.increaseStock(inventoryId, new InventoryStockChangeRequestDto(-delta));
+        }
+    }
+
+    private void updateOrder(OrderSaga saga, Consumer<Order> change) {
+        Order order = orderRepository.findById(saga.getOrderId())
+                .orElseThrow(() -> new OrderNotFoundException("Order not found for ID: " + saga.getOrderId()));
+        change.accept(order);
+        orderRepository.save(order);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.spring.boot.service;
+
+import com.example.spring.boot.cache.CacheTagEvict;
+import com.example.spring.boot.dto.cargoDto.CargoRequestDto;
+import com.example.spring.boot.dto.orderDto.OrderBatchLineResultDto;
+import com.example.spring.boot.dto.orderDto.OrderBatchResponseDto;
+import com.example.spring.boot.dto.orderDto.OrderRequestDto;
+import com.example.spring.boot.enums.OrderBatchLineStatus;
+import com.example.spring.boot.enums.OrderStatus;
+import com.example.spring.boot.external.CargoClientService;
+import com.example.spring.boot.mapper.OrderMapper;
+import com.example.spring.boot.model.Address;
+import com.example.spring.boot.model.Inventory;
+import com.example.spring.boot.model.Order;
+import com.example.spring.boot.model.Product;
+import com.example.spring.boot.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates the orders of a batch with a fixed number of round-trips: every distinct product,
+ * inventory and customer is looked up once, the orders are inserted with JDBC batching and
+ * their cargo is created in a single call. Lines that cannot be served are rejected one by
+ * one, the others are still created.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBatchService {
+
+    private final OrderRepository orderRepository;
+
+    private final OrderLookupService orderLookupService;
+
+    private final CargoClientService cargoClientService;
+
+    private final OrderMapper orderMapper;
+
+    @Transactional
+    @CacheTagEvict(cacheNames = "orders", tags = {"'all'", "'date-range'"})
+    public OrderBatchResponseDto createOrders(List<OrderRequestDto> orderRequestDtoList) {
+        log.info("OrderBatchService::createOrders started - lines: {}", orderRequestDtoList.size());
+
+        Set<String> productIds = new LinkedHashSet<>();
+        Set<String> inventoryIds = new LinkedHashSet<>();
+        Set<String> customerIds = new LinkedHashSet<>();
+        for (OrderRequestDto orderRequestDto : orderRequestDtoList) {
+            productIds.add(orderRequestDto.getProductId());
+            inventoryIds.add(orderRequestDto.getInventoryId());
+            customerIds.add(orderRequestDto.getCustomerId());
+        }
+        OrderLookupService.BatchLookup lookup = orderLookupService.lookupAll(productIds, inventoryIds, customerIds);
+
+        OrderBatchLineResultDto[] results = new OrderBatchLineResultDto[orderRequestDtoList.size()];
+        List<Order> orders = new ArrayList<>();
+        List<Integer> orderLines = new ArrayList<>();
+        // Stock encore disponible après les lignes précédentes du lot, par inventaire.
+        Map<String, Integer> remainingStock = new HashMap<>();
+        for (int line = 0; line < results.length; line++) {
+            OrderRequestDto orderRequestDto = orderRequestDtoList.get(line);
+            String error = checkLine(orderRequestDto, lookup, remainingStock);
+            if (error != null) {
+                results[line] = rejected(line, error);
+                continue;
+            }
+            Product product = lookup.getProducts().get(orderRequestDto.getProductId());
+            Order order = orderMapper.mapToOrder(orderRequestDto);
+            order.setShippingAddress(lookup.getShippingAddresses().get(orderRequestDto.getCustomerId()));
+            order.setTotalAmount(product.getPrice() * orderRequestDto.getQuantity());
+            order.setOrderStatus(OrderStatus.PROCESSING);
+            orders.add(order);
+            orderLines.add(line);
+        }
+
+        if (!orders.isEmpty()) {
+            // Flush avant l'appel au service cargo : une erreur d'insertion ne laisse pas de cargo orphelin.
+            orderRepository.saveAllAndFlush(orders);
+
+            List<CargoRequestDto> cargoRequests = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                String customerId = orderRequestDtoList.get(orderLines.get(i)).getCustomerId();
+                cargoRequests.add(CargoRequestDto.builder()
+                        .orderId(orders.get(i).getId())
+                        .customerId(customerId)
+                        .build());
+            }
+            cargoClientService.createCargoBatch(cargoRequests);
+
+            for (int i = 0; i < orders.size(); i++) {
+                int line = orderLines.get(i);
+                results[line] = OrderBatchLineResultDto.builder()
+                        .line(line)
+                        .status(OrderBatchLineStatus.CREATED)
+                        .order(orderMapper.mapToOrderResponseDto(orders.get(i)))
+                        .build();
+            }
+        }
+
+        log.info("OrderBatchService::createOrders finished - created: {}, rejected: {}",
+                orders.size(), results.length - orders.size());
+        return OrderBatchResponseDto.builder()
+                .created(orders.size())
+                .rejected(results.length - orders.size())
+                .results(List.of(results))
+                .build();
+    }
+
+    private static String checkLine(OrderRequestDto orderRequestDto, OrderLookupService.BatchLookup lookup,
+                                    Map<String, Integer> remainingStock) {
+        Product product = lookup.getProducts().get(orderRequestDto.getProductId());
+        if (product == null) {
+            return notFound("Product", orderRequestDto.getProductId(), lookup);
+        }
+        Inventory inventory = lookup.getInventories().get(orderRequestDto.getInventoryId());
+        if (inventory == null) {
+            return notFound("Inventory", orderRequestDto.getInventoryId(), lookup);
+        }
+        Address address = lookup.getShippingAddresses().get(orderRequestDto.getCustomerId());
+        if (address == null) {
+            return notFound("Shipping address", orderRequestDto.getCustomerId(), lookup);
+        }
+
+        int available = remainingStock.getOrDefault(orderRequestDto.getInventoryId(), inventory.getStockQuantity());
+        if (available < orderRequestDto.getQuantity()) {
+            return "Not enough stock available!";
+        }
+        remainingStock.put(orderRequestDto.getInventoryId(), available - orderRequestDto.getQuantity());
+        return null;
+    }
+
+    private static String notFound(String entity, String id, OrderLookupService.BatchLookup lookup) {
+        Throwable failure = lookup.failureOf(id);
+        return failure == null
+                ? entity + " not found for ID: " + id
+                : entity + " lookup failed for ID: " + id + " - " + failure.getMessage();
+    }
+
+    private static OrderBatchLineResultDto rejected(int line, String error) {
+        return OrderBatchLineResultDto.builder()
+                .line(line)
+                .status(OrderBatchLineStatus.REJECTED)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.spring.boot.service;
+
+import com.example.spring.boot.collapser.RequestCollapser;
+import com.example.spring.boot.exception.OrderLookupException;
+import com.example.spring.boot.external.CustomerClientService;
+import com.example.spring.boot.external.InventoryClientService;
+import com.example.spring.boot.external.ProductClientService;
+import com.example.spring.boot.model.Address;
+import com.example.spring.boot.model.Inventory;
+import com.example.spring.boot.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the product, inventory and shipping address lookups of an order concurrently.
+ * Only the default address of the customer is fetched, not the whole customer aggregate.
+ * The first failure cancels the remaining calls and is rethrown unwrapped, so the
+ * Resilience4j aspects on the calling service still see the original Feign exception.
+ * Single lookups go through {@link RequestCollapser}s, so concurrent orders share the same bulk calls.
+ * Batches resolve their ids with one bulk call per service; a failed call only affects the lines depending on it.
+ */
+@Service
+@Slf4j
+public class OrderLookupService {
+
+    private final ProductClientService productClientService;
+
+    private final InventoryClientService inventoryClientService;
+
+    private final CustomerClientService customerClientService;
+
+    private final RequestCollapser<Product> productCollapser;
+
+    private final RequestCollapser<Inventory> inventoryCollapser;
+
+    private final RequestCollapser<Address> shippingAddressCollapser;
+
+    private final AsyncTaskExecutor orderLookupExecutor;
+
+    private final Duration timeout;
+
+    public OrderLookupService(ProductClientService productClientService,
+                              InventoryClientService inventoryClientService,
+                              CustomerClientService customerClientService,
+                              RequestCollapser<Product> productCollapser,
+                              RequestCollapser<Inventory> inventoryCollapser,
+                              RequestCollapser<Address> shippingAddressCollapser,
+                              @Qualifier("orderLookupExecutor") AsyncTaskExecutor orderLookupExecutor,
+                              @Value("${order.lookup.timeout:5s}") Duration timeout) {
+        this.productClientService = productClientService;
+        this.inventoryClientService = inventoryClientService;
+        this.customerClientService = customerClientService;
+        this.productCollapser = productCollapser;
+        this.inventoryCollapser = inventoryCollapser;
+        this.shippingAddressCollapser = shippingAddressCollapser;
+        this.orderLookupExecutor = orderLookupExecutor;
+        this.timeout = timeout;
+    }
+
+    public OrderLookup lookup(String productId, String inventoryId, String customerId) {
+        log.info("OrderLookupService::lookup started");
+        return lookup(productId, inventoryId, () -> shippingAddressCollapser.get(customerId));
+    }
+
+    // L'adresse est fournie par l'appelant : /default-address (404 sans adresse) n'est pas appelé,
+    // seule l'existence du client est vérifiée.
+    public OrderLookup lookupWithoutShippingAddress(String productId, String inventoryId, String customerId) {
+        log.info("OrderLookupService::lookupWithoutShippingAddress started");
+        return lookup(productId, inventoryId, () -> {
+            customerClientService.getCustomerById(customerId);
+            return null;
+        });
+    }
+
+    private OrderLookup lookup(String productId, String inventoryId, Supplier<Address> shippingAddressCall) {
+        List<Future<?>> tasks = new ArrayList<>(3);
+        CompletableFuture<Product> product = submit(tasks, () -> productCollapser.get(productId));
+        CompletableFuture<Inventory> inventory = submit(tasks, () -> inventoryCollapser.get(inventoryId));
+        CompletableFuture<Address> shippingAddress = submit(tasks, shippingAddressCall);
+
+        // Se termine dès le premier échec, sans attendre les appels encore en cours.
+        CompletableFuture<Void> stage = new CompletableFuture<>();
+        // En cas d'échec, c'est failFast qui termine l'étape avec l'exception d'origine.
+        CompletableFuture.allOf(product, inventory, shippingAddress)
+                .whenComplete((ignored, t) -> {
+                    if (t == null) {
+                        stage.complete(null);
+                    }
+                });
+        product.whenComplete((ignored, t) -> failFast(stage, t));
+        inventory.whenComplete((ignored, t) -> failFast(stage, t));
+        shippingAddress.whenComplete((ignored, t) -> failFast(stage, t));
+
+        try {
+            stage.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            cancel(tasks);
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            cancel(tasks);
+            throw new OrderLookupException("Order lookups did not complete within " + timeout, e);
+        } catch (InterruptedException e) {
+            cancel(tasks);
+            Thread.currentThread().interrupt();
+            throw new OrderLookupException("Order lookups interrupted", e);
+        }
+
+        log.info("OrderLookupService::lookup finished");
+        return new OrderLookup(product.join(), inventory.join(), shippingAddress.join());
+    }
+
+    public BatchLookup lookupAll(Collection<String> productIds, Collection<String> inventoryIds, Collection<String> customerIds) {
+        log.info("OrderLookupService::lookupAll started - products: {}, inventories: {}, customers: {}",
+                productIds.size(), inventoryIds.size(), customerIds.size());
+
+        List<Future<?>> tasks = new ArrayList<>(3);
+        CompletableFuture<Map<String, Product>> products = submit(tasks,
+                () -> byId(productClientService.getProductsByIds(productIds), Product::getId));
+        CompletableFuture<Map<String, Inventory>> inventories = submit(tasks,
+                () -> byId(inventoryClientService.getInventoriesByIds(inventoryIds), Inventory::getId));
+        CompletableFuture<Map<String, Address>> shippingAddresses = submit(tasks,
+                () -> customerClientService.getDefaultAddresses(customerIds));
+
+        try {
+            CompletableFuture.allOf(products, inventories, shippingAddresses).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Les échecs sont rapportés id par id dans le résultat.
+        } catch (TimeoutException e) {
+            cancel(tasks);
+            throw new OrderLookupException("Order lookups did not complete within " + timeout, e);
+        } catch (InterruptedException e) {
+            cancel(tasks);
+            Thread.currentThread().interrupt();
+            throw new OrderLookupException("Order lookups interrupted", e);
+        }
+
+        Map<String, Throwable> failures = new HashMap<>();
+        BatchLookup lookup = new BatchLookup(resolved(products, productIds, failures),
+                resolved(inventories, inventoryIds, failures),
+                resolved(shippingAddresses, customerIds, failures), failures);
+
+        log.info("OrderLookupService::lookupAll finished - failed ids: {}", failures.size());
+        return lookup;
+    }
+
+    private static <T> Map<String, T> byId(List<T> values, Function<T, String> id) {
+        Map<String, T> result = new HashMap<>();
+        if (values != null) {
+            values.forEach(value -> result.put(id.apply(value), value));
+        }
+        return result;
+    }
+
+    // Un appel groupé en échec fait échouer tous les identifiants qu'il portait.
+    private static <T> Map<String, T> resolved(CompletableFuture<Map<String, T>> result, Collection<String> ids,
+                                               Map<String, Throwable> failures) {
+        try {
+            Map<String, T> values = result.join();
+            return values == null ? Map.of() : values;
+        } catch (CompletionException e) {
+            ids.forEach(id -> failures.put(id, e.getCause()));
+            return Map.of();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(List<Future<?>> tasks, Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        tasks.add(orderLookupExecutor.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }));
+        return result;
+    }
+
+    private static void failFast(CompletableFuture<Void> stage, Throwable t) {
+        if (t != null) {
+            stage.completeExceptionally(t);
+        }
+    }
+
+    private static void cancel(List<Future<?>> tasks) {
+        tasks.forEach(task -> task.cancel(true));
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new OrderLookupException("Order lookup failed", cause);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class OrderLookup {
+        private final Product product;
+        private final Inventory inventory;
+        private final Address shippingAddress;
+    }
+
+    /**
+     * Lookups of a batch keyed by id. An id absent from its map was not found;
+     * {@link #failureOf(String)} gives the error of the call when there was one.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class BatchLookup {
+        private final Map<String, Product> products;
+        private final Map<String, Inventory> inventories;
+        private final Map<String, Address> shippingAddresses;
+        private final Map<String, Throwable> failures;
+
+        public Throwable failureOf(String id) {
+            return failures.get(id);
+        }
+    }
+}
@@ -1,32 +1,34 @@
 package com.example.spring.boot.service;
 
-import com.example.spring.boot.dto.cargoDto.CargoRequestDto;
-import com.example.spring.boot.dto.cargoDto.CargoUpdateRequestDto;
-import com.example.spring.boot.dto.inventoryDto.InventoryUpdateRequestDto;
+import com.example.spring.boot.cache.CacheTagEvict;
+import com.example.spring.boot.dto.CursorPageDto;
 import com.example.spring.boot.dto.orderDto.OrderRequestDto;
 import com.example.spring.boot.dto.orderDto.OrderResponseDto;
 import com.example.spring.boot.dto.orderDto.OrderUpdateRequestDto;
 import com.example.spring.boot.dto.paymentDto.PaymentUpdateRequestDto;
 import com.example.spring.boot.enums.OrderStatus;
-import com.example.spring.boot.exception.InsufficientStockException;
+import com.example.spring.boot.enums.SagaType;
 import com.example.spring.boot.exception.OrderNotFoundException;
-import com.example.spring.boot.external.*;
 import com.example.spring.boot.mapper.OrderMapper;
 import com.example.spring.boot.model.*;
 import com.example.spring.boot.repository.OrderRepository;
+import com.example.spring.boot.saga.OrderSagaOrchestrator;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -35,19 +37,15 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
 
-    private final InventoryClientService inventoryClientService;
+    private final OrderLookupService orderLookupService;
 
-    private final ProductClientService productClientService;
-
-    private final PaymentClientService paymentClientService;
-
-    private final CustomerClientService customerClientService;
-
-    private final CargoClientService cargoClientService;
+    private final OrderSagaOrchestrator orderSagaOrchestrator;
 
     private final OrderMapper orderMapper;
 
-    @Cacheable(value = "orders", key = "'all'")
+    private final EntityManager entityManager;
+
+    @Cacheable(value = "orders", key = "'all'", sync = true)
     public List<OrderResponseDto> getAllOrders() {
         log.info("OrderService::getAllOrders started");
 
@@ -58,7 +56,33 @@ public class OrderService {
         return orderMapper.mapToOrderResponseDtoList(orderList);
     }
 
-    @Cacheable(value = "orders", key = "#id")
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderResponseDto> getOrdersPage(String after, int limit) {
+        log.info("OrderService::getOrdersPage started");
+
+        int pageSize = CursorPageDto.pageSize(limit);
+        List<Order> orderList = orderRepository.findByIdGreaterThanOrderByIdAsc(after == null ? "" : after, Limit.of(pageSize + 1));
+
+        log.info("OrderService::getOrdersPage finished");
+        return CursorPageDto.of(orderList, pageSize, orderMapper::mapToOrderResponseDto, Order::getId);
+    }
+
+    // Chaque ligne est détachée après écriture : la mémoire utilisée ne dépend pas de la taille de la table.
+    @Transactional(readOnly = true)
+    public void streamAllOrders(Consumer<OrderResponseDto> consumer) {
+        log.info("OrderService::streamAllOrders started");
+
+        try (Stream<Order> orderStream = orderRepository.streamAllByOrderByIdAsc()) {
+            orderStream.forEach(order -> {
+                consumer.accept(orderMapper.mapToOrderResponseDto(order));
+                entityManager.detach(order);
+            });
+        }
+
+        log.info("OrderService::streamAllOrders finished");
+    }
+
+    @Cacheable(value = "orders", key = "#id", sync = true)
     public OrderResponseDto getOrderById(String id) {
         log.info("OrderService::getOrderById started");
 
@@ -70,46 +94,34 @@ public class OrderService {
     }
 
 
+    /**
+     * Stores the order as {@code PENDING} and starts its saga: product, stock and address are checked
+     * and the cargo is created asynchronously, the order moving to {@code PROCESSING} or {@code CANCELLED}.
+     */
     @Transactional
-    @Retry(name = "orderService", fallbackMethod = "fallbackCreateOrder")
-    @CircuitBreaker(name = "orderServiceBreaker", fallbackMethod = "fallbackCreateOrder")
     @RateLimiter(name = "createOrderLimiter", fallbackMethod = "fallbackCreateOrder")
+    @CacheTagEvict(cacheNames = "orders", tags = {"'all'", "'date-range'"})
     public OrderResponseDto createOrder(OrderRequestDto orderRequestDto) {
         log.info("Order::createOrder started");
 
-        Product product = productClientService.getProductById(orderRequestDto.getProductId());
-        Inventory inventory = inventoryClientService.getInventoryById(orderRequestDto.getInventoryId());
-        Customer customer = customerClientService.getCustomerById(orderRequestDto.getCustomerId());
-
-
-        log.info("OrderResponseDto::createOrder - Order create with product id: {}, inventory id: {}, customer id: {}",
-                product.getId(), inventory.getId(), customer.getId());
-
-
-        if (!(inventory.getStockQuantity() >= orderRequestDto.getQuantity())) {
-            log.info("OrderResponseDto::createOrder - Order create with orderRequestDto.getQuantity : {}", orderRequestDto.getQuantity());
-            throw new InsufficientStockException("Not enough stock available!");
-        }
-
-        List<Address> addressList = customer.getAddressList();
-        Address address = addressList.stream().findFirst().orElseThrow();
-        log.info("OrderResponseDto::createOrder - addressList: {}", addressList);
-        log.info("OrderResponseDto::createOrder - address: {}", address);
-
+        Order order = orderMapper.mapToOrder(orderRequestDto);
+        order.setOrderStatus(OrderStatus.PENDING);
+        orderRepository.save(order);
 
-        OrderResponseDto savedOrder = getSaveOrder(orderRequestDto, product, address);
-        log.info("OrderResponseDto::createOrder - saved order: {}", savedOrder);
+        orderSagaOrchestrator.start(OrderSaga.builder()
+                .type(SagaType.CREATE_ORDER)
+                .orderId(order.getId())
+                .customerId(orderRequestDto.getCustomerId())
+                .productId(orderRequestDto.getProductId())
+                .inventoryId(orderRequestDto.getInventoryId())
+                .quantity(orderRequestDto.getQuantity())
+                .build());
 
-
-        CargoRequestDto cargo = getCargo(savedOrder.getId(), customer.getId());
-
-        cargoClientService.createCargo(cargo);
-
-        log.info("Order::createOrder finished.");
-        return savedOrder;
+        log.info("Order::createOrder finished - order {} accepted", order.getId());
+        return orderMapper.mapToOrderResponseDto(order);
     }
 
-    @Cacheable(value = "orders", key = "#startDateTime + '-' + #endDateTime")
+    @Cacheable(value = "orders", key = "#startDateTime + '-' + #endDateTime", sync = true)
     public List<OrderResponseDto> getByOrderDateBetween(String startDateTime, String endDateTime) {
         log.info("Order::getByOrderDateBetween started.");
 
@@ -132,35 +144,39 @@ public class OrderService {
     @Retry(name = "orderService", fallbackMethod = "fallbackUpdateOrder")
     @CircuitBreaker(name = "orderServiceBreaker", fallbackMethod = "fallbackUpdateOrder")
     @RateLimiter(name = "createOrderLimiter", fallbackMethod = "fallbackUpdateOrder")
-    @CacheEvict(value = "orders", key = "#id",allEntries = true)
+    @CacheTagEvict(cacheNames = "orders", tags = "'order:' + #id")
     public OrderResponseDto updateOrder(String id, OrderUpdateRequestDto orderUpdateRequestDto) {
         log.info("OrderService::updateOrder - Order update process started. Order ID: {}", id);
 
         OrderResponseDto existingOrder = getOrderById(id);
 
-        // Feign Client ile senkron olarak Product ve Inventory servislerine çağrı yapıyoruz
-        Inventory inventory = inventoryClientService.getInventoryById(orderUpdateRequestDto.getInventoryId());
-        Product product = productClientService.getProductById(orderUpdateRequestDto.getProductId());
-        Customer customer = customerClientService.getCustomerById(orderUpdateRequestDto.getCustomerId());
+        // Product, Inventory ve Customer servislerine paralel çağrı yapıyoruz
+        OrderLookupService.OrderLookup lookup = orderUpdateRequestDto.getShippingAddress() == null
+                ? orderLookupService.lookup(orderUpdateRequestDto.getProductId(),
+                        orderUpdateRequestDto.getInventoryId(), orderUpdateRequestDto.getCustomerId())
+                : orderLookupService.lookupWithoutShippingAddress(orderUpdateRequestDto.getProductId(),
+                        orderUpdateRequestDto.getInventoryId(), orderUpdateRequestDto.getCustomerId());
+        Inventory inventory = lookup.getInventory();
+        Product product = lookup.getProduct();
+        String customerId = orderUpdateRequestDto.getCustomerId();
 
         log.info("OrderResponseDto::updateOrder - " +
                         "existingOrder with order id : {} ," +
                         " inventory with id : {}, customer with id : {} ",
-                existingOrder.getId(), inventory.getId(), customer.getId());
+                existingOrder.getId(), inventory.getId(), customerId);
 
 
         int currentOrderQuantity = existingOrder.getQuantity();
         int newOrderQuantity = orderUpdateRequestDto.getQuantity();
-        int updatedInventoryQuantity = inventory.getStockQuantity() + currentOrderQuantity;
+        double previousTotalAmount = existingOrder.getTotalAmount();
 
 
         if (orderUpdateRequestDto.getShippingAddress() == null) {
-            List<Address> addressList = customer.getAddressList();
-            Address address = addressList.stream().findFirst().orElseThrow();
+            Address address = lookup.getShippingAddress();
 
             log.info("OrderService::updateOrder -" +
                             " Shipping address added to order. Customer ID: {}, Address: {}",
-                    customer.getId(), existingOrder.getShippingAddress());
+                    customerId, existingOrder.getShippingAddress());
 
             existingOrder.setShippingAddress(address);
         }
@@ -178,24 +194,24 @@ public class OrderService {
                 updatedOrder.getId(), updatedOrder.getQuantity(), updatedOrder.getTotalAmount());
 
 
-        // ÖDEMEYİ İPTAL ET ...
-        paymentClientService.cancelPayment(orderUpdateRequestDto.getPaymentId());
-
-        // ödeme güncelleme işlemine yönlendir.
-        // ödeme güncellendikten sonra stok miktari eski haline getir.
-
-        InventoryUpdateRequestDto updateRequest = getInventoryUpdateRequestDto(updatedOrder, updatedInventoryQuantity);
-        log.info("OrderResponseDto::updateOrder - updateRequest  : {}", updateRequest);
-
-        // Envanter güncelleme isteğini Feign Client ile gönderiyoruz
-        inventoryClientService.updateInventory(inventory.getId(), updateRequest);
-
+        // Stok güncellemesi ve ödeme iptali saga tarafından, hata durumunda telafi edilerek yapılır.
+        orderSagaOrchestrator.start(OrderSaga.builder()
+                .type(SagaType.UPDATE_ORDER)
+                .orderId(updatedOrder.getId())
+                .customerId(customerId)
+                .productId(orderUpdateRequestDto.getProductId())
+                .inventoryId(inventory.getId())
+                .paymentId(orderUpdateRequestDto.getPaymentId())
+                .quantity(newOrderQuantity)
+                .previousQuantity(currentOrderQuantity)
+                .previousTotalAmount(previousTotalAmount)
+                .build());
 
         log.info("OrderService::updateOrder - Order update process completed successfully. Updated Order ID: {}", updatedOrder.getId());
         return orderMapper.mapToOrderResponseDto(updatedOrder);
     }
 
-    @CacheEvict(value = "orders", key = "#id",allEntries = true)
+    @CacheTagEvict(cacheNames = "orders", tags = "'order:' + #id")
     public void deleteOrder(String id) {
         log.info("OrderService::deleteOrder started");
 
@@ -219,32 +235,6 @@ public class OrderService {
                 .build();
     }
 
-    private OrderResponseDto getSaveOrder(OrderRequestDto orderRequestDto, Product product, Address address) {
-        orderRequestDto.setShippingAddress(address);
-        Order saveOrder = orderMapper.mapToOrder(orderRequestDto);
-        saveOrder.setTotalAmount((product.getPrice() * orderRequestDto.getQuantity()));
-        saveOrder.setOrderStatus(OrderStatus.PROCESSING);
-        orderRepository.save(saveOrder);
-
-        log.info("OrderResponseDto::getSaveOrder - saveOrder  : {}", saveOrder);
-        return orderMapper.mapToOrderResponseDto(saveOrder);
-    }
-
-    private static InventoryUpdateRequestDto getInventoryUpdateRequestDto(Order save, int updatedInventoryQuantity) {
-        return InventoryUpdateRequestDto.builder()
-                .inventoryId(save.getInventoryId())
-                .newQuantity(updatedInventoryQuantity)
-                .lastUpdated(LocalDateTime.now())
-                .build();
-    }
-
-    private static CargoRequestDto getCargo(String orderId,String customerId) {
-        return CargoRequestDto.builder()
-                .orderId(orderId)
-                .customerId(customerId)
-                .build();
-    }
-
     private OrderResponseDto fallbackCreateOrder(OrderRequestDto orderRequestDto, Throwable t) {
         log.error("Error creating order: ", t);
         return new OrderResponseDto(); // or any fallback response
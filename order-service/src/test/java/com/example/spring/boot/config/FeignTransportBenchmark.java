@@ -0,0 +1,280 @@
+package com.example.spring.boot.config;
+
+import com.example.spring.boot.collapser.RequestCollapser;
+import com.example.spring.boot.dto.inventoryDto.InventoryUpdateRequestDto;
+import com.example.spring.boot.external.CustomerClientService;
+import com.example.spring.boot.external.InventoryClientService;
+import com.example.spring.boot.external.ProductClientService;
+import com.example.spring.boot.service.OrderLookupService;
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.Retryer;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays the synchronous part of order creation (product, inventory and shipping address
+ * lookups in parallel, then the inventory update) through the real Feign clients against a
+ * stubbed downstream Tomcat, once per transport: HttpURLConnection (Feign's default), a pooled
+ * Apache HttpClient 5 and the JDK HttpClient over HTTP/2 (h2c). The stub answers after a fixed
+ * delay and gzips large JSON bodies, like the services with {@code server.compression} on.
+ * Reports throughput, latency percentiles and the number of TCP connections each transport opened.
+ * Run with {@code mvn test -Dtest=FeignTransportBenchmark}.
+ */
+class FeignTransportBenchmark {
+
+    private static final int CALLERS = 64;
+    private static final int WARMUP_ORDERS = 500;
+    private static final int ORDERS = 3_000;
+    private static final long SERVER_LATENCY_MS = 1;
+    private static final int REQUESTS_PER_ORDER = 4;
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 100;
+    private static final int MAX_KEEP_ALIVE_REQUESTS = 1_000;
+    private static final String DESCRIPTION = "x".repeat(4_096);
+
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger gzippedResponses = new AtomicInteger();
+
+    private Tomcat tomcat;
+    private String baseUrl;
+    private ThreadPoolTaskExecutor lookupExecutor;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("feign-transport-benchmark").toString());
+        Connector connector = new Connector();
+        connector.setPort(0);
+        // Mêmes réglages que les services : server.tomcat.max-keep-alive-requests et Http2ServerConfig.
+        Http2Protocol http2 = new Http2Protocol();
+        http2.setMaxConcurrentStreams(1_000);
+        http2.setMaxConcurrentStreamExecution(200);
+        connector.addUpgradeProtocol(http2);
+        AbstractHttp11Protocol<?> protocol = (AbstractHttp11Protocol<?>) connector.getProtocolHandler();
+        protocol.setMaxKeepAliveRequests(MAX_KEEP_ALIVE_REQUESTS);
+        protocol.setCompression("on");
+        protocol.setCompressibleMimeType("application/json");
+        protocol.setCompressionMinSize(2_048);
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "downstream", new DownstreamStub());
+        context.addServletMappingDecoded("/*", "downstream");
+        tomcat.start();
+        baseUrl = "http://localhost:" + connector.getLocalPort();
+
+        lookupExecutor = new ThreadPoolTaskExecutor();
+        lookupExecutor.setCorePoolSize(CALLERS * 3);
+        lookupExecutor.setMaxPoolSize(CALLERS * 3);
+        lookupExecutor.setQueueCapacity(CALLERS * 3);
+        lookupExecutor.initialize();
+        callers = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        callers.shutdownNow();
+        lookupExecutor.shutdown();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Test
+    void pooledTransportsReuseTheirConnections() throws Exception {
+        CloseableHttpClient httpClient5 = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(400)
+                        .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+                        .build())
+                .build();
+        HttpClient http2 = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+        try (httpClient5) {
+            Result httpUrlConnection = run(new Client.Default(null, null));
+            Result hc5 = run(new ApacheHttp5Client(httpClient5));
+            Result jdkHttp2 = run(new Http2Client(http2));
+
+            System.out.println("transport           orders/s   p50     p99     connections  gzipped");
+            print("HttpURLConnection", httpUrlConnection);
+            print("Apache HC5 (pool)", hc5);
+            print("JDK HTTP/2 (h2c)", jdkHttp2);
+
+            // Le cache keep-alive de HttpURLConnection ne garde que 5 connexions par hôte : les autres sont rouvertes.
+            assertTrue(httpUrlConnection.connections > hc5.connections);
+            // Le pool ne rouvre une connexion que lorsque Tomcat la ferme après max-keep-alive-requests.
+            assertTrue(hc5.connections <= MAX_CONNECTIONS_PER_ROUTE + ORDERS * REQUESTS_PER_ORDER / MAX_KEEP_ALIVE_REQUESTS);
+            // HTTP/2 multiplexe tous les appels sur une poignée de connexions.
+            assertTrue(jdkHttp2.connections < hc5.connections);
+            assertEquals(0, httpUrlConnection.gzipped);
+            assertTrue(hc5.gzipped > 0);
+        }
+    }
+
+    private Result run(Client client) throws Exception {
+        Feign.Builder builder = feign(client);
+        ProductClientService productClientService = builder.target(ProductClientService.class, baseUrl);
+        InventoryClientService inventoryClientService = builder.target(InventoryClientService.class, baseUrl);
+        CustomerClientService customerClientService = builder.target(CustomerClientService.class, baseUrl);
+        OrderLookupService orderLookupService = new OrderLookupService(productClientService, inventoryClientService,
+                customerClientService,
+                direct("products", productClientService::getProductById),
+                direct("inventories", inventoryClientService::getInventoryById),
+                direct("shipping-addresses", customerClientService::getDefaultAddress),
+                lookupExecutor, Duration.ofSeconds(10));
+        Runnable createOrder = () -> {
+            OrderLookupService.OrderLookup lookup = orderLookupService.lookup("product", "inventory", "customer");
+            inventoryClientService.updateInventory("inventory", InventoryUpdateRequestDto.builder()
+                    .inventoryId("inventory")
+                    .newQuantity(lookup.getInventory().getStockQuantity() - 1)
+                    .lastUpdated(LocalDateTime.now())
+                    .build());
+        };
+
+        measure(createOrder, WARMUP_ORDERS);
+        connections.clear();
+        gzippedResponses.set(0);
+        long start = System.nanoTime();
+        long[] samples = measure(createOrder, ORDERS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(ORDERS / seconds, percentile(samples, 50), percentile(samples, 99), connections.size(),
+                gzippedResponses.get());
+    }
+
+    private long[] measure(Runnable createOrder, int orders) throws Exception {
+        long[] samples = new long[orders];
+        AtomicInteger next = new AtomicInteger();
+        Future<?>[] workers = new Future<?>[CALLERS];
+        for (int i = 0; i < CALLERS; i++) {
+            workers[i] = callers.submit(() -> {
+                for (int order = next.getAndIncrement(); order < orders; order = next.getAndIncrement()) {
+                    long start = System.nanoTime();
+                    createOrder.run();
+                    samples[order] = System.nanoTime() - start;
+                }
+            });
+        }
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    // Mêmes contrat et convertisseurs que les clients @FeignClient, sans répartiteur ni réessai.
+    private static Feign.Builder feign(Client client) {
+        MappingJackson2HttpMessageConverter json =
+                new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        ObjectFactory<HttpMessageConverters> converters = () -> new HttpMessageConverters(json);
+        return Feign.builder()
+                .client(client)
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(converters))
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(converters)))
+                .retryer(Retryer.NEVER_RETRY)
+                .options(new Request.Options(2, TimeUnit.SECONDS, 10, TimeUnit.SECONDS, false));
+    }
+
+    // Fenêtre nulle : chaque lookup part seul, comme un appel Feign direct.
+    private static <V> RequestCollapser<V> direct(String name, Function<String, V> call) {
+        return new RequestCollapser<>(name, ids -> {
+            String id = ids.iterator().next();
+            return Map.of(id, call.apply(id));
+        }, IllegalStateException::new, Duration.ZERO, 1, Duration.ofSeconds(5), null, Runnable::run,
+                new SimpleMeterRegistry());
+    }
+
+    private static void print(String transport, Result result) {
+        System.out.printf("%-18s  %8.0f  %5.1fms  %5.1fms  %11d  %7d%n", transport, result.ordersPerSecond,
+                result.p50Nanos / 1e6, result.p99Nanos / 1e6, result.connections, result.gzipped);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private record Result(double ordersPerSecond, long p50Nanos, long p99Nanos, int connections, int gzipped) {
+    }
+
+    // Répond comme product-, inventory- et customer-service après un délai fixe ; le port client identifie la connexion.
+    private class DownstreamStub extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            connections.add(request.getRemotePort());
+            String acceptEncoding = request.getHeader("Accept-Encoding");
+            String path = request.getRequestURI();
+            request.getInputStream().readAllBytes();
+            try {
+                Thread.sleep(SERVER_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            String body;
+            if (path.startsWith("/api/v1/products/")) {
+                body = "{\"id\":\"product\",\"inventoryId\":\"inventory\",\"name\":\"product\",\"price\":10.0,"
+                        + "\"description\":\"" + DESCRIPTION + "\"}";
+            } else if (path.startsWith("/api/v1/inventories/")) {
+                body = "{\"id\":\"inventory\",\"productId\":\"product\",\"stockQuantity\":100}";
+            } else if (path.endsWith("/default-address")) {
+                body = "{\"country\":\"Maroc\",\"city\":\"Rabat\",\"street\":\"Avenue Mohammed V\",\"zipCode\":\"10000\"}";
+            } else {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length >= 2_048 && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                gzippedResponses.incrementAndGet();
+            }
+            response.setContentType("application/json");
+            response.getOutputStream().write(bytes);
+        }
+    }
+}
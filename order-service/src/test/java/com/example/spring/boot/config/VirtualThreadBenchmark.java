@@ -0,0 +1,356 @@
+package com.example.spring.boot.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Load-tests the order-service Tomcat setup over HTTP with 10k concurrent keep-alive connections,
+ * once with the default 200-thread platform pool and then with one virtual thread per request
+ * ({@code spring.threads.virtual.enabled}, which installs Tomcat's {@link VirtualThreadExecutor}).
+ * The virtual-thread run is repeated with Tomcat's default processor cache (200) to show what
+ * {@code server.tomcat.processor-cache} buys. Every request blocks for 50 ms, like a Feign call
+ * to a stubbed downstream service, and each connection sends its next request as soon as the
+ * previous one is answered, so the throughput is the maximum the setup sustains.
+ * The server and the load generator run in two forked JVMs: each side holds 10k sockets and the
+ * open-file limit applies per process. Reports throughput, latency percentiles, the requests
+ * executing in the servlet, and the heap and RSS growth of the server JVM per in-flight request.
+ * Needs a 21+ JRE: run with {@code JAVA_HOME=<jdk 21> mvn test -Dtest=VirtualThreadBenchmark}.
+ */
+class VirtualThreadBenchmark {
+
+    private static final int CONNECTIONS = 10_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int DEFAULT_PROCESSOR_CACHE = 200;
+    private static final int PROCESSOR_CACHE = 10_000;
+    private static final int MAX_KEEP_ALIVE_REQUESTS = 1_000;
+    private static final long BACKEND_LATENCY_MS = 50;
+    private static final long RAMP_UP_MS = 10_000;
+    private static final long WARMUP_MS = 20_000;
+    private static final long MEASURE_MS = 20_000;
+    private static final String SERVER_HEAP = "-Xmx2g";
+
+    @Test
+    void virtualThreadsLiftTheThreadPoolCap() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need a 21+ JRE");
+
+        Result platform = run("platform", PROCESSOR_CACHE);
+        Result virtualDefaultCache = run("virtual", DEFAULT_PROCESSOR_CACHE);
+        Result virtual = run("virtual", PROCESSOR_CACHE);
+
+        System.out.println("setup                       req/s   p50      p99      errors  executing  heap/req  rss/req  threads");
+        print("platform, 200 threads", platform);
+        print("virtual, processor cache 200", virtualDefaultCache);
+        print("virtual, processor cache 10k", virtual);
+
+        // Le pool plafonne à maxThreads / latence ; les threads virtuels ne sont bornés que par le CPU.
+        double platformCeiling = TOMCAT_MAX_THREADS * 1_000.0 / BACKEND_LATENCY_MS;
+        assertTrue(platform.requestsPerSecond <= platformCeiling * 1.1);
+        assertTrue(platform.executing <= TOMCAT_MAX_THREADS);
+        assertTrue(virtual.executing > TOMCAT_MAX_THREADS);
+        assertTrue(virtual.liveThreads < platform.liveThreads);
+        // Au-delà du cache, chaque requête alloue un Http11Processor neuf (~100 KB de tampons).
+        assertTrue(virtual.requestsPerSecond > virtualDefaultCache.requestsPerSecond);
+        assertEquals(0, platform.errors + virtual.errors);
+    }
+
+    private Result run(String mode, int processorCache) throws Exception {
+        Process server = fork(Server.class, SERVER_HEAP, mode, String.valueOf(processorCache));
+        try {
+            BufferedReader serverOut = new BufferedReader(new InputStreamReader(server.getInputStream()));
+            PrintWriter serverIn = new PrintWriter(server.getOutputStream(), true);
+            Map<String, String> ready = fields(serverOut.readLine());
+            Map<String, String> baseline = fields(serverOut.readLine());
+
+            Process load = fork(LoadGenerator.class, "-Xmx512m", ready.get("port"));
+            // Mesure prise au milieu de la fenêtre, quand toutes les connexions sont établies.
+            Thread.sleep(WARMUP_MS + MEASURE_MS / 2);
+            serverIn.println("sample");
+            Map<String, String> sample = fields(serverOut.readLine());
+            Map<String, String> served = fields(new BufferedReader(new InputStreamReader(load.getInputStream())).readLine());
+            assertTrue(load.waitFor(1, TimeUnit.MINUTES));
+            serverIn.println("quit");
+            assertTrue(server.waitFor(1, TimeUnit.MINUTES));
+
+            // Chaque connexion a toujours une requête en vol : exécutée ou en attente d'un thread.
+            return new Result(Double.parseDouble(served.get("rps")), Long.parseLong(served.get("p50")),
+                    Long.parseLong(served.get("p99")), Long.parseLong(served.get("errors")),
+                    Integer.parseInt(sample.get("executing")),
+                    (Long.parseLong(sample.get("heap")) - Long.parseLong(baseline.get("heap"))) / CONNECTIONS,
+                    (Long.parseLong(sample.get("rss")) - Long.parseLong(baseline.get("rss"))) / CONNECTIONS,
+                    Integer.parseInt(sample.get("threads")));
+        } finally {
+            server.destroyForcibly();
+        }
+    }
+
+    private static Process fork(Class<?> main, String heap, String... arguments) throws IOException {
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                heap, "-cp", System.getProperty("java.class.path"), main.getName()));
+        command.addAll(List.of(arguments));
+        return new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    // Lignes "clé=valeur clé=valeur" échangées avec les JVM filles.
+    private static Map<String, String> fields(String line) {
+        if (line == null) {
+            throw new IllegalStateException("forked JVM exited early");
+        }
+        return Stream.of(line.trim().split(" "))
+                .map(field -> field.split("=", 2))
+                .collect(Collectors.toMap(field -> field[0], field -> field[1]));
+    }
+
+    private static void print(String setup, Result result) {
+        System.out.printf("%-28s %6.0f  %5dms  %5dms  %6d  %9d  %6dKB  %5dKB  %7d%n", setup, result.requestsPerSecond,
+                result.p50Millis, result.p99Millis, result.errors, result.executing,
+                result.heapBytesPerRequest / 1_024, result.rssBytesPerRequest / 1_024, result.liveThreads);
+    }
+
+    private record Result(double requestsPerSecond, long p50Millis, long p99Millis, long errors, int executing,
+                          long heapBytesPerRequest, long rssBytesPerRequest, int liveThreads) {
+    }
+
+    /**
+     * Tomcat configured like order-service: {@code server.tomcat.max-connections},
+     * {@code max-keep-alive-requests}, {@code processor-cache}, and either the default pool or
+     * Boot's virtual-thread executor.
+     * Prints its port and a baseline, then one sample per {@code sample} line read on stdin.
+     */
+    static final class Server {
+
+        private static final AtomicInteger EXECUTING = new AtomicInteger();
+
+        public static void main(String[] args) throws Exception {
+            Tomcat tomcat = new Tomcat();
+            tomcat.setBaseDir(Files.createTempDirectory("virtual-thread-benchmark").toString());
+            Connector connector = new Connector();
+            connector.setPort(0);
+            AbstractHttp11Protocol<?> protocol = (AbstractHttp11Protocol<?>) connector.getProtocolHandler();
+            protocol.setMaxConnections(CONNECTIONS);
+            protocol.setMaxKeepAliveRequests(MAX_KEEP_ALIVE_REQUESTS);
+            protocol.setProcessorCache(Integer.parseInt(args[1]));
+            if ("virtual".equals(args[0])) {
+                protocol.setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+            } else {
+                protocol.setMaxThreads(TOMCAT_MAX_THREADS);
+            }
+            tomcat.setConnector(connector);
+            Context context = tomcat.addContext("", null);
+            Tomcat.addServlet(context, "orders", new BlockingServlet());
+            context.addServletMappingDecoded("/*", "orders");
+            tomcat.start();
+
+            System.out.println("port=" + connector.getLocalPort());
+            System.out.println(sample());
+            BufferedReader commands = new BufferedReader(new InputStreamReader(System.in));
+            for (String command = commands.readLine(); "sample".equals(command); command = commands.readLine()) {
+                System.out.println(sample());
+            }
+            tomcat.stop();
+            tomcat.destroy();
+            System.exit(0);
+        }
+
+        private static String sample() {
+            int executing = EXECUTING.get();
+            System.gc();
+            return "heap=" + ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed()
+                    + " rss=" + residentSetBytes()
+                    + " threads=" + ManagementFactory.getThreadMXBean().getThreadCount()
+                    + " executing=" + executing;
+        }
+
+        // Mémoire résidente du processus, piles des threads plateforme comprises ; Linux uniquement.
+        private static long residentSetBytes() {
+            try (Stream<String> status = Files.lines(Path.of("/proc/self/status"))) {
+                return status.filter(line -> line.startsWith("VmRSS:"))
+                        .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1_024)
+                        .findFirst()
+                        .orElse(0);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        private static final class BlockingServlet extends HttpServlet {
+
+            private static final byte[] BODY = "{\"id\":\"order\",\"orderStatus\":\"PROCESSING\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                EXECUTING.incrementAndGet();
+                try {
+                    Thread.sleep(BACKEND_LATENCY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    EXECUTING.decrementAndGet();
+                }
+                response.setContentType("application/json");
+                response.setContentLength(BODY.length);
+                response.getOutputStream().write(BODY);
+            }
+        }
+    }
+
+    /**
+     * Opens {@link #CONNECTIONS} keep-alive connections over {@link #RAMP_UP_MS}, each sending its next
+     * request as soon as the previous response arrives, and prints what was served after the warmup.
+     */
+    static final class LoadGenerator {
+
+        private static final byte[] REQUEST = ("GET /api/v1/orders/order HTTP/1.1\r\nHost: localhost\r\n"
+                + "Accept: application/json\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        private static final AtomicLongArray LATENCY_MILLIS = new AtomicLongArray(60_000);
+        private static final LongAdder SERVED = new LongAdder();
+        private static final LongAdder ERRORS = new LongAdder();
+
+        public static void main(String[] args) throws Exception {
+            int port = Integer.parseInt(args[0]);
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(WARMUP_MS);
+            long measureTo = measureFrom + TimeUnit.MILLISECONDS.toNanos(MEASURE_MS);
+
+            SimpleAsyncTaskExecutor users = new SimpleAsyncTaskExecutor("user-");
+            users.setVirtualThreads(true);
+            CountDownLatch done = new CountDownLatch(CONNECTIONS);
+            for (int i = 0; i < CONNECTIONS; i++) {
+                users.execute(() -> {
+                    try {
+                        Thread.sleep(ThreadLocalRandom.current().nextLong(RAMP_UP_MS));
+                        user(port, measureFrom, measureTo);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+
+            System.out.println("rps=" + SERVED.sum() * 1_000.0 / MEASURE_MS
+                    + " p50=" + percentile(50) + " p99=" + percentile(99) + " errors=" + ERRORS.sum());
+            System.exit(0);
+        }
+
+        private static void user(int port, long measureFrom, long measureTo) {
+            while (System.nanoTime() < measureTo) {
+                try (Socket socket = new Socket()) {
+                    socket.connect(new InetSocketAddress("localhost", port), 30_000);
+                    socket.setTcpNoDelay(true);
+                    socket.setSoTimeout(30_000);
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = new BufferedInputStream(socket.getInputStream());
+                    boolean keepAlive = true;
+                    while (keepAlive && System.nanoTime() < measureTo) {
+                        long sent = System.nanoTime();
+                        out.write(REQUEST);
+                        out.flush();
+                        keepAlive = readResponse(in);
+                        long received = System.nanoTime();
+                        if (sent >= measureFrom && received <= measureTo) {
+                            SERVED.increment();
+                            int millis = (int) Math.min(TimeUnit.NANOSECONDS.toMillis(received - sent),
+                                    LATENCY_MILLIS.length() - 1);
+                            LATENCY_MILLIS.incrementAndGet(millis);
+                        }
+                    }
+                } catch (IOException e) {
+                    ERRORS.increment();
+                }
+            }
+        }
+
+        // Lit une réponse à Content-Length ; false quand Tomcat ferme la connexion (max-keep-alive-requests).
+        private static boolean readResponse(InputStream in) throws IOException {
+            int contentLength = 0;
+            boolean keepAlive = true;
+            String status = readLine(in);
+            if (!status.startsWith("HTTP/1.1 200")) {
+                throw new IOException("unexpected response: " + status);
+            }
+            for (String header = readLine(in); !header.isEmpty(); header = readLine(in)) {
+                String lower = header.toLowerCase();
+                if (lower.startsWith("content-length:")) {
+                    contentLength = Integer.parseInt(lower.substring("content-length:".length()).trim());
+                } else if (lower.startsWith("connection:") && lower.contains("close")) {
+                    keepAlive = false;
+                }
+            }
+            if (in.readNBytes(contentLength).length != contentLength) {
+                throw new IOException("truncated response");
+            }
+            return keepAlive;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int b = in.read(); b != '\n'; b = in.read()) {
+                if (b < 0) {
+                    throw new IOException("connection closed");
+                }
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            return line.toString();
+        }
+
+        private static long percentile(int percentile) {
+            long total = 0;
+            for (int i = 0; i < LATENCY_MILLIS.length(); i++) {
+                total += LATENCY_MILLIS.get(i);
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * total);
+            long seen = 0;
+            for (int i = 0; i < LATENCY_MILLIS.length(); i++) {
+                seen += LATENCY_MILLIS.get(i);
+                if (seen >= rank && rank > 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+    }
+}
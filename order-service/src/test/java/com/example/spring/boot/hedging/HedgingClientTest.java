@@ -0,0 +1,169 @@
+package com.example.spring.boot.hedging;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingClientTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Map<String, AtomicInteger> callsPerHost = new ConcurrentHashMap<>();
+
+    private final CountDownLatch slowInterrupted = new CountDownLatch(1);
+
+    private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("hedging-test-");
+
+    private final Map<String, MethodMetadata> metadata = new SpringMvcContract()
+            .parseAndValidateMetadata(StubClient.class).stream()
+            .collect(Collectors.toMap(method -> method.method().getName(), method -> method));
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedToAnotherInstance() throws Exception {
+        HedgingClient client = client(100);
+
+        Response response = client.execute(request("hedged", "slow"), new Request.Options());
+
+        assertEquals("fast", body(response));
+        assertEquals(1, meterRegistry.get("feign.hedging.hedges").counter().count());
+        assertEquals(1, meterRegistry.get("feign.hedging.wins").counter().count());
+        assertTrue(slowInterrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() throws Exception {
+        HedgingClient client = client(100);
+
+        Response response = client.execute(request("hedged", "fast"), new Request.Options());
+
+        assertEquals("fast", body(response));
+        assertEquals(1, callsPerHost.get("fast").get());
+        assertEquals(0, meterRegistry.get("feign.hedging.hedges").counter().count());
+    }
+
+    @Test
+    void hedgesStayWithinTheBudget() throws Exception {
+        HedgingClient client = client(10);
+
+        for (int i = 0; i < 20; i++) {
+            client.execute(request("hedged", "slow"), new Request.Options()).close();
+        }
+
+        assertEquals(2, meterRegistry.get("feign.hedging.hedges").counter().count());
+        assertEquals(18, meterRegistry.get("feign.hedging.skipped").tag("reason", "budget").counter().count());
+    }
+
+    @Test
+    void methodWithoutHedgedIsSentOnce() throws Exception {
+        HedgingClient client = client(100);
+
+        Response response = client.execute(request("plain", "slow"), new Request.Options());
+
+        assertEquals("slow", body(response));
+        assertEquals(1, callsPerHost.get("slow").get());
+        assertTrue(meterRegistry.find("feign.hedging.requests").counters().isEmpty());
+    }
+
+    private HedgingClient client(double budgetPercent) {
+        HedgingProperties properties = new HedgingProperties();
+        properties.setInitialDelay(Duration.ofMillis(20));
+        properties.setBudgetPercent(budgetPercent);
+        return new HedgingClient(this::backend, new StubDiscoveryClient(), executor, properties, meterRegistry);
+    }
+
+    // "slow" répond en 200 ms (interruptible), "fast" tout de suite.
+    private Response backend(Request request, Request.Options options) throws IOException {
+        String host = URI.create(request.url()).getHost();
+        callsPerHost.computeIfAbsent(host, key -> new AtomicInteger()).incrementAndGet();
+        if (host.equals("slow")) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                slowInterrupted.countDown();
+                throw new IOException("interrupted", e);
+            }
+        }
+        return Response.builder()
+                .status(200)
+                .request(request)
+                .body(host, StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private Request request(String method, String host) {
+        RequestTemplate template = new RequestTemplate();
+        template.methodMetadata(metadata.get(method));
+        template.feignTarget(new Target.HardCodedTarget<>(StubClient.class, "STUB-SERVICE"));
+        return Request.create(Request.HttpMethod.GET, "http://" + host + ":8080/api/v1/stubs/1", Map.of(), null,
+                StandardCharsets.UTF_8, template);
+    }
+
+    private static String body(Response response) throws IOException {
+        try (response) {
+            return new String(response.body().asInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    interface StubClient {
+
+        @Hedged
+        @GetMapping("/api/v1/stubs/{id}")
+        String hedged(@PathVariable("id") String id);
+
+        @GetMapping("/api/v1/stubs/{id}")
+        String plain(@PathVariable("id") String id);
+    }
+
+    private static class StubDiscoveryClient implements DiscoveryClient {
+
+        @Override
+        public String description() {
+            return "stub";
+        }
+
+        @Override
+        public List<ServiceInstance> getInstances(String serviceId) {
+            return List.of(new DefaultServiceInstance("slow", serviceId, "slow", 8080, false),
+                    new DefaultServiceInstance("fast", serviceId, "fast", 8080, false));
+        }
+
+        @Override
+        public List<String> getServices() {
+            return List.of("STUB-SERVICE");
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.spring.boot.idempotency;
+
+import com.example.spring.boot.exception.IdempotencyConflictException;
+import com.example.spring.boot.exception.IdempotencyKeyReuseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyServiceTest {
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final IdempotencyService idempotencyService = new IdempotencyService(store,
+            new KeyBloomFilter(1_000, 0.01, Duration.ofHours(1), Clock.systemUTC()), "idempotency", Duration.ofHours(1));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void newKeyIsClaimedWithASingleStoreOperation() {
+        idempotencyService.execute("create-order", "key-1", "request", () -> {
+            assertEquals(List.of("claim"), store.operations);
+            return response();
+        }, response -> true);
+
+        assertEquals(List.of("claim", "complete"), store.operations);
+    }
+
+    @Test
+    void replayReturnsTheStoredResponseWithOneReadAndWithoutRunningTheActionAgain() {
+        String first = idempotencyService.execute("create-order", "key-1", "request", this::response, response -> true);
+        store.operations.clear();
+
+        String replay = idempotencyService.execute("create-order", "key-1", "request", this::response, response -> true);
+
+        assertEquals(first, replay);
+        assertEquals(1, executions.get());
+        assertEquals(List.of("get"), store.operations);
+    }
+
+    @Test
+    void keyClaimedByAnotherInstanceIsReplayedFromTheStore() {
+        store.records.put("idempotency:create-order:key-1", new IdempotencyRecord(RequestFingerprint.of("request"), "stored"));
+
+        String replay = idempotencyService.execute("create-order", "key-1", "request", this::response, response -> true);
+
+        assertEquals("stored", replay);
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void keyStillInProgressIsAConflict() {
+        store.records.put("idempotency:create-order:key-1", new IdempotencyRecord(RequestFingerprint.of("request"), null));
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("create-order", "key-1", "request", this::response, response -> true));
+        assertEquals(0, executions.get());
+    }
+
+    // Enregistrement écrit par une autre instance (ou avant un redémarrage) à partir du même corps JSON.
+    @Test
+    void replayOnAnotherInstanceMatchesTheStoredFingerprint() throws Exception {
+        String storedBody = "{\"quantity\":2,\"paymentType\":\"CREDIT_CARD\",\"lines\":{\"b\":1,\"a\":3},\"customerId\":\"c-1\"}";
+        String canonicalBody = "{\"customerId\":\"c-1\",\"lines\":{\"a\":3,\"b\":1},\"paymentType\":\"CREDIT_CARD\",\"quantity\":2}";
+        String storedFingerprint = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(canonicalBody.getBytes(StandardCharsets.UTF_8)));
+        store.records.put("idempotency:create-payment:key-1", new IdempotencyRecord(storedFingerprint, "stored"));
+
+        TestRequest replayed = new ObjectMapper().readValue(storedBody, TestRequest.class);
+        String replay = idempotencyService.execute("create-payment", "key-1", replayed, this::response, response -> true);
+
+        assertEquals("stored", replay);
+        assertEquals(0, executions.get());
+        assertThrows(IdempotencyKeyReuseException.class, () -> idempotencyService.execute("create-payment", "key-1",
+                new TestRequest("c-1", PaymentType.DEBIT_CARD, 2, Map.of("a", 3, "b", 1)), this::response,
+                response -> true));
+    }
+
+    @Test
+    void keyReusedWithAnotherRequestIsRejected() {
+        idempotencyService.execute("create-order", "key-1", "request", this::response, response -> true);
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> idempotencyService.execute("create-order", "key-1", "other request", this::response, response -> true));
+    }
+
+    @Test
+    void failedOrIncompleteRequestReleasesTheKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("create-order", "key-1", "request",
+                () -> {
+                    throw new IllegalStateException("inventory service down");
+                }, response -> true));
+        idempotencyService.execute("create-order", "key-1", "request", this::response, response -> false);
+        idempotencyService.execute("create-order", "key-1", "request", this::response, response -> true);
+        idempotencyService.execute("create-order", "key-1", "request", this::response, response -> true);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void requestWithoutKeyIsNotDeduplicated() {
+        idempotencyService.execute("create-order", null, "request", this::response, response -> true);
+        idempotencyService.execute("create-order", " ", "request", this::response, response -> true);
+
+        assertEquals(2, executions.get());
+        assertEquals(List.of(), store.operations);
+    }
+
+    private String response() {
+        return "order-" + executions.incrementAndGet();
+    }
+
+    enum PaymentType {CREDIT_CARD, DEBIT_CARD}
+
+    record TestRequest(String customerId, PaymentType paymentType, int quantity, Map<String, Integer> lines) {
+    }
+
+    private static class InMemoryStore implements IdempotencyStore {
+
+        private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+        private final List<String> operations = new ArrayList<>();
+
+        @Override
+        public IdempotencyRecord get(String key) {
+            operations.add("get");
+            return records.get(key);
+        }
+
+        @Override
+        public boolean claim(String key, IdempotencyRecord record, Duration ttl) {
+            operations.add("claim");
+            return records.putIfAbsent(key, record) == null;
+        }
+
+        @Override
+        public void complete(String key, IdempotencyRecord record, Duration ttl) {
+            operations.add("complete");
+            records.put(key, record);
+        }
+
+        @Override
+        public void release(String key) {
+            operations.add("release");
+            records.remove(key);
+        }
+    }
+}
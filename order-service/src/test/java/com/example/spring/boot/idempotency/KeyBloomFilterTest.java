@@ -0,0 +1,68 @@
+package com.example.spring.boot.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyBloomFilterTest {
+
+    @Test
+    void addedKeysAreAlwaysFoundAndUnknownKeysRarely() {
+        KeyBloomFilter filter = new KeyBloomFilter(10_000, 0.01, Duration.ofHours(1), Clock.systemUTC());
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("key-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("key-" + i));
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void keysAreForgottenAfterTwoGenerations() {
+        MutableClock clock = new MutableClock();
+        KeyBloomFilter filter = new KeyBloomFilter(1_000, 0.01, Duration.ofMinutes(10), clock);
+        filter.put("key");
+
+        clock.advance(Duration.ofMinutes(15));
+        assertTrue(filter.mightContain("key"));
+
+        clock.advance(Duration.ofMinutes(10));
+        assertFalse(filter.mightContain("key"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
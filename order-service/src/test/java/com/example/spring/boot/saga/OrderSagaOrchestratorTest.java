@@ -0,0 +1,254 @@
+package com.example.spring.boot.saga;
+
+import com.example.spring.boot.dto.inventoryDto.InventoryStockChangeRequestDto;
+import com.example.spring.boot.dto.sagaDto.SagaCommand;
+import com.example.spring.boot.enums.OrderStatus;
+import com.example.spring.boot.enums.SagaStatus;
+import com.example.spring.boot.enums.SagaType;
+import com.example.spring.boot.external.InventoryClientService;
+import com.example.spring.boot.external.PaymentClientService;
+import com.example.spring.boot.model.Address;
+import com.example.spring.boot.model.Inventory;
+import com.example.spring.boot.model.Order;
+import com.example.spring.boot.model.OrderSaga;
+import com.example.spring.boot.model.Product;
+import com.example.spring.boot.publisher.OrderEventPublisher;
+import com.example.spring.boot.repository.OrderRepository;
+import com.example.spring.boot.repository.OrderSagaRepository;
+import com.example.spring.boot.service.OrderLookupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderSagaOrchestratorTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final OrderSagaRepository orderSagaRepository = mock(OrderSagaRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderLookupService orderLookupService = mock(OrderLookupService.class);
+    private final InventoryClientService inventoryClientService = mock(InventoryClientService.class);
+    private final PaymentClientService paymentClientService = mock(PaymentClientService.class);
+    private final OrderEventPublisher orderEventPublisher = mock(OrderEventPublisher.class);
+    private final AmqpTemplate amqpTemplate = mock(AmqpTemplate.class);
+
+    private final Map<String, OrderSaga> sagas = new HashMap<>();
+    private final Map<String, Order> orders = new HashMap<>();
+    private final Deque<SagaCommand> queue = new ArrayDeque<>();
+
+    private OrderSagaOrchestrator orchestrator;
+
+    @BeforeEach
+    void setUp() {
+        OrderSagaSteps steps = new OrderSagaSteps(orderRepository, orderLookupService, inventoryClientService,
+                paymentClientService, orderEventPublisher);
+        orchestrator = new OrderSagaOrchestrator(orderSagaRepository, steps, amqpTemplate, "saga-exchange",
+                "saga-key", MAX_ATTEMPTS, Duration.ofSeconds(30), 100);
+
+        when(orderSagaRepository.save(any())).thenAnswer(invocation -> {
+            OrderSaga saga = invocation.getArgument(0);
+            if (saga.getId() == null) {
+                saga.setId(UUID.randomUUID().toString());
+            }
+            sagas.put(saga.getId(), saga);
+            return saga;
+        });
+        when(orderSagaRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(sagas.get(invocation.<String>getArgument(0))));
+        when(orderSagaRepository.findByStatusInAndUpdatedDateBeforeOrderByUpdatedDateAsc(any(), any(), any()))
+                .thenAnswer(invocation -> sagas.values().stream()
+                        .filter(saga -> invocation.<Collection<SagaStatus>>getArgument(0).contains(saga.getStatus()))
+                        .filter(saga -> saga.getUpdatedDate().isBefore(invocation.getArgument(1)))
+                        .toList());
+        when(orderRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(orders.get(invocation.<String>getArgument(0))));
+        when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> queue.add(invocation.getArgument(2)))
+                .when(amqpTemplate).convertAndSend(eq("saga-exchange"), eq("saga-key"), any(SagaCommand.class));
+
+        when(orderLookupService.lookup(anyString(), anyString(), anyString())).thenReturn(new OrderLookupService.OrderLookup(
+                Product.builder().id("product").price(2.5).build(),
+                Inventory.builder().id("inventory").stockQuantity(10).build(),
+                new Address()));
+    }
+
+    @Test
+    void createOrderSagaValidatesCreatesTheCargoAndConfirmsTheOrder() {
+        OrderSaga saga = startCreateOrder(4);
+
+        deliverAll();
+
+        assertEquals(SagaStatus.COMPLETED, saga.getStatus());
+        assertEquals(OrderStatus.PROCESSING, orders.get(saga.getOrderId()).getOrderStatus());
+        assertEquals(10.0, orders.get(saga.getOrderId()).getTotalAmount());
+        verify(orderEventPublisher, times(1)).publishOrderCreated(argThat(event ->
+                event.getOrderId().equals(saga.getOrderId()) && event.getCustomerId().equals(saga.getCustomerId())));
+    }
+
+    @Test
+    void redeliveredCommandIsIgnored() {
+        OrderSaga saga = startCreateOrder(1);
+        SagaCommand validate = queue.peek();
+
+        deliverAll();
+        orchestrator.handle(validate);
+
+        assertEquals(SagaStatus.COMPLETED, saga.getStatus());
+        verify(orderLookupService, times(1)).lookup(anyString(), anyString(), anyString());
+        verify(orderEventPublisher, times(1)).publishOrderCreated(any());
+    }
+
+    @Test
+    void businessFailureCancelsTheOrderWithoutRetrying() {
+        OrderSaga saga = startCreateOrder(11);
+
+        deliverAll();
+
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+        assertEquals("VALIDATE_ORDER failed: Not enough stock available!", saga.getFailureReason());
+        assertEquals(OrderStatus.CANCELLED, orders.get(saga.getOrderId()).getOrderStatus());
+        verify(orderEventPublisher, never()).publishOrderCreated(any());
+    }
+
+    @Test
+    void failingStepIsRetriedByTheResumeJobBeforeCompensating() {
+        doThrow(new AmqpConnectException(new IllegalStateException("broker down")))
+                .when(orderEventPublisher).publishOrderCreated(any());
+        OrderSaga saga = startCreateOrder(1);
+
+        deliverAll();
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            assertEquals(SagaStatus.STARTED, saga.getStatus());
+            assertEquals(attempt, saga.getAttempts());
+            saga.setUpdatedDate(LocalDateTime.now().minusMinutes(1));
+            orchestrator.resumeStalledSagas();
+            deliverAll();
+        }
+
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+        assertEquals(OrderStatus.CANCELLED, orders.get(saga.getOrderId()).getOrderStatus());
+        verify(orderEventPublisher, times(MAX_ATTEMPTS)).publishOrderCreated(any());
+    }
+
+    @Test
+    void updateSagaRestoresStockAndOrderWhenThePaymentCannotBeCancelled() {
+        doThrow(new IllegalStateException("payment service down")).when(paymentClientService).cancelPayment("payment");
+        Order order = Order.builder().id(UUID.randomUUID().toString()).quantity(5).totalAmount(12.5)
+                .orderStatus(OrderStatus.PROCESSING).build();
+        orders.put(order.getId(), order);
+        OrderSaga saga = orchestrator.start(OrderSaga.builder()
+                .type(SagaType.UPDATE_ORDER)
+                .orderId(order.getId())
+                .inventoryId("inventory")
+                .paymentId("payment")
+                .quantity(2)
+                .previousQuantity(3)
+                .previousTotalAmount(7.5)
+                .build());
+
+        deliverAll();
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            saga.setUpdatedDate(LocalDateTime.now().minusMinutes(1));
+            orchestrator.resumeStalledSagas();
+            deliverAll();
+        }
+
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+        // La commande passe de 3 à 2 : une unité est rendue, puis reprise par la compensation.
+        verify(inventoryClientService).increaseStock("inventory", new InventoryStockChangeRequestDto(1));
+        verify(inventoryClientService).decreaseStock("inventory", new InventoryStockChangeRequestDto(1));
+        verify(inventoryClientService, never()).updateInventory(anyString(), any());
+        assertEquals(3, order.getQuantity());
+        assertEquals(7.5, order.getTotalAmount());
+    }
+
+    @Test
+    void updateSagaTakesOnlyTheAddedQuantity() {
+        Order order = Order.builder().id(UUID.randomUUID().toString()).quantity(7).totalAmount(17.5)
+                .orderStatus(OrderStatus.PROCESSING).build();
+        orders.put(order.getId(), order);
+        OrderSaga saga = orchestrator.start(OrderSaga.builder()
+                .type(SagaType.UPDATE_ORDER)
+                .orderId(order.getId())
+                .inventoryId("inventory")
+                .paymentId("payment")
+                .quantity(7)
+                .previousQuantity(3)
+                .previousTotalAmount(7.5)
+                .build());
+
+        deliverAll();
+
+        assertEquals(SagaStatus.COMPLETED, saga.getStatus());
+        verify(inventoryClientService).decreaseStock("inventory", new InventoryStockChangeRequestDto(4));
+        verify(inventoryClientService, never()).increaseStock(anyString(), any());
+        verify(paymentClientService).cancelPayment("payment");
+    }
+
+    @Test
+    void updateSagaGivesBackOnlyTheRemovedQuantity() {
+        Order order = Order.builder().id(UUID.randomUUID().toString()).quantity(2).totalAmount(5.0)
+                .orderStatus(OrderStatus.PROCESSING).build();
+        orders.put(order.getId(), order);
+        OrderSaga saga = orchestrator.start(OrderSaga.builder()
+                .type(SagaType.UPDATE_ORDER)
+                .orderId(order.getId())
+                .inventoryId("inventory")
+                .paymentId("payment")
+                .quantity(2)
+                .previousQuantity(5)
+                .previousTotalAmount(12.5)
+                .build());
+
+        deliverAll();
+
+        assertEquals(SagaStatus.COMPLETED, saga.getStatus());
+        verify(inventoryClientService).increaseStock("inventory", new InventoryStockChangeRequestDto(3));
+        verify(inventoryClientService, never()).decreaseStock(anyString(), any());
+        verify(paymentClientService).cancelPayment("payment");
+        assertEquals(2, order.getQuantity());
+    }
+
+    private OrderSaga startCreateOrder(int quantity) {
+        Order order = Order.builder().id(UUID.randomUUID().toString()).quantity(quantity)
+                .orderStatus(OrderStatus.PENDING).build();
+        orders.put(order.getId(), order);
+        return orchestrator.start(OrderSaga.builder()
+                .type(SagaType.CREATE_ORDER)
+                .orderId(order.getId())
+                .customerId("customer")
+                .productId("product")
+                .inventoryId("inventory")
+                .quantity(quantity)
+                .build());
+    }
+
+    // Joue le rôle du broker : chaque commande publiée est remise à l'orchestrateur.
+    private void deliverAll() {
+        while (!queue.isEmpty()) {
+            orchestrator.handle(queue.poll());
+        }
+    }
+}
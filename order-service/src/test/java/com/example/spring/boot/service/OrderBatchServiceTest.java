@@ -0,0 +1,185 @@
+package com.example.spring.boot.service;
+
+import com.example.spring.boot.collapser.RequestCollapser;
+import com.example.spring.boot.dto.cargoDto.CargoRequestDto;
+import com.example.spring.boot.dto.orderDto.OrderBatchLineResultDto;
+import com.example.spring.boot.dto.orderDto.OrderBatchResponseDto;
+import com.example.spring.boot.dto.orderDto.OrderRequestDto;
+import com.example.spring.boot.enums.OrderBatchLineStatus;
+import com.example.spring.boot.external.CargoClientService;
+import com.example.spring.boot.external.CustomerClientService;
+import com.example.spring.boot.external.InventoryClientService;
+import com.example.spring.boot.external.ProductClientService;
+import com.example.spring.boot.mapper.OrderMapper;
+import com.example.spring.boot.model.Address;
+import com.example.spring.boot.model.Inventory;
+import com.example.spring.boot.model.Order;
+import com.example.spring.boot.model.Product;
+import com.example.spring.boot.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderBatchServiceTest {
+
+    private final ProductClientService productClientService = mock(ProductClientService.class);
+    private final InventoryClientService inventoryClientService = mock(InventoryClientService.class);
+    private final CustomerClientService customerClientService = mock(CustomerClientService.class);
+    private final CargoClientService cargoClientService = mock(CargoClientService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+
+    private ThreadPoolTaskExecutor executor;
+    private OrderBatchService orderBatchService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        OrderLookupService orderLookupService = new OrderLookupService(productClientService, inventoryClientService,
+                customerClientService, collapser("products"), collapser("inventories"), collapser("shipping-addresses"),
+                executor, Duration.ofSeconds(5));
+        orderBatchService = new OrderBatchService(orderRepository, orderLookupService, cargoClientService, new OrderMapper());
+
+        when(productClientService.getProductsByIds(anyCollection())).thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0)
+                .stream()
+                .filter(id -> !id.startsWith("missing"))
+                .map(id -> Product.builder().id(id).price(2.5).build())
+                .toList());
+        when(inventoryClientService.getInventoriesByIds(anyCollection())).thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0)
+                .stream()
+                .map(id -> Inventory.builder().id(id).stockQuantity(1_000).build())
+                .toList());
+        when(customerClientService.getDefaultAddresses(anyCollection())).thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0)
+                .stream()
+                .collect(Collectors.toMap(Function.identity(), id -> new Address())));
+        when(orderRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            orders.forEach(order -> order.setId(UUID.randomUUID().toString()));
+            return orders;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void distinctIdsAreResolvedInOneCallPerServiceAndCargoInOneCall() {
+        List<OrderRequestDto> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lines.add(line("customer-" + (i % 2), "product-" + (i % 5), "inventory-" + (i % 5), 1));
+        }
+
+        OrderBatchResponseDto response = orderBatchService.createOrders(lines);
+
+        assertEquals(200, response.getCreated());
+        assertEquals(0, response.getRejected());
+        verify(productClientService, times(1)).getProductsByIds(Set.of("product-0", "product-1", "product-2", "product-3", "product-4"));
+        verify(inventoryClientService, times(1)).getInventoriesByIds(anyCollection());
+        verify(customerClientService, times(1)).getDefaultAddresses(Set.of("customer-0", "customer-1"));
+        verify(productClientService, never()).getProductById(anyString());
+        verify(orderRepository, times(1)).saveAllAndFlush(anyList());
+
+        ArgumentCaptor<List<CargoRequestDto>> cargoRequests = ArgumentCaptor.captor();
+        verify(cargoClientService, times(1)).createCargoBatch(cargoRequests.capture());
+        assertEquals(200, cargoRequests.getValue().size());
+        for (int i = 0; i < 200; i++) {
+            OrderBatchLineResultDto result = response.getResults().get(i);
+            assertEquals(i, result.getLine());
+            assertEquals(result.getOrder().getId(), cargoRequests.getValue().get(i).getOrderId());
+            assertEquals("customer-" + (i % 2), cargoRequests.getValue().get(i).getCustomerId());
+        }
+    }
+
+    @Test
+    void unknownIdRejectsOnlyTheLinesUsingIt() {
+        OrderBatchResponseDto response = orderBatchService.createOrders(List.of(
+                line("customer", "product", "inventory", 1),
+                line("customer", "missing", "inventory", 1),
+                line("customer", "product", "inventory", 2)));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(OrderBatchLineStatus.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(OrderBatchLineStatus.REJECTED, response.getResults().get(1).getStatus());
+        assertEquals("Product not found for ID: missing", response.getResults().get(1).getError());
+        assertEquals(OrderBatchLineStatus.CREATED, response.getResults().get(2).getStatus());
+        assertEquals(5.0, response.getResults().get(2).getOrder().getTotalAmount());
+    }
+
+    @Test
+    void failedBulkCallRejectsTheLinesDependingOnIt() {
+        when(inventoryClientService.getInventoriesByIds(anyCollection())).thenThrow(new IllegalStateException("503 Service Unavailable"));
+
+        OrderBatchResponseDto response = orderBatchService.createOrders(List.of(
+                line("customer", "product", "inventory-1", 1),
+                line("customer", "product", "inventory-2", 1)));
+
+        assertEquals(2, response.getRejected());
+        assertTrue(response.getResults().get(0).getError().contains("503 Service Unavailable"));
+        verify(cargoClientService, never()).createCargoBatch(any());
+    }
+
+    @Test
+    void linesOfTheSameInventoryShareItsStock() {
+        OrderBatchResponseDto response = orderBatchService.createOrders(List.of(
+                line("customer", "product", "inventory", 600),
+                line("customer", "product", "inventory", 600),
+                line("customer", "product", "inventory", 400)));
+
+        assertEquals(OrderBatchLineStatus.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(OrderBatchLineStatus.REJECTED, response.getResults().get(1).getStatus());
+        assertEquals(OrderBatchLineStatus.CREATED, response.getResults().get(2).getStatus());
+    }
+
+    @Test
+    void nothingIsWrittenWhenEveryLineIsRejected() {
+        when(customerClientService.getDefaultAddresses(anyCollection())).thenReturn(Map.of());
+
+        OrderBatchResponseDto response = orderBatchService.createOrders(List.of(line("customer", "product", "inventory", 1)));
+
+        assertEquals(1, response.getRejected());
+        verify(orderRepository, never()).saveAllAndFlush(anyList());
+        verify(cargoClientService, never()).createCargoBatch(any());
+    }
+
+    private static <V> RequestCollapser<V> collapser(String name) {
+        return new RequestCollapser<>(name, ids -> Map.of(), IllegalStateException::new, Duration.ZERO, 1,
+                Duration.ofSeconds(5), null, Runnable::run, new SimpleMeterRegistry());
+    }
+
+    private static OrderRequestDto line(String customerId, String productId, String inventoryId, int quantity) {
+        return OrderRequestDto.builder()
+                .customerId(customerId)
+                .productId(productId)
+                .inventoryId(inventoryId)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.spring.boot.service;
+
+import com.example.spring.boot.collapser.RequestCollapser;
+import com.example.spring.boot.external.CustomerClientService;
+import com.example.spring.boot.external.InventoryClientService;
+import com.example.spring.boot.external.ProductClientService;
+import com.example.spring.boot.model.Address;
+import com.example.spring.boot.model.Inventory;
+import com.example.spring.boot.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares sequential and parallel order lookups against stubbed clients.
+ * Run with {@code mvn test -Dtest=OrderLookupBenchmark}.
+ */
+class OrderLookupBenchmark {
+
+    private static final long PRODUCT_LATENCY_MS = 20;
+    private static final long INVENTORY_LATENCY_MS = 30;
+    private static final long CUSTOMER_LATENCY_MS = 40;
+    private static final int ITERATIONS = 100;
+
+    private final ProductClientService productClientService = mock(ProductClientService.class);
+    private final InventoryClientService inventoryClientService = mock(InventoryClientService.class);
+    private final CustomerClientService customerClientService = mock(CustomerClientService.class);
+
+    private ThreadPoolTaskExecutor executor;
+    private OrderLookupService orderLookupService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(64);
+        executor.setQueueCapacity(256);
+        executor.initialize();
+        orderLookupService = new OrderLookupService(productClientService, inventoryClientService,
+                customerClientService,
+                direct("products", productClientService::getProductById),
+                direct("inventories", inventoryClientService::getInventoryById),
+                direct("shipping-addresses", customerClientService::getDefaultAddress),
+                executor, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void parallelLookupLatencyIsBoundedByTheSlowestCall() {
+        when(productClientService.getProductById(anyString()))
+                .thenAnswer(invocation -> sleepAndReturn(PRODUCT_LATENCY_MS, new Product()));
+        when(inventoryClientService.getInventoryById(anyString()))
+                .thenAnswer(invocation -> sleepAndReturn(INVENTORY_LATENCY_MS, new Inventory()));
+        when(customerClientService.getDefaultAddress(anyString()))
+                .thenAnswer(invocation -> sleepAndReturn(CUSTOMER_LATENCY_MS, new Address()));
+
+        long[] sequential = measure(() -> {
+            productClientService.getProductById("p");
+            inventoryClientService.getInventoryById("i");
+            customerClientService.getDefaultAddress("c");
+        });
+        long[] parallel = measure(() -> orderLookupService.lookup("p", "i", "c"));
+
+        System.out.printf("sequential: p50=%dms p99=%dms%n", percentile(sequential, 50), percentile(sequential, 99));
+        System.out.printf("parallel:   p50=%dms p99=%dms%n", percentile(parallel, 50), percentile(parallel, 99));
+
+        long sumOfLatencies = PRODUCT_LATENCY_MS + INVENTORY_LATENCY_MS + CUSTOMER_LATENCY_MS;
+        assertTrue(percentile(sequential, 50) >= sumOfLatencies);
+        assertTrue(percentile(parallel, 50) < sumOfLatencies);
+        assertTrue(percentile(parallel, 50) >= CUSTOMER_LATENCY_MS);
+    }
+
+    @Test
+    void firstFailureCancelsTheOtherCalls() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(productClientService.getProductById(anyString()))
+                .thenThrow(new IllegalStateException("product service down"));
+        when(inventoryClientService.getInventoryById(anyString())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return new Inventory();
+        });
+        when(customerClientService.getDefaultAddress(anyString())).thenReturn(new Address());
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> orderLookupService.lookup("p", "i", "c"));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 1_000, "lookup should fail fast, took " + elapsedMs + "ms");
+        sleepAndReturn(100, null);
+        assertTrue(interrupted.get(), "pending inventory call should have been interrupted");
+    }
+
+    // Fenêtre nulle : chaque lookup part seul, sur le thread du pool, comme un appel Feign direct.
+    private static <V> RequestCollapser<V> direct(String name, Function<String, V> call) {
+        return new RequestCollapser<>(name, ids -> {
+            String id = ids.iterator().next();
+            return Map.of(id, call.apply(id));
+        }, IllegalStateException::new, Duration.ZERO, 1, Duration.ofSeconds(5), null, Runnable::run,
+                new SimpleMeterRegistry());
+    }
+
+    private static long[] measure(Runnable call) {
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            call.run();
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private static <T> T sleepAndReturn(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
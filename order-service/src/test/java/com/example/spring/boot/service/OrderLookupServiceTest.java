@@ -0,0 +1,98 @@
+package com.example.spring.boot.service;
+
+import com.example.spring.boot.collapser.RequestCollapser;
+import com.example.spring.boot.external.CustomerClientService;
+import com.example.spring.boot.external.InventoryClientService;
+import com.example.spring.boot.external.ProductClientService;
+import com.example.spring.boot.model.Address;
+import com.example.spring.boot.model.Customer;
+import com.example.spring.boot.model.Inventory;
+import com.example.spring.boot.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderLookupServiceTest {
+
+    private final ProductClientService productClientService = mock(ProductClientService.class);
+    private final InventoryClientService inventoryClientService = mock(InventoryClientService.class);
+    private final CustomerClientService customerClientService = mock(CustomerClientService.class);
+
+    private ThreadPoolTaskExecutor executor;
+    private OrderLookupService orderLookupService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        orderLookupService = new OrderLookupService(productClientService, inventoryClientService,
+                customerClientService,
+                direct(productClientService::getProductById),
+                direct(inventoryClientService::getInventoryById),
+                direct(customerClientService::getDefaultAddress),
+                executor, Duration.ofSeconds(5));
+
+        when(productClientService.getProductById(anyString())).thenReturn(new Product());
+        when(inventoryClientService.getInventoryById(anyString())).thenReturn(new Inventory());
+        // Client sans adresse : /default-address répond 404.
+        when(customerClientService.getDefaultAddress(anyString()))
+                .thenThrow(new IllegalStateException("customer has no address"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void lookupFailsWhenTheCustomerHasNoDefaultAddress() {
+        assertThrows(IllegalStateException.class, () -> orderLookupService.lookup("p", "i", "c"));
+    }
+
+    @Test
+    void lookupWithoutShippingAddressOnlyChecksTheCustomer() {
+        when(customerClientService.getCustomerById("c")).thenReturn(new Customer());
+
+        OrderLookupService.OrderLookup lookup = orderLookupService.lookupWithoutShippingAddress("p", "i", "c");
+
+        assertNotNull(lookup.getProduct());
+        assertNotNull(lookup.getInventory());
+        assertNull(lookup.getShippingAddress());
+        verify(customerClientService).getCustomerById("c");
+        verify(customerClientService, never()).getDefaultAddress(anyString());
+    }
+
+    @Test
+    void lookupWithoutShippingAddressStillFailsForAnUnknownCustomer() {
+        IllegalStateException notFound = new IllegalStateException("customer not found");
+        when(customerClientService.getCustomerById("c")).thenThrow(notFound);
+
+        assertSame(notFound, assertThrows(IllegalStateException.class,
+                () -> orderLookupService.lookupWithoutShippingAddress("p", "i", "c")));
+    }
+
+    private static <V> RequestCollapser<V> direct(Function<String, V> call) {
+        return new RequestCollapser<>("test", ids -> {
+            String id = ids.iterator().next();
+            return Map.of(id, call.apply(id));
+        }, IllegalStateException::new, Duration.ZERO, 1, Duration.ofSeconds(5), null, Runnable::run,
+                new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.payment_service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage implements Serializable {
+
+    private String origin;
+
+    private String cacheName;
+
+    // null : toutes les entrées du cache.
+    private Object key;
+}
@@ -0,0 +1,42 @@
+package com.example.payment_service.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Derives the dependency tags of a cache entry when it is stored.
+ */
+@FunctionalInterface
+public interface CacheTagResolver {
+
+    CacheTagResolver NONE = (key, value) -> List.of();
+
+    Collection<String> tagsFor(Object key, Object value);
+
+    /**
+     * Tags a single entity with {@code entityTags}; a list is tagged with the tags of every element
+     * plus {@code listTags(key)}, so it is evicted both when one of its members changes and when
+     * a write can add a new member to it.
+     */
+    static <T> CacheTagResolver forEntity(Class<T> type,
+                                          Function<T, Collection<String>> entityTags,
+                                          Function<Object, Collection<String>> listTags) {
+        return (key, value) -> {
+            Set<String> tags = new LinkedHashSet<>();
+            if (value instanceof Collection<?> elements) {
+                tags.addAll(listTags.apply(key));
+                for (Object element : elements) {
+                    if (type.isInstance(element)) {
+                        tags.addAll(entityTags.apply(type.cast(element)));
+                    }
+                }
+            } else if (type.isInstance(value)) {
+                tags.addAll(entityTags.apply(type.cast(value)));
+            }
+            return tags;
+        };
+    }
+}
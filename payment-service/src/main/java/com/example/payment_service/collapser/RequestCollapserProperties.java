@@ -0,0 +1,37 @@
+package com.example.payment_service.collapser;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "collapser")
+public class RequestCollapserProperties {
+
+    private Duration window = Duration.ofMillis(5);
+
+    private int maxBatchSize = 100;
+
+    private int dispatchPoolSize = 8;
+
+    private Map<String, CollapserSpec> clients = new HashMap<>();
+
+    public Duration windowFor(String name) {
+        CollapserSpec spec = clients.get(name);
+        return spec != null && spec.getWindow() != null ? spec.getWindow() : window;
+    }
+
+    public int maxBatchSizeFor(String name) {
+        CollapserSpec spec = clients.get(name);
+        return spec != null && spec.getMaxBatchSize() != null ? spec.getMaxBatchSize() : maxBatchSize;
+    }
+
+    @Data
+    public static class CollapserSpec {
+        private Duration window;
+        private Integer maxBatchSize;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.payment_service.config;
+
+import com.example.payment_service.cache.CacheTagResolver;
+import com.example.payment_service.cache.CacheTagResolvers;
+import com.example.payment_service.dto.paymentDto.PaymentResponseDto;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tags used by the payments cache: payment:{id} and customer:{customerId} on every entry containing
+ * the payment, payment-type:{TYPE} and date-range on the lists a write can add a payment to.
+ */
+@Configuration
+public class CacheTagConfig {
+
+    @Bean
+    public CacheTagResolvers cacheTagResolvers() {
+        return new CacheTagResolvers()
+                .register("payments", CacheTagResolver.forEntity(PaymentResponseDto.class,
+                        payment -> List.of("payment:" + payment.getId(), "customer:" + payment.getCustomerId()),
+                        key -> key.toString().startsWith("dateRange:")
+                                ? List.of("date-range")
+                                : List.of("payment-type:" + key.toString().toUpperCase(Locale.ROOT))));
+    }
+}
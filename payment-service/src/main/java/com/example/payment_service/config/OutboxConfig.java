@@ -0,0 +1,20 @@
+package com.example.payment_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    // Enregistre le paiement et le message d'outbox dans la même transaction MongoDB (replica set requis).
+    @Bean
+    @ConditionalOnProperty(name = "payment.outbox.transactional", havingValue = "true")
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory mongoDatabaseFactory) {
+        return new MongoTransactionManager(mongoDatabaseFactory);
+    }
+}
@@ -23,10 +23,20 @@ public class RabbitMQConfig {
     @Value("${rabbit.mq.queue.name}")
     private String queue;
 
+    @Value("${rabbit.mq.queue.dead-letter.exchange.name}")
+    private String deadLetterExchange;
 
+    @Value("${rabbit.mq.queue.dead-letter.queue.name}")
+    private String deadLetterQueue;
+
+
+    // Mêmes arguments que dans inventory-service : le broker refuse une file redéclarée différemment.
     @Bean
     public Queue queue() {
-        return new Queue(queue);
+        return QueueBuilder.durable(queue)
+                .deadLetterExchange(deadLetterExchange)
+                .deadLetterRoutingKey(deadLetterQueue)
+                .build();
     }
 
 
@@ -55,6 +65,8 @@ public class RabbitMQConfig {
     public AmqpTemplate template(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(converter());
+        // Les messages non routables sont renvoyés au relais de l'outbox au lieu d'être perdus.
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
 
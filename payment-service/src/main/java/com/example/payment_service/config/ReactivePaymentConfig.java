@@ -0,0 +1,80 @@
+package com.example.payment_service.config;
+
+import com.example.payment_service.external.CargoReactiveClient;
+import com.example.payment_service.external.CustomerReactiveClient;
+import com.example.payment_service.external.InventoryReactiveClient;
+import com.example.payment_service.external.OrderReactiveClient;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.support.WebClientAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+import reactor.core.scheduler.Schedulers;
+import reactor.rabbitmq.RabbitFlux;
+import reactor.rabbitmq.Sender;
+import reactor.rabbitmq.SenderOptions;
+
+/**
+ * Beans of the reactive payment path ({@code /api/v2/payments}): load-balanced WebClient
+ * clients for the other services, a Reactor RabbitMQ sender for the outbox relay and, with
+ * {@code payment.outbox.transactional}, the transaction that writes a payment with its outbox message.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payment.reactive.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReactivePaymentProperties.class)
+public class ReactivePaymentConfig {
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+
+    @Bean
+    public HttpServiceProxyFactory reactiveClientFactory(WebClient.Builder loadBalancedWebClientBuilder) {
+        return HttpServiceProxyFactory.builderFor(WebClientAdapter.create(loadBalancedWebClientBuilder.build())).build();
+    }
+
+    @Bean
+    public OrderReactiveClient orderReactiveClient(HttpServiceProxyFactory reactiveClientFactory) {
+        return reactiveClientFactory.createClient(OrderReactiveClient.class);
+    }
+
+    @Bean
+    public InventoryReactiveClient inventoryReactiveClient(HttpServiceProxyFactory reactiveClientFactory) {
+        return reactiveClientFactory.createClient(InventoryReactiveClient.class);
+    }
+
+    @Bean
+    public CustomerReactiveClient customerReactiveClient(HttpServiceProxyFactory reactiveClientFactory) {
+        return reactiveClientFactory.createClient(CustomerReactiveClient.class);
+    }
+
+    @Bean
+    public CargoReactiveClient cargoReactiveClient(HttpServiceProxyFactory reactiveClientFactory) {
+        return reactiveClientFactory.createClient(CargoReactiveClient.class);
+    }
+
+    // Pendant réactif de OutboxConfig (replica set requis). Le gestionnaire n'est pas exposé en bean :
+    // un second TransactionManager rendrait ambigu le @Transactional de PaymentService.
+    @Bean
+    @ConditionalOnProperty(name = "payment.outbox.transactional", havingValue = "true")
+    public TransactionalOperator reactiveTransactionalOperator(ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory) {
+        return TransactionalOperator.create(new ReactiveMongoTransactionManager(reactiveMongoDatabaseFactory));
+    }
+
+    // Réutilise les paramètres spring.rabbitmq ; les confirmations sont activées sur le canal du sender.
+    @Bean(destroyMethod = "close")
+    public Sender reactiveSender(CachingConnectionFactory connectionFactory) {
+        return RabbitFlux.createSender(new SenderOptions()
+                .connectionFactory(connectionFactory.getRabbitConnectionFactory())
+                .resourceManagementScheduler(Schedulers.boundedElastic()));
+    }
+}
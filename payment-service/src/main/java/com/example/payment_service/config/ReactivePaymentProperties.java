@@ -0,0 +1,17 @@
+package com.example.payment_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.reactive")
+public class ReactivePaymentProperties {
+
+    private boolean enabled;
+
+    private Duration timeout = Duration.ofSeconds(5);
+
+    private int maxInFlight = 256;
+}
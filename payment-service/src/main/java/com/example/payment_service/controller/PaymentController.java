@@ -4,6 +4,7 @@ import com.example.payment_service.dto.paymentDto.PaymentRequestDto;
 import com.example.payment_service.dto.paymentDto.PaymentResponseDto;
 import com.example.payment_service.dto.paymentDto.PaymentUpdateRequestDto;
 import com.example.payment_service.exception.PaymentNotFoundException;
+import com.example.payment_service.idempotency.IdempotencyService;
 import com.example.payment_service.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,16 +27,23 @@ public class PaymentController {
 
     private final PaymentService paymentService;
 
+    private final IdempotencyService idempotencyService;
+
     @PostMapping
     @Operation(summary = "Process a payment", description = "Processes a payment and returns the payment response")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Payment processed successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid input")
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used with a different request")
     })
     public ResponseEntity<PaymentResponseDto> processPayment(
             @Parameter(description = "Payment request DTO containing payment details", required = true)
-            @Valid @RequestBody PaymentRequestDto paymentRequestDto) {
-        PaymentResponseDto paymentResponseDto = paymentService.processPayment(paymentRequestDto);
+            @Valid @RequestBody PaymentRequestDto paymentRequestDto,
+            @Parameter(description = "Client key; a replay returns the payment processed by the first request")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        PaymentResponseDto paymentResponseDto = idempotencyService.execute("process-payment", idempotencyKey,
+                paymentRequestDto, () -> paymentService.processPayment(paymentRequestDto), payment -> payment.getId() != null);
         return ResponseEntity.status(HttpStatus.CREATED).body(paymentResponseDto);
     }
 
@@ -109,6 +117,19 @@ public class PaymentController {
         return ResponseEntity.ok(paymentById);
     }
 
+    @GetMapping("/order/{orderId}")
+    @Operation(summary = "Get payment by order ID", description = "Retrieves the payment made for an order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payment retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "No payment for this order")
+    })
+    public ResponseEntity<PaymentResponseDto> getPaymentByOrderId(
+            @Parameter(description = "Unique identifier of the order", required = true)
+            @PathVariable("orderId") String orderId) {
+        PaymentResponseDto paymentByOrderId = paymentService.getPaymentByOrderId(orderId);
+        return ResponseEntity.ok(paymentByOrderId);
+    }
+
     @PutMapping
     @Operation(summary = "Update a payment", description = "Updates payment details")
     @ApiResponses(value = {
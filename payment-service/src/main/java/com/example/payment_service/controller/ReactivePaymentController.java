@@ -0,0 +1,71 @@
+package com.example.payment_service.controller;
+
+import com.example.payment_service.dto.paymentDto.PaymentRequestDto;
+import com.example.payment_service.dto.paymentDto.PaymentResponseDto;
+import com.example.payment_service.service.ReactivePaymentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+// Les méthodes rendent un Mono : le thread Tomcat est libéré pendant les appels aux autres services.
+@RestController
+@RequestMapping("/api/v2/payments")
+@ConditionalOnProperty(name = "payment.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePaymentController {
+
+    private final ReactivePaymentService reactivePaymentService;
+
+    @PostMapping
+    @Operation(summary = "Process a payment (non-blocking)", description = "Processes a payment without holding a request thread during the remote calls")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Payment processed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "404", description = "Order or inventory not found")
+    })
+    public Mono<ResponseEntity<PaymentResponseDto>> processPayment(
+            @Parameter(description = "Payment request DTO containing payment details", required = true)
+            @Valid @RequestBody PaymentRequestDto paymentRequestDto) {
+        return reactivePaymentService.processPayment(paymentRequestDto)
+                .map(paymentResponseDto -> ResponseEntity.status(HttpStatus.CREATED).body(paymentResponseDto));
+    }
+
+    @GetMapping("/{paymentId}")
+    @Operation(summary = "Get payment by ID (non-blocking)", description = "Retrieves payment details by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payment retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Payment not found")
+    })
+    public Mono<ResponseEntity<PaymentResponseDto>> getPaymentById(
+            @Parameter(description = "Unique identifier of the payment to retrieve", required = true)
+            @PathVariable("paymentId") String paymentId) {
+        return reactivePaymentService.getPaymentById(paymentId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("paymentCustomer/{customerId}")
+    @Operation(summary = "Get payments by customer ID (non-blocking)", description = "Retrieves payment details by customer ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payment retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Payment not found")
+    })
+    public Mono<ResponseEntity<PaymentResponseDto>> getPaymentCustomerById(
+            @Parameter(description = "Unique identifier of the customer", required = true)
+            @PathVariable("customerId") String customerId) {
+        return reactivePaymentService.getPaymentCustomerById(customerId).map(ResponseEntity::ok);
+    }
+}
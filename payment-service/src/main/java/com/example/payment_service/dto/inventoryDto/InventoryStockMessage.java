@@ -0,0 +1,18 @@
+package com.example.payment_service.dto.inventoryDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryStockMessage implements Serializable {
+    private String inventoryId;
+    private String productId;
+    private int quantity;
+}
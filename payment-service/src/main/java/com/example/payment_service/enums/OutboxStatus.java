@@ -0,0 +1,7 @@
+package com.example.payment_service.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -60,6 +60,54 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InventoryNotFoundException.class)
+    public ResponseEntity<?> handleInventoryNotFoundException(InventoryNotFoundException ex, WebRequest request) {
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .dateTime(LocalDateTime.now())
+                .message(ex.getMessage())
+                .description(request.getDescription(false))
+                .statusCode(HttpStatus.NOT_FOUND.value())
+                .build();
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(PaymentNotFoundException.class)
+    public ResponseEntity<?> handlePaymentNotFoundException(PaymentNotFoundException ex, WebRequest request) {
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .dateTime(LocalDateTime.now())
+                .message(ex.getMessage())
+                .description(request.getDescription(false))
+                .statusCode(HttpStatus.NOT_FOUND.value())
+                .build();
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<?> handleIdempotencyConflictException(IdempotencyConflictException ex, WebRequest request) {
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .dateTime(LocalDateTime.now())
+                .message(ex.getMessage())
+                .description(request.getDescription(false))
+                .statusCode(HttpStatus.CONFLICT.value())
+                .build();
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<?> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex, WebRequest request) {
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .dateTime(LocalDateTime.now())
+                .message(ex.getMessage())
+                .description(request.getDescription(false))
+                .statusCode(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .build();
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     // genel bir hata için handler
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGlobalException(Exception ex, WebRequest request) {
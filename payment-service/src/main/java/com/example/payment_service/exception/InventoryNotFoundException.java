@@ -0,0 +1,7 @@
+package com.example.payment_service.exception;
+
+public class InventoryNotFoundException extends RuntimeException {
+    public InventoryNotFoundException(String message) {
+        super(message);
+    }
+}
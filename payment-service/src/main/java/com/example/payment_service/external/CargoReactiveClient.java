@@ -0,0 +1,14 @@
+package com.example.payment_service.external;
+
+import com.example.payment_service.model.Cargo;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PutExchange;
+import reactor.core.publisher.Mono;
+
+@HttpExchange("http://CARGO-SERVICE")
+public interface CargoReactiveClient {
+
+    @PutExchange("api/v1/cargo")
+    Mono<Cargo> updateCargo(@RequestBody Cargo cargo);
+}
@@ -1,14 +1,24 @@
 package com.example.payment_service.external;
 
+import com.example.payment_service.hedging.Hedged;
 import com.example.payment_service.model.Customer;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "CUSTOMER-SERVICE")
 public interface CustomerClientService {
 
+    @Hedged
     @GetMapping("api/v1/customers/{customerId}")
     Customer getCustomerById(@PathVariable("customerId") String customerId);
 
+    @PostMapping("api/v1/customers/byIds")
+    List<Customer> getCustomersByIds(@RequestBody Collection<String> customerIds);
+
 }
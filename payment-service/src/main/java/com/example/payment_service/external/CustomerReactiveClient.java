@@ -0,0 +1,14 @@
+package com.example.payment_service.external;
+
+import com.example.payment_service.model.Customer;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import reactor.core.publisher.Mono;
+
+@HttpExchange("http://CUSTOMER-SERVICE")
+public interface CustomerReactiveClient {
+
+    @GetExchange("api/v1/customers/{customerId}")
+    Mono<Customer> getCustomerById(@PathVariable("customerId") String customerId);
+}
@@ -0,0 +1,14 @@
+package com.example.payment_service.external;
+
+import com.example.payment_service.model.Inventory;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import reactor.core.publisher.Mono;
+
+@HttpExchange("http://INVENTORY-SERVICE")
+public interface InventoryReactiveClient {
+
+    @GetExchange("/api/v1/inventories/getInventoryId/{id}")
+    Mono<Inventory> getInventoryById(@PathVariable String id);
+}
@@ -1,13 +1,23 @@
 package com.example.payment_service.external;
 
+import com.example.payment_service.hedging.Hedged;
 import com.example.payment_service.model.Inventory;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "INVENTORY-SERVICE")
 public interface InventoryServiceClient {
 
+    @Hedged
     @GetMapping("/api/v1/inventories/getInventoryId/{id}")
     Inventory getInventoryById(@PathVariable String id);
+
+    @PostMapping("/api/v1/inventories/byIds")
+    List<Inventory> getInventoriesByIds(@RequestBody Collection<String> ids);
 }
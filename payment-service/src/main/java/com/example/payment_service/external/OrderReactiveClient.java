@@ -0,0 +1,14 @@
+package com.example.payment_service.external;
+
+import com.example.payment_service.dto.orderDto.OrderResponseDto;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import reactor.core.publisher.Mono;
+
+@HttpExchange("http://ORDER-SERVICE")
+public interface OrderReactiveClient {
+
+    @GetExchange("api/v1/orders/{id}")
+    Mono<OrderResponseDto> getOrderById(@PathVariable String id);
+}
@@ -1,6 +1,7 @@
 package com.example.payment_service.external;
 
 import com.example.payment_service.dto.orderDto.OrderResponseDto;
+import com.example.payment_service.hedging.Hedged;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 @FeignClient(name = "ORDER-SERVICE")
 public interface OrderServiceClient {
 
+    @Hedged
     @GetMapping("api/v1/orders/{id}")
     OrderResponseDto getOrderById(@PathVariable String id);
 }
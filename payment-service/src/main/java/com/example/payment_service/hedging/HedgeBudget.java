@@ -0,0 +1,40 @@
+package com.example.payment_service.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket capping hedges to {@code budgetPercent} of the requests: each request adds a
+ * fraction of a token, each hedge spends a whole one, and at most {@code maxBurst} tokens are
+ * kept. When a backend slows down for everyone, hedging stops at the budget instead of
+ * doubling the load on it.
+ */
+public class HedgeBudget {
+
+    private static final long TOKEN = 1_000;
+
+    private final long depositPerRequest;
+
+    private final long maxBalance;
+
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double budgetPercent, int maxBurst) {
+        this.depositPerRequest = Math.round(budgetPercent / 100 * TOKEN);
+        this.maxBalance = Math.max(1, maxBurst) * TOKEN;
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.payment_service.hedging;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feign transport that hedges the GET methods marked {@link Hedged}.
+ * <p>
+ * It sits under the load balancer, so the request already targets the chosen instance. If no
+ * response has arrived after the method's observed {@code percentile} latency, the same request
+ * is sent to another instance from discovery, provided the {@link HedgeBudget} allows it. The
+ * first response is returned; the other attempt is interrupted and its response, if it still
+ * arrives, is closed. Other methods go straight to the delegate.
+ */
+@Slf4j
+public class HedgingClient implements Client {
+
+    private final Client delegate;
+
+    private final DiscoveryClient discoveryClient;
+
+    private final AsyncTaskExecutor executor;
+
+    private final HedgingProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Optional<MethodHedging>> methods = new ConcurrentHashMap<>();
+
+    public HedgingClient(Client delegate, DiscoveryClient discoveryClient, AsyncTaskExecutor executor,
+                         HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.discoveryClient = discoveryClient;
+        this.executor = executor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        MethodHedging hedging = hedgingFor(request);
+        return hedging == null ? delegate.execute(request, options) : hedging.execute(request, options);
+    }
+
+    private MethodHedging hedgingFor(Request request) {
+        if (request.httpMethod() != Request.HttpMethod.GET || request.requestTemplate() == null
+                || request.requestTemplate().methodMetadata() == null) {
+            return null;
+        }
+        String configKey = request.requestTemplate().methodMetadata().configKey();
+        return methods.computeIfAbsent(configKey, key -> {
+            if (!request.requestTemplate().methodMetadata().method().isAnnotationPresent(Hedged.class)) {
+                return Optional.empty();
+            }
+            log.info("HedgingClient - hedging enabled for {}", key);
+            return Optional.of(new MethodHedging(key));
+        }).orElse(null);
+    }
+
+    private final class MethodHedging {
+
+        private final LatencyWindow window = new LatencyWindow(properties.getWindowSize());
+
+        private final HedgeBudget budget = new HedgeBudget(properties.getBudgetPercent(), properties.getMaxBurst());
+
+        private final String method;
+
+        private final Counter requests;
+
+        private final Counter hedges;
+
+        private final Counter wins;
+
+        MethodHedging(String method) {
+            this.method = method;
+            this.requests = counter("feign.hedging.requests", "Calls to a hedged method");
+            this.hedges = counter("feign.hedging.hedges", "Second requests sent to another instance");
+            this.wins = counter("feign.hedging.wins", "Hedges that answered before the first request");
+            Gauge.builder("feign.hedging.hedge.ratio", this, hedging -> ratio(hedging.hedges, hedging.requests))
+                    .description("Share of calls that sent a hedge")
+                    .tag("method", method)
+                    .register(meterRegistry);
+            Gauge.builder("feign.hedging.win.ratio", this, hedging -> ratio(hedging.wins, hedging.hedges))
+                    .description("Share of hedges that answered first")
+                    .tag("method", method)
+                    .register(meterRegistry);
+            Gauge.builder("feign.hedging.delay", this, hedging -> hedging.delayNanos() / 1e9)
+                    .description("Wait before a hedge is sent")
+                    .baseUnit("seconds")
+                    .tag("method", method)
+                    .register(meterRegistry);
+        }
+
+        Response execute(Request request, Request.Options options) throws IOException {
+            requests.increment();
+            budget.deposit();
+
+            CompletableFuture<Attempt> winner = new CompletableFuture<>();
+            AtomicInteger pending = new AtomicInteger(1);
+            long start = System.nanoTime();
+            Future<?> primary;
+            try {
+                primary = executor.submit(() -> attempt(request, options, winner, pending, false));
+            } catch (TaskRejectedException e) {
+                skipped("saturated");
+                return delegate.execute(request, options);
+            }
+
+            Future<?> hedge = null;
+            try {
+                Attempt first = await(winner, delayNanos());
+                if (first != null) {
+                    return first.response();
+                }
+                hedge = hedge(request, options, winner, pending);
+                first = await(winner, -1);
+                if (first.hedge()) {
+                    wins.increment();
+                    // Borne basse de la latence du premier appel, pour ne pas biaiser le percentile.
+                    window.record(System.nanoTime() - start);
+                }
+                return first.response();
+            } finally {
+                primary.cancel(true);
+                if (hedge != null) {
+                    hedge.cancel(true);
+                }
+            }
+        }
+
+        private Future<?> hedge(Request request, Request.Options options, CompletableFuture<Attempt> winner,
+                                AtomicInteger pending) {
+            if (winner.isDone()) {
+                return null;
+            }
+            Request alternate = alternate(request);
+            if (alternate == null) {
+                skipped("no-alternate");
+                return null;
+            }
+            if (!budget.tryWithdraw()) {
+                skipped("budget");
+                return null;
+            }
+            pending.incrementAndGet();
+            try {
+                Future<?> hedge = executor.submit(() -> attempt(alternate, options, winner, pending, true));
+                hedges.increment();
+                return hedge;
+            } catch (TaskRejectedException e) {
+                pending.decrementAndGet();
+                skipped("saturated");
+                return null;
+            }
+        }
+
+        private void attempt(Request request, Request.Options options, CompletableFuture<Attempt> winner,
+                             AtomicInteger pending, boolean hedge) {
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = delegate.execute(request, options);
+            } catch (Exception e) {
+                if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(e);
+                }
+                return;
+            }
+            if (!hedge) {
+                window.record(System.nanoTime() - start);
+            }
+            if (!winner.complete(new Attempt(response, hedge))) {
+                response.close();
+            }
+        }
+
+        private long delayNanos() {
+            long percentile = window.percentile(properties.getPercentile(), properties.getMinSamples());
+            long delay = percentile < 0 ? properties.getInitialDelay().toNanos() : percentile;
+            return Math.min(properties.getMaxDelay().toNanos(), Math.max(properties.getMinDelay().toNanos(), delay));
+        }
+
+        private void skipped(String reason) {
+            meterRegistry.counter("feign.hedging.skipped", "method", method, "reason", reason).increment();
+        }
+
+        private Counter counter(String name, String description) {
+            return Counter.builder(name).description(description).tag("method", method).register(meterRegistry);
+        }
+    }
+
+    // Même requête vers une autre instance du service, ou null s'il n'y en a pas.
+    private Request alternate(Request request) {
+        if (request.requestTemplate().feignTarget() == null) {
+            return null;
+        }
+        URI uri = URI.create(request.url());
+        List<ServiceInstance> others = discoveryClient.getInstances(request.requestTemplate().feignTarget().name())
+                .stream()
+                .filter(instance -> !instance.getHost().equalsIgnoreCase(uri.getHost())
+                        || instance.getPort() != port(uri))
+                .toList();
+        if (others.isEmpty()) {
+            return null;
+        }
+        ServiceInstance target = others.get(ThreadLocalRandom.current().nextInt(others.size()));
+        String url = target.getUri() + uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        return Request.create(request.httpMethod(), url, request.headers(), request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private static Attempt await(CompletableFuture<Attempt> winner, long timeoutNanos) throws IOException {
+        try {
+            return timeoutNanos < 0 ? winner.get() : winner.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a hedged response");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private record Attempt(Response response, boolean hedge) {
+    }
+
+    private static double ratio(Counter part, Counter total) {
+        return total.count() == 0 ? 0 : part.count() / total.count();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.payment_service.hedging;
+
+import feign.Client;
+import feign.http2client.Http2Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.cloud.openfeign.loadbalancer.RetryableFeignBlockingLoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.net.http.HttpClient;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "hedging.enabled", havingValue = "true")
+@EnableConfigurationProperties(HedgingProperties.class)
+public class HedgingConfig {
+
+    // Pool sans file d'attente : s'il est plein, l'appel part sans hedge sur le thread appelant.
+    @Bean
+    public AsyncTaskExecutor hedgingExecutor(HedgingProperties properties, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("feign-hedging-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("feign-hedging-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    // Remplace le client Feign de Spring Cloud : même répartiteur (avec ou sans retry), HedgingClient posé
+    // sur le transport configuré (pool Apache HttpClient 5, JDK HttpClient en HTTP/2, sinon HttpURLConnection).
+    @Bean
+    public Client hedgingFeignClient(LoadBalancerClient loadBalancerClient,
+                                     LoadBalancerClientFactory loadBalancerClientFactory,
+                                     ObjectProvider<LoadBalancedRetryFactory> loadBalancedRetryFactory,
+                                     List<LoadBalancerFeignRequestTransformer> transformers,
+                                     ObjectProvider<CloseableHttpClient> httpClient5,
+                                     ObjectProvider<HttpClient> http2Client,
+                                     DiscoveryClient discoveryClient,
+                                     AsyncTaskExecutor hedgingExecutor,
+                                     HedgingProperties properties,
+                                     MeterRegistry meterRegistry) {
+        Client hedgingClient = new HedgingClient(transport(httpClient5, http2Client), discoveryClient, hedgingExecutor,
+                properties, meterRegistry);
+        LoadBalancedRetryFactory retryFactory = loadBalancedRetryFactory.getIfAvailable();
+        if (retryFactory != null) {
+            return new RetryableFeignBlockingLoadBalancerClient(hedgingClient, loadBalancerClient, retryFactory,
+                    loadBalancerClientFactory, transformers);
+        }
+        return new FeignBlockingLoadBalancerClient(hedgingClient, loadBalancerClient, loadBalancerClientFactory,
+                transformers);
+    }
+
+    // Même priorité que Spring Cloud OpenFeign : hc5 d'abord, puis http2client.
+    private static Client transport(ObjectProvider<CloseableHttpClient> httpClient5, ObjectProvider<HttpClient> http2Client) {
+        CloseableHttpClient pooled = httpClient5.getIfUnique();
+        if (pooled != null) {
+            return new ApacheHttp5Client(pooled);
+        }
+        HttpClient http2 = http2Client.getIfUnique();
+        if (http2 != null) {
+            return new Http2Client(http2);
+        }
+        return new Client.Default(null, null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.payment_service.hedging;
+
+import java.util.Arrays;
+
+/**
+ * Last {@code size} response times of one method. The percentile is recomputed every
+ * {@link #REFRESH_EVERY} samples rather than on each read.
+ */
+public class LatencyWindow {
+
+    private static final int REFRESH_EVERY = 16;
+
+    private final long[] samples;
+
+    private int next;
+
+    private int count;
+
+    private int sinceRefresh;
+
+    private double cachedFor = Double.NaN;
+
+    private long cached = -1;
+
+    public LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        sinceRefresh++;
+    }
+
+    // -1 tant que la fenêtre contient moins de minSamples mesures.
+    public synchronized long percentile(double percentile, int minSamples) {
+        if (count < Math.max(1, minSamples)) {
+            return -1;
+        }
+        if (cached < 0 || sinceRefresh >= REFRESH_EVERY || percentile != cachedFor) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            cached = sorted[Math.max(0, (int) Math.ceil(percentile * count) - 1)];
+            cachedFor = percentile;
+            sinceRefresh = 0;
+        }
+        return cached;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.payment_service.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * Value stored under an idempotency key: the fingerprint of the request that claimed the key and,
+ * once it has been processed, the response to replay. A record without response is still in progress.
+ */
+@Getter
+@AllArgsConstructor
+public class IdempotencyRecord implements Serializable {
+
+    private final String requestFingerprint;
+
+    private final Serializable response;
+
+    public boolean isCompleted() {
+        return response != null;
+    }
+}
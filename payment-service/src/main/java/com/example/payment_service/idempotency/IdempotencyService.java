@@ -0,0 +1,87 @@
+package com.example.payment_service.idempotency;
+
+import com.example.payment_service.exception.IdempotencyConflictException;
+import com.example.payment_service.exception.IdempotencyKeyReuseException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}.
+ * <p>
+ * A key this instance has never seen is claimed with a single {@code SET NX}, and the response is
+ * stored over that claim with one {@code SET} once the action completes: two round-trips for a new
+ * key, since the claim has to exist before the action runs. A key the local bloom filter may have
+ * seen is read first, so a replay is answered with one {@code GET} and the stored response, without
+ * running the action again. A key still being processed gives a conflict, and
+ * a key reused with another payload is rejected. When the action fails, or its result is not
+ * {@code completed}, the key is released so the client can try again.
+ */
+@Slf4j
+public class IdempotencyService {
+
+    private final IdempotencyStore store;
+
+    private final KeyBloomFilter seenKeys;
+
+    private final String keyPrefix;
+
+    private final Duration ttl;
+
+    public IdempotencyService(IdempotencyStore store, KeyBloomFilter seenKeys, String keyPrefix, Duration ttl) {
+        this.store = store;
+        this.seenKeys = seenKeys;
+        this.keyPrefix = keyPrefix;
+        this.ttl = ttl;
+    }
+
+    public <T extends Serializable> T execute(String operation, String idempotencyKey, Object request,
+                                              Supplier<T> action, Predicate<T> completed) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = keyPrefix + ":" + operation + ":" + idempotencyKey;
+        String requestFingerprint = RequestFingerprint.of(request);
+
+        if (seenKeys.mightContain(key)) {
+            IdempotencyRecord record = store.get(key);
+            if (record != null) {
+                return replay(key, record, requestFingerprint);
+            }
+        }
+        if (!store.claim(key, new IdempotencyRecord(requestFingerprint, null), ttl)) {
+            seenKeys.put(key);
+            return replay(key, store.get(key), requestFingerprint);
+        }
+        seenKeys.put(key);
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            store.release(key);
+            throw e;
+        }
+        if (response != null && completed.test(response)) {
+            store.complete(key, new IdempotencyRecord(requestFingerprint, response), ttl);
+        } else {
+            store.release(key);
+        }
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Serializable> T replay(String key, IdempotencyRecord record, String requestFingerprint) {
+        if (record == null || !record.isCompleted()) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        if (!record.getRequestFingerprint().equals(requestFingerprint)) {
+            throw new IdempotencyKeyReuseException("Idempotency-Key was already used with a different request");
+        }
+        log.info("IdempotencyService::replay - returning stored response for key: {}", key);
+        return (T) record.getResponse();
+    }
+}
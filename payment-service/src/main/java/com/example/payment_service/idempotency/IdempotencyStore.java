@@ -0,0 +1,17 @@
+package com.example.payment_service.idempotency;
+
+import java.time.Duration;
+
+public interface IdempotencyStore {
+
+    IdempotencyRecord get(String key);
+
+    /**
+     * Stores the record only if the key is free; returns {@code false} when another request already holds it.
+     */
+    boolean claim(String key, IdempotencyRecord record, Duration ttl);
+
+    void complete(String key, IdempotencyRecord record, Duration ttl);
+
+    void release(String key);
+}
@@ -0,0 +1,40 @@
+package com.example.payment_service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Fingerprint of a request body: SHA-256 of its JSON, properties and map keys sorted.
+ * Unlike {@code hashCode()} it is the same on every instance and across restarts; an enum,
+ * for instance, hashes by identity and would change from one JVM to the next.
+ */
+final class RequestFingerprint {
+
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .findAndAddModules()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private RequestFingerprint() {
+    }
+
+    static String of(Object request) {
+        try {
+            byte[] json = CANONICAL_JSON.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be serialized for its idempotency fingerprint", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.payment_service.model;
+
+import com.example.payment_service.enums.OutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "payment_outbox")
+@CompoundIndex(name = "status_createdAt", def = "{'status': 1, 'createdAt': 1}")
+public class OutboxMessage {
+
+    @Id
+    private String id;
+
+    private String aggregateId;
+
+    private String exchange;
+
+    private String routingKey;
+
+    private Object payload;
+
+    private OutboxStatus status;
+
+    private int attempts;
+
+    private String lastError;
+
+    private Instant createdAt;
+
+    // Verrou posé par l'instance du relais qui traite le message.
+    private String lockedBy;
+
+    private Instant lockedUntil;
+
+    // Les messages envoyés sont purgés automatiquement après 7 jours.
+    @Indexed(expireAfter = "7d")
+    private Instant sentAt;
+}
@@ -0,0 +1,254 @@
+package com.example.payment_service.publisher;
+
+import com.example.payment_service.enums.OutboxStatus;
+import com.example.payment_service.model.OutboxMessage;
+import com.example.payment_service.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the payment outbox in batches and publishes each message with a publisher confirm.
+ * Messages are only marked as sent once the broker has acknowledged them, so delivery is
+ * at-least-once; a message stays pending (and counts towards the lag gauge) until then, or
+ * until {@code payment.outbox.max-attempts} publish attempts have failed, after which it is
+ * parked as {@link OutboxStatus#FAILED} with its last error for manual replay.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.reactive.enabled", havingValue = "false", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final int batchSize;
+
+    private final Duration confirmTimeout;
+
+    private final Duration lockTimeout;
+
+    private final int maxAttempts;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile boolean indexesCreated;
+
+    private final AtomicLong pendingMessages = new AtomicLong();
+
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    private final Counter publishedCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter deadLetteredCounter;
+
+    private final Timer deliveryTimer;
+
+    public OutboxRelay(OutboxMessageRepository outboxMessageRepository,
+                       MongoTemplate mongoTemplate,
+                       RabbitTemplate rabbitTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${payment.outbox.batch-size:100}") int batchSize,
+                       @Value("${payment.outbox.confirm-timeout:5s}") Duration confirmTimeout,
+                       @Value("${payment.outbox.lock-timeout:30s}") Duration lockTimeout,
+                       @Value("${payment.outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.lockTimeout = lockTimeout;
+        this.maxAttempts = maxAttempts;
+
+        Gauge.builder("payment.outbox.pending", pendingMessages, AtomicLong::get)
+                .description("Outbox messages waiting for a broker confirm")
+                .register(meterRegistry);
+        Gauge.builder("payment.outbox.lag", oldestPendingAgeMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest pending outbox message")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("payment.outbox.published")
+                .description("Outbox messages confirmed by the broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("payment.outbox.failed")
+                .description("Outbox publish attempts that were nacked, returned or timed out")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("payment.outbox.dead-lettered")
+                .description("Outbox messages given up after payment.outbox.max-attempts failed attempts")
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("payment.outbox.delivery")
+                .description("Time between the outbox write and the broker confirm")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.flush-interval:500}")
+    public void flush() {
+        createIndexes();
+        int sent;
+        do {
+            sent = relayBatch();
+        } while (sent == batchSize);
+        refreshLag();
+    }
+
+    int relayBatch() {
+        List<OutboxMessage> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        log.info("OutboxRelay::relayBatch started - batch size: {}", batch.size());
+
+        Map<OutboxMessage, CorrelationData> inFlight = new LinkedHashMap<>();
+        for (OutboxMessage message : batch) {
+            CorrelationData correlationData = new CorrelationData(message.getId());
+            try {
+                rabbitTemplate.convertAndSend(message.getExchange(), message.getRoutingKey(),
+                        message.getPayload(), correlationData);
+                inFlight.put(message, correlationData);
+            } catch (Exception e) {
+                markFailed(message, e.getMessage());
+            }
+        }
+
+        List<OutboxMessage> sent = new ArrayList<>();
+        for (Map.Entry<OutboxMessage, CorrelationData> entry : inFlight.entrySet()) {
+            OutboxMessage message = entry.getKey();
+            String error = awaitConfirm(entry.getValue());
+            if (error == null) {
+                sent.add(message);
+            } else {
+                markFailed(message, error);
+            }
+        }
+
+        Instant now = Instant.now();
+        for (OutboxMessage message : sent) {
+            message.setStatus(OutboxStatus.SENT);
+            message.setSentAt(now);
+            message.setLockedBy(null);
+            message.setLockedUntil(null);
+            deliveryTimer.record(Duration.between(message.getCreatedAt(), now));
+        }
+        outboxMessageRepository.saveAll(sent);
+        publishedCounter.increment(sent.size());
+
+        log.info("OutboxRelay::relayBatch finished - sent: {}, failed: {}", sent.size(), batch.size() - sent.size());
+        return sent.size();
+    }
+
+    // Les index sont créés au premier passage pour ne pas exiger MongoDB au démarrage de l'application.
+    private void createIndexes() {
+        if (indexesCreated) {
+            return;
+        }
+        IndexOperations indexOperations = mongoTemplate.indexOps(OutboxMessage.class);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(OutboxMessage.class)
+                .forEach(indexOperations::ensureIndex);
+        indexesCreated = true;
+    }
+
+    // Réserve un lot de messages pour cette instance afin que plusieurs réplicas ne publient pas le même lot.
+    private List<OutboxMessage> claimBatch() {
+        Instant now = Instant.now();
+        Criteria claimable = Criteria.where("status").is(OutboxStatus.PENDING)
+                .orOperator(Criteria.where("lockedUntil").is(null), Criteria.where("lockedUntil").lt(now));
+
+        Query candidates = Query.query(claimable)
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(batchSize);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, OutboxMessage.class).stream()
+                .map(OutboxMessage::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String token = instanceId + ":" + now.toEpochMilli();
+        mongoTemplate.updateMulti(
+                Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids), claimable)),
+                new Update().set("lockedBy", token).set("lockedUntil", now.plus(lockTimeout)),
+                OutboxMessage.class);
+
+        List<OutboxMessage> claimed = new ArrayList<>(outboxMessageRepository.findByLockedBy(token));
+        claimed.sort((left, right) -> left.getCreatedAt().compareTo(right.getCreatedAt()));
+        return claimed;
+    }
+
+    private String awaitConfirm(CorrelationData correlationData) {
+        try {
+            CorrelationData.Confirm confirm = correlationData.getFuture()
+                    .get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                return "Nacked by broker: " + confirm.getReason();
+            }
+            if (correlationData.getReturned() != null) {
+                return "Returned by broker: " + correlationData.getReturned().getReplyText();
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while waiting for confirm";
+        } catch (Exception e) {
+            return "No confirm received: " + e.getMessage();
+        }
+    }
+
+    private void markFailed(OutboxMessage message, String error) {
+        log.error("OutboxRelay::markFailed - message id: {}, error: {}", message.getId(), error);
+        failedCounter.increment();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(message.getId())),
+                failedUpdate(message, error), OutboxMessage.class);
+    }
+
+    // Au-delà de max-attempts le message passe en FAILED : claimBatch ne le reprend plus et il sort de la jauge de lag.
+    private Update failedUpdate(OutboxMessage message, String error) {
+        Update update = new Update().inc("attempts", 1).set("lastError", error)
+                .unset("lockedBy").unset("lockedUntil");
+        if (message.getAttempts() + 1 >= maxAttempts) {
+            log.error("OutboxRelay::markFailed - message id: {} dead-lettered after {} attempts",
+                    message.getId(), message.getAttempts() + 1);
+            deadLetteredCounter.increment();
+            update.set("status", OutboxStatus.FAILED);
+        }
+        return update;
+    }
+
+    private void refreshLag() {
+        pendingMessages.set(outboxMessageRepository.countByStatus(OutboxStatus.PENDING));
+        oldestPendingAgeMillis.set(outboxMessageRepository.findFirstByStatusOrderByCreatedAtAsc(OutboxStatus.PENDING)
+                .map(message -> Duration.between(message.getCreatedAt(), Instant.now()).toMillis())
+                .orElse(0L));
+    }
+}
@@ -1,19 +1,26 @@
 package com.example.payment_service.publisher;
 
 
-import com.example.payment_service.model.Inventory;
+import com.example.payment_service.dto.inventoryDto.InventoryStockMessage;
+import com.example.payment_service.enums.OutboxStatus;
+import com.example.payment_service.model.OutboxMessage;
+import com.example.payment_service.repository.OutboxMessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+
+/**
+ * Writes outgoing messages to the outbox collection; {@link OutboxRelay} publishes them to RabbitMQ.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentMessageSender {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxMessageRepository outboxMessageRepository;
 
     @Value("${rabbit.mq.routing.key}")
     private String routingKey;
@@ -21,9 +28,21 @@ public class PaymentMessageSender {
     @Value("${rabbit.mq.exchange.name}")
     private String exchange;
 
-    public void sendInventoryUpdateMessage(Inventory inventory) {
-        log.info(String.format("SEND MESSAGE -> : %s", inventory));
-        rabbitTemplate.convertAndSend(exchange, routingKey, inventory);
+    public void sendInventoryUpdateMessage(String paymentId, InventoryStockMessage message) {
+        log.info(String.format("OUTBOX MESSAGE -> : %s", message));
+        outboxMessageRepository.save(inventoryUpdateMessage(paymentId, message));
+    }
+
+    // Construit le message sans l'enregistrer ; le chemin réactif l'écrit avec son propre repository.
+    public OutboxMessage inventoryUpdateMessage(String paymentId, InventoryStockMessage message) {
+        return OutboxMessage.builder()
+                .aggregateId(paymentId)
+                .exchange(exchange)
+                .routingKey(routingKey)
+                .payload(message)
+                .status(OutboxStatus.PENDING)
+                .createdAt(Instant.now())
+                .build();
     }
 
 }
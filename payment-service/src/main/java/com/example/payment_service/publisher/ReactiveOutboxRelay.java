@@ -0,0 +1,299 @@
+package com.example.payment_service.publisher;
+
+import com.example.payment_service.config.ReactivePaymentProperties;
+import com.example.payment_service.enums.OutboxStatus;
+import com.example.payment_service.model.OutboxMessage;
+import com.example.payment_service.repository.ReactiveOutboxMessageRepository;
+import com.rabbitmq.client.AMQP;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.CorrelableOutboundMessage;
+import reactor.rabbitmq.OutboundMessageResult;
+import reactor.rabbitmq.SendOptions;
+import reactor.rabbitmq.Sender;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive counterpart of {@link OutboxRelay}, active with {@code payment.reactive.enabled}.
+ * Batches are claimed the same way, then published through Reactor RabbitMQ with publisher
+ * confirms: at most {@code payment.reactive.max-in-flight} messages wait for a confirm, so a
+ * slow broker slows the relay down instead of piling up unconfirmed messages in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveOutboxRelay {
+
+    private final ReactiveOutboxMessageRepository reactiveOutboxMessageRepository;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final Sender sender;
+
+    private final MessageConverter messageConverter;
+
+    private final MessagePropertiesConverter messagePropertiesConverter = new DefaultMessagePropertiesConverter();
+
+    private final int batchSize;
+
+    private final Duration flushInterval;
+
+    private final Duration confirmTimeout;
+
+    private final Duration lockTimeout;
+
+    private final int maxAttempts;
+
+    private final SendOptions sendOptions;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile boolean indexesCreated;
+
+    private volatile Disposable relay;
+
+    private final AtomicLong pendingMessages = new AtomicLong();
+
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    private final Counter publishedCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter deadLetteredCounter;
+
+    private final Timer deliveryTimer;
+
+    public ReactiveOutboxRelay(ReactiveOutboxMessageRepository reactiveOutboxMessageRepository,
+                               ReactiveMongoTemplate reactiveMongoTemplate,
+                               Sender sender,
+                               MessageConverter messageConverter,
+                               MeterRegistry meterRegistry,
+                               ReactivePaymentProperties properties,
+                               @Value("${payment.outbox.batch-size:100}") int batchSize,
+                               @Value("${payment.outbox.flush-interval:500}") long flushIntervalMillis,
+                               @Value("${payment.outbox.confirm-timeout:5s}") Duration confirmTimeout,
+                               @Value("${payment.outbox.lock-timeout:30s}") Duration lockTimeout,
+                               @Value("${payment.outbox.max-attempts:10}") int maxAttempts) {
+        this.reactiveOutboxMessageRepository = reactiveOutboxMessageRepository;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.sender = sender;
+        this.messageConverter = messageConverter;
+        this.batchSize = batchSize;
+        this.flushInterval = Duration.ofMillis(flushIntervalMillis);
+        this.confirmTimeout = confirmTimeout;
+        this.lockTimeout = lockTimeout;
+        this.maxAttempts = maxAttempts;
+        this.sendOptions = new SendOptions()
+                .trackReturned(true)
+                .maxInFlight(properties.getMaxInFlight());
+
+        Gauge.builder("payment.outbox.pending", pendingMessages, AtomicLong::get)
+                .description("Outbox messages waiting for a broker confirm")
+                .register(meterRegistry);
+        Gauge.builder("payment.outbox.lag", oldestPendingAgeMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest pending outbox message")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("payment.outbox.published")
+                .description("Outbox messages confirmed by the broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("payment.outbox.failed")
+                .description("Outbox publish attempts that were nacked, returned or timed out")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("payment.outbox.dead-lettered")
+                .description("Outbox messages given up after payment.outbox.max-attempts failed attempts")
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("payment.outbox.delivery")
+                .description("Time between the outbox write and the broker confirm")
+                .register(meterRegistry);
+    }
+
+    // Un seul passage à la fois : les ticks arrivés pendant un passage sont ignorés.
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        relay = Flux.interval(flushInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush()
+                        .onErrorResume(e -> {
+                            log.error("ReactiveOutboxRelay::flush failed", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (relay != null) {
+            relay.dispose();
+        }
+    }
+
+    public Mono<Void> flush() {
+        return createIndexes()
+                .then(relayBatch()
+                        .expand(sent -> sent == batchSize ? relayBatch() : Mono.empty())
+                        .then())
+                .then(refreshLag());
+    }
+
+    Mono<Integer> relayBatch() {
+        return claimBatch().flatMap(batch -> batch.isEmpty() ? Mono.just(0) : publish(batch));
+    }
+
+    private Mono<Integer> publish(List<OutboxMessage> batch) {
+        log.info("ReactiveOutboxRelay::relayBatch started - batch size: {}", batch.size());
+        Flux<CorrelableOutboundMessage<OutboxMessage>> outbound = Flux.fromIterable(batch)
+                .concatMap(message -> toOutbound(message)
+                        .onErrorResume(e -> markFailed(message, e.getMessage()).then(Mono.empty())));
+
+        return sender.sendWithTypedPublishConfirms(outbound, sendOptions)
+                .timeout(confirmTimeout)
+                .concatMap(this::confirmed)
+                .collectList()
+                .flatMap(sent -> {
+                    Instant now = Instant.now();
+                    for (OutboxMessage message : sent) {
+                        message.setStatus(OutboxStatus.SENT);
+                        message.setSentAt(now);
+                        message.setLockedBy(null);
+                        message.setLockedUntil(null);
+                        deliveryTimer.record(Duration.between(message.getCreatedAt(), now));
+                    }
+                    publishedCounter.increment(sent.size());
+                    log.info("ReactiveOutboxRelay::relayBatch finished - sent: {}, failed: {}",
+                            sent.size(), batch.size() - sent.size());
+                    return reactiveOutboxMessageRepository.saveAll(sent).then(Mono.just(sent.size()));
+                })
+                // Sans confirmation à temps, le lot reste verrouillé puis est repris après lock-timeout.
+                .onErrorResume(e -> {
+                    log.error("ReactiveOutboxRelay::relayBatch - no confirm for the batch: {}", e.getMessage());
+                    failedCounter.increment(batch.size());
+                    return Mono.just(0);
+                });
+    }
+
+    private Mono<OutboxMessage> confirmed(OutboundMessageResult<CorrelableOutboundMessage<OutboxMessage>> result) {
+        OutboxMessage message = result.getOutboundMessage().getCorrelationMetadata();
+        if (!result.isAck()) {
+            return markFailed(message, "Nacked by broker").then(Mono.empty());
+        }
+        if (result.isReturned()) {
+            return markFailed(message, "Returned by broker").then(Mono.empty());
+        }
+        return Mono.just(message);
+    }
+
+    // Même format que RabbitTemplate : corps JSON et en-têtes de type produits par le convertisseur de l'application.
+    private Mono<CorrelableOutboundMessage<OutboxMessage>> toOutbound(OutboxMessage message) {
+        return Mono.fromCallable(() -> {
+            Message amqpMessage = messageConverter.toMessage(message.getPayload(), new MessageProperties());
+            AMQP.BasicProperties properties = messagePropertiesConverter.fromMessageProperties(
+                    amqpMessage.getMessageProperties(), StandardCharsets.UTF_8.name());
+            return new CorrelableOutboundMessage<>(message.getExchange(), message.getRoutingKey(), properties,
+                    amqpMessage.getBody(), message);
+        });
+    }
+
+    // Les index sont créés au premier passage pour ne pas exiger MongoDB au démarrage de l'application.
+    private Mono<Void> createIndexes() {
+        if (indexesCreated) {
+            return Mono.empty();
+        }
+        ReactiveIndexOperations indexOperations = reactiveMongoTemplate.indexOps(OutboxMessage.class);
+        return Flux.fromIterable(new MongoPersistentEntityIndexResolver(reactiveMongoTemplate.getConverter().getMappingContext())
+                        .resolveIndexFor(OutboxMessage.class))
+                .concatMap(indexOperations::ensureIndex)
+                .then(Mono.fromRunnable(() -> indexesCreated = true));
+    }
+
+    // Réserve un lot de messages pour cette instance afin que plusieurs réplicas ne publient pas le même lot.
+    private Mono<List<OutboxMessage>> claimBatch() {
+        Instant now = Instant.now();
+        Criteria claimable = Criteria.where("status").is(OutboxStatus.PENDING)
+                .orOperator(Criteria.where("lockedUntil").is(null), Criteria.where("lockedUntil").lt(now));
+
+        Query candidates = Query.query(claimable)
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(batchSize);
+        candidates.fields().include("_id");
+        return reactiveMongoTemplate.find(candidates, OutboxMessage.class)
+                .map(OutboxMessage::getId)
+                .collectList()
+                .flatMap(ids -> {
+                    if (ids.isEmpty()) {
+                        return Mono.just(List.<OutboxMessage>of());
+                    }
+                    String token = instanceId + ":" + now.toEpochMilli();
+                    return reactiveMongoTemplate.updateMulti(
+                                    Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids), claimable)),
+                                    new Update().set("lockedBy", token).set("lockedUntil", now.plus(lockTimeout)),
+                                    OutboxMessage.class)
+                            .thenMany(reactiveOutboxMessageRepository.findByLockedBy(token))
+                            .sort(Comparator.comparing(OutboxMessage::getCreatedAt))
+                            .collectList();
+                });
+    }
+
+    private Mono<Void> markFailed(OutboxMessage message, String error) {
+        log.error("ReactiveOutboxRelay::markFailed - message id: {}, error: {}", message.getId(), error);
+        failedCounter.increment();
+        return reactiveMongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(message.getId())),
+                        failedUpdate(message, error), OutboxMessage.class)
+                .then();
+    }
+
+    // Même seuil que OutboxRelay : un message en FAILED n'est plus réclamé et ne compte plus dans le lag.
+    private Update failedUpdate(OutboxMessage message, String error) {
+        Update update = new Update().inc("attempts", 1).set("lastError", error)
+                .unset("lockedBy").unset("lockedUntil");
+        if (message.getAttempts() + 1 >= maxAttempts) {
+            log.error("ReactiveOutboxRelay::markFailed - message id: {} dead-lettered after {} attempts",
+                    message.getId(), message.getAttempts() + 1);
+            deadLetteredCounter.increment();
+            update.set("status", OutboxStatus.FAILED);
+        }
+        return update;
+    }
+
+    private Mono<Void> refreshLag() {
+        return reactiveOutboxMessageRepository.countByStatus(OutboxStatus.PENDING)
+                .doOnNext(pendingMessages::set)
+                .then(reactiveOutboxMessageRepository.findFirstByStatusOrderByCreatedAtAsc(OutboxStatus.PENDING)
+                        .map(message -> Duration.between(message.getCreatedAt(), Instant.now()).toMillis())
+                        .defaultIfEmpty(0L)
+                        .doOnNext(oldestPendingAgeMillis::set))
+                .then();
+    }
+}
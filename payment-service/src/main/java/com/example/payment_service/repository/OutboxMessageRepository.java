@@ -0,0 +1,19 @@
+package com.example.payment_service.repository;
+
+import com.example.payment_service.enums.OutboxStatus;
+import com.example.payment_service.model.OutboxMessage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxMessageRepository extends MongoRepository<OutboxMessage, String> {
+
+    List<OutboxMessage> findByLockedBy(String lockedBy);
+
+    Optional<OutboxMessage> findFirstByStatusOrderByCreatedAtAsc(OutboxStatus status);
+
+    long countByStatus(OutboxStatus status);
+}
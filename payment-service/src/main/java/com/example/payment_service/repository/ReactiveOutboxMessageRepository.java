@@ -0,0 +1,18 @@
+package com.example.payment_service.repository;
+
+import com.example.payment_service.enums.OutboxStatus;
+import com.example.payment_service.model.OutboxMessage;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveOutboxMessageRepository extends ReactiveMongoRepository<OutboxMessage, String> {
+
+    Flux<OutboxMessage> findByLockedBy(String lockedBy);
+
+    Mono<OutboxMessage> findFirstByStatusOrderByCreatedAtAsc(OutboxStatus status);
+
+    Mono<Long> countByStatus(OutboxStatus status);
+}
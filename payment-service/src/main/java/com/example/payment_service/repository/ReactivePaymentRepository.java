@@ -0,0 +1,12 @@
+package com.example.payment_service.repository;
+
+import com.example.payment_service.model.Payment;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactivePaymentRepository extends ReactiveMongoRepository<Payment, String> {
+
+    Mono<Payment> findByCustomerId(String customerId);
+}
@@ -1,5 +1,8 @@
 package com.example.payment_service.service;
 
+import com.example.payment_service.cache.CacheTagEvict;
+import com.example.payment_service.collapser.RequestCollapser;
+import com.example.payment_service.dto.inventoryDto.InventoryStockMessage;
 import com.example.payment_service.dto.orderDto.OrderResponseDto;
 import com.example.payment_service.dto.paymentDto.PaymentRequestDto;
 import com.example.payment_service.dto.paymentDto.PaymentResponseDto;
@@ -11,8 +14,6 @@ import com.example.payment_service.exception.InsufficientStockException;
 import com.example.payment_service.exception.PaymentCustomerNotFoundException;
 import com.example.payment_service.exception.PaymentNotFoundException;
 import com.example.payment_service.external.CargoClientService;
-import com.example.payment_service.external.CustomerClientService;
-import com.example.payment_service.external.InventoryServiceClient;
 import com.example.payment_service.external.OrderServiceClient;
 import com.example.payment_service.mapper.PaymentMapper;
 import com.example.payment_service.model.Cargo;
@@ -24,10 +25,8 @@ import com.example.payment_service.repository.PaymentRepository;
 import com.example.payment_service.util.PaymentMessage;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,27 +44,31 @@ public class PaymentService {
 
     private final OrderServiceClient orderServiceClient;
 
-    private final InventoryServiceClient inventoryServiceClient;
+    private final CargoClientService cargoClientService;
 
-    private final CustomerClientService customerClientService;
+    // Les lookups unitaires concurrents partagent un même appel groupé vers Inventory et Customer.
+    private final RequestCollapser<Inventory> inventoryCollapser;
 
-    private final CargoClientService cargoClientService;
+    private final RequestCollapser<Customer> customerCollapser;
 
     private final PaymentMapper paymentMapper;
 
     private final PaymentMessageSender paymentMessageSender;
 
+    // Pas de @Retry : un nouvel essai enregistrerait un second paiement et une seconde baisse de stock.
+    // Les lectures distantes sont déjà doublées par @Hedged, et le client rejoue avec la même Idempotency-Key.
     @Transactional
     @CircuitBreaker(name = "paymentServiceBreaker", fallbackMethod = "paymentServiceFallback")
-    @Retry(name = "paymentServiceBreaker", fallbackMethod = "paymentServiceFallback")
     @RateLimiter(name = "processPaymentLimiter", fallbackMethod = "paymentServiceFallback")
+    @CacheTagEvict(cacheNames = "payments", tags = {"'date-range'", "'payment-type:' + #paymentRequestDto.paymentType",
+            "'customer:' + #paymentRequestDto.customerId"})
     public PaymentResponseDto processPayment(PaymentRequestDto paymentRequestDto) {
         log.info("PaymentService::processPayment started");
 
         // sipariş kontrolü gerçekleştir..
         OrderResponseDto order = orderServiceClient.getOrderById(paymentRequestDto.getOrderId());
-        Inventory inventory = inventoryServiceClient.getInventoryById(order.getInventoryId());
-        Customer customer = customerClientService.getCustomerById(paymentRequestDto.getCustomerId());
+        Inventory inventory = inventoryCollapser.get(order.getInventoryId());
+        Customer customer = customerCollapser.get(paymentRequestDto.getCustomerId());
 
         log.info("PaymentResponseDto::processPayment - customer with id : {},  Order with id : {}," +
                 " inventory with id : {}", customer.getId(), order.getId(), inventory.getId());
@@ -84,7 +87,7 @@ public class PaymentService {
 
 
         // ödeme başarılı ise kontrol et. stok rabbitmq yardımı ile güncellenecek...
-        updatedInventory(order, inventory);
+        updatedInventory(savedPayment.getId(), order, inventory);
 
         // ödeme başarılı ise cargo statüsünü güncelle.
         if (savedPayment.getPaymentStatus().name().equals(PaymentStatus.COMPLETED.name())) {
@@ -170,18 +173,31 @@ public class PaymentService {
         return paymentMapper.mapToPaymentResponseDto(paymentCustomerById);
     }
 
+    // Une commande n'a qu'un paiement, alors qu'un client peut en avoir plusieurs.
+    @Cacheable(value = "payments", key = "'order:' + #orderId")
+    public PaymentResponseDto getPaymentByOrderId(String orderId) {
+        log.info("PaymentService::getPaymentByOrderId started");
+
+        Payment payment = paymentRepository.findByOrderId(orderId).orElseThrow(() ->
+                new PaymentNotFoundException(PaymentMessage.PAYMENT_ORDER_NOT_FOUND + orderId));
+        log.info("PaymentResponseDto::getPaymentByOrderId -payment : {}", payment);
+
+        log.info("PaymentService::getPaymentByOrderId finished");
+        return paymentMapper.mapToPaymentResponseDto(payment);
+    }
+
 
+    // Pas de @Retry non plus : l'écriture du paiement ne doit pas être rejouée à l'intérieur d'une même requête.
     @Transactional
     @CircuitBreaker(name = "paymentServiceBreaker", fallbackMethod = "paymentServiceFallback")
-    @Retry(name = "paymentServiceBreaker", fallbackMethod = "paymentServiceFallback")
     @RateLimiter(name = "processPaymentLimiter", fallbackMethod = "paymentServiceFallback")
-    @CacheEvict(value = "payments", key = "#paymentUpdateRequestDto.customerId",allEntries = true)
+    @CacheTagEvict(cacheNames = "payments", tags = {"'customer:' + #paymentUpdateRequestDto.customerId",
+            "'payment-type:' + #paymentUpdateRequestDto.paymentType"})
     public PaymentResponseDto updatePayment(PaymentUpdateRequestDto paymentUpdateRequestDto) {
         log.info("PaymentService::updatePayment started");
 
         OrderResponseDto order = orderServiceClient.getOrderById(paymentUpdateRequestDto.getOrderId());
-        Inventory inventory = inventoryServiceClient.getInventoryById(order.getInventoryId());
-        Customer customer = customerClientService.getCustomerById(paymentUpdateRequestDto.getCustomerId());
+        Customer customer = customerCollapser.get(paymentUpdateRequestDto.getCustomerId());
 
         Payment paymentCustomerById = getPaymentCustomer(paymentUpdateRequestDto.getCustomerId());
 
@@ -201,19 +217,18 @@ public class PaymentService {
         paymentResponseDto.setCustomer(customer);
         log.info("PaymentResponseDto::updatePayment -paymentResponseDto : {}", paymentResponseDto);
 
-        // ödeme başarılı ise stok rabbitmq yardımı ile güncellenecek...
-        updatedInventory(order, inventory);
-
+        // Stok ilk ödemede düşüldü, miktar farkı sipariş güncelleme saga'sı tarafından uygulandı: burada tekrar düşülmez.
         log.info("PaymentService::updatePayment finished");
         return paymentResponseDto;
     }
 
     @Transactional
+    @CacheTagEvict(cacheNames = "payments", tags = "'payment:' + #paymentId")
     public void cancelPaymentById(String paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
                 .orElseThrow(() -> new PaymentNotFoundException("Payment not found for ID: " + paymentId));
 
-        // Ödeme durumu iptal olarak güncellenir
+        // Ödeme durumu iptal olarak güncellenir. Stok siparişte kalır ve güncellenen ödeme onu tekrar düşmez.
         payment.setPaymentStatus(PaymentStatus.REFUNDED);
 
         // İptal edilen ödeme kaydedilir
@@ -221,7 +236,7 @@ public class PaymentService {
         log.info("PaymentService::cancelPaymentById - Payment cancelled successfully. Payment ID: {}", paymentId);
     }
 
-    @CacheEvict(value = "payments", key = "#paymentId",allEntries = true)
+    @CacheTagEvict(cacheNames = "payments", tags = "'payment:' + #paymentId")
     public void deleteByPaymentId(String paymentId) {
         log.info("PaymentService::deleteByPaymentId started");
 
@@ -234,23 +249,22 @@ public class PaymentService {
     }
 
 
-    private void updatedInventory(OrderResponseDto orderResponseDto, Inventory inventory) {
+    private void updatedInventory(String paymentId, OrderResponseDto orderResponseDto, Inventory inventory) {
         // stok kontrolü
         if (inventory.getStockQuantity() < orderResponseDto.getQuantity()) {
             log.error("Not enough stock for product id: {}", inventory.getId());
             throw new InsufficientStockException(PaymentMessage.INSUFFICIENT_STOCK);
         }
-        // Stok miktarını güncelle
-        inventory.setStockQuantity(inventory.getStockQuantity() - orderResponseDto.getQuantity());
+        // Stok miktarı inventory-service tarafında atomik olarak düşürülür, burada sadece miktarı gönderiyoruz
+        InventoryStockMessage message = InventoryStockMessage.builder()
+                .inventoryId(inventory.getId())
+                .productId(inventory.getProductId())
+                .quantity(orderResponseDto.getQuantity())
+                .build();
 
-        try {
-            //Envanter güncelleme işlemini RabbitMQ kullanarak mesaj kuyruğuna gönderiyoruz
-            paymentMessageSender.sendInventoryUpdateMessage(inventory);
-            log.info("Inventory update message sent for product id: {}", inventory.getId());
-        } catch (Exception e) {
-            // RabbitMQ ile mesaj gönderme sırasında bir hata oluştu
-            log.error("Failed to send inventory update message for product id: {}. Error: {}", inventory.getId(), e.getMessage(), e);
-        }
+        // Mesaj outbox koleksiyonuna yazılır, RabbitMQ'ya gönderimi OutboxRelay yapar
+        paymentMessageSender.sendInventoryUpdateMessage(paymentId, message);
+        log.info("Inventory update message stored in outbox for product id: {}", inventory.getId());
     }
 
     private Payment getPayment(String paymentId) {
@@ -0,0 +1,186 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.cache.TwoLevelCacheManager;
+import com.example.payment_service.config.ReactivePaymentProperties;
+import com.example.payment_service.dto.inventoryDto.InventoryStockMessage;
+import com.example.payment_service.dto.orderDto.OrderResponseDto;
+import com.example.payment_service.dto.paymentDto.PaymentRequestDto;
+import com.example.payment_service.dto.paymentDto.PaymentResponseDto;
+import com.example.payment_service.enums.CargoStatus;
+import com.example.payment_service.enums.PaymentStatus;
+import com.example.payment_service.exception.InsufficientStockException;
+import com.example.payment_service.exception.InventoryNotFoundException;
+import com.example.payment_service.exception.OrderNotFoundException;
+import com.example.payment_service.exception.PaymentCustomerNotFoundException;
+import com.example.payment_service.exception.PaymentNotFoundException;
+import com.example.payment_service.external.CargoReactiveClient;
+import com.example.payment_service.external.CustomerReactiveClient;
+import com.example.payment_service.external.InventoryReactiveClient;
+import com.example.payment_service.external.OrderReactiveClient;
+import com.example.payment_service.mapper.PaymentMapper;
+import com.example.payment_service.model.Cargo;
+import com.example.payment_service.model.Customer;
+import com.example.payment_service.model.Inventory;
+import com.example.payment_service.model.Payment;
+import com.example.payment_service.publisher.PaymentMessageSender;
+import com.example.payment_service.repository.ReactiveOutboxMessageRepository;
+import com.example.payment_service.repository.ReactivePaymentRepository;
+import com.example.payment_service.util.PaymentMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking version of the payment flow behind {@code /api/v2/payments}: the lookups go
+ * through WebClient, the payment and its outbox message through reactive MongoDB, and the
+ * outbox is drained by {@link com.example.payment_service.publisher.ReactiveOutboxRelay}.
+ * No thread waits on I/O, so in-flight payments are bounded by memory, not by a thread pool.
+ */
+@Service
+@ConditionalOnProperty(name = "payment.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePaymentService {
+
+    private final ReactivePaymentRepository reactivePaymentRepository;
+
+    private final ReactiveOutboxMessageRepository reactiveOutboxMessageRepository;
+
+    private final OrderReactiveClient orderReactiveClient;
+
+    private final InventoryReactiveClient inventoryReactiveClient;
+
+    private final CustomerReactiveClient customerReactiveClient;
+
+    private final CargoReactiveClient cargoReactiveClient;
+
+    private final PaymentMapper paymentMapper;
+
+    private final PaymentMessageSender paymentMessageSender;
+
+    private final TwoLevelCacheManager cacheManager;
+
+    private final ReactivePaymentProperties properties;
+
+    private final ObjectProvider<TransactionalOperator> transactionalOperator;
+
+    public Mono<PaymentResponseDto> processPayment(PaymentRequestDto paymentRequestDto) {
+        log.info("ReactivePaymentService::processPayment started");
+
+        return lookup(orderReactiveClient.getOrderById(paymentRequestDto.getOrderId()),
+                () -> new OrderNotFoundException("Order not found for ID: " + paymentRequestDto.getOrderId()))
+                // Inventaire et client sont demandés en parallèle une fois la commande connue.
+                .flatMap(order -> Mono.zip(
+                                lookup(inventoryReactiveClient.getInventoryById(order.getInventoryId()),
+                                        () -> new InventoryNotFoundException("Inventory not found for ID: " + order.getInventoryId())),
+                                lookup(customerReactiveClient.getCustomerById(paymentRequestDto.getCustomerId()),
+                                        () -> new PaymentCustomerNotFoundException(
+                                                PaymentMessage.PAYMENT_CUSTOMER_NOT_FOUND + paymentRequestDto.getCustomerId())))
+                        .flatMap(lookup -> savePayment(paymentRequestDto, order, lookup.getT1(), lookup.getT2())))
+                .timeout(properties.getTimeout())
+                .doOnSuccess(paymentResponseDto -> log.info("ReactivePaymentService::processPayment finished - payment id: {}",
+                        paymentResponseDto.getId()));
+    }
+
+    public Mono<PaymentResponseDto> getPaymentById(String paymentId) {
+        log.info("ReactivePaymentService::getPaymentById started");
+
+        return reactivePaymentRepository.findById(paymentId)
+                .switchIfEmpty(Mono.error(() -> new PaymentNotFoundException(PaymentMessage.PAYMENT_NOT_FOUND + paymentId)))
+                .map(paymentMapper::mapToPaymentResponseDto);
+    }
+
+    public Mono<PaymentResponseDto> getPaymentCustomerById(String customerId) {
+        log.info("ReactivePaymentService::getPaymentCustomerById started");
+
+        return reactivePaymentRepository.findByCustomerId(customerId)
+                .switchIfEmpty(Mono.error(() ->
+                        new PaymentCustomerNotFoundException(PaymentMessage.PAYMENT_CUSTOMER_NOT_FOUND + customerId)))
+                .map(paymentMapper::mapToPaymentResponseDto);
+    }
+
+    private Mono<PaymentResponseDto> savePayment(PaymentRequestDto paymentRequestDto, OrderResponseDto order,
+                                                 Inventory inventory, Customer customer) {
+        if (inventory.getStockQuantity() < order.getQuantity()) {
+            log.error("Not enough stock for product id: {}", inventory.getId());
+            return Mono.error(new InsufficientStockException(PaymentMessage.INSUFFICIENT_STOCK));
+        }
+
+        Payment payment = paymentMapper.mapToPayment(paymentRequestDto);
+        payment.setQuantity(order.getQuantity());
+        payment.setAmount(order.getTotalAmount());
+
+        // Le cargo et le cache ne sont touchés qu'après le commit du paiement et de son message.
+        return inTransaction(reactivePaymentRepository.save(payment)
+                        .flatMap(savedPayment -> reactiveOutboxMessageRepository
+                                .save(paymentMessageSender.inventoryUpdateMessage(savedPayment.getId(), InventoryStockMessage.builder()
+                                        .inventoryId(inventory.getId())
+                                        .productId(inventory.getProductId())
+                                        .quantity(order.getQuantity())
+                                        .build()))
+                                .thenReturn(savedPayment)))
+                .flatMap(savedPayment -> updateCargoStatus(savedPayment)
+                        .then(evictPayments(paymentRequestDto))
+                        .thenReturn(savedPayment))
+                .map(savedPayment -> {
+                    PaymentResponseDto paymentResponseDto = paymentMapper.mapToPaymentResponseDto(savedPayment);
+                    paymentResponseDto.setCustomer(customer);
+                    return paymentResponseDto;
+                });
+    }
+
+    // Un abandon par timeout() annule aussi la transaction : rollback, ni paiement ni message.
+    // Sans payment.outbox.transactional, les deux écritures restent séparées, comme dans PaymentService.
+    private <T> Mono<T> inTransaction(Mono<T> writes) {
+        TransactionalOperator operator = transactionalOperator.getIfAvailable();
+        return operator != null ? operator.transactional(writes) : writes;
+    }
+
+    // Un échec de mise à jour du cargo n'annule pas le paiement, comme dans PaymentService.
+    private Mono<Void> updateCargoStatus(Payment savedPayment) {
+        if (savedPayment.getPaymentStatus() != PaymentStatus.COMPLETED) {
+            return Mono.empty();
+        }
+        Cargo cargo = Cargo.builder()
+                .id(savedPayment.getCargoId())
+                .customerId(savedPayment.getCustomerId())
+                .orderId(savedPayment.getOrderId())
+                .status(CargoStatus.IN_TRANSIT)
+                .build();
+        return cargoReactiveClient.updateCargo(cargo)
+                .doOnSuccess(updated -> log.info("Cargo status updated for order id: {}", savedPayment.getOrderId()))
+                .onErrorResume(e -> {
+                    log.error("Failed to update cargo status for order id: {}", savedPayment.getOrderId(), e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // Le cache est adossé à Redis en mode bloquant : l'invalidation part sur boundedElastic.
+    private Mono<Void> evictPayments(PaymentRequestDto paymentRequestDto) {
+        List<String> tags = List.of("date-range", "payment-type:" + paymentRequestDto.getPaymentType(),
+                "customer:" + paymentRequestDto.getCustomerId());
+        return Mono.fromRunnable(() -> cacheManager.evictTags("payments", tags))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("ReactivePaymentService::evictPayments failed for tags: {}", tags, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static <T> Mono<T> lookup(Mono<T> call, Supplier<? extends RuntimeException> notFound) {
+        return call
+                .onErrorMap(WebClientResponseException.NotFound.class, e -> notFound.get())
+                .switchIfEmpty(Mono.error(notFound));
+    }
+}
@@ -4,4 +4,5 @@ public class PaymentMessage {
     public static final String PAYMENT_NOT_FOUND = "PAYMENT NOT FOUND WITH ID : ";
     public static final String INSUFFICIENT_STOCK = "NOT ENOUGH STOCK AVAILABLE : ";
     public static final String PAYMENT_CUSTOMER_NOT_FOUND = "PAYMENT CUSTOMER NOT FOUND WITH ID : ";
+    public static final String PAYMENT_ORDER_NOT_FOUND = "PAYMENT NOT FOUND FOR ORDER ID : ";
 }
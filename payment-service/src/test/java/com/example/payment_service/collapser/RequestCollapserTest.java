@@ -0,0 +1,206 @@
+package com.example.payment_service.collapser;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCollapserTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final ExecutorService dispatcher = Executors.newFixedThreadPool(4);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Set<String>> bulkCalls = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    @Test
+    void lookupsOfTheSameWindowShareOneBulkCall() {
+        RequestCollapser<String> collapser = collapser(Duration.ofMillis(50), 100, this::echo);
+
+        CompletableFuture<String> first = collapser.submit("a");
+        CompletableFuture<String> second = collapser.submit("b");
+        CompletableFuture<String> duplicate = collapser.submit("a");
+
+        assertEquals("value-a", first.join());
+        assertEquals("value-b", second.join());
+        assertSame(first, duplicate);
+        assertEquals(List.of(Set.of("a", "b")), bulkCalls);
+    }
+
+    @Test
+    void fullBatchIsSentBeforeTheEndOfTheWindow() {
+        RequestCollapser<String> collapser = collapser(Duration.ofSeconds(10), 3, this::echo);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (String key : List.of("a", "b", "c")) {
+            results.add(collapser.submit(key));
+        }
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.SECONDS).join();
+        assertEquals(1, bulkCalls.size());
+    }
+
+    @Test
+    void keyMissingFromTheBulkResponseFailsWithNotFound() {
+        RequestCollapser<String> collapser = collapser(Duration.ofMillis(5), 100,
+                ids -> echo(ids.stream().filter(id -> !id.equals("missing")).collect(Collectors.toSet())));
+
+        assertEquals("value-a", collapser.get("a"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> collapser.get("missing"));
+        assertEquals("not found: missing", e.getMessage());
+    }
+
+    @Test
+    void failedBulkCallFailsEveryWaitingCaller() {
+        IllegalStateException failure = new IllegalStateException("503 Service Unavailable");
+        RequestCollapser<String> collapser = collapser(Duration.ofMillis(20), 100, ids -> {
+            throw failure;
+        });
+
+        CompletableFuture<String> first = collapser.submit("a");
+        CompletableFuture<String> second = collapser.submit("b");
+
+        assertSame(failure, assertThrows(CompletionException.class, first::join).getCause());
+        assertSame(failure, assertThrows(CompletionException.class, second::join).getCause());
+        assertEquals(1, bulkCalls.size());
+    }
+
+    @Test
+    void slowBulkCallsDoNotHoldTheWindowsOfOtherCollapsers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Set<String>, Map<String, String>> stuck = ids -> {
+            await(release);
+            return echo(ids);
+        };
+        // Autant d'appels bloqués que de threads dans le scheduler.
+        RequestCollapser<String> slowProducts = collapser("slow-products", Duration.ofMillis(5), 100,
+                Duration.ofSeconds(5), stuck);
+        RequestCollapser<String> slowCustomers = collapser("slow-customers", Duration.ofMillis(5), 100,
+                Duration.ofSeconds(5), stuck);
+        RequestCollapser<String> inventories = collapser("inventories", Duration.ofMillis(5), 100,
+                Duration.ofSeconds(5), this::echo);
+        try {
+            CompletableFuture<String> product = slowProducts.submit("p");
+            CompletableFuture<String> customer = slowCustomers.submit("c");
+            Thread.sleep(50);
+
+            assertEquals("value-i", inventories.submit("i").orTimeout(1, TimeUnit.SECONDS).join());
+            assertTrue(!product.isDone() && !customer.isDone());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void getGivesUpWhenTheBatchDoesNotComplete() {
+        CountDownLatch release = new CountDownLatch(1);
+        RequestCollapser<String> collapser = collapser("lost", Duration.ofMillis(5), 100, Duration.ofMillis(100),
+                ids -> {
+                    await(release);
+                    return echo(ids);
+                });
+        try {
+            long start = System.nanoTime();
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> collapser.get("a"));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertTrue(e.getCause() instanceof TimeoutException);
+            assertTrue(elapsedMs < 1_000, "get should give up after its timeout, took " + elapsedMs + "ms");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void zeroWindowSendsEachLookupOnTheCallingThread() {
+        Thread caller = Thread.currentThread();
+        List<Thread> loaderThreads = new ArrayList<>();
+        RequestCollapser<String> collapser = collapser(Duration.ZERO, 100, ids -> {
+            loaderThreads.add(Thread.currentThread());
+            return echo(ids);
+        });
+
+        collapser.get("a");
+        collapser.get("a");
+
+        assertEquals(2, bulkCalls.size());
+        assertEquals(List.of(caller, caller), loaderThreads);
+    }
+
+    @Test
+    void concurrentCallersAreCollapsedAndTheRatioIsReported() throws InterruptedException {
+        RequestCollapser<String> collapser = collapser(Duration.ofMillis(10), 100, this::echo);
+        int callers = 200;
+        ExecutorService clients = Executors.newFixedThreadPool(50);
+        CountDownLatch done = new CountDownLatch(callers);
+        for (int i = 0; i < callers; i++) {
+            String key = "key-" + (i % 40);
+            clients.execute(() -> {
+                assertEquals("value-" + key, collapser.get(key));
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        clients.shutdown();
+
+        double ratio = meterRegistry.get("collapser.ratio").tag("collapser", "test").gauge().value();
+        System.out.printf("requests: %d, bulk calls: %d, ratio: %.1f%n", callers, bulkCalls.size(), ratio);
+        assertEquals(callers, meterRegistry.get("collapser.requests").counter().count());
+        assertEquals(bulkCalls.size(), meterRegistry.get("collapser.batches").counter().count());
+        assertTrue(bulkCalls.size() <= callers / 10, "expected at least 10x fewer bulk calls, got " + bulkCalls.size());
+        assertEquals((double) callers / bulkCalls.size(), ratio);
+    }
+
+    private RequestCollapser<String> collapser(Duration window, int maxBatchSize,
+                                               Function<Set<String>, Map<String, String>> loader) {
+        return collapser("test", window, maxBatchSize, Duration.ofSeconds(5), loader);
+    }
+
+    private RequestCollapser<String> collapser(String name, Duration window, int maxBatchSize, Duration timeout,
+                                               Function<Set<String>, Map<String, String>> loader) {
+        return new RequestCollapser<>(name, ids -> {
+            bulkCalls.add(Set.copyOf(ids));
+            return loader.apply(ids);
+        }, id -> new IllegalArgumentException("not found: " + id), window, maxBatchSize, timeout, scheduler,
+                dispatcher, meterRegistry);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, String> echo(Set<String> ids) {
+        return ids.stream().collect(Collectors.toMap(Function.identity(), id -> "value-" + id));
+    }
+}
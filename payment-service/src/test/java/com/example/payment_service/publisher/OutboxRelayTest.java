@@ -0,0 +1,154 @@
+package com.example.payment_service.publisher;
+
+import com.example.payment_service.dto.inventoryDto.InventoryStockMessage;
+import com.example.payment_service.enums.OutboxStatus;
+import com.example.payment_service.model.OutboxMessage;
+import com.example.payment_service.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxMessageRepository outboxMessageRepository = mock(OutboxMessageRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxMessageRepository, mongoTemplate, rabbitTemplate, meterRegistry,
+                100, Duration.ofSeconds(1), Duration.ofSeconds(30), 3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void confirmedMessagesAreMarkedSentAndNackedOnesStayPending() {
+        OutboxMessage acked = message("acked");
+        OutboxMessage nacked = message("nacked");
+        when(mongoTemplate.find(any(Query.class), eq(OutboxMessage.class))).thenReturn(List.of(acked, nacked));
+        when(outboxMessageRepository.findByLockedBy(anyString())).thenReturn(List.of(acked, nacked));
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            boolean ack = "acked".equals(correlationData.getId());
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        int sent = outboxRelay.relayBatch();
+
+        assertEquals(1, sent);
+        ArgumentCaptor<List<OutboxMessage>> saved = ArgumentCaptor.forClass(List.class);
+        verify(outboxMessageRepository).saveAll(saved.capture());
+        assertEquals(List.of("acked"), saved.getValue().stream().map(OutboxMessage::getId).toList());
+        assertEquals(OutboxStatus.SENT, acked.getStatus());
+        assertEquals(OutboxStatus.PENDING, nacked.getStatus());
+        verify(mongoTemplate, times(1)).updateFirst(any(Query.class), any(Update.class), eq(OutboxMessage.class));
+        assertEquals(1.0, meterRegistry.counter("payment.outbox.published").count());
+        assertEquals(1.0, meterRegistry.counter("payment.outbox.failed").count());
+    }
+
+    @Test
+    void messageIsDeadLetteredOnceMaxAttemptsIsReached() {
+        OutboxMessage retried = message("retried");
+        OutboxMessage lastAttempt = message("last-attempt");
+        lastAttempt.setAttempts(2);
+        when(mongoTemplate.find(any(Query.class), eq(OutboxMessage.class))).thenReturn(List.of(retried, lastAttempt));
+        when(outboxMessageRepository.findByLockedBy(anyString())).thenReturn(List.of(retried, lastAttempt));
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        outboxRelay.relayBatch();
+
+        ArgumentCaptor<Query> filters = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateFirst(filters.capture(), updates.capture(), eq(OutboxMessage.class));
+        assertEquals("retried", filters.getAllValues().get(0).getQueryObject().get("_id"));
+        assertNull(setOf(updates.getAllValues().get(0)).get("status"));
+        assertEquals("last-attempt", filters.getAllValues().get(1).getQueryObject().get("_id"));
+        assertEquals(OutboxStatus.FAILED, setOf(updates.getAllValues().get(1)).get("status"));
+        assertEquals(1.0, meterRegistry.counter("payment.outbox.dead-lettered").count());
+    }
+
+    @Test
+    void claimQueryOnlyPicksPendingMessages() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxMessage.class))).thenReturn(List.of());
+
+        outboxRelay.relayBatch();
+
+        ArgumentCaptor<Query> candidates = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(candidates.capture(), eq(OutboxMessage.class));
+        assertEquals(OutboxStatus.PENDING, candidates.getValue().getQueryObject().get("status"));
+    }
+
+    @Test
+    void lagGaugeReportsTheOldestPendingMessage() {
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps(OutboxMessage.class)).thenReturn(indexOperations);
+        when(mongoTemplate.find(any(Query.class), eq(OutboxMessage.class))).thenReturn(List.of());
+        when(outboxMessageRepository.countByStatus(OutboxStatus.PENDING)).thenReturn(3L);
+        OutboxMessage oldest = message("oldest");
+        oldest.setCreatedAt(Instant.now().minusSeconds(42));
+        when(outboxMessageRepository.findFirstByStatusOrderByCreatedAtAsc(OutboxStatus.PENDING))
+                .thenReturn(Optional.of(oldest));
+
+        outboxRelay.flush();
+
+        verify(indexOperations, times(2)).ensureIndex(any());
+        assertEquals(3.0, meterRegistry.get("payment.outbox.pending").gauge().value());
+        assertEquals(42.0, meterRegistry.get("payment.outbox.lag").gauge().value(), 1.0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> setOf(Update update) {
+        return (Map<String, Object>) update.getUpdateObject().get("$set");
+    }
+
+    private static OutboxMessage message(String id) {
+        return OutboxMessage.builder()
+                .id(id)
+                .exchange("e_commerce_exchange")
+                .routingKey("e_commerce_routing_key")
+                .payload(InventoryStockMessage.builder().inventoryId("inv").quantity(1).build())
+                .status(OutboxStatus.PENDING)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
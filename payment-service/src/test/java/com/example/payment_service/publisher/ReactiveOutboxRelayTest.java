@@ -0,0 +1,101 @@
+package com.example.payment_service.publisher;
+
+import com.example.payment_service.config.ReactivePaymentProperties;
+import com.example.payment_service.dto.inventoryDto.InventoryStockMessage;
+import com.example.payment_service.enums.OutboxStatus;
+import com.example.payment_service.model.OutboxMessage;
+import com.example.payment_service.repository.ReactiveOutboxMessageRepository;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Publisher;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.CorrelableOutboundMessage;
+import reactor.rabbitmq.OutboundMessageResult;
+import reactor.rabbitmq.SendOptions;
+import reactor.rabbitmq.Sender;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveOutboxRelayTest {
+
+    private final ReactiveOutboxMessageRepository reactiveOutboxMessageRepository =
+            mock(ReactiveOutboxMessageRepository.class);
+    private final ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final Sender sender = mock(Sender.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReactiveOutboxRelay reactiveOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        reactiveOutboxRelay = new ReactiveOutboxRelay(reactiveOutboxMessageRepository, reactiveMongoTemplate, sender,
+                new Jackson2JsonMessageConverter(), meterRegistry, new ReactivePaymentProperties(),
+                100, 500, Duration.ofSeconds(1), Duration.ofSeconds(30), 3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nackedMessageIsDeadLetteredOnceMaxAttemptsIsReached() {
+        OutboxMessage retried = message("retried");
+        OutboxMessage lastAttempt = message("last-attempt");
+        lastAttempt.setAttempts(2);
+        when(reactiveMongoTemplate.find(any(Query.class), eq(OutboxMessage.class)))
+                .thenReturn(Flux.just(retried, lastAttempt));
+        when(reactiveMongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(OutboxMessage.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(2, 2L, null)));
+        when(reactiveMongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(OutboxMessage.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(reactiveOutboxMessageRepository.findByLockedBy(anyString())).thenReturn(Flux.just(retried, lastAttempt));
+        when(reactiveOutboxMessageRepository.saveAll(anyList())).thenReturn(Flux.empty());
+        when(sender.sendWithTypedPublishConfirms(any(Publisher.class), any(SendOptions.class)))
+                .thenAnswer(invocation -> Flux.from(invocation.<Publisher<CorrelableOutboundMessage<OutboxMessage>>>getArgument(0))
+                        .map(outbound -> new OutboundMessageResult<>(outbound, false, false)));
+
+        assertEquals(0, reactiveOutboxRelay.relayBatch().block());
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(reactiveMongoTemplate, times(2)).updateFirst(any(Query.class), updates.capture(), eq(OutboxMessage.class));
+        assertNull(setOf(updates.getAllValues().get(0)).get("status"));
+        assertEquals(OutboxStatus.FAILED, setOf(updates.getAllValues().get(1)).get("status"));
+        assertEquals(2.0, meterRegistry.counter("payment.outbox.failed").count());
+        assertEquals(1.0, meterRegistry.counter("payment.outbox.dead-lettered").count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> setOf(Update update) {
+        return (Map<String, Object>) update.getUpdateObject().get("$set");
+    }
+
+    private static OutboxMessage message(String id) {
+        return OutboxMessage.builder()
+                .id(id)
+                .exchange("e_commerce_exchange")
+                .routingKey("e_commerce_routing_key")
+                .payload(InventoryStockMessage.builder().inventoryId("inv").quantity(1).build())
+                .status(OutboxStatus.PENDING)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
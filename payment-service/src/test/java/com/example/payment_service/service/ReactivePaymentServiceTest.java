@@ -0,0 +1,189 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.cache.TwoLevelCacheManager;
+import com.example.payment_service.config.ReactivePaymentProperties;
+import com.example.payment_service.dto.orderDto.OrderResponseDto;
+import com.example.payment_service.dto.paymentDto.PaymentRequestDto;
+import com.example.payment_service.enums.OutboxStatus;
+import com.example.payment_service.enums.PaymentType;
+import com.example.payment_service.exception.InsufficientStockException;
+import com.example.payment_service.exception.OrderNotFoundException;
+import com.example.payment_service.external.CargoReactiveClient;
+import com.example.payment_service.external.CustomerReactiveClient;
+import com.example.payment_service.external.InventoryReactiveClient;
+import com.example.payment_service.external.OrderReactiveClient;
+import com.example.payment_service.mapper.PaymentMapper;
+import com.example.payment_service.model.Customer;
+import com.example.payment_service.model.Inventory;
+import com.example.payment_service.model.OutboxMessage;
+import com.example.payment_service.model.Payment;
+import com.example.payment_service.publisher.PaymentMessageSender;
+import com.example.payment_service.repository.OutboxMessageRepository;
+import com.example.payment_service.repository.ReactiveOutboxMessageRepository;
+import com.example.payment_service.repository.ReactivePaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactivePaymentServiceTest {
+
+    private final ReactivePaymentRepository reactivePaymentRepository = mock(ReactivePaymentRepository.class);
+    private final ReactiveOutboxMessageRepository reactiveOutboxMessageRepository = mock(ReactiveOutboxMessageRepository.class);
+    private final OrderReactiveClient orderReactiveClient = mock(OrderReactiveClient.class);
+    private final InventoryReactiveClient inventoryReactiveClient = mock(InventoryReactiveClient.class);
+    private final CustomerReactiveClient customerReactiveClient = mock(CustomerReactiveClient.class);
+    private final CargoReactiveClient cargoReactiveClient = mock(CargoReactiveClient.class);
+    private final TwoLevelCacheManager cacheManager = mock(TwoLevelCacheManager.class);
+    private final ReactiveTransactionManager transactionManager = mock(ReactiveTransactionManager.class);
+    private final ReactivePaymentProperties properties = new ReactivePaymentProperties();
+
+    private ReactivePaymentService reactivePaymentService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectProvider<TransactionalOperator> transactionalOperator = new StaticListableBeanFactory(Map.of(
+                "reactiveTransactionalOperator", TransactionalOperator.create(transactionManager)))
+                .getBeanProvider(TransactionalOperator.class);
+        reactivePaymentService = new ReactivePaymentService(reactivePaymentRepository, reactiveOutboxMessageRepository,
+                orderReactiveClient, inventoryReactiveClient, customerReactiveClient, cargoReactiveClient,
+                new PaymentMapper(), new PaymentMessageSender(mock(OutboxMessageRepository.class)), cacheManager,
+                properties, transactionalOperator);
+
+        when(transactionManager.getReactiveTransaction(any())).thenReturn(Mono.just(mock(ReactiveTransaction.class)));
+        when(transactionManager.commit(any())).thenReturn(Mono.empty());
+        when(transactionManager.rollback(any())).thenReturn(Mono.empty());
+
+        when(orderReactiveClient.getOrderById("order")).thenReturn(Mono.just(OrderResponseDto.builder()
+                .id("order").inventoryId("inventory").quantity(2).totalAmount(40.0).build()));
+        when(inventoryReactiveClient.getInventoryById("inventory")).thenReturn(Mono.just(Inventory.builder()
+                .id("inventory").productId("product").stockQuantity(10).build()));
+        when(customerReactiveClient.getCustomerById("customer")).thenReturn(Mono.just(Customer.builder()
+                .id("customer").build()));
+        when(reactivePaymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            Payment payment = invocation.getArgument(0);
+            payment.setId(UUID.randomUUID().toString());
+            return Mono.just(payment);
+        });
+        when(reactiveOutboxMessageRepository.save(any(OutboxMessage.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    @Test
+    void paymentIsSavedWithItsOutboxMessage() {
+        when(cargoReactiveClient.updateCargo(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactivePaymentService.processPayment(request()))
+                .assertNext(payment -> {
+                    assertEquals(2, payment.getQuantity());
+                    assertEquals(40.0, payment.getAmount());
+                    assertEquals("customer", payment.getCustomer().getId());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<OutboxMessage> outbox = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(reactiveOutboxMessageRepository).save(outbox.capture());
+        assertEquals(OutboxStatus.PENDING, outbox.getValue().getStatus());
+        verify(cacheManager).evictTags(eq("payments"), any());
+        // Paiement et message sont validés ensemble, avant la mise à jour du cargo.
+        InOrder order = inOrder(reactiveOutboxMessageRepository, transactionManager, cargoReactiveClient);
+        order.verify(reactiveOutboxMessageRepository).save(any());
+        order.verify(transactionManager).commit(any());
+        order.verify(cargoReactiveClient).updateCargo(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void outboxFailureRollsBackThePayment() {
+        when(reactiveOutboxMessageRepository.save(any(OutboxMessage.class)))
+                .thenReturn(Mono.error(new IllegalStateException("mongo down")));
+
+        StepVerifier.create(reactivePaymentService.processPayment(request()))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(reactivePaymentRepository).save(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(cargoReactiveClient, never()).updateCargo(any());
+    }
+
+    @Test
+    void timeoutDuringTheWritesRollsBackThePayment() {
+        properties.setTimeout(Duration.ofMillis(100));
+        when(reactiveOutboxMessageRepository.save(any(OutboxMessage.class))).thenReturn(Mono.never());
+
+        StepVerifier.create(reactivePaymentService.processPayment(request()))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void cargoFailureDoesNotFailThePayment() {
+        when(cargoReactiveClient.updateCargo(any())).thenReturn(Mono.error(new IllegalStateException("cargo down")));
+
+        StepVerifier.create(reactivePaymentService.processPayment(request()))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void insufficientStockFailsBeforeAnythingIsWritten() {
+        when(inventoryReactiveClient.getInventoryById("inventory")).thenReturn(Mono.just(Inventory.builder()
+                .id("inventory").stockQuantity(1).build()));
+
+        StepVerifier.create(reactivePaymentService.processPayment(request()))
+                .expectError(InsufficientStockException.class)
+                .verify();
+
+        verify(reactivePaymentRepository, never()).save(any());
+        verify(reactiveOutboxMessageRepository, never()).save(any());
+    }
+
+    @Test
+    void unknownOrderIsMappedToOrderNotFound() {
+        when(orderReactiveClient.getOrderById(anyString())).thenReturn(Mono.error(WebClientResponseException.create(
+                HttpStatus.NOT_FOUND.value(), "Not Found", HttpHeaders.EMPTY, new byte[0], null)));
+
+        StepVerifier.create(reactivePaymentService.processPayment(request()))
+                .expectError(OrderNotFoundException.class)
+                .verify();
+    }
+
+    private static PaymentRequestDto request() {
+        return PaymentRequestDto.builder()
+                .orderId("order")
+                .customerId("customer")
+                .cargoId("cargo")
+                .paymentType(PaymentType.CREDIT_CARD)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.product_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the entries of one Redis cache with a single MGET, using the key prefix and
+ * serializer of {@code RedisCacheManager} so it sees the values written through the cache.
+ */
+@Slf4j
+public class RedisRemoteCacheReader implements RemoteCacheReader {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final String keyPrefix;
+
+    public RedisRemoteCacheReader(RedisTemplate<String, Object> redisTemplate, String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public List<Object> getAll(List<String> keys) {
+        List<String> redisKeys = new ArrayList<>(keys.size());
+        keys.forEach(key -> redisKeys.add(keyPrefix + key));
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(redisKeys);
+            if (values != null) {
+                return values;
+            }
+        } catch (RuntimeException e) {
+            // Redis indisponible : les clés sont traitées comme absentes et rechargées depuis la base.
+            log.warn("RedisRemoteCacheReader::getAll - read of {} keys failed: {}", keys.size(), e.getMessage());
+        }
+        return Collections.nCopies(keys.size(), null);
+    }
+}
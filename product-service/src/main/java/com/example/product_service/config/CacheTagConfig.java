@@ -0,0 +1,36 @@
+package com.example.product_service.config;
+
+import com.example.product_service.cache.CacheTagResolver;
+import com.example.product_service.cache.CacheTagResolvers;
+import com.example.product_service.dto.productDto.ProductResponseDto;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Tags used by the product caches:
+ * product:{id} on every entry containing the product, all on the full list,
+ * category:{CATEGORY}, quantity:{n}, quantity-range and price on the lists a write can add a product to.
+ */
+@Configuration
+public class CacheTagConfig {
+
+    @Bean
+    public CacheTagResolvers cacheTagResolvers() {
+        return new CacheTagResolvers()
+                .register("products", productTags(key -> "all".equals(key) ? List.of("all") : List.of()))
+                .register("productsByPriceRange", productTags(key -> List.of("price")))
+                .register("productsByPrice", productTags(key -> List.of("price")))
+                .register("productsByQuantity", productTags(key -> key instanceof Integer
+                        ? List.of("quantity:" + key) : List.of("quantity-range")))
+                .register("productsByCategory", productTags(key -> List.of("category:" + key.toString().toUpperCase(Locale.ROOT))));
+    }
+
+    private static CacheTagResolver productTags(Function<Object, Collection<String>> listTags) {
+        return CacheTagResolver.forEntity(ProductResponseDto.class, product -> List.of("product:" + product.getId()), listTags);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.product_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "feign-transport")
+public class FeignTransportProperties {
+
+    // Durée maximale pendant laquelle une connexion inactive reste dans le pool (sous le keep-alive de Tomcat, 60 s).
+    private Duration keepAlive = Duration.ofSeconds(30);
+}
@@ -0,0 +1,52 @@
+package com.example.product_service.config;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Value("${rabbit.mq.exchange.name}")
+    private String exchange;
+
+    @Value("${rabbit.mq.stock.changed.queue.name}")
+    private String stockChangedQueue;
+
+    @Value("${rabbit.mq.stock.changed.routing.key}")
+    private String stockChangedRoutingKey;
+
+
+    @Bean
+    public Queue stockChangedQueue() {
+        return new Queue(stockChangedQueue);
+    }
+
+
+    @Bean
+    public TopicExchange exchange() {
+        return new TopicExchange(exchange);
+    }
+
+
+    @Bean
+    public Binding stockChangedBinding() {
+        return BindingBuilder
+                .bind(stockChangedQueue())
+                .to(exchange())
+                .with(stockChangedRoutingKey);
+    }
+
+
+    @Bean
+    public MessageConverter converter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+}
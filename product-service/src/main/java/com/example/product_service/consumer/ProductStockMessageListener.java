@@ -0,0 +1,30 @@
+package com.example.product_service.consumer;
+
+import com.example.product_service.dto.inventoryDto.InventoryStockChangedMessage;
+import com.example.product_service.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStockMessageListener {
+
+    private final ProductService productService;
+
+
+    @RabbitListener(queues = {"${rabbit.mq.stock.changed.queue.name}"})
+    public void receiveStockChangedMessage(InventoryStockChangedMessage message) {
+        log.info("RECEIVED STOCK MESSAGE -> {}", message);
+        try {
+            productService.syncStockQuantity(message);
+        } catch (Exception e) {
+            log.error("Error processing stock message", e);
+            throw new AmqpRejectAndDontRequeueException("Error processing stock message", e);
+        }
+    }
+
+}
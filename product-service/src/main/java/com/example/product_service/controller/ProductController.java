@@ -1,13 +1,19 @@
 package com.example.product_service.controller;
 
+import com.example.product_service.dto.CursorPageDto;
 import com.example.product_service.dto.inventoryDto.InventoryRequestDto;
 import com.example.product_service.dto.inventoryDto.InventoryUpdateRequestDto;
 import com.example.product_service.dto.productDto.ProductReqDto;
 import com.example.product_service.dto.productDto.ProductRequestDto;
 import com.example.product_service.dto.productDto.ProductResponseDto;
+import com.example.product_service.dto.productDto.ProductSearchResponseDto;
 import com.example.product_service.dto.productDto.ProductUpdateRequestDto;
 import com.example.product_service.enums.Category;
+import com.example.product_service.search.ProductSearchQuery;
+import com.example.product_service.search.ProductSearchService;
+import com.example.product_service.search.ProductSearchSort;
 import com.example.product_service.service.ProductService;
+import com.example.product_service.util.NdjsonStreamWriter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.Request;
@@ -15,7 +21,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
-import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,10 +29,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.naming.ServiceUnavailableException;
+import java.util.HashSet;
 import java.util.List;
 
 @RestController
@@ -38,6 +46,10 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+
+    private final ProductSearchService productSearchService;
+
+    private final NdjsonStreamWriter ndjsonStreamWriter;
     private final ObjectMapper objectMapper;
 
     @Operation(summary = "Créer un nouveau produit", description = "Crée un nouveau produit avec les détails fournis")
@@ -86,6 +98,50 @@ public class ProductController {
         List<ProductResponseDto> productsAll = productService.getProductsAll();
         return ResponseEntity.ok(productsAll);
     }
+
+    @GetMapping(value = "/all", params = "limit")
+    @Operation(summary = "Get a page of products", description = "Retrieves products ordered by ID, starting after the given cursor.")
+    @ApiResponse(responseCode = "200", description = "Page retrieved successfully")
+    public ResponseEntity<CursorPageDto<ProductResponseDto>> getProductsPage(
+            @RequestParam(required = false) @Parameter(description = "ID of the last item of the previous page") String after,
+            @RequestParam @Parameter(description = "Maximum number of items to return (1-1000)") int limit) {
+        return ResponseEntity.ok(productService.getProductsPage(after, limit));
+    }
+
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all products", description = "Streams every entry as newline-delimited JSON, ordered by ID.")
+    @ApiResponse(responseCode = "200", description = "Stream started successfully")
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamWriter.write(productService::streamAllProducts));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products", description = "Filters products by category, price and stock from the in-memory search index.")
+    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+    public ResponseEntity<ProductSearchResponseDto> searchProducts(
+            @RequestParam(required = false) @Parameter(description = "Categories to include (any of)") List<Category> category,
+            @RequestParam(required = false) @Parameter(description = "Minimum price") Double minPrice,
+            @RequestParam(required = false) @Parameter(description = "Maximum price") Double maxPrice,
+            @RequestParam(required = false) @Parameter(description = "Minimum stock quantity") Integer minStock,
+            @RequestParam(required = false) @Parameter(description = "Maximum stock quantity") Integer maxStock,
+            @RequestParam(defaultValue = "PRICE_ASC") @Parameter(description = "Sort order") ProductSearchSort sort,
+            @RequestParam(defaultValue = "0") @Parameter(description = "Number of products to skip (0-10000)") int offset,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Maximum number of products to return (1-100)") int limit) {
+        ProductSearchQuery query = ProductSearchQuery.builder()
+                .categories(category == null ? null : new HashSet<>(category))
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minStock(minStock)
+                .maxStock(maxStock)
+                .sort(sort)
+                .offset(offset)
+                .limit(limit)
+                .build();
+        return ResponseEntity.ok(productSearchService.search(query));
+    }
+
     @PutMapping
     @Operation(summary = "Update product by ID", description = "Updates a product's details by its ID.")
     public ResponseEntity<ProductResponseDto> updateProductById(HttpEntity<String> httpEntity) {
@@ -134,6 +190,15 @@ public class ProductController {
         return ResponseEntity.ok(productNamesByPriceGreaterThan);
     }
 
+    @PostMapping("/byIds")
+    @Operation(summary = "Get products by IDs", description = "Retrieves up to " + ProductService.MAX_IDS + " products in one call; unknown IDs are left out.")
+    @ApiResponse(responseCode = "200", description = "Product entries found, in the order of the requested IDs")
+    @ApiResponse(responseCode = "400", description = "Too many IDs requested")
+    public ResponseEntity<List<ProductResponseDto>> getProductsByIds(
+            @RequestBody @Parameter(description = "IDs of the products to retrieve") List<String> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a product by ID", description = "Retrieves a product by its ID.")
     @ApiResponses(value = {
@@ -173,6 +238,25 @@ public class ProductController {
         return ResponseEntity.ok(productNamesByQuantity);
     }
 
+    @GetMapping("/productByQuantityLessThanEqual")
+    @Operation(summary = "Get products by maximum quantity", description = "Retrieves products whose stock is less than or equal to the specified quantity.")
+    @ApiResponse(responseCode = "200", description = "Successful operation",
+            content = @Content(schema = @Schema(implementation = ProductResponseDto.class)))
+    public ResponseEntity<List<ProductResponseDto>> getProductByQuantityLessThanEqual(
+            @Parameter(description = "Maximum stock quantity") @RequestParam("quantity") int quantity) {
+        return ResponseEntity.ok(productService.getProductByQuantityLessThanEqual(quantity));
+    }
+
+    @GetMapping("/productByQuantityRange")
+    @Operation(summary = "Get products by quantity range", description = "Retrieves products whose stock is within the specified range.")
+    @ApiResponse(responseCode = "200", description = "Successful operation",
+            content = @Content(schema = @Schema(implementation = ProductResponseDto.class)))
+    public ResponseEntity<List<ProductResponseDto>> getProductByQuantityRange(
+            @Parameter(description = "Minimum stock quantity") @RequestParam("minQuantity") int minQuantity,
+            @Parameter(description = "Maximum stock quantity") @RequestParam("maxQuantity") int maxQuantity) {
+        return ResponseEntity.ok(productService.getProductByQuantityRange(minQuantity, maxQuantity));
+    }
+
 
 
 
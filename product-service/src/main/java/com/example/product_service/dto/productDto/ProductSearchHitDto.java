@@ -0,0 +1,36 @@
+package com.example.product_service.dto.productDto;
+
+import com.example.product_service.enums.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Product returned by the search index")
+public class ProductSearchHitDto implements Serializable {
+
+    @Schema(description = "Unique identifier of the product", example = "prod789")
+    private String id;
+
+    @Schema(description = "Unique identifier of the associated inventory", example = "inv123")
+    private String inventoryId;
+
+    @Schema(description = "Name of the product", example = "Laptop")
+    private String name;
+
+    @Schema(description = "Category of the product", example = "ELECTRONIQUE")
+    private Category category;
+
+    @Schema(description = "Price of the product", example = "999.99")
+    private double price;
+
+    @Schema(description = "Available stock of the product", example = "42")
+    private int stockQuantity;
+}
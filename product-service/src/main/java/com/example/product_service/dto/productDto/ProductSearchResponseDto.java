@@ -0,0 +1,30 @@
+package com.example.product_service.dto.productDto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Page of product search results")
+public class ProductSearchResponseDto implements Serializable {
+
+    @Schema(description = "Products of the requested page")
+    private List<ProductSearchHitDto> items;
+
+    @Schema(description = "Number of products matching the filters", example = "1250")
+    private int total;
+
+    @Schema(description = "Position of the first returned product", example = "0")
+    private int offset;
+
+    @Schema(description = "Maximum number of products per page", example = "20")
+    private int limit;
+}
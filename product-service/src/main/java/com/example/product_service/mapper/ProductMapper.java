@@ -29,6 +29,11 @@ public class ProductMapper {
     }
 
     public ProductResponseDto mapToProductResponseDto(Product product) {
+        InventoryResponseDto inventoryResponseDto = mapToInventoryResponseDto(product.getInventory());
+        // La colonne stock_quantity suit les messages de l'inventaire, pas la copie sérialisée.
+        if (product.getStockQuantity() != null) {
+            inventoryResponseDto.setStockQuantity(product.getStockQuantity());
+        }
         return ProductResponseDto.builder()
                 .id(product.getId())
                 .name(product.getName())
@@ -37,7 +42,7 @@ public class ProductMapper {
                 .price(product.getPrice())
                 .inventoryId(product.getInventoryId())
                 .createdDate(LocalDateTime.now())
-                .inventoryResponseDto(mapToInventoryResponseDto(product.getInventory()))
+                .inventoryResponseDto(inventoryResponseDto)
                 .build();
     }
 
@@ -12,7 +12,7 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_stock_quantity", columnList = "stock_quantity"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,4 +39,17 @@ public class Product implements Serializable {
 
     private Inventory inventory;
 
+    // Copie interrogeable du stock : la colonne sérialisée "inventory" ne peut pas être filtrée en SQL.
+    @Column(name = "stock_quantity")
+    private Integer stockQuantity;
+
+    // Version de l'inventaire déjà appliquée, pour ignorer les messages arrivés dans le désordre.
+    private Long stockVersion;
+
+    @PrePersist
+    void initStockQuantity() {
+        if (stockQuantity == null && inventory != null) {
+            stockQuantity = inventory.getStockQuantity();
+        }
+    }
 }
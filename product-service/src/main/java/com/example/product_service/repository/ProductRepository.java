@@ -2,14 +2,30 @@ package com.example.product_service.repository;
 import org.springframework.data.domain.Sort;
 import com.example.product_service.enums.Category;
 import com.example.product_service.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, String> {
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Curseur côté serveur (useCursorFetch=true) : les lignes sont lues par blocs au lieu de charger toute la table.
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Product> streamAllByOrderByIdAsc();
+
     Optional<Product> findByInventoryId(String inventoryId);
 
     List<Product> findByCategory(Category category);
@@ -18,4 +34,18 @@ public interface ProductRepository extends JpaRepository<Product, String> {
 
     List<Product> findByPriceLessThanEqual(Double price,Sort sort);
 
+    List<Product> findByStockQuantity(Integer stockQuantity);
+
+    List<Product> findByStockQuantityLessThanEqual(Integer stockQuantity, Sort sort);
+
+    List<Product> findByStockQuantityBetween(Integer minQuantity, Integer maxQuantity, Sort sort);
+
+    // 0 ligne modifiée : produit inconnu ou message plus ancien que la version déjà appliquée.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = :stockQuantity, p.stockVersion = :version " +
+            "WHERE p.id = :id AND (p.stockVersion IS NULL OR p.stockVersion < :version)")
+    int updateStockQuantity(@Param("id") String id, @Param("stockQuantity") int stockQuantity,
+                            @Param("version") long version);
+
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.product_service.search;
+
+import com.example.product_service.enums.Category;
+import com.example.product_service.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Snapshot of the product fields held by the search index.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class ProductDocument {
+
+    private final String id;
+    private final String name;
+    private final String inventoryId;
+    private final Category category;
+    private final double price;
+    private final int stockQuantity;
+
+    public static ProductDocument from(Product product) {
+        int stockQuantity = product.getStockQuantity() != null ? product.getStockQuantity()
+                : product.getInventory() != null ? product.getInventory().getStockQuantity() : 0;
+        return new ProductDocument(product.getId(), product.getName(), product.getInventoryId(),
+                product.getCategory(), product.getPrice(), stockQuantity);
+    }
+}
@@ -0,0 +1,527 @@
+package com.example.product_service.search;
+
+import com.example.product_service.dto.productDto.ProductSearchHitDto;
+import com.example.product_service.dto.productDto.ProductSearchResponseDto;
+import com.example.product_service.enums.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented, in-memory index of the catalog used by the product search.
+ * Every product gets a document number and its fields live in primitive arrays at that position.
+ * Categories and stock buckets are bitmaps over document numbers, and an array of document numbers
+ * sorted by price answers price ranges with two binary searches.
+ * <p>
+ * Searches share a read lock. Writes are exclusive and cost at most one shift of the price array.
+ */
+public class ProductSearchIndex {
+
+    // Bornes inférieures des tranches de stock : <= 0, 1-9, 10-99, 100-999, 1000-9999, 10000 et plus.
+    private static final int[] STOCK_BUCKETS = {Integer.MIN_VALUE, 1, 10, 100, 1_000, 10_000};
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    // Aucun filtre de catégorie : les produits sans catégorie sont inclus.
+    private static final int ALL_CATEGORIES = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> docById = new HashMap<>();
+
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] inventoryIds = new String[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private int[] stocks = new int[INITIAL_CAPACITY];
+    private byte[] categories = new byte[INITIAL_CAPACITY];
+    private int docCount;
+
+    // Numéros de documents libérés par les suppressions, réutilisés avant d'agrandir les tableaux.
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+
+    private final BitSet live = new BitSet();
+    private final BitSet[] categoryBitmaps = new BitSet[CATEGORIES.length];
+    private final BitSet[] stockBitmaps = new BitSet[STOCK_BUCKETS.length];
+
+    private int[] docsByPrice = new int[INITIAL_CAPACITY];
+    private int sortedCount;
+
+    public ProductSearchIndex() {
+        Arrays.setAll(categoryBitmaps, i -> new BitSet());
+        Arrays.setAll(stockBitmaps, i -> new BitSet());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(ProductDocument document) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docById.get(document.getId());
+            if (existing == null) {
+                int doc = allocate();
+                docById.put(document.getId(), doc);
+                store(doc, document);
+                live.set(doc);
+                setBitmaps(doc);
+                insertIntoPriceOrder(doc);
+                return;
+            }
+            int doc = existing;
+            boolean priceChanged = Double.compare(prices[doc], document.getPrice()) != 0;
+            if (priceChanged) {
+                removeFromPriceOrder(doc);
+            }
+            clearBitmaps(doc);
+            store(doc, document);
+            setBitmaps(doc);
+            if (priceChanged) {
+                insertIntoPriceOrder(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(String productId, int stockQuantity) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docById.get(productId);
+            if (doc == null) {
+                return;
+            }
+            stockBitmaps[stockBucket(stocks[doc])].clear(doc);
+            stocks[doc] = stockQuantity;
+            stockBitmaps[stockBucket(stockQuantity)].set(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docById.remove(productId);
+            if (doc == null) {
+                return;
+            }
+            removeFromPriceOrder(doc);
+            clearBitmaps(doc);
+            live.clear(doc);
+            ids[doc] = null;
+            names[doc] = null;
+            inventoryIds[doc] = null;
+            if (freeCount == freeDocs.length) {
+                freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+            }
+            freeDocs[freeCount++] = doc;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductSearchResponseDto search(ProductSearchQuery query) {
+        int limit = Math.max(1, Math.min(query.getLimit(), ProductSearchQuery.MAX_LIMIT));
+        int offset = Math.max(0, Math.min(query.getOffset(), ProductSearchQuery.MAX_OFFSET));
+        ProductSearchSort sort = query.getSort() == null ? ProductSearchSort.PRICE_ASC : query.getSort();
+        double minPrice = query.getMinPrice() == null ? Double.NEGATIVE_INFINITY : query.getMinPrice();
+        double maxPrice = query.getMaxPrice() == null ? Double.POSITIVE_INFINITY : query.getMaxPrice();
+        int minStock = query.getMinStock() == null ? Integer.MIN_VALUE : query.getMinStock();
+        int maxStock = query.getMaxStock() == null ? Integer.MAX_VALUE : query.getMaxStock();
+
+        lock.readLock().lock();
+        try {
+            TopDocs topDocs = new TopDocs(sort, offset + limit);
+            if (minPrice > maxPrice || minStock > maxStock) {
+                return response(topDocs, offset, limit);
+            }
+            int categoryMask = categoryMask(query.getCategories());
+            int from = lowerBound(minPrice);
+            int to = upperBound(maxPrice);
+
+            // On parcourt le plus petit des deux ensembles : la tranche de prix ou les candidats des bitmaps.
+            // Une tranche étroite se parcourt directement, sans construire les bitmaps.
+            BitSet candidates = null;
+            if (to - from > docCount >>> 4) {
+                candidates = candidates(query.getCategories(), minStock, maxStock);
+                if (candidates.cardinality() >= to - from) {
+                    candidates = null;
+                }
+            }
+            if (candidates == null) {
+                if (sort.byPrice()) {
+                    return scanPriceOrder(from, to, categoryMask, minStock, maxStock, sort, offset, limit);
+                }
+                for (int position = from; position < to; position++) {
+                    int doc = docsByPrice[position];
+                    if (matches(doc, categoryMask, minStock, maxStock)) {
+                        topDocs.offer(doc);
+                    }
+                }
+            } else {
+                for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                    double price = prices[doc];
+                    if (price >= minPrice && price <= maxPrice && stocks[doc] >= minStock && stocks[doc] <= maxStock) {
+                        topDocs.offer(doc);
+                    }
+                }
+            }
+            return response(topDocs, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // La tranche est déjà triée par prix : la page se remplit au fil du parcours, sans tri.
+    private ProductSearchResponseDto scanPriceOrder(int from, int to, int categoryMask, int minStock, int maxStock,
+                                                    ProductSearchSort sort, int offset, int limit) {
+        List<ProductSearchHitDto> items = new ArrayList<>(limit);
+        int total = 0;
+        for (int i = from; i < to; i++) {
+            int doc = docsByPrice[sort.descending() ? to - 1 - (i - from) : i];
+            if (!matches(doc, categoryMask, minStock, maxStock)) {
+                continue;
+            }
+            if (total >= offset && items.size() < limit) {
+                items.add(hit(doc));
+            }
+            total++;
+        }
+        return new ProductSearchResponseDto(items, total, offset, limit);
+    }
+
+    private ProductSearchResponseDto response(TopDocs topDocs, int offset, int limit) {
+        int[] docs = topDocs.sorted();
+        List<ProductSearchHitDto> items = new ArrayList<>(Math.min(limit, Math.max(0, docs.length - offset)));
+        for (int i = offset; i < docs.length; i++) {
+            items.add(hit(docs[i]));
+        }
+        return new ProductSearchResponseDto(items, topDocs.total, offset, limit);
+    }
+
+    private boolean matches(int doc, int categoryMask, int minStock, int maxStock) {
+        return (categoryMask == ALL_CATEGORIES || (categories[doc] >= 0 && (categoryMask & 1 << categories[doc]) != 0))
+                && stocks[doc] >= minStock && stocks[doc] <= maxStock;
+    }
+
+    private static int categoryMask(Set<Category> categoryFilter) {
+        if (categoryFilter == null || categoryFilter.isEmpty()) {
+            return ALL_CATEGORIES;
+        }
+        int mask = 0;
+        for (Category category : categoryFilter) {
+            mask |= 1 << category.ordinal();
+        }
+        return mask;
+    }
+
+    private BitSet candidates(Set<Category> categoryFilter, int minStock, int maxStock) {
+        BitSet result;
+        if (categoryFilter == null || categoryFilter.isEmpty()) {
+            result = (BitSet) live.clone();
+        } else {
+            result = new BitSet(docCount);
+            for (Category category : categoryFilter) {
+                result.or(categoryBitmaps[category.ordinal()]);
+            }
+        }
+        if (minStock != Integer.MIN_VALUE || maxStock != Integer.MAX_VALUE) {
+            BitSet stockFilter = new BitSet(docCount);
+            for (int bucket = stockBucket(minStock); bucket <= stockBucket(maxStock); bucket++) {
+                stockFilter.or(stockBitmaps[bucket]);
+            }
+            result.and(stockFilter);
+        }
+        return result;
+    }
+
+    private ProductSearchHitDto hit(int doc) {
+        return ProductSearchHitDto.builder()
+                .id(ids[doc])
+                .inventoryId(inventoryIds[doc])
+                .name(names[doc])
+                .category(categories[doc] < 0 ? null : CATEGORIES[categories[doc]])
+                .price(prices[doc])
+                .stockQuantity(stocks[doc])
+                .build();
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (docCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            inventoryIds = Arrays.copyOf(inventoryIds, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            stocks = Arrays.copyOf(stocks, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            docsByPrice = Arrays.copyOf(docsByPrice, capacity);
+        }
+        return docCount++;
+    }
+
+    private void store(int doc, ProductDocument document) {
+        ids[doc] = document.getId();
+        names[doc] = document.getName();
+        inventoryIds[doc] = document.getInventoryId();
+        prices[doc] = document.getPrice();
+        stocks[doc] = document.getStockQuantity();
+        categories[doc] = document.getCategory() == null ? -1 : (byte) document.getCategory().ordinal();
+    }
+
+    private void setBitmaps(int doc) {
+        if (categories[doc] >= 0) {
+            categoryBitmaps[categories[doc]].set(doc);
+        }
+        stockBitmaps[stockBucket(stocks[doc])].set(doc);
+    }
+
+    private void clearBitmaps(int doc) {
+        if (categories[doc] >= 0) {
+            categoryBitmaps[categories[doc]].clear(doc);
+        }
+        stockBitmaps[stockBucket(stocks[doc])].clear(doc);
+    }
+
+    private void insertIntoPriceOrder(int doc) {
+        int position = pricePosition(doc);
+        System.arraycopy(docsByPrice, position, docsByPrice, position + 1, sortedCount - position);
+        docsByPrice[position] = doc;
+        sortedCount++;
+    }
+
+    private void removeFromPriceOrder(int doc) {
+        int position = pricePosition(doc);
+        System.arraycopy(docsByPrice, position + 1, docsByPrice, position, sortedCount - position - 1);
+        sortedCount--;
+    }
+
+    // Position de doc dans l'ordre (prix, numéro de document).
+    private int pricePosition(int doc) {
+        int low = 0;
+        int high = sortedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int other = docsByPrice[mid];
+            int comparison = Double.compare(prices[other], prices[doc]);
+            if (comparison < 0 || (comparison == 0 && other < doc)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Première position dont le prix est >= price.
+    private int lowerBound(double price) {
+        int low = 0;
+        int high = sortedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[docsByPrice[mid]] < price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Première position dont le prix est > price.
+    private int upperBound(double price) {
+        int low = 0;
+        int high = sortedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[docsByPrice[mid]] <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Tri initial en une passe : clé = (rang du prix << 32) | numéro de document, triée en primitifs.
+    private void sortByPrice() {
+        double[] sortedPrices = new double[live.cardinality()];
+        int count = 0;
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            sortedPrices[count++] = prices[doc];
+        }
+        Arrays.sort(sortedPrices);
+        long[] keys = new long[count];
+        int i = 0;
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            keys[i++] = ((long) firstIndexOf(sortedPrices, prices[doc]) << 32) | doc;
+        }
+        Arrays.sort(keys);
+        for (i = 0; i < count; i++) {
+            docsByPrice[i] = (int) keys[i];
+        }
+        sortedCount = count;
+    }
+
+    private static int firstIndexOf(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int stockBucket(int stockQuantity) {
+        int bucket = STOCK_BUCKETS.length - 1;
+        while (stockQuantity < STOCK_BUCKETS[bucket]) {
+            bucket--;
+        }
+        return bucket;
+    }
+
+    /**
+     * Bulk loader used for the rebuild: documents are appended and the price order is sorted once.
+     */
+    public static final class Builder {
+
+        private final ProductSearchIndex index = new ProductSearchIndex();
+
+        private Builder() {
+        }
+
+        public Builder add(ProductDocument document) {
+            Integer existing = index.docById.get(document.getId());
+            int doc;
+            if (existing == null) {
+                doc = index.allocate();
+                index.docById.put(document.getId(), doc);
+            } else {
+                doc = existing;
+                index.clearBitmaps(doc);
+            }
+            index.store(doc, document);
+            index.live.set(doc);
+            index.setBitmaps(doc);
+            return this;
+        }
+
+        public ProductSearchIndex build() {
+            index.sortByPrice();
+            return index;
+        }
+    }
+
+    /**
+     * Keeps the first {@code capacity} documents in result order, in a max-heap whose root is the
+     * last document kept; counts every offered document.
+     */
+    private final class TopDocs {
+
+        private final ProductSearchSort sort;
+
+        private final int[] heap;
+
+        private int size;
+
+        private int total;
+
+        private TopDocs(ProductSearchSort sort, int capacity) {
+            this.sort = sort;
+            this.heap = new int[capacity];
+        }
+
+        private void offer(int doc) {
+            total++;
+            if (size < heap.length) {
+                heap[size] = doc;
+                siftUp(size++);
+            } else if (compare(doc, heap[0]) < 0) {
+                heap[0] = doc;
+                siftDown(0, size);
+            }
+        }
+
+        private int[] sorted() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            return Arrays.copyOf(heap, size);
+        }
+
+        private int compare(int left, int right) {
+            int result = sort.byPrice() ? Double.compare(prices[left], prices[right])
+                    : Integer.compare(stocks[left], stocks[right]);
+            if (result == 0) {
+                result = Integer.compare(left, right);
+            }
+            return sort.descending() ? -result : result;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (compare(heap[index], heap[parent]) <= 0) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int end) {
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < end && compare(heap[left], heap[largest]) > 0) {
+                    largest = left;
+                }
+                if (right < end && compare(heap[right], heap[largest]) > 0) {
+                    largest = right;
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int doc = heap[i];
+            heap[i] = heap[j];
+            heap[j] = doc;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.product_service.search;
+
+import com.example.product_service.enums.Category;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Filters of a product search. Null bounds and an empty category set mean "no filter".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchQuery {
+
+    public static final int MAX_LIMIT = 100;
+
+    public static final int MAX_OFFSET = 10_000;
+
+    private Set<Category> categories;
+
+    private Double minPrice;
+
+    private Double maxPrice;
+
+    private Integer minStock;
+
+    private Integer maxStock;
+
+    @Builder.Default
+    private ProductSearchSort sort = ProductSearchSort.PRICE_ASC;
+
+    private int offset;
+
+    @Builder.Default
+    private int limit = 20;
+}
@@ -0,0 +1,110 @@
+package com.example.product_service.search;
+
+import com.example.product_service.dto.productDto.ProductSearchResponseDto;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Owns the in-memory search index: rebuilt from the database once the application is ready,
+ * then kept up to date by the product writes once their transaction has committed.
+ */
+@Service
+@Slf4j
+public class ProductSearchService {
+
+    private final ProductRepository productRepository;
+
+    private final EntityManager entityManager;
+
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+
+    // Écritures reçues pendant une reconstruction, rejouées sur le nouvel index avant de le publier.
+    private List<Consumer<ProductSearchIndex>> pendingWrites;
+
+    public ProductSearchService(ProductRepository productRepository, EntityManager entityManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("ProductSearchService::rebuild started");
+
+        synchronized (this) {
+            pendingWrites = new ArrayList<>();
+        }
+        ProductSearchIndex.Builder builder = ProductSearchIndex.builder();
+        try (Stream<Product> productStream = productRepository.streamAllByOrderByIdAsc()) {
+            productStream.forEach(product -> {
+                builder.add(ProductDocument.from(product));
+                entityManager.detach(product);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingWrites = null;
+            }
+            log.error("ProductSearchService::rebuild - index not rebuilt, keeping the current one", e);
+            return;
+        }
+        ProductSearchIndex rebuilt = builder.build();
+        synchronized (this) {
+            pendingWrites.forEach(write -> write.accept(rebuilt));
+            pendingWrites = null;
+            index = rebuilt;
+        }
+
+        log.info("ProductSearchService::rebuild finished - {} products indexed", rebuilt.size());
+    }
+
+    public ProductSearchResponseDto search(ProductSearchQuery query) {
+        return index.search(query);
+    }
+
+    public void index(Product product) {
+        ProductDocument document = ProductDocument.from(product);
+        afterCommit(searchIndex -> searchIndex.upsert(document));
+    }
+
+    public void updateStock(String productId, int stockQuantity) {
+        afterCommit(searchIndex -> searchIndex.updateStock(productId, stockQuantity));
+    }
+
+    public void remove(String productId) {
+        afterCommit(searchIndex -> searchIndex.remove(productId));
+    }
+
+    // Une transaction annulée ne doit pas laisser de trace dans l'index.
+    private void afterCommit(Consumer<ProductSearchIndex> write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(write);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(write);
+            }
+        });
+    }
+
+    private synchronized void apply(Consumer<ProductSearchIndex> write) {
+        if (pendingWrites != null) {
+            pendingWrites.add(write);
+        }
+        write.accept(index);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.product_service.search;
+
+public enum ProductSearchSort {
+    PRICE_ASC,
+    PRICE_DESC,
+    STOCK_ASC,
+    STOCK_DESC;
+
+    boolean byPrice() {
+        return this == PRICE_ASC || this == PRICE_DESC;
+    }
+
+    boolean descending() {
+        return this == PRICE_DESC || this == STOCK_DESC;
+    }
+}
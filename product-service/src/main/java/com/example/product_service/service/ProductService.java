@@ -1,7 +1,11 @@
 package com.example.product_service.service;
 
+import com.example.product_service.cache.CacheTagEvict;
+import com.example.product_service.cache.TwoLevelCache;
+import com.example.product_service.dto.CursorPageDto;
 import com.example.product_service.dto.inventoryDto.InventoryRequestDto;
 import com.example.product_service.dto.inventoryDto.InventoryResponseDto;
+import com.example.product_service.dto.inventoryDto.InventoryStockChangedMessage;
 import com.example.product_service.dto.inventoryDto.InventoryUpdateRequestDto;
 import com.example.product_service.dto.productDto.ProductRequestDto;
 import com.example.product_service.dto.productDto.ProductResponseDto;
@@ -14,14 +18,17 @@ import com.example.product_service.mapper.ProductMapper;
 import com.example.product_service.model.Inventory;
 import com.example.product_service.model.Product;
 import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.search.ProductSearchService;
 import com.example.product_service.util.ProductMessage;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,27 +36,44 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.naming.ServiceUnavailableException;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductService {
 
+    public static final int MAX_IDS = 1000;
+
     private final ProductRepository productRepository;
 
+    private final CacheManager cacheManager;
+
     private final InventoryClientService inventoryClientService;
 
     private final ProductMapper productMapper;
 
+    private final EntityManager entityManager;
+
+    private final ProductSearchService productSearchService;
+
     // create
     @Transactional
     @CircuitBreaker(name = "inventoryServiceBreaker", fallbackMethod = "inventoryServiceFallback")
     @Retry(name = "inventoryServiceBreaker", fallbackMethod = "inventoryServiceFallback")
     @RateLimiter(name = "createProductLimiter", fallbackMethod = "inventoryServiceFallback")
+    @CacheTagEvict(cacheNames = {"products", "productsByPriceRange", "productsByPrice", "productsByQuantity", "productsByCategory"},
+            tags = {"'all'", "'price'", "'category:' + #productRequestDto.category", "'quantity-range'",
+                    "'quantity:' + #productRequestDto.inventoryRequestDto?.stockQuantity"})
     public ProductResponseDto createProduct(ProductRequestDto productRequestDto) {
         log.info("Début de la création du produit");
 
@@ -101,13 +125,14 @@ public class ProductService {
         product.setInventory(inventory);
         product.setInventoryId(inventoryResponse.getId());
         productRepository.save(product);
+        productSearchService.index(product);
     }
 
 
 
 
     // read
-    @Cacheable(value = "products", key = "'all'")
+    @Cacheable(value = "products", key = "'all'", sync = true)
     public List<ProductResponseDto> getProductsAll() throws ServiceUnavailableException {
         log.info("ProductService::getProductsAll started");
 
@@ -119,8 +144,55 @@ public class ProductService {
         return productMapper.mapToProductResponseDtoList(productList);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProductResponseDto> getProductsPage(String after, int limit) {
+        log.info("ProductService::getProductsPage started");
+
+        int pageSize = CursorPageDto.pageSize(limit);
+        List<Product> productList = productRepository.findByIdGreaterThanOrderByIdAsc(after == null ? "" : after, Limit.of(pageSize + 1));
+
+        log.info("ProductService::getProductsPage finished");
+        return CursorPageDto.of(productList, pageSize, productMapper::mapToProductResponseDto, Product::getId);
+    }
+
+    // Chaque ligne est détachée après écriture : la mémoire utilisée ne dépend pas de la taille de la table.
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductResponseDto> consumer) {
+        log.info("ProductService::streamAllProducts started");
+
+        try (Stream<Product> productStream = productRepository.streamAllByOrderByIdAsc()) {
+            productStream.forEach(product -> {
+                consumer.accept(productMapper.mapToProductResponseDto(product));
+                entityManager.detach(product);
+            });
+        }
+
+        log.info("ProductService::streamAllProducts finished");
+    }
+
+    // Lecture groupée : mémoire puis un seul MGET Redis, et une seule requête findAllById pour les absents.
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> getProductsByIds(List<String> ids) {
+        log.info("ProductService::getProductsByIds started");
+
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be requested at once");
+        }
+        Map<String, ProductResponseDto> products = cacheManager.getCache("products") instanceof TwoLevelCache cache
+                ? cache.getAll(ids, this::loadProducts)
+                : loadProducts(new LinkedHashSet<>(ids));
+        List<ProductResponseDto> result = ids.stream()
+                .distinct()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        log.info("ProductService::getProductsByIds finished - {} of {} found", result.size(), ids.size());
+        return result;
+    }
+
     // getProductById
-    @Cacheable(value = "products", key = "#productId")
+    @Cacheable(value = "products", key = "#productId", sync = true)
     public ProductResponseDto getProductById(String productId) {
         log.info("ProductService::getProductById started");
 
@@ -131,7 +203,7 @@ public class ProductService {
     }
 
     // getInventoryById
-    @Cacheable(value = "products", key = "#inventoryId")
+    @Cacheable(value = "products", key = "#inventoryId", sync = true)
     public ProductResponseDto getInventoryById(String inventoryId) {
         log.info("ProductService::getInventoryById started");
         Product product = productRepository.findByInventoryId(inventoryId).orElseThrow(()
@@ -145,7 +217,9 @@ public class ProductService {
     @CircuitBreaker(name = "inventoryServiceBreaker", fallbackMethod = "inventoryServiceFallback")
     @Retry(name = "inventoryServiceBreaker", fallbackMethod = "inventoryServiceFallback")
     @RateLimiter(name = "createProductLimiter", fallbackMethod = "inventoryServiceFallback")
-    @CacheEvict(value = "products", key = "#productUpdateRequestDto.id",allEntries = true)
+    @CacheTagEvict(cacheNames = {"products", "productsByPriceRange", "productsByPrice", "productsByQuantity", "productsByCategory"},
+            tags = {"'product:' + #productUpdateRequestDto.id", "'price'", "'category:' + #productUpdateRequestDto.category",
+                    "'quantity-range'", "'quantity:' + #productUpdateRequestDto.inventoryUpdateRequestDto?.newQuantity"})
     public ProductResponseDto updateProductById(ProductUpdateRequestDto productUpdateRequestDto) {
         log.info("ProductService::updateProductById started");
 
@@ -155,6 +229,7 @@ public class ProductService {
 
         Product updatedProduct = getUpdatedProduct(productUpdateRequestDto, product);
         log.info("ProductService::updateProductById - updatedProduct {}", updatedProduct);
+        productSearchService.index(updatedProduct);
 
         inventoryClientService.getInventoryById(productUpdateRequestDto.getInventoryUpdateRequestDto().getInventoryId());
 
@@ -176,7 +251,8 @@ public class ProductService {
 
 
     // delete
-    @CacheEvict(value = "products", key = "#productId",allEntries = true)
+    @CacheTagEvict(cacheNames = {"products", "productsByPriceRange", "productsByPrice", "productsByQuantity", "productsByCategory"},
+            tags = "'product:' + #productId")
     public String deleteProductById(String productId) {
         log.info("ProductService::deleteProductById started");
 
@@ -185,6 +261,7 @@ public class ProductService {
         getInventoryById(product.getInventoryId());
 
         productRepository.deleteById(product.getId());
+        productSearchService.remove(product.getId());
 
         // ürün silindiği zaman stok takibide silinmelidir.
         inventoryClientService.deleteInventory(product.getId());
@@ -195,7 +272,7 @@ public class ProductService {
 
 
     // Get product names by price range using stream api
-    @Cacheable(value = "productsByPriceRange", key = "'range:' + #minPrice + '-' + #maxPrice")
+    @Cacheable(value = "productsByPriceRange", key = "'range:' + #minPrice + '-' + #maxPrice", sync = true)
     public List<ProductResponseDto> getProductByPriceRange(double minPrice, double maxPrice) {
         log.info("ProductService::getProductNamesByPriceRange started");
         Sort sort = Sort.by("price").ascending() ;
@@ -208,7 +285,7 @@ public class ProductService {
     }
 
 
-    @Cacheable(value = "productsByPrice", key = "'greaterOrEqual:' + #price")
+    @Cacheable(value = "productsByPrice", key = "'greaterOrEqual:' + #price", sync = true)
     public List<ProductResponseDto> getProductByPriceGreaterThanEqual(double price) {
         log.info("ProductService::getProductNamesByPriceGreaterThanEqual started");
         Sort sort = Sort.by("price").ascending() ;
@@ -221,7 +298,7 @@ public class ProductService {
     }
 
 
-    @Cacheable(value = "productsByPrice", key = "'lessOrEqual:' + #price")
+    @Cacheable(value = "productsByPrice", key = "'lessOrEqual:' + #price", sync = true)
     public List<ProductResponseDto> getProductByPriceLessThanEqual(double price) {
         log.info("ProductService::getProductNamesByPriceLessThanEqual started");
         Sort sort = Sort.by("price").ascending() ;
@@ -232,18 +309,55 @@ public class ProductService {
 
     }
 
-    @Cacheable(value = "productsByQuantity", key = "#quantity")
+    @Cacheable(value = "productsByQuantity", key = "#quantity", sync = true)
     public List<ProductResponseDto> getProductByQuantity(int quantity) {
         log.info("ProductService::getProductByQuantity started");
-        List<Product> productList = productRepository.findAll();
+        List<Product> productList = productRepository.findByStockQuantity(quantity);
         log.info("ProductService::getProductByQuantity finish");
-        return productList.stream()
-                .filter(product -> product.getInventory().getStockQuantity() == quantity)
-                .map(productMapper::mapToProductResponseDto)
-                .collect(Collectors.toList());
+        return productMapper.mapToProductResponseDtoList(productList);
     }
 
-    @Cacheable(value = "productsByCategory", key = "#category")
+    @Cacheable(value = "productsByQuantity", key = "'lessOrEqual:' + #quantity", sync = true)
+    public List<ProductResponseDto> getProductByQuantityLessThanEqual(int quantity) {
+        log.info("ProductService::getProductByQuantityLessThanEqual started");
+        Sort sort = Sort.by("stockQuantity").ascending();
+        List<Product> productList = productRepository.findByStockQuantityLessThanEqual(quantity, sort);
+        log.info("ProductService::getProductByQuantityLessThanEqual finish");
+        return productMapper.mapToProductResponseDtoList(productList);
+    }
+
+    @Cacheable(value = "productsByQuantity", key = "'range:' + #minQuantity + '-' + #maxQuantity", sync = true)
+    public List<ProductResponseDto> getProductByQuantityRange(int minQuantity, int maxQuantity) {
+        log.info("ProductService::getProductByQuantityRange started");
+        Sort sort = Sort.by("stockQuantity").ascending();
+        List<Product> productList = productRepository.findByStockQuantityBetween(minQuantity, maxQuantity, sort);
+        log.info("ProductService::getProductByQuantityRange finish");
+        return productMapper.mapToProductResponseDtoList(productList);
+    }
+
+    // Le tag product:{id} retire aussi la liste de l'ancienne quantité, qui contient ce produit.
+    @Transactional
+    @CacheTagEvict(cacheNames = {"products", "productsByQuantity"},
+            tags = {"'product:' + #message.productId", "'quantity:' + #message.stockQuantity", "'quantity-range'"})
+    public void syncStockQuantity(InventoryStockChangedMessage message) {
+        log.info("ProductService::syncStockQuantity started");
+
+        if (message.getProductId() == null) {
+            log.warn("ProductService::syncStockQuantity - message without product id ignored : {}", message);
+            return;
+        }
+        int updated = productRepository.updateStockQuantity(message.getProductId(), message.getStockQuantity(),
+                message.getVersion());
+        if (updated == 0) {
+            log.info("ProductService::syncStockQuantity - unknown product or stale message ignored : {}", message);
+        } else {
+            productSearchService.updateStock(message.getProductId(), message.getStockQuantity());
+        }
+
+        log.info("ProductService::syncStockQuantity finished");
+    }
+
+    @Cacheable(value = "productsByCategory", key = "#category", sync = true)
     public List<ProductResponseDto> getProductByCategory(String category) {
         log.info("ProductService::getProductByCategory started");
 
@@ -288,4 +402,10 @@ public class ProductService {
                 .build();
     }
 
+    private Map<String, ProductResponseDto> loadProducts(Set<String> ids) {
+        Map<String, ProductResponseDto> products = new HashMap<>();
+        productRepository.findAllById(ids)
+                .forEach(product -> products.put(product.getId(), productMapper.mapToProductResponseDto(product)));
+        return products;
+    }
 }
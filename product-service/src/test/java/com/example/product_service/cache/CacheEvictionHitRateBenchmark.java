@@ -0,0 +1,113 @@
+package com.example.product_service.cache;
+
+import com.example.product_service.config.CacheTagConfig;
+import com.example.product_service.dto.productDto.ProductResponseDto;
+import com.example.product_service.enums.Category;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Hit rate of the product caches under a 90/10 read/write mix, with region-wide eviction
+ * (the former allEntries = true) and with tag-based eviction.
+ * Run with {@code mvn test -Dtest=CacheEvictionHitRateBenchmark}.
+ */
+class CacheEvictionHitRateBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int OPERATIONS = 200_000;
+    private static final int WRITE_PERCENT = 10;
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Test
+    void tagEvictionKeepsTheHitRateUnderWrites() {
+        double allEntries = run(false);
+        double tagged = run(true);
+
+        System.out.printf("allEntries eviction: hit rate=%.1f%%%n", allEntries * 100);
+        System.out.printf("tag eviction:        hit rate=%.1f%%%n", tagged * 100);
+
+        assertTrue(tagged > allEntries + 0.3, "tag eviction should keep most entries cached");
+    }
+
+    private double run(boolean tagEviction) {
+        CacheTagResolvers resolvers = new CacheTagConfig().cacheTagResolvers();
+        CacheTagIndex tagIndex = new InMemoryCacheTagIndex();
+        TwoLevelCache products = cache("products", tagIndex, resolvers);
+        TwoLevelCache productsByCategory = cache("productsByCategory", tagIndex, resolvers);
+
+        Random random = new Random(42);
+        AtomicLong loads = new AtomicLong();
+        long reads = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            int productIndex = random.nextInt(PRODUCTS);
+            if (random.nextInt(100) < WRITE_PERCENT) {
+                if (tagEviction) {
+                    List<String> tags = List.of("product:p" + productIndex, "price",
+                            "category:" + categoryOf(productIndex));
+                    products.evictTags(tags);
+                    productsByCategory.evictTags(tags);
+                } else {
+                    products.clear();
+                    productsByCategory.clear();
+                }
+                continue;
+            }
+
+            reads++;
+            int kind = random.nextInt(100);
+            if (kind < 80) {
+                products.get("p" + productIndex, () -> {
+                    loads.incrementAndGet();
+                    return product(productIndex);
+                });
+            } else if (kind < 95) {
+                Category category = categoryOf(productIndex);
+                productsByCategory.get(category.name().toLowerCase(), () -> {
+                    loads.incrementAndGet();
+                    return productsIn(category);
+                });
+            } else {
+                products.get("all", () -> {
+                    loads.incrementAndGet();
+                    return productsIn(null);
+                });
+            }
+        }
+        return 1.0 - (double) loads.get() / reads;
+    }
+
+    private static TwoLevelCache cache(String name, CacheTagIndex tagIndex, CacheTagResolvers resolvers) {
+        return new TwoLevelCache(name, Caffeine.newBuilder().maximumSize(10_000).build(),
+                new ConcurrentMapCache(name), mock(CacheInvalidationPublisher.class),
+                tagIndex, resolvers.resolverFor(name), new TwoLevelCacheProperties(), new SimpleMeterRegistry());
+    }
+
+    private static Category categoryOf(int productIndex) {
+        return CATEGORIES[productIndex % CATEGORIES.length];
+    }
+
+    private static ProductResponseDto product(int productIndex) {
+        return ProductResponseDto.builder()
+                .id("p" + productIndex)
+                .category(categoryOf(productIndex))
+                .price(productIndex)
+                .build();
+    }
+
+    private static List<ProductResponseDto> productsIn(Category category) {
+        return IntStream.range(0, PRODUCTS)
+                .filter(index -> category == null || categoryOf(index) == category)
+                .mapToObj(CacheEvictionHitRateBenchmark::product)
+                .toList();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.product_service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class InMemoryCacheTagIndex implements CacheTagIndex {
+
+    private final Map<String, Set<Object>> index = new ConcurrentHashMap<>();
+
+    @Override
+    public void tag(String cacheName, Object key, Collection<String> tags, Duration ttl) {
+        tags.forEach(tag -> index.computeIfAbsent(cacheName + ":" + tag, t -> ConcurrentHashMap.newKeySet()).add(key));
+    }
+
+    @Override
+    public Set<Object> removeTags(String cacheName, Collection<String> tags) {
+        Set<Object> keys = new HashSet<>();
+        for (String tag : tags) {
+            Set<Object> tagged = index.remove(cacheName + ":" + tag);
+            if (tagged != null) {
+                keys.addAll(tagged);
+            }
+        }
+        return keys;
+    }
+
+    Set<Object> keysFor(String cacheName, String tag) {
+        return index.getOrDefault(cacheName + ":" + tag, Set.of());
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.product_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TwoLevelCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheInvalidationPublisher publisher = mock(CacheInvalidationPublisher.class);
+    private final ConcurrentMapCache remoteCache = new ConcurrentMapCache("products");
+    private final InMemoryCacheTagIndex tagIndex = new InMemoryCacheTagIndex();
+
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CacheTagResolver tagResolver = (key, value) -> value instanceof List<?> ? List.of("all") : List.of("product:" + key);
+        cache = new TwoLevelCache("products", Caffeine.newBuilder().maximumSize(100).build(),
+                remoteCache, publisher, tagIndex, tagResolver, new TwoLevelCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void missLoadsOnceThenServesFromMemory() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("value", cache.get("key", () -> {
+            loads.incrementAndGet();
+            return "value";
+        }));
+        assertEquals("value", cache.get("key", () -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals("value", remoteCache.get("key").get());
+        assertEquals(1.0, requests("l1", "hit"));
+        assertEquals(1.0, requests("l2", "miss"));
+        assertEquals(1, meterRegistry.get("cache.two-level.load").timer().count());
+        verify(publisher, never()).publish(anyString(), any());
+    }
+
+    @Test
+    void localInvalidationFallsBackToRedisAndRefillsMemory() {
+        cache.put("key", "value");
+        cache.invalidateLocal("key");
+
+        assertEquals("value", cache.get("key").get());
+        assertEquals("value", cache.get("key").get());
+
+        assertEquals(1.0, requests("l2", "hit"));
+        assertEquals(1.0, requests("l1", "hit"));
+    }
+
+    @Test
+    void getAllReadsBothTiersAndLoadsTheRestInOneCall() {
+        cache.put("memory", "m");
+        cache.put("redis", "r");
+        cache.invalidateLocal("redis");
+        List<Set<String>> loads = new ArrayList<>();
+
+        Map<String, String> values = cache.getAll(List.of("memory", "redis", "db", "unknown", "db"), keys -> {
+            loads.add(keys);
+            return Map.of("db", "d");
+        });
+
+        assertEquals(Map.of("memory", "m", "redis", "r", "db", "d"), values);
+        assertEquals(List.of(Set.of("db", "unknown")), loads);
+        assertEquals("d", remoteCache.get("db").get());
+        assertEquals("r", cache.get("redis").get());
+        assertEquals(2.0, requests("l1", "hit"));
+        assertEquals(1.0, requests("l2", "hit"));
+        assertEquals(2.0, requests("l2", "miss"));
+    }
+
+    @Test
+    void evictClearsBothTiersAndNotifiesOtherReplicas() {
+        cache.put("key", "value");
+
+        cache.evict("key");
+
+        assertNull(cache.get("key"));
+        assertNull(remoteCache.get("key"));
+        verify(publisher).publish("products", "key");
+    }
+
+    @Test
+    void nullValuesAreCachedInBothTiers() {
+        cache.put("missing", null);
+        cache.invalidateLocal("missing");
+
+        assertNull(cache.get("missing").get());
+        assertNull(cache.get("missing").get());
+        assertEquals(1.0, requests("l1", "hit"));
+    }
+
+    @Test
+    void evictTagsOnlyRemovesTheTaggedEntries() {
+        cache.put("p1", "product 1");
+        cache.put("p2", "product 2");
+        cache.put("all", List.of("product 1", "product 2"));
+
+        assertEquals(Set.of("p1"), tagIndex.keysFor("products", "product:p1"));
+        assertEquals(2, cache.evictTags(List.of("product:p1", "all")));
+
+        assertNull(cache.get("p1"));
+        assertNull(cache.get("all"));
+        assertNotNull(cache.get("p2"));
+        assertNull(remoteCache.get("p1"));
+        verify(publisher).publish("products", "p1");
+        verify(publisher).publish("products", "all");
+        assertEquals(Set.of(), tagIndex.keysFor("products", "product:p1"));
+    }
+
+    @Test
+    void concurrentMissesShareASingleLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("hot", () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(200);
+                        return "value";
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Object> result : results) {
+                assertEquals("value", result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(15.0, meterRegistry.get("cache.two-level.coalesced").counter().count());
+    }
+
+    @Test
+    void loaderFailureIsNotCached() {
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("key", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals("value", cache.get("key", () -> "value"));
+    }
+
+    @Test
+    void valuesCloseToExpiryAreRefreshedEarly() {
+        TwoLevelCacheProperties properties = new TwoLevelCacheProperties();
+        properties.setL2Ttl(Duration.ofMillis(1));
+        properties.setEarlyRefreshBeta(1_000_000);
+        TwoLevelCache refreshingCache = new TwoLevelCache("products", Caffeine.newBuilder().maximumSize(100).build(),
+                new ConcurrentMapCache("products"), publisher, tagIndex, CacheTagResolver.NONE, properties, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        refreshingCache.get("key", loads::incrementAndGet);
+        Object refreshed = refreshingCache.get("key", loads::incrementAndGet);
+
+        assertEquals(2, refreshed);
+        assertEquals(1.0, meterRegistry.get("cache.two-level.early-refresh").counter().count());
+
+        properties.setEarlyRefreshBeta(0);
+        TwoLevelCache stableCache = new TwoLevelCache("orders", Caffeine.newBuilder().maximumSize(100).build(),
+                new ConcurrentMapCache("orders"), publisher, tagIndex, CacheTagResolver.NONE, properties, meterRegistry);
+        AtomicInteger stableLoads = new AtomicInteger();
+        stableCache.get("key", stableLoads::incrementAndGet);
+        stableCache.get("key", stableLoads::incrementAndGet);
+        assertEquals(1, stableLoads.get());
+    }
+
+    private double requests(String tier, String result) {
+        return meterRegistry.get("cache.two-level.requests")
+                .tags("cache", "products", "tier", tier, "result", result)
+                .counter().count();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.model.Product;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * JPA-only context for repository tests: the application class would also bring up
+ * Feign clients and the sample data runner.
+ */
+@Configuration
+@EntityScan(basePackageClasses = Product.class)
+@EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+class ProductJpaTestConfig {
+}
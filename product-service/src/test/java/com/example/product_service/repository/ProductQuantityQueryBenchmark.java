@@ -0,0 +1,158 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.model.Inventory;
+import com.example.product_service.model.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the former findAll-and-filter path of getProductByQuantity with lookups on the
+ * indexed stock_quantity column. Run with {@code mvn test -Dtest=ProductQuantityQueryBenchmark}
+ * ({@code -Dbenchmark.products=N} to change the table size, 1M by default).
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = ProductJpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductQuantityQueryBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+    private static final int DISTINCT_QUANTITIES = 1_000;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void indexedLookupsOutperformFullScan() {
+        insertProducts();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM products WHERE stock_quantity = 42", String.class);
+        assertTrue(plan.toUpperCase().contains("IDX_PRODUCTS_STOCK_QUANTITY"), plan);
+
+        Sort sort = Sort.by("stockQuantity").ascending();
+        long scanEquals = time(() -> readOnly.execute(status -> fullScan(quantity -> quantity == 42)));
+        long scanLessThan = time(() -> readOnly.execute(status -> fullScan(quantity -> quantity <= 5)));
+        long scanRange = time(() -> readOnly.execute(status -> fullScan(quantity -> quantity >= 100 && quantity <= 110)));
+        long indexEquals = timeRepeated(() -> productRepository.findByStockQuantity(42).size());
+        long indexLessThan = timeRepeated(() -> productRepository.findByStockQuantityLessThanEqual(5, sort).size());
+        long indexRange = timeRepeated(() -> productRepository.findByStockQuantityBetween(100, 110, sort).size());
+
+        System.out.printf("%d products%n", PRODUCTS);
+        System.out.printf("quantity = 42         full scan: %6dms  index: %6.2fms%n", scanEquals, indexEquals / 1e6);
+        System.out.printf("quantity <= 5         full scan: %6dms  index: %6.2fms%n", scanLessThan, indexLessThan / 1e6);
+        System.out.printf("quantity in 100..110  full scan: %6dms  index: %6.2fms%n", scanRange, indexRange / 1e6);
+
+        assertEquals(expectedMatches(quantity -> quantity == 42), productRepository.findByStockQuantity(42).size());
+        assertEquals(expectedMatches(quantity -> quantity <= 5), productRepository.findByStockQuantityLessThanEqual(5, sort).size());
+        assertTrue(indexEquals / 1e6 < scanEquals);
+        assertTrue(indexRange / 1e6 < scanRange);
+    }
+
+    // Ancien chemin : chaque produit est chargé et sa colonne sérialisée "inventory" est lue en Java.
+    private int fullScan(Predicate<Integer> predicate) {
+        int matches = 0;
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                if (predicate.test(product.getInventory().getStockQuantity())) {
+                    matches++;
+                }
+                entityManager.detach(product);
+            }
+        }
+        return matches;
+    }
+
+    private void insertProducts() {
+        List<byte[]> inventories = new ArrayList<>(DISTINCT_QUANTITIES);
+        for (int quantity = 0; quantity < DISTINCT_QUANTITIES; quantity++) {
+            inventories.add(serialize(Inventory.builder().stockQuantity(quantity).build()));
+        }
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < PRODUCTS; i++) {
+            int quantity = i % DISTINCT_QUANTITIES;
+            batch.add(new Object[]{UUID.randomUUID().toString(), "Product " + i, 10.0 + quantity,
+                    inventories.get(quantity), quantity});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, inventory, stock_quantity) VALUES (?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private static int expectedMatches(Predicate<Integer> predicate) {
+        int perQuantity = PRODUCTS / DISTINCT_QUANTITIES;
+        int matches = 0;
+        for (int quantity = 0; quantity < DISTINCT_QUANTITIES; quantity++) {
+            if (predicate.test(quantity)) {
+                matches += perQuantity + (quantity < PRODUCTS % DISTINCT_QUANTITIES ? 1 : 0);
+            }
+        }
+        return matches;
+    }
+
+    private static byte[] serialize(Inventory inventory) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(inventory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long time(Supplier<?> call) {
+        long start = System.nanoTime();
+        call.get();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    // Moyenne en nanosecondes, après un premier appel de chauffe.
+    private static long timeRepeated(Supplier<?> call) {
+        call.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
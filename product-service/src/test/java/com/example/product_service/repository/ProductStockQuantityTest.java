@@ -0,0 +1,76 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.model.Inventory;
+import com.example.product_service.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = ProductJpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockQuantityTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void stockQuantityIsCopiedFromInventoryOnCreate() {
+        Product product = save("created", 12);
+
+        assertEquals(12, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+        assertEquals(List.of(product.getId()), ids(productRepository.findByStockQuantity(12)));
+    }
+
+    @Test
+    void staleStockMessagesAreIgnored() {
+        Product product = save("synced", 10);
+
+        assertEquals(1, productRepository.updateStockQuantity(product.getId(), 8, 2));
+        assertEquals(0, productRepository.updateStockQuantity(product.getId(), 9, 1));
+        assertEquals(0, productRepository.updateStockQuantity(product.getId(), 9, 2));
+        assertEquals(1, productRepository.updateStockQuantity(product.getId(), 5, 3));
+
+        Product result = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(5, result.getStockQuantity());
+        assertEquals(3, result.getStockVersion());
+    }
+
+    @Test
+    void lessThanEqualAndRangeQueriesUseTheStockColumn() {
+        Product empty = save("empty", 0);
+        Product low = save("low", 3);
+        Product medium = save("medium", 20);
+        save("high", 100);
+
+        Sort sort = Sort.by("stockQuantity").ascending();
+        assertEquals(List.of(empty.getId(), low.getId()), ids(productRepository.findByStockQuantityLessThanEqual(3, sort)));
+        assertEquals(List.of(low.getId(), medium.getId()), ids(productRepository.findByStockQuantityBetween(1, 50, sort)));
+    }
+
+    private Product save(String name, int stockQuantity) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(10);
+        product.setInventory(Inventory.builder().stockQuantity(stockQuantity).build());
+        return productRepository.save(product);
+    }
+
+    private static List<String> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
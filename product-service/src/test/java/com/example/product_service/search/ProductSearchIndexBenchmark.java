@@ -0,0 +1,38 @@
+package com.example.product_service.search;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the {@link ProductSearchIndexJmh} suite. Run with {@code mvn test -Dtest=ProductSearchIndexBenchmark}
+ * ({@code -Dbenchmark.products=N} to change the catalog size, 1M by default).
+ */
+class ProductSearchIndexBenchmark {
+
+    @Test
+    void searchIndexSuite() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ProductSearchIndexJmh.class.getName())
+                .param("products", System.getProperty("benchmark.products", "1000000"))
+                .forks(1)
+                .jvmArgsAppend("-Xmx2g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.product_service.search;
+
+import com.example.product_service.dto.productDto.ProductSearchResponseDto;
+import com.example.product_service.enums.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite for {@link ProductSearchIndex}, launched by {@link ProductSearchIndexBenchmark}.
+ * Each query shape is measured against the index and against a filter-and-sort scan of the same documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchIndexJmh {
+
+    @Param("1000000")
+    public int products;
+
+    private List<ProductDocument> documents;
+
+    private ProductSearchIndex index;
+
+    private ProductSearchQuery narrowPrice;
+
+    private ProductSearchQuery categoryByStock;
+
+    private ProductSearchQuery lowStock;
+
+    private int writes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Category[] categories = Category.values();
+        documents = new ArrayList<>(products);
+        ProductSearchIndex.Builder builder = ProductSearchIndex.builder();
+        for (int i = 0; i < products; i++) {
+            ProductDocument document = new ProductDocument("product-" + i, "name-" + i, "inventory-" + i,
+                    categories[random.nextInt(categories.length)], Math.round(random.nextDouble() * 100_000) / 100.0,
+                    random.nextInt(10) == 0 ? 0 : random.nextInt(5_000));
+            documents.add(document);
+            builder.add(document);
+        }
+        index = builder.build();
+
+        narrowPrice = ProductSearchQuery.builder().minPrice(100.0).maxPrice(105.0).minStock(1).build();
+        categoryByStock = ProductSearchQuery.builder().categories(EnumSet.of(categories[0]))
+                .sort(ProductSearchSort.STOCK_DESC).offset(100).limit(50).build();
+        lowStock = ProductSearchQuery.builder().maxStock(0).sort(ProductSearchSort.PRICE_DESC).build();
+    }
+
+    @Benchmark
+    public ProductSearchResponseDto indexNarrowPrice() {
+        return index.search(narrowPrice);
+    }
+
+    @Benchmark
+    public List<ProductDocument> scanNarrowPrice() {
+        return scan(narrowPrice);
+    }
+
+    @Benchmark
+    public ProductSearchResponseDto indexCategoryByStock() {
+        return index.search(categoryByStock);
+    }
+
+    @Benchmark
+    public List<ProductDocument> scanCategoryByStock() {
+        return scan(categoryByStock);
+    }
+
+    @Benchmark
+    public ProductSearchResponseDto indexLowStock() {
+        return index.search(lowStock);
+    }
+
+    @Benchmark
+    public List<ProductDocument> scanLowStock() {
+        return scan(lowStock);
+    }
+
+    @Benchmark
+    public int indexStockUpdate() {
+        int i = writes++ % products;
+        index.updateStock(documents.get(i).getId(), i % 5_000);
+        return i;
+    }
+
+    @Benchmark
+    public int indexPriceUpdate() {
+        int i = writes++ % products;
+        ProductDocument document = documents.get(i);
+        index.upsert(new ProductDocument(document.getId(), document.getName(), document.getInventoryId(),
+                document.getCategory(), (i % 100_000) / 100.0, document.getStockQuantity()));
+        return i;
+    }
+
+    private List<ProductDocument> scan(ProductSearchQuery query) {
+        Comparator<ProductDocument> comparator = query.getSort().byPrice()
+                ? Comparator.comparingDouble(ProductDocument::getPrice)
+                : Comparator.comparingInt(ProductDocument::getStockQuantity);
+        if (query.getSort().descending()) {
+            comparator = comparator.reversed();
+        }
+        return documents.stream()
+                .filter(document -> query.getCategories() == null || query.getCategories().contains(document.getCategory()))
+                .filter(document -> query.getMinPrice() == null || document.getPrice() >= query.getMinPrice())
+                .filter(document -> query.getMaxPrice() == null || document.getPrice() <= query.getMaxPrice())
+                .filter(document -> query.getMinStock() == null || document.getStockQuantity() >= query.getMinStock())
+                .filter(document -> query.getMaxStock() == null || document.getStockQuantity() <= query.getMaxStock())
+                .sorted(comparator)
+                .skip(query.getOffset())
+                .limit(query.getLimit())
+                .toList();
+    }
+}
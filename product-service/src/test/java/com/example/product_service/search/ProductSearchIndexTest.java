@@ -0,0 +1,171 @@
+package com.example.product_service.search;
+
+import com.example.product_service.dto.productDto.ProductSearchHitDto;
+import com.example.product_service.dto.productDto.ProductSearchResponseDto;
+import com.example.product_service.enums.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final Random random = new Random(42);
+
+    private final Map<String, ProductDocument> documents = new LinkedHashMap<>();
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductSearchIndex.Builder builder = ProductSearchIndex.builder();
+        for (int i = 0; i < 2_000; i++) {
+            ProductDocument document = randomDocument("product-" + i);
+            documents.put(document.getId(), document);
+            builder.add(document);
+        }
+        index = builder.build();
+    }
+
+    @Test
+    void randomQueriesMatchAFullScan() {
+        for (int i = 0; i < 500; i++) {
+            assertMatchesFullScan(randomQuery());
+        }
+    }
+
+    @Test
+    void writesAreVisibleToTheNextSearch() {
+        for (int i = 0; i < 1_000; i++) {
+            String id = "product-" + random.nextInt(2_500);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    ProductDocument document = randomDocument(id);
+                    documents.put(id, document);
+                    index.upsert(document);
+                }
+                case 1 -> {
+                    documents.remove(id);
+                    index.remove(id);
+                }
+                default -> {
+                    int stock = random.nextInt(20_000) - 10;
+                    ProductDocument document = documents.get(id);
+                    if (document != null) {
+                        documents.put(id, new ProductDocument(id, document.getName(), document.getInventoryId(),
+                                document.getCategory(), document.getPrice(), stock));
+                    }
+                    index.updateStock(id, stock);
+                }
+            }
+            assertMatchesFullScan(randomQuery());
+        }
+        assertEquals(documents.size(), index.size());
+    }
+
+    @Test
+    void pageWindowIsClamped() {
+        ProductSearchResponseDto response = index.search(ProductSearchQuery.builder().limit(1_000).offset(-5).build());
+
+        assertEquals(ProductSearchQuery.MAX_LIMIT, response.getItems().size());
+        assertEquals(0, response.getOffset());
+        assertEquals(documents.size(), response.getTotal());
+    }
+
+    @Test
+    void invertedRangesReturnNothing() {
+        ProductSearchResponseDto response = index.search(ProductSearchQuery.builder().minPrice(50.0).maxPrice(10.0).build());
+
+        assertTrue(response.getItems().isEmpty());
+        assertEquals(0, response.getTotal());
+    }
+
+    private void assertMatchesFullScan(ProductSearchQuery query) {
+        List<ProductDocument> expected = fullScan(query);
+        ProductSearchResponseDto response = index.search(query);
+
+        assertEquals(expected.size(), response.getTotal(), () -> "total for " + query);
+        List<ProductDocument> page = expected.subList(Math.min(query.getOffset(), expected.size()),
+                Math.min(query.getOffset() + query.getLimit(), expected.size()));
+        assertEquals(page.size(), response.getItems().size(), () -> "page size for " + query);
+        for (int i = 0; i < page.size(); i++) {
+            ProductSearchHitDto hit = response.getItems().get(i);
+            ProductDocument document = documents.get(hit.getId());
+            assertEquals(sortKey(page.get(i), query.getSort()), sortKey(document, query.getSort()), () -> "order for " + query);
+            assertTrue(matches(document, query), () -> hit + " does not match " + query);
+        }
+    }
+
+    // Les ex aequo peuvent sortir dans n'importe quel ordre : on compare les clés de tri, pas les identifiants.
+    private List<ProductDocument> fullScan(ProductSearchQuery query) {
+        Comparator<ProductDocument> comparator = Comparator.comparingDouble(document -> sortKey(document, query.getSort()));
+        if (query.getSort().descending()) {
+            comparator = comparator.reversed();
+        }
+        List<ProductDocument> result = new ArrayList<>();
+        for (ProductDocument document : documents.values()) {
+            if (matches(document, query)) {
+                result.add(document);
+            }
+        }
+        result.sort(comparator);
+        return result;
+    }
+
+    private static boolean matches(ProductDocument document, ProductSearchQuery query) {
+        return (query.getCategories() == null || query.getCategories().contains(document.getCategory()))
+                && (query.getMinPrice() == null || document.getPrice() >= query.getMinPrice())
+                && (query.getMaxPrice() == null || document.getPrice() <= query.getMaxPrice())
+                && (query.getMinStock() == null || document.getStockQuantity() >= query.getMinStock())
+                && (query.getMaxStock() == null || document.getStockQuantity() <= query.getMaxStock());
+    }
+
+    private static double sortKey(ProductDocument document, ProductSearchSort sort) {
+        return sort.byPrice() ? document.getPrice() : document.getStockQuantity();
+    }
+
+    private ProductDocument randomDocument(String id) {
+        Category category = random.nextInt(10) == 0 ? null : CATEGORIES[random.nextInt(CATEGORIES.length)];
+        double price = Math.round(random.nextDouble() * 50_000) / 100.0;
+        int stock = random.nextInt(10) == 0 ? 0 : (int) Math.pow(10, random.nextDouble() * 4.5);
+        return new ProductDocument(id, "name-" + id, "inventory-" + id, category, price, stock);
+    }
+
+    private ProductSearchQuery randomQuery() {
+        ProductSearchQuery.ProductSearchQueryBuilder builder = ProductSearchQuery.builder()
+                .sort(ProductSearchSort.values()[random.nextInt(ProductSearchSort.values().length)])
+                .offset(random.nextInt(4) == 0 ? random.nextInt(300) : 0)
+                .limit(1 + random.nextInt(ProductSearchQuery.MAX_LIMIT));
+        if (random.nextBoolean()) {
+            Set<Category> categories = EnumSet.noneOf(Category.class);
+            for (int i = 0, n = 1 + random.nextInt(3); i < n; i++) {
+                categories.add(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            }
+            builder.categories(categories);
+        }
+        if (random.nextBoolean()) {
+            double min = random.nextDouble() * 500;
+            builder.minPrice(min).maxPrice(min + random.nextDouble() * (random.nextBoolean() ? 10 : 300));
+        }
+        if (random.nextBoolean()) {
+            int min = random.nextInt(200);
+            builder.minStock(min);
+            if (random.nextBoolean()) {
+                builder.maxStock(min + random.nextInt(5_000));
+            }
+        }
+        return builder.build();
+    }
+}